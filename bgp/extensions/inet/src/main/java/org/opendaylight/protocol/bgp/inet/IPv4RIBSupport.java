@@ -15,6 +15,9 @@ import java.util.Collections;
 import java.util.List;
 import org.opendaylight.mdsal.binding.dom.codec.api.BindingNormalizedNodeSerializer;
 import org.opendaylight.protocol.bgp.parser.spi.PathIdUtil;
+import org.opendaylight.protocol.bgp.rib.spi.entry.Ipv4RouteEntryIndex;
+import org.opendaylight.protocol.bgp.rib.spi.entry.RouteEntryIndex;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpPrefix;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.bgp.rib.rib.loc.rib.tables.routes.Ipv4RoutesCase;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.prefixes.DestinationIpv4;
@@ -121,6 +124,17 @@ final class IPv4RIBSupport extends AbstractIPRibSupport<Ipv4RoutesCase, Ipv4Rout
         return routeListKey.getRouteKey();
     }
 
+    @Override
+    public <V> RouteEntryIndex<V> createRouteEntryIndex() {
+        return new Ipv4RouteEntryIndex<>();
+    }
+
+    @Override
+    public IpPrefix extractRoutePrefix(final Ipv4Route route) {
+        final Ipv4Prefix prefix = route.getPrefix();
+        return prefix == null ? null : new IpPrefix(prefix);
+    }
+
     @Override
     public List<Ipv4Route> extractAdjRibInRoutes(final Routes routes) {
         verify(routes instanceof org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329
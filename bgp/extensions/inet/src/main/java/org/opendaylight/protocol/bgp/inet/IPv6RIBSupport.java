@@ -15,6 +15,9 @@ import java.util.Collections;
 import java.util.List;
 import org.opendaylight.mdsal.binding.dom.codec.api.BindingNormalizedNodeSerializer;
 import org.opendaylight.protocol.bgp.parser.spi.PathIdUtil;
+import org.opendaylight.protocol.bgp.rib.spi.entry.Ipv6RouteEntryIndex;
+import org.opendaylight.protocol.bgp.rib.spi.entry.RouteEntryIndex;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpPrefix;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv6Prefix;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.bgp.rib.rib.loc.rib.tables.routes.Ipv6RoutesCase;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv6.prefixes.DestinationIpv6;
@@ -117,6 +120,17 @@ final class IPv6RIBSupport extends AbstractIPRibSupport<Ipv6RoutesCase, Ipv6Rout
         return routeListKey.getRouteKey();
     }
 
+    @Override
+    public <V> RouteEntryIndex<V> createRouteEntryIndex() {
+        return new Ipv6RouteEntryIndex<>();
+    }
+
+    @Override
+    public IpPrefix extractRoutePrefix(final Ipv6Route route) {
+        final Ipv6Prefix prefix = route.getPrefix();
+        return prefix == null ? null : new IpPrefix(prefix);
+    }
+
     @Override
     public List<Ipv6Route> extractAdjRibInRoutes(final Routes routes) {
         verify(routes instanceof org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329
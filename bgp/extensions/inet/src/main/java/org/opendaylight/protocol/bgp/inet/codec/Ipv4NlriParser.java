@@ -41,10 +41,12 @@ public final class Ipv4NlriParser implements NlriParser, NlriSerializer {
 
     private static DestinationIpv4 prefixes(final ByteBuf nlri, final PeerSpecificParserConstraint constraints,
             final Class<? extends AddressFamily> afi, final Class<? extends SubsequentAddressFamily> safi) {
+        final boolean supported = MultiPathSupportUtil.isTableTypeSupported(constraints,
+                new BgpTableTypeImpl(afi, safi));
         final List<Ipv4Prefixes> prefixes = new ArrayList<>();
         while (nlri.isReadable()) {
             final Ipv4PrefixesBuilder prefixesBuilder = new Ipv4PrefixesBuilder();
-            if (MultiPathSupportUtil.isTableTypeSupported(constraints, new BgpTableTypeImpl(afi, safi))) {
+            if (supported) {
                 prefixesBuilder.setPathId(PathIdUtil.readPathId(nlri));
             }
             prefixesBuilder.setPrefix(Ipv4Util.prefixForByteBuf(nlri));
@@ -196,4 +196,9 @@ public abstract class AbstractVpnRIBSupport<C extends Routes & DataObject, S ext
     public final String extractRouteKey(final VpnRouteKey routeListKey) {
         return routeListKey.getRouteKey();
     }
+
+    @Override
+    public final IpPrefix extractRoutePrefix(final VpnRoute route) {
+        return route.getPrefix();
+    }
 }
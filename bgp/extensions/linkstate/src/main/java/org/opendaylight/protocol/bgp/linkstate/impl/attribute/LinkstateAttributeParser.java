@@ -97,6 +97,12 @@ public final class LinkstateAttributeParser extends AbstractAttributeParser impl
         builder.addAugmentation(Attributes1.class, a);
     }
 
+    @Override
+    public boolean requiresNlri() {
+        // Attribute interpretation depends on the type of the Linkstate NLRI
+        return true;
+    }
+
     private static CLinkstateDestination getNlriType(final AttributesBuilder pab) {
         final org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329
             .Attributes1 mpr = pab.augmentation(org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp
@@ -8,8 +8,6 @@
 
 package org.opendaylight.protocol.bgp.route.targetcontrain.impl.route.policy;
 
-import java.util.List;
-import java.util.Optional;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.action.BgpActionAugPolicy;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
@@ -43,12 +41,9 @@ public final class ClientAttributePrependHandler implements BgpActionAugPolicy<C
             final BGPRouteEntryExportParameters exportParameters,
             final Attributes attributes,
             final ClientAttributePrepend actions) {
-        final List<Route> rtRoutes = exportParameters.getClientRouteTargetContrainCache();
-        final Optional<Route> found = rtRoutes.stream()
-                .filter(rt -> rt.getRouteKey().equals(exportParameters.getRouteKey()))
-                .findFirst();
-        if (found.isPresent()) {
-            return found.get().getAttributes();
+        final Route found = exportParameters.getClientRouteTargetContrainRoute(exportParameters.getRouteKey());
+        if (found != null) {
+            return found.getAttributes();
         }
         return attributes;
     }
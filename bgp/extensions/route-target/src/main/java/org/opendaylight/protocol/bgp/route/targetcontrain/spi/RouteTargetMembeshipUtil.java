@@ -8,6 +8,7 @@
 
 package org.opendaylight.protocol.bgp.route.targetcontrain.spi;
 
+import org.eclipse.jdt.annotation.Nullable;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.route.target.constrain.rev180618.route.target.constrain.RouteTargetConstrainChoice;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.route.target.constrain.rev180618.route.target.constrain.route.target.constrain.choice.RouteTargetConstrainAs4ExtendedCommunityCase;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.route.target.constrain.rev180618.route.target.constrain.route.target.constrain.choice.RouteTargetConstrainDefaultCase;
@@ -15,6 +16,10 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rout
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.route.target.constrain.rev180618.route.target.constrain.route.target.constrain.choice.RouteTargetConstrainRouteCase;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.route.target.constrain.rev180618.route.target.constrain.routes.route.target.constrain.routes.RouteTargetConstrainRoute;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.RouteTarget;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.extended.community.ExtendedCommunity;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.extended.community.extended.community.As4RouteTargetExtendedCommunityCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.extended.community.extended.community.RouteTargetExtendedCommunityCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.extended.community.extended.community.RouteTargetIpv4Case;
 
 public final class RouteTargetMembeshipUtil {
     private RouteTargetMembeshipUtil() {
@@ -35,4 +40,21 @@ public final class RouteTargetMembeshipUtil {
         }
         return rt;
     }
+
+    /**
+     * Return the Route Target carried by an extended community.
+     *
+     * @param extendedCommunity extended community
+     * @return Route Target, or null if the extended community is not a Route Target
+     */
+    public static @Nullable RouteTarget getRT(final @Nullable ExtendedCommunity extendedCommunity) {
+        if (extendedCommunity instanceof RouteTargetExtendedCommunityCase) {
+            return ((RouteTargetExtendedCommunityCase) extendedCommunity).getRouteTargetExtendedCommunity();
+        } else if (extendedCommunity instanceof As4RouteTargetExtendedCommunityCase) {
+            return ((As4RouteTargetExtendedCommunityCase) extendedCommunity).getAs4RouteTargetExtendedCommunity();
+        } else if (extendedCommunity instanceof RouteTargetIpv4Case) {
+            return ((RouteTargetIpv4Case) extendedCommunity).getRouteTargetIpv4();
+        }
+        return null;
+    }
 }
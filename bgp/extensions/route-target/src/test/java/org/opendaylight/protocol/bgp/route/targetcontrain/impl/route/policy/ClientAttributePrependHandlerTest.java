@@ -12,7 +12,6 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.doReturn;
 import static org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry.RouteAttributeContainer.routeAttributeContainerFalse;
 
-import java.util.Collections;
 import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
@@ -61,7 +60,6 @@ public class ClientAttributePrependHandlerTest extends AbstractStatementRegistry
                         .setGlobal(IPV4).build()).build())
                 .build();
         final RouteAttributeContainer attributeContainer = routeAttributeContainerFalse(att);
-        doReturn(Collections.emptyList()).when(this.exportParameters).getClientRouteTargetContrainCache();
 
         RouteAttributeContainer result = this.statementRegistry.applyExportStatement(
                 this.baseAttributes,
@@ -80,7 +78,7 @@ public class ClientAttributePrependHandlerTest extends AbstractStatementRegistry
                 .setRouteKey(rk)
                 .setAttributes(expected)
                 .build();
-        doReturn(Collections.singletonList(rtRoute)).when(this.exportParameters).getClientRouteTargetContrainCache();
+        doReturn(rtRoute).when(this.exportParameters).getClientRouteTargetContrainRoute(rk);
         doReturn(rk).when(this.exportParameters).getRouteKey();
 
         result = this.statementRegistry.applyExportStatement(
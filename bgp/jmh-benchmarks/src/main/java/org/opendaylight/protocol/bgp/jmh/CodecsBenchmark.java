@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.mdsal.binding.dom.codec.impl.BindingNormalizedNodeCodecRegistry;
+import org.opendaylight.mdsal.binding.generator.impl.ModuleInfoBackedContext;
+import org.opendaylight.mdsal.binding.generator.util.BindingRuntimeContext;
+import org.opendaylight.mdsal.binding.spec.reflect.BindingReflections;
+import org.opendaylight.protocol.bgp.inet.RIBActivator;
+import org.opendaylight.protocol.bgp.rib.impl.CodecsImpl;
+import org.opendaylight.protocol.bgp.rib.spi.SimpleRIBExtensionProviderContext;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.ipv4.routes.Ipv4Route;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.Ipv4AddressFamily;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.UnicastSubsequentAddressFamily;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Path attribute conversion between binding and normalized node representation, as done by {@link CodecsImpl} for
+ * each route written to or read from the RIB. Benchmarks cycle through a set of distinct attributes, so that the
+ * effectiveness of the caching codec depends on how many of them are in use.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CodecsBenchmark {
+    @Param({ "1", "64", "4096" })
+    public int distinctAttributes;
+
+    private RIBActivator activator;
+    private CodecsImpl codecs;
+    private Attributes[] attributes;
+    private ContainerNode[] serialized;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        final ModuleInfoBackedContext strategy = ModuleInfoBackedContext.create();
+        strategy.registerModuleInfo(BindingReflections.getModuleInfo(Ipv4Route.class));
+        final SchemaContext schemaContext = strategy.tryToCreateSchemaContext().get();
+        final BindingRuntimeContext runtimeContext = BindingRuntimeContext.create(strategy, schemaContext);
+        final BindingNormalizedNodeCodecRegistry registry = new BindingNormalizedNodeCodecRegistry(runtimeContext);
+
+        final SimpleRIBExtensionProviderContext context = new SimpleRIBExtensionProviderContext();
+        this.activator = new RIBActivator();
+        this.activator.startRIBExtensionProvider(context, registry);
+        this.codecs = new CodecsImpl(context.getRIBSupport(Ipv4AddressFamily.class,
+            UnicastSubsequentAddressFamily.class));
+        this.codecs.onCodecTreeUpdated(registry.create(runtimeContext));
+
+        this.attributes = new Attributes[this.distinctAttributes];
+        this.serialized = new ContainerNode[this.distinctAttributes];
+        for (int i = 0; i < this.distinctAttributes; i++) {
+            this.attributes[i] = PathAttributes.create(i);
+            this.serialized[i] = this.codecs.serializeAttributes(this.attributes[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.activator.close();
+    }
+
+    @Benchmark
+    public ContainerNode serializeAttributes() {
+        return this.codecs.serializeAttributes(this.attributes[nextIndex()]);
+    }
+
+    @Benchmark
+    public Attributes deserializeAttributes() {
+        return this.codecs.deserializeAttributes(this.serialized[nextIndex()]);
+    }
+
+    private int nextIndex() {
+        final int index = this.next;
+        this.next = index + 1 == this.distinctAttributes ? 0 : index + 1;
+        return index;
+    }
+}
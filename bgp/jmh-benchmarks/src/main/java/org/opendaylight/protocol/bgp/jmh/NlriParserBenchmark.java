@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.jmh;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.protocol.bgp.inet.codec.Ipv4NlriParser;
+import org.opendaylight.protocol.bgp.inet.codec.Ipv6NlriParser;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.update.attributes.MpReachNlriBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.Ipv4AddressFamily;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.Ipv6AddressFamily;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.UnicastSubsequentAddressFamily;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decoding of unicast NLRI, as received in a full table dump. Run with {@code -prof gc} to observe the allocation
+ * rate of prefix decoding.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NlriParserBenchmark {
+    @Param({ "900000" })
+    public int prefixes;
+
+    private final Ipv4NlriParser ipv4Parser = new Ipv4NlriParser();
+    private final Ipv6NlriParser ipv6Parser = new Ipv6NlriParser();
+    private ByteBuf ipv4Nlri;
+    private ByteBuf ipv6Nlri;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(0);
+        this.ipv4Nlri = Unpooled.buffer();
+        this.ipv6Nlri = Unpooled.buffer();
+        for (int i = 0; i < this.prefixes; i++) {
+            final int ipv4Length = 8 + random.nextInt(17);
+            this.ipv4Nlri.writeByte(ipv4Length);
+            this.ipv4Nlri.writeBytes(randomBytes(random, ipv4Length));
+
+            final int ipv6Length = 16 + random.nextInt(49);
+            this.ipv6Nlri.writeByte(ipv6Length);
+            this.ipv6Nlri.writeBytes(randomBytes(random, ipv6Length));
+        }
+    }
+
+    private static byte[] randomBytes(final Random random, final int prefixLength) {
+        final byte[] ret = new byte[(prefixLength + Byte.SIZE - 1) / Byte.SIZE];
+        random.nextBytes(ret);
+        return ret;
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.ipv4Nlri.release();
+        this.ipv6Nlri.release();
+    }
+
+    @Benchmark
+    public MpReachNlriBuilder parseIpv4() {
+        final MpReachNlriBuilder builder = new MpReachNlriBuilder().setAfi(Ipv4AddressFamily.class)
+                .setSafi(UnicastSubsequentAddressFamily.class);
+        this.ipv4Parser.parseNlri(this.ipv4Nlri.duplicate(), builder, null);
+        return builder;
+    }
+
+    @Benchmark
+    public MpReachNlriBuilder parseIpv6() {
+        final MpReachNlriBuilder builder = new MpReachNlriBuilder().setAfi(Ipv6AddressFamily.class)
+                .setSafi(UnicastSubsequentAddressFamily.class);
+        this.ipv6Parser.parseNlri(this.ipv6Nlri.duplicate(), builder, null);
+        return builder;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.jmh;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.AsNumber;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.AsPathBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.LocalPrefBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.MultiExitDiscBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.OriginBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.OriginatorIdBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.as.path.SegmentsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.BgpOrigin;
+
+/**
+ * Synthetic path attributes used as best path selection input.
+ */
+public final class PathAttributes {
+    private static final long PEER_AS = 64496;
+
+    private PathAttributes() {
+
+    }
+
+    /**
+     * Create attributes of the path with specified index. Paths differ in LOCAL_PREF, AS_PATH length and MED, so
+     * that the selection has to go through several tie-breaking steps before deciding.
+     *
+     * @param index Path index
+     * @return Path attributes
+     */
+    public static Attributes create(final int index) {
+        final List<AsNumber> sequence = new ArrayList<>();
+        sequence.add(new AsNumber(PEER_AS));
+        for (int i = 0; i < index % 3; i++) {
+            sequence.add(new AsNumber(PEER_AS + 1 + i));
+        }
+
+        return new AttributesBuilder()
+            .setOrigin(new OriginBuilder().setValue(BgpOrigin.Igp).build())
+            .setLocalPref(new LocalPrefBuilder().setPref((long) (100 + index % 2)).build())
+            .setMultiExitDisc(new MultiExitDiscBuilder().setMed((long) index % 5).build())
+            .setAsPath(new AsPathBuilder().setSegments(Collections.singletonList(
+                new SegmentsBuilder().setAsSequence(sequence).build())).build())
+            .setOriginatorId(new OriginatorIdBuilder().setOriginator(address(index)).build())
+            .build();
+    }
+
+    /**
+     * Return the IPv4 address of the router advertising the path with specified index.
+     *
+     * @param index Path index
+     * @return Router address
+     */
+    public static Ipv4Address address(final int index) {
+        return new Ipv4Address("10." + (index >> 16 & 0xff) + "." + (index >> 8 & 0xff) + "." + (index & 0xff));
+    }
+}
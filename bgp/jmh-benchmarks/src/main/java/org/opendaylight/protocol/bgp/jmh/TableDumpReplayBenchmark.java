@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.jmh;
+
+import static org.opendaylight.protocol.bgp.jmh.UpdateMessageBenchmark.writeAttribute;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.protocol.bgp.parser.BGPDocumentedException;
+import org.opendaylight.protocol.bgp.parser.BGPParsingException;
+import org.opendaylight.protocol.bgp.parser.spi.MessageRegistry;
+import org.opendaylight.protocol.bgp.parser.spi.MessageUtil;
+import org.opendaylight.protocol.bgp.parser.spi.pojo.ParsedAttributesCache;
+import org.opendaylight.protocol.bgp.parser.spi.pojo.PeerSpecificParserConstraintImpl;
+import org.opendaylight.protocol.bgp.parser.spi.pojo.ServiceLoaderBGPExtensionProviderContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Replay of a table dump through the message registry, as done by the session's decoder during initial table
+ * transfer. Compare {@code cached} set to false, which parses all path attributes of every UPDATE message, with
+ * the parsed attributes cache in place.
+ *
+ * <p>
+ * A recorded dump can be replayed by pointing the {@value #DUMP_PROPERTY} system property at a file holding
+ * the raw BGP messages, as received from a peer. Otherwise a synthetic dump is generated, where {@code prefixes}
+ * IPv4 prefixes are spread over UPDATE messages carrying one of {@code paths} distinct sets of path attributes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class TableDumpReplayBenchmark {
+    public static final String DUMP_PROPERTY = "bgp.jmh.table-dump";
+
+    private static final int HEADER_LENGTH = 19;
+    private static final int LENGTH_OFFSET = 16;
+    private static final int UPDATE_TYPE = 2;
+    private static final int WELL_KNOWN = 0x40;
+    private static final int OPTIONAL_TRANSITIVE = 0xc0;
+
+    @Param({ "500000" })
+    public int prefixes;
+
+    @Param({ "1000", "100000" })
+    public int paths;
+
+    @Param({ "false", "true" })
+    public boolean cached;
+
+    private final List<ByteBuf> messages = new ArrayList<>();
+    private MessageRegistry registry;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.registry = ServiceLoaderBGPExtensionProviderContext.getSingletonInstance().getMessageRegistry();
+
+        final String dump = System.getProperty(DUMP_PROPERTY);
+        if (dump != null) {
+            final ByteBuf buffer = Unpooled.wrappedBuffer(Files.readAllBytes(Paths.get(dump)));
+            while (buffer.readableBytes() >= HEADER_LENGTH) {
+                final int length = buffer.getUnsignedShort(buffer.readerIndex() + LENGTH_OFFSET);
+                this.messages.add(buffer.readSlice(length));
+            }
+            return;
+        }
+
+        for (int i = 0; i < this.prefixes; i++) {
+            final int path = i % this.paths;
+            final ByteBuf attributes = Unpooled.buffer();
+            // ORIGIN IGP
+            writeAttribute(attributes, WELL_KNOWN, 1, Unpooled.wrappedBuffer(new byte[] { 0 }));
+            // AS_PATH with a single AS_SEQUENCE, unique to each set of attributes
+            writeAttribute(attributes, WELL_KNOWN, 2, Unpooled.buffer().writeByte(2).writeByte(3)
+                .writeInt(64496).writeInt(65536 + path / 256).writeInt(131072 + path));
+            // NEXT_HOP
+            writeAttribute(attributes, WELL_KNOWN, 3, Unpooled.wrappedBuffer(new byte[] { 10, 0, 0, 1 }));
+            // LOCAL_PREF 100
+            writeAttribute(attributes, WELL_KNOWN, 5, Unpooled.buffer().writeInt(100));
+            // COMMUNITIES 64496:1 and 64496:<path>
+            writeAttribute(attributes, OPTIONAL_TRANSITIVE, 8, Unpooled.buffer().writeShort(64496).writeShort(1)
+                .writeShort(64496).writeShort(path & 0xffff));
+
+            final ByteBuf body = Unpooled.buffer();
+            body.writeShort(0);
+            body.writeShort(attributes.readableBytes());
+            body.writeBytes(attributes);
+            body.writeByte(24).writeByte(i >> 16 & 0xff).writeByte(i >> 8 & 0xff).writeByte(i & 0xff);
+
+            final ByteBuf message = Unpooled.buffer();
+            MessageUtil.formatMessage(UPDATE_TYPE, body, message);
+            this.messages.add(message);
+        }
+    }
+
+    @Benchmark
+    public int replay() throws BGPDocumentedException, BGPParsingException {
+        // Each replay starts with an empty cache, just like a new session does
+        final PeerSpecificParserConstraintImpl constraint = new PeerSpecificParserConstraintImpl();
+        if (this.cached) {
+            constraint.addPeerConstraint(ParsedAttributesCache.class, new ParsedAttributesCache());
+        }
+
+        int parsed = 0;
+        for (final ByteBuf message : this.messages) {
+            if (this.registry.parseMessage(message.duplicate(), constraint) != null) {
+                parsed++;
+            }
+        }
+        return parsed;
+    }
+}
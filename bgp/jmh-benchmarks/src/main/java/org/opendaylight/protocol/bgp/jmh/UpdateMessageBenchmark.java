@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.jmh;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.protocol.bgp.parser.BGPDocumentedException;
+import org.opendaylight.protocol.bgp.parser.BGPParsingException;
+import org.opendaylight.protocol.bgp.parser.spi.MessageRegistry;
+import org.opendaylight.protocol.bgp.parser.spi.MessageUtil;
+import org.opendaylight.protocol.bgp.parser.spi.pojo.ServiceLoaderBGPExtensionProviderContext;
+import org.opendaylight.yangtools.yang.binding.Notification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing and serialization of a single UPDATE message through the message registry, as done by the session's
+ * decoder and encoder. Each address family carries a representative NLRI, with a common ORIGIN, AS_PATH and
+ * LOCAL_PREF set.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UpdateMessageBenchmark {
+    public enum Family {
+        IPV4 {
+            @Override
+            void writeMessage(final ByteBuf attributes, final ByteBuf nlri) {
+                // NEXT_HOP, followed by IPv4 unicast NLRI in the message body
+                writeAttribute(attributes, WELL_KNOWN, 3, Unpooled.wrappedBuffer(new byte[] { 10, 0, 0, 1 }));
+                for (int i = 0; i < PREFIX_COUNT; i++) {
+                    nlri.writeByte(24).writeByte(10).writeByte(1).writeByte(i);
+                }
+            }
+        },
+        IPV6 {
+            @Override
+            void writeMessage(final ByteBuf attributes, final ByteBuf nlri) {
+                final ByteBuf prefixes = Unpooled.buffer();
+                for (int i = 0; i < PREFIX_COUNT; i++) {
+                    // 2001:db8:1:i::/64
+                    prefixes.writeByte(64).writeShort(0x2001).writeShort(0x0db8).writeShort(1).writeShort(i);
+                }
+                final byte[] nextHop = new byte[16];
+                nextHop[0] = 0x20;
+                nextHop[1] = 0x01;
+                nextHop[15] = 1;
+                writeMpReach(attributes, 2, 1, nextHop, prefixes);
+            }
+        },
+        L3VPN {
+            @Override
+            void writeMessage(final ByteBuf attributes, final ByteBuf nlri) {
+                // 34.1.22.0/24, RD 1.2.3.4:258, label 355
+                writeMpReach(attributes, 1, 128, new byte[] { 0, 0, 0, 0, 0, 0, 0, 0, 10, 0, 0, 1 },
+                    Unpooled.wrappedBuffer(new byte[] {
+                        0x70, 0x00, 0x16, 0x31, 0, 1, 1, 2, 3, 4, 1, 2, 0x22, 0x01, 0x16
+                    }));
+            }
+        },
+        EVPN {
+            @Override
+            void writeMessage(final ByteBuf attributes, final ByteBuf nlri) {
+                // MAC/IP Advertisement route
+                writeMpReach(attributes, 25, 70, new byte[] { 10, 0, 0, 1 }, Unpooled.wrappedBuffer(new byte[] {
+                    0x02, 0x28,
+                    0x00, 0x01, 0x01, 0x02, 0x03, 0x04, 0x01, 0x02,
+                    0x02, (byte) 0xf2, 0x0c, (byte) 0xdd, (byte) 0x80, (byte) 0x9f, (byte) 0xf7, 0x02, 0x02, 0x00,
+                    0x00, 0x00, 0x00, 0x0a,
+                    0x30, (byte) 0xf2, 0x0c, (byte) 0xdd, (byte) 0x80, (byte) 0x9f, (byte) 0xf7,
+                    0x20, 0x7f, 0x00, 0x00, 0x01,
+                    0x05, (byte) 0xdc, 0x10,
+                    0x05, (byte) 0xdc, 0x20
+                }));
+            }
+        },
+        FLOWSPEC {
+            @Override
+            void writeMessage(final ByteBuf attributes, final ByteBuf nlri) {
+                // destination, source, protocol, port, destination port and source port components
+                writeMpReach(attributes, 1, 133, new byte[] { 10, 0, 0, 1 }, Unpooled.wrappedBuffer(new byte[] {
+                    0x21,
+                    0x01, 0x20, 0x0a, 0x00, 0x01, 0x00,
+                    0x02, 0x20, 0x01, 0x02, 0x03, 0x04,
+                    0x03, (byte) 0x81, 0x06,
+                    0x04, 0x03, (byte) 0x89, 0x45, (byte) 0x8b, (byte) 0x91, 0x1f, (byte) 0x90,
+                    0x05, 0x12, 0x0f, (byte) 0xf9, (byte) 0x81, (byte) 0xb3,
+                    0x06, (byte) 0x91, 0x1f, (byte) 0x90
+                }));
+            }
+        };
+
+        /**
+         * Write family-specific attributes and NLRI.
+         *
+         * @param attributes Buffer holding path attributes
+         * @param nlri Buffer holding the trailing NLRI field of the UPDATE message
+         */
+        abstract void writeMessage(ByteBuf attributes, ByteBuf nlri);
+    }
+
+    private static final int UPDATE_TYPE = 2;
+    private static final int PREFIX_COUNT = 16;
+    private static final int WELL_KNOWN = 0x40;
+    private static final int OPTIONAL_EXTENDED = 0x90;
+
+    @Param
+    public Family family;
+
+    private MessageRegistry registry;
+    private ByteBuf message;
+    private Notification update;
+    private ByteBuf output;
+
+    @Setup
+    public void setUp() throws BGPDocumentedException, BGPParsingException {
+        this.registry = ServiceLoaderBGPExtensionProviderContext.getSingletonInstance().getMessageRegistry();
+
+        final ByteBuf attributes = Unpooled.buffer();
+        // ORIGIN IGP
+        writeAttribute(attributes, WELL_KNOWN, 1, Unpooled.wrappedBuffer(new byte[] { 0 }));
+        // AS_PATH with a single AS_SEQUENCE of 64496 64497
+        writeAttribute(attributes, WELL_KNOWN, 2, Unpooled.buffer().writeByte(2).writeByte(2)
+            .writeInt(64496).writeInt(64497));
+        // LOCAL_PREF 100
+        writeAttribute(attributes, WELL_KNOWN, 5, Unpooled.buffer().writeInt(100));
+
+        final ByteBuf nlri = Unpooled.buffer();
+        this.family.writeMessage(attributes, nlri);
+
+        final ByteBuf body = Unpooled.buffer();
+        body.writeShort(0);
+        body.writeShort(attributes.readableBytes());
+        body.writeBytes(attributes);
+        body.writeBytes(nlri);
+
+        this.message = Unpooled.buffer();
+        MessageUtil.formatMessage(UPDATE_TYPE, body, this.message);
+        this.update = this.registry.parseMessage(this.message.duplicate(), null);
+        this.output = Unpooled.buffer(this.message.readableBytes());
+    }
+
+    @Benchmark
+    public Notification parse() throws BGPDocumentedException, BGPParsingException {
+        return this.registry.parseMessage(this.message.duplicate(), null);
+    }
+
+    @Benchmark
+    public ByteBuf serialize() {
+        this.output.clear();
+        this.registry.serializeMessage(this.update, this.output);
+        return this.output;
+    }
+
+    static void writeAttribute(final ByteBuf buffer, final int flags, final int type, final ByteBuf value) {
+        buffer.writeByte(flags);
+        buffer.writeByte(type);
+        if ((flags & 0x10) != 0) {
+            buffer.writeShort(value.readableBytes());
+        } else {
+            buffer.writeByte(value.readableBytes());
+        }
+        buffer.writeBytes(value);
+    }
+
+    static void writeMpReach(final ByteBuf buffer, final int afi, final int safi, final byte[] nextHop,
+            final ByteBuf nlri) {
+        final ByteBuf value = Unpooled.buffer();
+        value.writeShort(afi);
+        value.writeByte(safi);
+        value.writeByte(nextHop.length);
+        value.writeBytes(nextHop);
+        // reserved
+        value.writeByte(0);
+        value.writeBytes(nlri);
+        writeAttribute(buffer, OPTIONAL_EXTENDED, 14, value);
+    }
+}
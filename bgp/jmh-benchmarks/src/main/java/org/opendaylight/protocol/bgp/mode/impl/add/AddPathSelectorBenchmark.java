@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.mode.impl.add;
+
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.protocol.bgp.jmh.PathAttributes;
+import org.opendaylight.protocol.bgp.rib.spi.RouterId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ADD-PATH best path selection over a varying number of paths. Paths are spread over a handful of peers, each of
+ * which advertises several path identifiers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AddPathSelectorBenchmark {
+    private static final long OUR_AS = 64496;
+    private static final int PATHS_PER_PEER = 4;
+
+    @Param({ "1", "4", "16", "64", "256" })
+    public int pathCount;
+
+    private RouteKey[] keys;
+    private Long[] pathIds;
+    private Attributes[] attributes;
+
+    @Setup
+    public void setUp() {
+        this.keys = new RouteKey[this.pathCount];
+        this.pathIds = new Long[this.pathCount];
+        this.attributes = new Attributes[this.pathCount];
+        for (int i = 0; i < this.pathCount; i++) {
+            final RouterId routerId = RouterId.forAddress(PathAttributes.address(i / PATHS_PER_PEER));
+            this.pathIds[i] = (long) (i % PATHS_PER_PEER + 1);
+            this.keys[i] = new RouteKey(routerId, this.pathIds[i]);
+            this.attributes[i] = PathAttributes.create(i);
+        }
+    }
+
+    @Benchmark
+    public AddPathBestPath selectBestPath() {
+        final AddPathSelector selector = new AddPathSelector(OUR_AS);
+        for (int i = 0; i < this.pathCount; i++) {
+            selector.processPath(this.attributes[i], this.keys[i], i, this.pathIds[i]);
+        }
+        return selector.result();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.mode.impl.base;
+
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.protocol.bgp.jmh.PathAttributes;
+import org.opendaylight.protocol.bgp.mode.api.BestPathState;
+import org.opendaylight.protocol.bgp.mode.impl.BestPathStateImpl;
+import org.opendaylight.protocol.bgp.rib.spi.RouterId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Best path selection over a route advertised by a varying number of peers. {@link #selectBestPrecomputed()} selects
+ * over states precomputed when paths are added, as done by {@link BaseRouteEntry}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BasePathSelectorBenchmark {
+    private static final long OUR_AS = 64496;
+
+    @Param({ "1", "4", "16", "64", "256" })
+    public int pathCount;
+
+    private RouterId[] routerIds;
+    private Attributes[] attributes;
+    private BestPathState[] states;
+
+    @Setup
+    public void setUp() {
+        this.routerIds = new RouterId[this.pathCount];
+        this.attributes = new Attributes[this.pathCount];
+        this.states = new BestPathState[this.pathCount];
+        for (int i = 0; i < this.pathCount; i++) {
+            this.routerIds[i] = RouterId.forAddress(PathAttributes.address(i));
+            this.attributes[i] = PathAttributes.create(i);
+            this.states[i] = new BestPathStateImpl(this.attributes[i]);
+        }
+    }
+
+    @Benchmark
+    public BaseBestPath selectBestPath() {
+        final BasePathSelector selector = new BasePathSelector(OUR_AS);
+        for (int i = 0; i < this.pathCount; i++) {
+            selector.processPath(this.routerIds[i], this.attributes[i]);
+        }
+        return selector.result();
+    }
+
+    @Benchmark
+    public int selectBestPrecomputed() {
+        return BasePathSelector.selectBest(OUR_AS, this.states);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.mode.impl.base;
+
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.protocol.bgp.jmh.PathAttributes;
+import org.opendaylight.protocol.bgp.rib.spi.RouterId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link org.opendaylight.protocol.bgp.mode.impl.AbstractOffsetMap} transitions, which happen whenever a peer
+ * starts or stops advertising a route. Transitions are remembered by the source map, hence after the first
+ * invocation these measure the transition lookup, which is the steady state when the same set of peers keeps
+ * flapping.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class OffsetMapBenchmark {
+    @Param({ "1", "4", "16", "64", "256" })
+    public int size;
+
+    private RouterIdOffsets offsets;
+    private RouterId present;
+    private RouterId absent;
+
+    @Setup
+    public void setUp() {
+        RouterIdOffsets map = RouterIdOffsets.EMPTY;
+        for (int i = 0; i < this.size; i++) {
+            map = map.with(RouterId.forAddress(PathAttributes.address(i)));
+        }
+        this.offsets = map;
+        this.present = RouterId.forAddress(PathAttributes.address(this.size / 2));
+        this.absent = RouterId.forAddress(PathAttributes.address(this.size));
+    }
+
+    @Benchmark
+    public RouterIdOffsets with() {
+        return this.offsets.with(this.absent);
+    }
+
+    @Benchmark
+    public RouterIdOffsets without() {
+        return this.offsets.without(this.present);
+    }
+
+    @Benchmark
+    public int offsetOf() {
+        return this.offsets.offsetOf(this.present);
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry;
+
+import static org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry.RouteAttributeContainer.routeAttributeContainerFalse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.protocol.bgp.jmh.PathAttributes;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
+import org.opendaylight.protocol.bgp.rib.spi.RouterIds;
+import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.Actions1;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.Actions1Builder;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.Conditions1;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.Conditions1Builder;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.policy.definitions.policy.definition.statements.statement.actions.BgpActionsBuilder;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.policy.definitions.policy.definition.statements.statement.conditions.BgpConditionsBuilder;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.BgpOriginAttrType;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.IPV4UNICAST;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.policy.definitions.policy.definition.statements.Statement;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.policy.definitions.policy.definition.statements.StatementBuilder;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.policy.definitions.policy.definition.statements.statement.ActionsBuilder;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.policy.definitions.policy.definition.statements.statement.ConditionsBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.AsNumber;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerRole;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.Route;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.ClusterIdentifier;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.RouteTarget;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Export policy evaluation of a table of {@code routes} routes through a chain of {@code statements} statements,
+ * the way BGPRibPolicyImpl applies its plan. Each statement matches on AFI/SAFI, MED and LOCAL_PREF and sets
+ * LOCAL_PREF and ORIGIN, so that every route is accepted by exactly one statement of the chain. Compare
+ * {@code compiled}, which evaluates statements compiled once, with {@code interpreted}, which resolves each
+ * statement's conditions and actions for every route.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class CompiledStatementBenchmark {
+    private static final RouteEntryBaseAttributes BASE_ATTRIBUTES = new RouteEntryBaseAttributes() {
+        private final Ipv4Address originatorId = new Ipv4Address("192.0.2.1");
+        private final ClusterIdentifier clusterId = new ClusterIdentifier(this.originatorId);
+
+        @Override
+        public long getLocalAs() {
+            return 64496;
+        }
+
+        @Override
+        public Ipv4Address getOriginatorId() {
+            return this.originatorId;
+        }
+
+        @Override
+        public ClusterIdentifier getClusterId() {
+            return this.clusterId;
+        }
+    };
+
+    @Param({ "1000000" })
+    public int routes;
+
+    @Param({ "10" })
+    public int statements;
+
+    private final StatementRegistry registry = new StatementRegistry();
+    private final BGPRouteEntryExportParameters exportParameters = new ExportParameters();
+    private final List<Statement> statementList = new ArrayList<>();
+    private final List<CompiledStatement> compiledList = new ArrayList<>();
+    private Attributes[] attributes;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < this.statements; i++) {
+            final Statement statement = statement(i);
+            this.statementList.add(statement);
+            this.compiledList.add(this.registry.compileStatement(statement));
+        }
+
+        this.attributes = new Attributes[this.routes];
+        for (int i = 0; i < this.routes; i++) {
+            this.attributes[i] = PathAttributes.create(i);
+        }
+    }
+
+    @Benchmark
+    public int compiled() {
+        int accepted = 0;
+        for (final Attributes route : this.attributes) {
+            RouteAttributeContainer result = routeAttributeContainerFalse(route);
+            for (final CompiledStatement statement : this.compiledList) {
+                result = statement.applyExport(BASE_ATTRIBUTES, IPV4UNICAST.class, this.exportParameters, result);
+            }
+            if (result.anyConditionSatisfied()) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    @Benchmark
+    public int interpreted() {
+        int accepted = 0;
+        for (final Attributes route : this.attributes) {
+            RouteAttributeContainer result = routeAttributeContainerFalse(route);
+            for (final Statement statement : this.statementList) {
+                result = this.registry.applyExportStatement(BASE_ATTRIBUTES, IPV4UNICAST.class,
+                    this.exportParameters, result, statement);
+            }
+            if (result.anyConditionSatisfied()) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    /*
+     * PathAttributes cycle MED over 5 values and LOCAL_PREF over 2 values, hence statement i matches routes whose
+     * index is congruent to i modulo 10.
+     */
+    private static Statement statement(final int index) {
+        return new StatementBuilder()
+            .setName("statement-" + index)
+            .setConditions(new ConditionsBuilder()
+                .addAugmentation(Conditions1.class, new Conditions1Builder()
+                    .setBgpConditions(new BgpConditionsBuilder()
+                        .setAfiSafiIn(Collections.singletonList(IPV4UNICAST.class))
+                        .setMedEq((long) index % 5)
+                        .setLocalPrefEq((long) (100 + index % 2))
+                        .build())
+                    .build())
+                .build())
+            .setActions(new ActionsBuilder()
+                .addAugmentation(Actions1.class, new Actions1Builder()
+                    .setBgpActions(new BgpActionsBuilder()
+                        .setSetLocalPref((long) (200 + index))
+                        .setSetRouteOrigin(BgpOriginAttrType.EGP)
+                        .build())
+                    .build())
+                .build())
+            .build();
+    }
+
+    private static final class ExportParameters implements BGPRouteEntryExportParameters {
+        private final PeerId fromPeerId = RouterIds.createPeerId(new Ipv4Address("192.0.2.2"));
+        private final PeerId toPeerId = RouterIds.createPeerId(new Ipv4Address("192.0.2.3"));
+
+        @Override
+        public PeerRole getFromPeerRole() {
+            return PeerRole.Ibgp;
+        }
+
+        @Override
+        public PeerId getFromPeerId() {
+            return this.fromPeerId;
+        }
+
+        @Override
+        public ClusterIdentifier getFromClusterId() {
+            return null;
+        }
+
+        @Override
+        public AsNumber getFromPeerLocalAs() {
+            return null;
+        }
+
+        @Override
+        public PeerId getToPeerId() {
+            return this.toPeerId;
+        }
+
+        @Override
+        public PeerRole getToPeerRole() {
+            return PeerRole.Ebgp;
+        }
+
+        @Override
+        public AsNumber getToPeerLocalAs() {
+            return null;
+        }
+
+        @Override
+        public String getRouteKey() {
+            return "";
+        }
+
+        @Override
+        public Set<RouteTarget> getMemberships() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public List<Route> getClientRouteTargetContrainCache() {
+            return Collections.emptyList();
+        }
+    }
+}
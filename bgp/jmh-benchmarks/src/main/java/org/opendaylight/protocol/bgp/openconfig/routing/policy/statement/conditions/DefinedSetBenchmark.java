@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.conditions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opendaylight.protocol.bgp.rib.spi.RouterIds;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.policy.types.rev151009.MatchSetOptionsType;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.AsNumber;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.Communities;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.CommunitiesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.ExtendedCommunities;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.ExtendedCommunitiesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.ShortAsNumber;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.extended.community.extended.community.RouteTargetExtendedCommunityCaseBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.route.target.extended.community.grouping.RouteTargetExtendedCommunityBuilder;
+
+/**
+ * Defined-set matching as done by the community, extended community, AS path and neighbor set condition handlers,
+ * comparing the list based matching with the materialized sets. Each invocation matches a route carrying a few
+ * values, none of which is a member, hence the whole set has to be consulted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DefinedSetBenchmark {
+    private static final int ROUTE_VALUES = 8;
+
+    @Param({"16", "512", "5000"})
+    public int setSize;
+
+    private List<Communities> communityList;
+    private LongDefinedSet communitySet;
+    private List<Communities> routeCommunities;
+
+    private List<ExtendedCommunities> extCommunityList;
+    private DefinedSet<ExtendedCommunities> extCommunitySet;
+    private List<ExtendedCommunities> routeExtCommunities;
+
+    private List<AsNumber> asList;
+    private LongDefinedSet asSet;
+    private List<AsNumber> routeAsPath;
+
+    private List<PeerId> peerList;
+    private DefinedSet<PeerId> peerSet;
+    private PeerId routePeer;
+
+    @Setup
+    public void setup() {
+        this.communityList = new ArrayList<>(this.setSize);
+        this.extCommunityList = new ArrayList<>(this.setSize);
+        this.asList = new ArrayList<>(this.setSize);
+        this.peerList = new ArrayList<>(this.setSize);
+        final long[] communityKeys = new long[this.setSize];
+        final long[] asNumbers = new long[this.setSize];
+        for (int i = 0; i < this.setSize; i++) {
+            final Communities community = community(i);
+            this.communityList.add(community);
+            communityKeys[i] = (long) community.getAsNumber().getValue() << Short.SIZE | community.getSemantics();
+            this.extCommunityList.add(extCommunity(i));
+            this.asList.add(new AsNumber((long) i + 1));
+            asNumbers[i] = i + 1;
+            this.peerList.add(peer(i));
+        }
+        this.communitySet = LongDefinedSet.of(communityKeys);
+        this.extCommunitySet = DefinedSet.of(this.extCommunityList);
+        this.asSet = LongDefinedSet.of(asNumbers);
+        this.peerSet = DefinedSet.of(this.peerList);
+
+        this.routeCommunities = new ArrayList<>(ROUTE_VALUES);
+        this.routeExtCommunities = new ArrayList<>(ROUTE_VALUES);
+        this.routeAsPath = new ArrayList<>(ROUTE_VALUES);
+        for (int i = 0; i < ROUTE_VALUES; i++) {
+            this.routeCommunities.add(community(this.setSize + i));
+            this.routeExtCommunities.add(extCommunity(this.setSize + i));
+            this.routeAsPath.add(new AsNumber((long) this.setSize + i + 1));
+        }
+        this.routePeer = peer(this.setSize);
+    }
+
+    @Benchmark
+    public boolean communityList() {
+        return !Collections.disjoint(this.routeCommunities, this.communityList);
+    }
+
+    @Benchmark
+    public boolean communitySet() {
+        for (final Communities community : this.routeCommunities) {
+            final long key = (long) community.getAsNumber().getValue() << Short.SIZE | community.getSemantics();
+            if (this.communitySet.indexOf(key) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean extCommunityList() {
+        return !Collections.disjoint(this.routeExtCommunities, this.extCommunityList);
+    }
+
+    @Benchmark
+    public boolean extCommunitySet() {
+        return this.extCommunitySet.match(this.routeExtCommunities, MatchSetOptionsType.ANY);
+    }
+
+    @Benchmark
+    public boolean asPathList() {
+        return !Collections.disjoint(this.routeAsPath, this.asList);
+    }
+
+    @Benchmark
+    public boolean asPathSet() {
+        for (final AsNumber as : this.routeAsPath) {
+            if (this.asSet.indexOf(as.getValue()) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean neighborList() {
+        return this.peerList.contains(this.routePeer);
+    }
+
+    @Benchmark
+    public boolean neighborSet() {
+        return this.peerSet.contains(this.routePeer);
+    }
+
+    private static Communities community(final int index) {
+        return new CommunitiesBuilder().setAsNumber(new AsNumber((long) 64496 + index / 65536))
+            .setSemantics(index % 65536).build();
+    }
+
+    private static ExtendedCommunities extCommunity(final int index) {
+        return new ExtendedCommunitiesBuilder().setTransitive(true)
+            .setExtendedCommunity(new RouteTargetExtendedCommunityCaseBuilder()
+                .setRouteTargetExtendedCommunity(new RouteTargetExtendedCommunityBuilder()
+                    .setGlobalAdministrator(new ShortAsNumber(64496L))
+                    .setLocalAdministrator(new byte[] { 0, 0, (byte) (index >> 8), (byte) index })
+                    .build()).build())
+            .build();
+    }
+
+    private static PeerId peer(final int index) {
+        return RouterIds.createPeerId(new Ipv4Address("10.0." + (index >> 8 & 0xff) + "." + (index & 0xff)));
+    }
+}
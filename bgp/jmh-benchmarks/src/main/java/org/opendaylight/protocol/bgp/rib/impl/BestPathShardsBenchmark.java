@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.protocol.bgp.jmh.PathAttributes;
+import org.opendaylight.protocol.bgp.mode.api.RouteEntry;
+import org.opendaylight.protocol.bgp.mode.impl.base.BasePathSelectionModeFactory;
+import org.opendaylight.protocol.bgp.rib.spi.RouterId;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.bgp.rib.rib.loc.rib.tables.routes.Ipv4RoutesCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.Ipv4Routes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.ipv4.routes.Ipv4Route;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.ipv4.routes.Ipv4RouteBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.ipv4.routes.Ipv4RouteKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.PathId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loc-RIB convergence time as a function of the number of best path selection shards. Each invocation changes
+ * the path advertised by the first peer for every prefix, which is what a flapping upstream looks like, and then runs
+ * best path selection over all prefixes the way LocRibWriter does. Compare the time taken with {@code shards} set
+ * to 1, which is the unsharded behavior, with the other values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class BestPathShardsBenchmark {
+    private static final long OUR_AS = 64496;
+    private static final PathId PATH_ID = new PathId(0L);
+
+    @Param({ "100000" })
+    public int prefixes;
+
+    @Param({ "4" })
+    public int peers;
+
+    @Param({ "1", "2", "4", "8" })
+    public int shards;
+
+    private final List<RouteEntry<Ipv4RoutesCase, Ipv4Routes, Ipv4Route, Ipv4RouteKey>> entries = new ArrayList<>();
+    private final List<String> routeKeys = new ArrayList<>();
+    private Ipv4Route[][] flaps;
+    private RouterId flappingPeer;
+    private ExecutorService executor;
+    private boolean flapped;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.executor = Executors.newFixedThreadPool(Math.max(1, this.shards - 1));
+        this.flappingPeer = RouterId.forAddress(PathAttributes.address(0));
+        this.flaps = new Ipv4Route[2][this.prefixes];
+        for (int i = 0; i < this.prefixes; i++) {
+            final String routeKey = (i >> 16 & 0xff) + "." + (i >> 8 & 0xff) + "." + (i & 0xff) + ".0/24";
+            final RouteEntry<Ipv4RoutesCase, Ipv4Routes, Ipv4Route, Ipv4RouteKey> entry =
+                    BasePathSelectionModeFactory.createBestPathSelectionStrategy().createRouteEntry();
+            for (int peer = 0; peer < this.peers; peer++) {
+                entry.addRoute(RouterId.forAddress(PathAttributes.address(peer)), PATH_ID.getValue(),
+                    route(routeKey, peer));
+            }
+            entry.selectBest(OUR_AS);
+            this.entries.add(entry);
+            this.routeKeys.add(routeKey);
+
+            // Alternate the first peer's path between two sets of attributes, forcing best path selection to run again
+            this.flaps[0][i] = route(routeKey, this.peers);
+            this.flaps[1][i] = route(routeKey, 0);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void flap() {
+        final Ipv4Route[] routes = this.flaps[this.flapped ? 1 : 0];
+        this.flapped = !this.flapped;
+        for (int i = 0; i < this.prefixes; i++) {
+            this.entries.get(i).addRoute(this.flappingPeer, PATH_ID.getValue(), routes[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.executor.shutdown();
+    }
+
+    @Benchmark
+    public List<Integer> converge() {
+        final List<Integer> indices = new ArrayList<>(this.prefixes);
+        for (int i = 0; i < this.prefixes; i++) {
+            indices.add(i);
+        }
+        return ShardedExecution.execute(indices, this.shards, i -> this.routeKeys.get(i).hashCode(), shard -> {
+            int changed = 0;
+            for (final Integer index : shard) {
+                if (this.entries.get(index).selectBest(OUR_AS)) {
+                    changed++;
+                }
+            }
+            return changed;
+        }, this.executor);
+    }
+
+    private static Ipv4Route route(final String routeKey, final int index) {
+        return new Ipv4RouteBuilder().withKey(new Ipv4RouteKey(PATH_ID, routeKey)).setPathId(PATH_ID)
+            .setPrefix(new Ipv4Prefix(routeKey)).setAttributes(PathAttributes.create(index)).build();
+    }
+}
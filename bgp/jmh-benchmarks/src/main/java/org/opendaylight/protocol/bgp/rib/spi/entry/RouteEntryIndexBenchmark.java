@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.spi.entry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Populating and querying Loc-RIB route entry indices at full-table scale. The {@code footprint} benchmark reports
+ * the retained heap of a populated index as its {@code retainedBytes} secondary result, compare the {@code string}
+ * layout, which is what LocRibWriter used to keep, with the packed ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RouteEntryIndexBenchmark {
+    @Param({ "1000000" })
+    public int prefixes;
+
+    @Param({ "string-ipv4", "ipv4", "string-ipv6", "ipv6" })
+    public String layout;
+
+    private final Object entry = new Object();
+    private Supplier<RouteEntryIndex<Object>> factory;
+    private IntFunction<String> keyFunc;
+    private String[] keys;
+    private RouteEntryIndex<Object> populated;
+
+    /**
+     * Secondary results of {@link RouteEntryIndexBenchmark#footprint(Footprint)}.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (this.layout) {
+            case "string-ipv4":
+                this.factory = StringRouteEntryIndex::new;
+                this.keyFunc = RouteEntryIndexBenchmark::ipv4Prefix;
+                break;
+            case "ipv4":
+                this.factory = Ipv4RouteEntryIndex::new;
+                this.keyFunc = RouteEntryIndexBenchmark::ipv4Prefix;
+                break;
+            case "string-ipv6":
+                this.factory = StringRouteEntryIndex::new;
+                this.keyFunc = RouteEntryIndexBenchmark::ipv6Prefix;
+                break;
+            case "ipv6":
+                this.factory = Ipv6RouteEntryIndex::new;
+                this.keyFunc = RouteEntryIndexBenchmark::ipv6Prefix;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown layout " + this.layout);
+        }
+
+        this.keys = new String[this.prefixes];
+        for (int i = 0; i < this.prefixes; i++) {
+            this.keys[i] = this.keyFunc.apply(i);
+        }
+        this.populated = populate();
+    }
+
+    @Benchmark
+    public RouteEntryIndex<Object> footprint(final Footprint footprint) {
+        // Keys are generated into the index, as Loc-RIB would, so that the String layout retains them
+        final long before = usedHeap();
+        final RouteEntryIndex<Object> index = this.factory.get();
+        for (int i = 0; i < this.prefixes; i++) {
+            index.put(this.keyFunc.apply(i), this.entry);
+        }
+        footprint.retainedBytes = usedHeap() - before;
+        return index;
+    }
+
+    @Benchmark
+    public RouteEntryIndex<Object> populate() {
+        final RouteEntryIndex<Object> index = this.factory.get();
+        for (final String key : this.keys) {
+            index.put(key, this.entry);
+        }
+        return index;
+    }
+
+    @Benchmark
+    public int lookup() {
+        int found = 0;
+        for (final String key : this.keys) {
+            if (this.populated.get(key) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private static String ipv4Prefix(final int value) {
+        return (value >>> 14 & 0xFF) + "." + (value >>> 6 & 0xFF) + "." + (value << 2 & 0xFF) + ".0/"
+                + (value % 3 == 0 ? 24 : 22);
+    }
+
+    private static String ipv6Prefix(final int value) {
+        return "2001:db8:" + Integer.toHexString(value >>> 8) + ":" + Integer.toHexString(value & 0xFF) + "::/"
+                + (value % 3 == 0 ? 64 : 48);
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -11,19 +11,29 @@ package org.opendaylight.protocol.bgp.openconfig.routing.policy.impl;
 import static java.util.Objects.requireNonNull;
 import static org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry.RouteAttributeContainer.routeAttributeContainerFalse;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
+import java.util.Set;
+import org.opendaylight.mdsal.binding.api.ClusteredDataTreeChangeListener;
 import org.opendaylight.mdsal.binding.api.DataBroker;
+import org.opendaylight.mdsal.binding.api.DataTreeIdentifier;
+import org.opendaylight.mdsal.binding.api.DataTreeModification;
 import org.opendaylight.mdsal.binding.api.ReadTransaction;
 import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry.CompiledStatement;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry.RouteAttributeContainer;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry.StatementRegistryConsumer;
+import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRibPolicyChangeListener;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRibRoutingPolicy;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
@@ -33,17 +43,43 @@ import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev1
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.RoutingPolicy;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.PolicyDefinitions;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.policy.definitions.PolicyDefinition;
-import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.policy.definitions.PolicyDefinitionKey;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.policy.definitions.policy.definition.Statements;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.policy.definitions.policy.definition.statements.Statement;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.ClusterIdentifier;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.concepts.Registration;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-final class BGPRibPolicyImpl implements BGPRibRoutingPolicy {
-    private static final InstanceIdentifier<RoutingPolicy> ROUTING_POLICY_IID
-            = InstanceIdentifier.create(RoutingPolicy.class);
+final class BGPRibPolicyImpl implements BGPRibRoutingPolicy, ClusteredDataTreeChangeListener<PolicyDefinitions> {
+    /**
+     * Import and export statements compiled from the configured policy chains, against a particular generation
+     * of the statement registry handlers.
+     */
+    private static final class PolicyPlan {
+        final PolicyDefinitions source;
+        final long generation;
+        final CompiledStatement[] importStatements;
+        final CompiledStatement[] exportStatements;
+        final boolean exportShareable;
+
+        PolicyPlan(final PolicyDefinitions source, final long generation, final CompiledStatement[] importStatements,
+                final CompiledStatement[] exportStatements) {
+            this.source = source;
+            this.generation = generation;
+            this.importStatements = importStatements;
+            this.exportStatements = exportStatements;
+            this.exportShareable = Arrays.stream(exportStatements)
+                    .noneMatch(CompiledStatement::isDestinationPeerSpecific);
+        }
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(BGPRibPolicyImpl.class);
+    private static final InstanceIdentifier<PolicyDefinitions> POLICY_DEFINITIONS_IID
+            = InstanceIdentifier.create(RoutingPolicy.class).child(PolicyDefinitions.class);
     private static final List<String> DEFAULT_IMPORT_POLICY = Collections.singletonList("default-odl-import-policy");
     private static final List<String> DEFAULT_EXPORT_POLICY = Collections.singletonList("default-odl-export-policy");
     private final DefaultPolicyType defaultExportPolicy;
@@ -53,13 +89,13 @@ final class BGPRibPolicyImpl implements BGPRibRoutingPolicy {
     private final StatementRegistryConsumer policyRegistry;
     private final RouteEntryBaseAttributes ribBaseParameters;
     private final DataBroker databroker;
-    private final LoadingCache<String, List<Statement>> statements = CacheBuilder.newBuilder()
-            .build(new CacheLoader<String, List<Statement>>() {
-                @Override
-                public List<Statement> load(final String key) throws ExecutionException, InterruptedException {
-                    return loadStatements(key);
-                }
-            });
+    private final List<BGPRibPolicyChangeListener> changeListeners = new ArrayList<>();
+    private ListenerRegistration<BGPRibPolicyImpl> registration;
+    private Registration handlerRegistration;
+    // Set once policyDefinitions reflect the datastore, either through the initial read or through a notification
+    private boolean seeded;
+    private volatile PolicyDefinitions policyDefinitions;
+    private volatile PolicyPlan plan;
 
     BGPRibPolicyImpl(final DataBroker databroker, final StatementRegistryConsumer policyRegistry,
             final long localAs, final Ipv4Address originatorId, final ClusterIdentifier clusterId,
@@ -83,29 +119,242 @@ final class BGPRibPolicyImpl implements BGPRibRoutingPolicy {
         this.exportPolicy = requireNonNull(epolicy);
         this.importPolicy = requireNonNull(ipolicy);
         this.ribBaseParameters = new PolicyRIBBaseParametersImpl(localAs, originatorId, clusterId);
+        loadPolicyDefinitions();
     }
 
-    private List<Statement> loadStatements(final String key) throws ExecutionException, InterruptedException {
+    /**
+     * Read the routing policy definitions once, when the RIB is configured, so that they are known even if no one
+     * listens for policy changes. The read does not block: until it completes routes see no policy definitions, and
+     * the listeners registered by then are notified once the definitions are in place. Any further changes are
+     * delivered by the data tree change listener.
+     */
+    private void loadPolicyDefinitions() {
         final ReadTransaction tr = this.databroker.newReadOnlyTransaction();
-        final Optional<Statements> result =
-                tr.read(LogicalDatastoreType.CONFIGURATION, ROUTING_POLICY_IID.child(PolicyDefinitions.class)
-                        .child(PolicyDefinition.class, new PolicyDefinitionKey(key)).child(Statements.class)).get();
-        if (!result.isPresent()) {
-            return Collections.emptyList();
+        tr.read(LogicalDatastoreType.CONFIGURATION, POLICY_DEFINITIONS_IID).addCallback(
+            new FutureCallback<Optional<PolicyDefinitions>>() {
+                @Override
+                public void onSuccess(final Optional<PolicyDefinitions> result) {
+                    onPolicyDefinitionsRead(result.orElse(null));
+                }
+
+                @Override
+                public void onFailure(final Throwable throwable) {
+                    LOG.error("Failed to read routing policy definitions", throwable);
+                }
+            }, MoreExecutors.directExecutor());
+    }
+
+    private void onPolicyDefinitionsRead(final PolicyDefinitions read) {
+        final List<BGPRibPolicyChangeListener> listeners;
+        final boolean importChanged;
+        final boolean exportChanged;
+        synchronized (this) {
+            // A data tree change notification is at least as recent as our read
+            if (this.seeded) {
+                return;
+            }
+            this.seeded = true;
+            if (read == null) {
+                return;
+            }
+            importChanged = policiesChanged(this.importPolicy, this.policyDefinitions, read);
+            exportChanged = policiesChanged(this.exportPolicy, this.policyDefinitions, read);
+            this.policyDefinitions = read;
+            listeners = new ArrayList<>(this.changeListeners);
+        }
+
+        LOG.debug("Routing policy definitions loaded, re-evaluating import {} export {}", importChanged,
+            exportChanged);
+        notifyListeners(listeners, importChanged, exportChanged);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Listeners are notified of changes to the policy definitions as well as of changes reported by the statement
+     * handlers, such as an update of the defined sets. The latter are delivered only once the handlers evaluate
+     * routes against the new defined sets. A definition change is reported only for the directions whose policy
+     * chain names the changed definition, a defined set change only for the directions with a statement referencing
+     * the changed set. Policies are configured per RIB, hence a change affects all peers and tables alike.
+     */
+    @Override
+    public synchronized Registration registerPolicyChangeListener(final BGPRibPolicyChangeListener listener) {
+        requireNonNull(listener);
+        if (this.changeListeners.isEmpty()) {
+            this.registration = this.databroker.registerDataTreeChangeListener(
+                    DataTreeIdentifier.create(LogicalDatastoreType.CONFIGURATION, POLICY_DEFINITIONS_IID), this);
+            this.handlerRegistration = this.policyRegistry.registerChangeListener(this::onHandlersChanged);
+        }
+        this.changeListeners.add(listener);
+        return () -> unregisterPolicyChangeListener(listener);
+    }
+
+    private synchronized void unregisterPolicyChangeListener(final BGPRibPolicyChangeListener listener) {
+        if (this.changeListeners.remove(listener) && this.changeListeners.isEmpty()) {
+            this.registration.close();
+            this.registration = null;
+            this.handlerRegistration.close();
+            this.handlerRegistration = null;
+        }
+    }
+
+    @Override
+    public void onDataTreeChanged(final Collection<DataTreeModification<PolicyDefinitions>> changes) {
+        final List<BGPRibPolicyChangeListener> listeners;
+        final boolean importChanged;
+        final boolean exportChanged;
+        synchronized (this) {
+            if (this.registration == null) {
+                return;
+            }
+            PolicyDefinitions updated = this.policyDefinitions;
+            for (final DataTreeModification<PolicyDefinitions> change : changes) {
+                updated = change.getRootNode().getDataAfter();
+            }
+            this.seeded = true;
+            if (Objects.equals(updated, this.policyDefinitions)) {
+                return;
+            }
+            importChanged = policiesChanged(this.importPolicy, this.policyDefinitions, updated);
+            exportChanged = policiesChanged(this.exportPolicy, this.policyDefinitions, updated);
+            this.policyDefinitions = updated;
+            listeners = new ArrayList<>(this.changeListeners);
+        }
+
+        LOG.debug("Routing policy definitions changed, re-evaluating import {} export {}", importChanged,
+            exportChanged);
+        notifyListeners(listeners, importChanged, exportChanged);
+    }
+
+    private void onHandlersChanged(final Set<String> definedSets) {
+        final List<BGPRibPolicyChangeListener> listeners;
+        synchronized (this) {
+            if (this.handlerRegistration == null) {
+                return;
+            }
+            listeners = new ArrayList<>(this.changeListeners);
+        }
+
+        // Statements reference defined sets by their configuration, which does not depend on the handler state
+        final PolicyPlan current = getPlan();
+        final boolean importChanged = referencesAny(current.importStatements, definedSets);
+        final boolean exportChanged = referencesAny(current.exportStatements, definedSets);
+        LOG.debug("Defined sets {} changed, re-evaluating import {} export {}", definedSets, importChanged,
+            exportChanged);
+        notifyListeners(listeners, importChanged, exportChanged);
+    }
+
+    /**
+     * Check whether any of the named policies has been added, modified or removed.
+     */
+    private static boolean policiesChanged(final List<String> policyNames, final PolicyDefinitions before,
+            final PolicyDefinitions after) {
+        final Map<String, PolicyDefinition> definitionsBefore = policyDefinitions(before);
+        final Map<String, PolicyDefinition> definitionsAfter = policyDefinitions(after);
+        return policyNames.stream()
+                .anyMatch(name -> !Objects.equals(definitionsBefore.get(name), definitionsAfter.get(name)));
+    }
+
+    private static boolean referencesAny(final CompiledStatement[] statements, final Set<String> definedSets) {
+        return Arrays.stream(statements)
+                .anyMatch(statement -> statement.getDefinedSets().stream().anyMatch(definedSets::contains));
+    }
+
+    @SuppressWarnings("checkstyle:illegalCatch")
+    private static void notifyListeners(final List<BGPRibPolicyChangeListener> listeners,
+            final boolean importChanged, final boolean exportChanged) {
+        for (final BGPRibPolicyChangeListener listener : listeners) {
+            try {
+                if (importChanged) {
+                    listener.onImportPolicyChanged();
+                }
+                if (exportChanged) {
+                    listener.onExportPolicyChanged();
+                }
+            } catch (final RuntimeException e) {
+                LOG.warn("Routing policy change listener {} failed", listener, e);
+            }
+        }
+    }
+
+    private PolicyPlan getPlan() {
+        final PolicyDefinitions current = this.policyDefinitions;
+        final long generation = this.policyRegistry.getGeneration();
+        final PolicyPlan local = this.plan;
+        if (isCurrent(local, current, generation)) {
+            return local;
+        }
+        return compilePlan(current, generation);
+    }
+
+    private synchronized PolicyPlan compilePlan(final PolicyDefinitions current, final long generation) {
+        PolicyPlan local = this.plan;
+        if (!isCurrent(local, current, generation)) {
+            // The generation has been read before compiling, hence a handler (un)registered while we compile results
+            // in another compilation on next access rather than in a stale plan being used
+            final Map<String, PolicyDefinition> definitions = policyDefinitions(current);
+            local = new PolicyPlan(current, generation, compileStatements(definitions, this.importPolicy),
+                compileStatements(definitions, this.exportPolicy));
+            this.plan = local;
+        }
+        return local;
+    }
+
+    private static boolean isCurrent(final PolicyPlan plan, final PolicyDefinitions current,
+            final long generation) {
+        return plan != null && plan.source == current && plan.generation == generation;
+    }
+
+    private static Map<String, PolicyDefinition> policyDefinitions(final PolicyDefinitions definitions) {
+        if (definitions == null || definitions.getPolicyDefinition() == null) {
+            return Collections.emptyMap();
+        }
+        final Map<String, PolicyDefinition> ret = new HashMap<>();
+        for (final PolicyDefinition definition : definitions.getPolicyDefinition()) {
+            ret.put(definition.getName(), definition);
+        }
+        return ret;
+    }
+
+    private CompiledStatement[] compileStatements(final Map<String, PolicyDefinition> definitions,
+            final List<String> policyNames) {
+        final List<CompiledStatement> compiled = new ArrayList<>();
+        for (final String policyName : policyNames) {
+            final PolicyDefinition definition = definitions.get(policyName);
+            if (definition == null) {
+                continue;
+            }
+            final Statements statements = definition.getStatements();
+            if (statements == null || statements.getStatement() == null) {
+                continue;
+            }
+            for (final Statement statement : statements.getStatement()) {
+                compiled.add(this.policyRegistry.compileStatement(statement));
+            }
         }
-        return result.get().getStatement();
+        return compiled.toArray(new CompiledStatement[0]);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Compiled statements evaluate route attributes, AFI/SAFI and parameters of the advertising peer only, hence
+     * the outcome is always reusable.
+     */
+    @Override
+    public boolean isImportPolicyReusable() {
+        return true;
     }
 
     @Override
     public Optional<Attributes> applyImportPolicies(final BGPRouteEntryImportParameters policyParameters,
             final Attributes attributes, final Class<? extends AfiSafiType> afiSafiType) {
         RouteAttributeContainer currentAttributes = routeAttributeContainerFalse(attributes);
-        for (final String policyName : this.importPolicy) {
-            for (final Statement statement : this.statements.getUnchecked(policyName)) {
-                currentAttributes = this.policyRegistry
-                        .applyImportStatement(this.ribBaseParameters, afiSafiType, policyParameters, currentAttributes,
-                                statement);
-            }
+        for (final CompiledStatement statement : getPlan().importStatements) {
+            currentAttributes = statement.applyImport(this.ribBaseParameters, afiSafiType, policyParameters,
+                    currentAttributes);
         }
         if (!currentAttributes.anyConditionSatisfied()) {
             if (DefaultPolicyType.REJECTROUTE.equals(this.defaultImportPolicy)) {
@@ -115,15 +364,25 @@ final class BGPRibPolicyImpl implements BGPRibRoutingPolicy {
         return Optional.ofNullable(currentAttributes.getAttributes());
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Export policies are shareable unless any of the compiled export statements is specific to the destination
+     * peer, such as a to-neighbor set match.
+     */
+    @Override
+    public boolean isExportPolicyShareable() {
+        return getPlan().exportShareable;
+    }
+
     @Override
     public Optional<Attributes> applyExportPolicies(final BGPRouteEntryExportParameters policyParameters,
             final Attributes attributes, final Class<? extends AfiSafiType> afiSafi) {
         RouteAttributeContainer currentAttributes = routeAttributeContainerFalse(attributes);
-        for (final String policyName : this.exportPolicy) {
-            for (final Statement statement : this.statements.getUnchecked(policyName)) {
-                currentAttributes = this.policyRegistry.applyExportStatement(
-                        this.ribBaseParameters, afiSafi, policyParameters, currentAttributes, statement);
-            }
+        for (final CompiledStatement statement : getPlan().exportStatements) {
+            currentAttributes = statement.applyExport(this.ribBaseParameters, afiSafi, policyParameters,
+                    currentAttributes);
         }
         if (!currentAttributes.anyConditionSatisfied()) {
             if (DefaultPolicyType.REJECTROUTE.equals(this.defaultExportPolicy)) {
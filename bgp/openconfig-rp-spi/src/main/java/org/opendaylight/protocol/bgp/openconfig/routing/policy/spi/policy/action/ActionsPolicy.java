@@ -7,6 +7,8 @@
  */
 package org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.action;
 
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
@@ -45,4 +47,26 @@ public interface ActionsPolicy<T> {
     @Nullable Attributes applyExportAction(@NonNull RouteEntryBaseAttributes routeEntryInfo,
             @NonNull BGPRouteEntryExportParameters exportParameters, @NonNull Attributes attributes,
             @NonNull T actions);
+
+    /**
+     * Indicate whether export application of this action depends on the identity of the destination peer, its
+     * RTC client route cache or the route key, as opposed to only its role, local AS and route target memberships.
+     * Results of export policies containing such an action cannot be shared among destination peers.
+     *
+     * @return true if the action is specific to the destination peer
+     */
+    default boolean isDestinationPeerSpecific() {
+        return false;
+    }
+
+    /**
+     * Return the names of defined sets the action is applied with. Routes the action has been applied to need to be
+     * re-evaluated when any of these sets changes.
+     *
+     * @param actions configured actions
+     * @return names of referenced defined sets
+     */
+    default @NonNull Set<String> getDefinedSets(final @NonNull T actions) {
+        return ImmutableSet.of();
+    }
 }
@@ -7,6 +7,8 @@
  */
 package org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.condition;
 
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
@@ -57,4 +59,26 @@ public interface ConditionsPolicy<T, N> {
      * @return specific attribute
      */
     @Nullable N getConditionParameter(@NonNull Attributes attributes);
+
+    /**
+     * Indicate whether export evaluation of this condition depends on the identity of the destination peer, its
+     * RTC client route cache or the route key, as opposed to only its role, local AS and route target memberships.
+     * Results of export policies containing such a condition cannot be shared among destination peers.
+     *
+     * @return true if the condition is specific to the destination peer
+     */
+    default boolean isDestinationPeerSpecific() {
+        return false;
+    }
+
+    /**
+     * Return the names of defined sets the condition is evaluated against. Routes evaluated by the condition need to
+     * be re-evaluated when any of these sets changes.
+     *
+     * @param conditions configured conditions
+     * @return names of referenced defined sets
+     */
+    default @NonNull Set<String> getDefinedSets(final @NonNull T conditions) {
+        return ImmutableSet.of();
+    }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
+import org.eclipse.jdt.annotation.Nullable;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.action.ActionsPolicy;
+import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
+import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+
+/**
+ * A single action of a compiled statement, bound to its configuration and, if applicable, to the handler
+ * applying it.
+ */
+abstract class ActionApplier {
+    /**
+     * Action applied by a registered {@link ActionsPolicy}.
+     */
+    static final class PolicyApplier<T> extends ActionApplier {
+        private final ActionsPolicy<T> handler;
+        private final T actions;
+
+        PolicyApplier(final ActionsPolicy<T> handler, final T actions) {
+            this.handler = requireNonNull(handler);
+            this.actions = requireNonNull(actions);
+        }
+
+        @Override
+        Attributes applyImport(final RouteEntryBaseAttributes entryInfo,
+                final BGPRouteEntryImportParameters parameters, final Attributes attributes) {
+            return this.handler.applyImportAction(entryInfo, parameters, attributes, this.actions);
+        }
+
+        @Override
+        Attributes applyExport(final RouteEntryBaseAttributes entryInfo,
+                final BGPRouteEntryExportParameters parameters, final Attributes attributes) {
+            return this.handler.applyExportAction(entryInfo, parameters, attributes, this.actions);
+        }
+
+        @Override
+        boolean isDestinationPeerSpecific() {
+            return this.handler.isDestinationPeerSpecific();
+        }
+
+        @Override
+        Set<String> getDefinedSets() {
+            return this.handler.getDefinedSets(this.actions);
+        }
+    }
+
+    abstract @Nullable Attributes applyImport(RouteEntryBaseAttributes entryInfo,
+            BGPRouteEntryImportParameters parameters, Attributes attributes);
+
+    abstract @Nullable Attributes applyExport(RouteEntryBaseAttributes entryInfo,
+            BGPRouteEntryExportParameters parameters, Attributes attributes);
+
+    boolean isDestinationPeerSpecific() {
+        return false;
+    }
+
+    Set<String> getDefinedSets() {
+        return ImmutableSet.of();
+    }
+}
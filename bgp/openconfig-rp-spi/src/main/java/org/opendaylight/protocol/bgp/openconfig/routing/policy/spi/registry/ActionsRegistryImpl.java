@@ -7,17 +7,20 @@
  */
 package org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry;
 
-import static java.util.Objects.requireNonNull;
-
 import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.checkerframework.checker.lock.qual.GuardedBy;
+import org.eclipse.jdt.annotation.Nullable;
 import org.opendaylight.mdsal.binding.spec.reflect.BindingReflections;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.action.ActionsAugPolicy;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.action.BgpActionAugPolicy;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.action.BgpActionPolicy;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry.ActionApplier.PolicyApplier;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.Actions1;
@@ -33,8 +36,11 @@ import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev1
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.LocalPref;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.LocalPrefBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.MultiExitDisc;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.MultiExitDiscBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.Origin;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.OriginBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.BgpOrigin;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.next.hop.CNextHop;
@@ -47,6 +53,20 @@ import org.opendaylight.yangtools.yang.binding.Augmentation;
 import org.opendaylight.yangtools.yang.binding.ChildOf;
 
 final class ActionsRegistryImpl {
+    private static final ActionApplier REJECT = new ActionApplier() {
+        @Override
+        Attributes applyImport(final RouteEntryBaseAttributes entryInfo,
+                final BGPRouteEntryImportParameters parameters, final Attributes attributes) {
+            return null;
+        }
+
+        @Override
+        Attributes applyExport(final RouteEntryBaseAttributes entryInfo,
+                final BGPRouteEntryExportParameters parameters, final Attributes attributes) {
+            return null;
+        }
+    };
+
     @GuardedBy("this")
     private final Map<Class<? extends Augmentation<Actions>>, ActionsAugPolicy> actionsRegistry = new HashMap<>();
     @GuardedBy("this")
@@ -110,230 +130,135 @@ final class ActionsRegistryImpl {
         }
     }
 
-    @SuppressWarnings("unchecked")
-    Attributes applyExportAction(
-            final RouteEntryBaseAttributes routeEntryInfo,
-            final BGPRouteEntryExportParameters routeEntryExportParameters,
-            final Attributes attributes,
-            final Actions actions) {
-        requireNonNull(attributes);
+    /**
+     * Compile statement actions into appliers, which are to be applied in order until one of them rejects the route.
+     *
+     * @param actions Statement actions
+     * @return Action appliers, empty if the statement has no actions
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    List<ActionApplier> compileActions(final @Nullable Actions actions) {
+        if (actions == null) {
+            return Collections.emptyList();
+        }
         if (actions.getRouteDisposition() instanceof RejectRoute) {
-            return null;
+            return Collections.singletonList(REJECT);
         }
-        Attributes attributesUpdated = attributes;
+
+        final List<ActionApplier> appliers = new ArrayList<>();
         final Actions1 augmentation = actions.augmentation(Actions1.class);
         if (augmentation != null && augmentation.getBgpActions() != null) {
             final BgpActions bgpAction = augmentation.getBgpActions();
-
-            final SetAsPathPrepend asPrependAction = bgpAction.getSetAsPathPrepend();
-            final Long localPrefPrependAction = bgpAction.getSetLocalPref();
-            final BgpOriginAttrType localOriginAction = bgpAction.getSetRouteOrigin();
-            final BgpSetMedType medAction = bgpAction.getSetMed();
-            final BgpNextHopType nhAction = bgpAction.getSetNextHop();
-            final SetCommunity setCommunityAction = bgpAction.getSetCommunity();
-            final SetExtCommunity setExtCommunityAction = bgpAction.getSetExtCommunity();
-
-            if (asPrependAction != null) {
-                attributesUpdated = this.bgpActions.get(SetAsPathPrepend.class)
-                        .applyExportAction(routeEntryInfo, routeEntryExportParameters, attributesUpdated,
-                                asPrependAction);
+            synchronized (this.bgpActions) {
+                compileAction(SetAsPathPrepend.class, bgpAction.getSetAsPathPrepend(), appliers);
+                compileAction(SetCommunity.class, bgpAction.getSetCommunity(), appliers);
+                compileAction(SetExtCommunity.class, bgpAction.getSetExtCommunity(), appliers);
             }
 
-            if (attributesUpdated == null) {
-                return null;
+            if (bgpAction.getSetLocalPref() != null || bgpAction.getSetRouteOrigin() != null
+                    || bgpAction.getSetMed() != null || bgpAction.getSetNextHop() != null) {
+                appliers.add(new SetAttributesApplier(bgpAction));
             }
 
-            if (setCommunityAction != null) {
-                attributesUpdated = this.bgpActions.get(SetCommunity.class)
-                        .applyExportAction(routeEntryInfo, routeEntryExportParameters, attributesUpdated,
-                                setCommunityAction);
-            }
-
-            if (attributesUpdated == null) {
-                return null;
-            }
-
-            if (setExtCommunityAction != null) {
-                attributesUpdated = this.bgpActions.get(SetExtCommunity.class)
-                        .applyExportAction(routeEntryInfo, routeEntryExportParameters, attributesUpdated,
-                                setExtCommunityAction);
-            }
-
-            boolean updated = false;
-            if (localPrefPrependAction != null || localOriginAction != null
-                    || medAction != null || nhAction != null) {
-                updated = true;
-            }
-
-            if (updated) {
-                final AttributesBuilder attributesUpdatedBuilder = new AttributesBuilder(attributes);
-                if (localPrefPrependAction != null) {
-                    attributesUpdatedBuilder.setLocalPref(new LocalPrefBuilder()
-                            .setPref(localPrefPrependAction).build());
-                }
-
-                if (localOriginAction != null) {
-                    attributesUpdatedBuilder.setOrigin(new OriginBuilder()
-                            .setValue(BgpOrigin.forValue(localOriginAction.getIntValue())).build());
-                }
-
-                if (medAction != null) {
-                    attributesUpdatedBuilder.setMultiExitDisc(new MultiExitDiscBuilder()
-                            .setMed(medAction.getUint32()).build());
-                }
-
-                if (nhAction != null) {
-                    final IpAddress address = nhAction.getIpAddress();
-                    CNextHop nhNew;
-                    if (address != null) {
-                        if (address.getIpv4Address() != null) {
-                            nhNew = new Ipv4NextHopCaseBuilder().setIpv4NextHop(new Ipv4NextHopBuilder()
-                                    .setGlobal(address.getIpv4Address()).build()).build();
-                        } else {
-                            nhNew = new Ipv6NextHopCaseBuilder().setIpv6NextHop(new Ipv6NextHopBuilder()
-                                    .setGlobal(address.getIpv6Address()).build()).build();
-                        }
-
-                        attributesUpdatedBuilder.setCNextHop(nhNew);
-                    } else if (nhAction.getEnumeration() != null
-                            && BgpNextHopType.Enumeration.SELF == nhAction.getEnumeration()) {
-                        nhNew = new Ipv4NextHopCaseBuilder().setIpv4NextHop(new Ipv4NextHopBuilder()
-                                .setGlobal(routeEntryInfo.getOriginatorId()).build()).build();
-                        attributesUpdatedBuilder.setCNextHop(nhNew);
-                    }
-                }
-                attributesUpdated = attributesUpdatedBuilder.build();
-            }
-
-            final Map<Class<? extends Augmentation<?>>, Augmentation<?>> bgpConditionsAug = BindingReflections
+            final Map<Class<? extends Augmentation<?>>, Augmentation<?>> bgpActionsAug = BindingReflections
                     .getAugmentations(bgpAction);
-
-            if (bgpConditionsAug != null) {
+            synchronized (this.bgpAugActionsRegistry) {
                 for (final Map.Entry<Class<? extends Augmentation<?>>, Augmentation<?>> entry
-                        : bgpConditionsAug.entrySet()) {
+                        : bgpActionsAug.entrySet()) {
                     final BgpActionAugPolicy handler = this.bgpAugActionsRegistry.get(entry.getKey());
-                    if (handler == null) {
-                        continue;
-                    } else if (attributesUpdated == null) {
-                        return null;
+                    if (handler != null) {
+                        appliers.add(new PolicyApplier<>(handler, entry.getValue()));
                     }
-                    attributesUpdated = handler.applyExportAction(routeEntryInfo, routeEntryExportParameters,
-                            attributesUpdated, entry.getValue());
                 }
             }
         }
 
-        if (attributesUpdated == null) {
-            return null;
-        }
-
-        // Export Actions Aug
-        final Map<Class<? extends Augmentation<?>>, Augmentation<?>> conditionsAug = BindingReflections
+        final Map<Class<? extends Augmentation<?>>, Augmentation<?>> actionsAug = BindingReflections
                 .getAugmentations(actions);
-
-        if (conditionsAug == null) {
-            return attributes;
-        }
-
-        for (final Map.Entry<Class<? extends Augmentation<?>>, Augmentation<?>> entry : conditionsAug.entrySet()) {
-            final ActionsAugPolicy handler = this.actionsRegistry.get(entry.getKey());
-            if (attributesUpdated == null) {
-                return null;
-            } else if (handler == null) {
-                continue;
+        synchronized (this.actionsRegistry) {
+            for (final Map.Entry<Class<? extends Augmentation<?>>, Augmentation<?>> entry : actionsAug.entrySet()) {
+                final ActionsAugPolicy handler = this.actionsRegistry.get(entry.getKey());
+                if (handler != null) {
+                    appliers.add(new PolicyApplier<>(handler, (Augmentation<Actions>) entry.getValue()));
+                }
             }
-            attributesUpdated = handler.applyExportAction(routeEntryInfo, routeEntryExportParameters,
-                    attributesUpdated, (Augmentation<Actions>) entry.getValue());
         }
-
-        return attributesUpdated;
+        return appliers;
     }
 
-    @SuppressWarnings("unchecked")
-    Attributes applyImportAction(
-            final RouteEntryBaseAttributes routeEntryInfo,
-            final BGPRouteEntryImportParameters routeParameters,
-            final Attributes attributes,
-            final Actions actions) {
-        if (actions.getRouteDisposition() instanceof RejectRoute) {
-            return null;
+    @GuardedBy("bgpActions")
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private void compileAction(final Class<? extends ChildOf<BgpActions>> actionClass,
+            final ChildOf<BgpActions> action, final List<ActionApplier> appliers) {
+        if (action != null) {
+            final BgpActionPolicy handler = this.bgpActions.get(actionClass);
+            Preconditions.checkState(handler != null, "No Action Policy registered for %s", actionClass);
+            appliers.add(new PolicyApplier<>(handler, action));
         }
-        Attributes attributesUpdated = attributes;
-        final Actions1 augmentation = actions.augmentation(Actions1.class);
-
-        if (augmentation != null && augmentation.getBgpActions() != null) {
-            final BgpActions bgpAction = augmentation.getBgpActions();
-            final SetCommunity setCommunityAction = bgpAction.getSetCommunity();
-            final SetExtCommunity setExtCommunityAction = bgpAction.getSetExtCommunity();
-            final SetAsPathPrepend asPrependAction = bgpAction.getSetAsPathPrepend();
-
-            if (asPrependAction != null) {
-                attributesUpdated = this.bgpActions.get(asPrependAction.getClass())
-                        .applyImportAction(routeEntryInfo, routeParameters, attributesUpdated, asPrependAction);
-            }
-
-            if (attributesUpdated == null) {
-                return null;
-            }
-
-            if (setCommunityAction != null) {
-                attributesUpdated = this.bgpActions.get(SetCommunity.class)
-                        .applyImportAction(routeEntryInfo, routeParameters, attributesUpdated,
-                                setCommunityAction);
-            }
-
-            if (attributesUpdated == null) {
-                return null;
-            }
+    }
 
-            if (setExtCommunityAction != null) {
-                attributesUpdated = this.bgpActions.get(SetExtCommunity.class)
-                        .applyImportAction(routeEntryInfo, routeParameters, attributesUpdated, setExtCommunityAction);
-            }
+    /**
+     * Sets LOCAL_PREF, ORIGIN, MED and NEXT_HOP on exported routes. Imported routes are left intact.
+     */
+    private static final class SetAttributesApplier extends ActionApplier {
+        private final LocalPref localPref;
+        private final Origin origin;
+        private final MultiExitDisc med;
+        private final CNextHop nextHop;
+        private final boolean nextHopSelf;
+
+        SetAttributesApplier(final BgpActions bgpAction) {
+            final Long localPrefAction = bgpAction.getSetLocalPref();
+            this.localPref = localPrefAction == null ? null : new LocalPrefBuilder().setPref(localPrefAction).build();
+            final BgpOriginAttrType originAction = bgpAction.getSetRouteOrigin();
+            this.origin = originAction == null ? null : new OriginBuilder()
+                    .setValue(BgpOrigin.forValue(originAction.getIntValue())).build();
+            final BgpSetMedType medAction = bgpAction.getSetMed();
+            this.med = medAction == null ? null : new MultiExitDiscBuilder().setMed(medAction.getUint32()).build();
 
-            if (attributesUpdated == null) {
-                return null;
+            final BgpNextHopType nhAction = bgpAction.getSetNextHop();
+            final IpAddress address = nhAction == null ? null : nhAction.getIpAddress();
+            if (address != null) {
+                if (address.getIpv4Address() != null) {
+                    this.nextHop = new Ipv4NextHopCaseBuilder().setIpv4NextHop(new Ipv4NextHopBuilder()
+                            .setGlobal(address.getIpv4Address()).build()).build();
+                } else {
+                    this.nextHop = new Ipv6NextHopCaseBuilder().setIpv6NextHop(new Ipv6NextHopBuilder()
+                            .setGlobal(address.getIpv6Address()).build()).build();
+                }
+                this.nextHopSelf = false;
+            } else {
+                this.nextHop = null;
+                this.nextHopSelf = nhAction != null && BgpNextHopType.Enumeration.SELF == nhAction.getEnumeration();
             }
+        }
 
-            final Map<Class<? extends Augmentation<?>>, Augmentation<?>> bgpConditionsAug = BindingReflections
-                    .getAugmentations(bgpAction);
+        @Override
+        Attributes applyImport(final RouteEntryBaseAttributes entryInfo,
+                final BGPRouteEntryImportParameters parameters, final Attributes attributes) {
+            return attributes;
+        }
 
-            if (bgpConditionsAug == null) {
-                return attributes;
+        @Override
+        Attributes applyExport(final RouteEntryBaseAttributes entryInfo,
+                final BGPRouteEntryExportParameters parameters, final Attributes attributes) {
+            final AttributesBuilder builder = new AttributesBuilder(attributes);
+            if (this.localPref != null) {
+                builder.setLocalPref(this.localPref);
             }
-
-            for (final Map.Entry<Class<? extends Augmentation<?>>, Augmentation<?>> entry
-                    : bgpConditionsAug.entrySet()) {
-                final BgpActionAugPolicy handler = this.bgpAugActionsRegistry.get(entry.getKey());
-                if (handler == null) {
-                    continue;
-                } else if (attributesUpdated == null) {
-                    return null;
-                }
-                attributesUpdated = handler.applyImportAction(routeEntryInfo, routeParameters, attributesUpdated,
-                        entry.getValue());
+            if (this.origin != null) {
+                builder.setOrigin(this.origin);
             }
-            if (attributesUpdated == null) {
-                return null;
+            if (this.med != null) {
+                builder.setMultiExitDisc(this.med);
             }
-        }
-        // Augmented Actions
-        final Map<Class<? extends Augmentation<?>>, Augmentation<?>> conditionsAug = BindingReflections
-                .getAugmentations(actions);
-
-        if (conditionsAug == null) {
-            return attributesUpdated;
-        }
-        for (final Map.Entry<Class<? extends Augmentation<?>>, Augmentation<?>> entry : conditionsAug.entrySet()) {
-            final ActionsAugPolicy handler = this.actionsRegistry.get(entry.getKey());
-            if (handler == null) {
-                continue;
-            } else if (attributesUpdated == null) {
-                return null;
+            if (this.nextHop != null) {
+                builder.setCNextHop(this.nextHop);
+            } else if (this.nextHopSelf) {
+                builder.setCNextHop(new Ipv4NextHopCaseBuilder().setIpv4NextHop(new Ipv4NextHopBuilder()
+                        .setGlobal(entryInfo.getOriginatorId()).build()).build());
             }
-            attributesUpdated = handler.applyImportAction(routeEntryInfo, routeParameters, attributesUpdated,
-                    (Augmentation<Actions>) entry.getValue());
+            return builder.build();
         }
-        return attributesUpdated;
     }
 }
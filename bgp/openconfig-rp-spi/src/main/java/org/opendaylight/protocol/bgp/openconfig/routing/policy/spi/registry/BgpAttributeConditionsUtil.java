@@ -10,6 +10,7 @@ package org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry;
 
 import java.util.List;
 import java.util.Objects;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry.ConditionMatcher.AttributeMatcher;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.bgp.attribute.conditions.AsPathLength;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.policy.definitions.policy.definition.statements.statement.conditions.BgpConditions;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.AfiSafiType;
@@ -41,34 +42,72 @@ final class BgpAttributeConditionsUtil {
         throw new UnsupportedOperationException();
     }
 
-    static boolean matchConditions(
-            final Class<? extends AfiSafiType> afiSafi,
-            final Attributes attributes,
-            final BgpConditions conditions) {
-        if (!matchAfiSafi(afiSafi, conditions.getAfiSafiIn())) {
-            return false;
+    /**
+     * Compile attribute conditions into matchers. Only configured conditions are compiled, cheaper ones first.
+     *
+     * @param conditions BGP conditions
+     * @param matchers List to which matchers are appended
+     */
+    static void compileConditions(final BgpConditions conditions, final List<ConditionMatcher> matchers) {
+        final List<Class<? extends AfiSafiType>> afiSafiIn = conditions.getAfiSafiIn();
+        if (afiSafiIn != null) {
+            matchers.add(new AttributeMatcher() {
+                @Override
+                boolean match(final Class<? extends AfiSafiType> afiSafi, final Attributes attributes) {
+                    return matchAfiSafi(afiSafi, afiSafiIn);
+                }
+            });
         }
 
-        if (!matchAsPathLength(attributes.getAsPath(), conditions.getAsPathLength())) {
-            return false;
+        final Long localPrefEq = conditions.getLocalPrefEq();
+        if (localPrefEq != null) {
+            matchers.add(new AttributeMatcher() {
+                @Override
+                boolean match(final Class<? extends AfiSafiType> afiSafi, final Attributes attributes) {
+                    return matchLocalPref(attributes.getLocalPref(), localPrefEq);
+                }
+            });
         }
 
-        if (!matchMED(attributes.getMultiExitDisc(), conditions.getMedEq())) {
-            return false;
+        final Long medEq = conditions.getMedEq();
+        if (medEq != null) {
+            matchers.add(new AttributeMatcher() {
+                @Override
+                boolean match(final Class<? extends AfiSafiType> afiSafi, final Attributes attributes) {
+                    return matchMED(attributes.getMultiExitDisc(), medEq);
+                }
+            });
         }
 
-        if (!matchOrigin(attributes.getOrigin(), conditions.getOriginEq())) {
-            return false;
+        final BgpOriginAttrType originEq = conditions.getOriginEq();
+        if (originEq != null) {
+            matchers.add(new AttributeMatcher() {
+                @Override
+                boolean match(final Class<? extends AfiSafiType> afiSafi, final Attributes attributes) {
+                    return matchOrigin(attributes.getOrigin(), originEq);
+                }
+            });
         }
 
-        if (!matchNextHopIn(attributes.getCNextHop(), conditions.getNextHopIn())) {
-            return false;
+        final List<IpAddress> nextHopIn = conditions.getNextHopIn();
+        if (nextHopIn != null) {
+            matchers.add(new AttributeMatcher() {
+                @Override
+                boolean match(final Class<? extends AfiSafiType> afiSafi, final Attributes attributes) {
+                    return matchNextHopIn(attributes.getCNextHop(), nextHopIn);
+                }
+            });
         }
 
-        if (!matchLocalPref(attributes.getLocalPref(), conditions.getLocalPrefEq())) {
-            return false;
+        final AsPathLength asPathLength = conditions.getAsPathLength();
+        if (asPathLength != null) {
+            matchers.add(new AttributeMatcher() {
+                @Override
+                boolean match(final Class<? extends AfiSafiType> afiSafi, final Attributes attributes) {
+                    return matchAsPathLength(attributes.getAsPath(), asPathLength);
+                }
+            });
         }
-        return true;
     }
 
     private static boolean matchAfiSafi(
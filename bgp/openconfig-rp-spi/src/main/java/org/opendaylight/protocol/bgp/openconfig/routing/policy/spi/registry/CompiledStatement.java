@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry;
+
+import static org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry.RouteAttributeContainer.routeAttributeContainerTrue;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableSet;
+import java.util.List;
+import java.util.Set;
+import org.eclipse.jdt.annotation.NonNull;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
+import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
+import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.AfiSafiType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+
+/**
+ * Policy statement compiled into an immutable evaluation plan. Defined conditions and actions are resolved to their
+ * handlers at compile time, so applying the statement to a route does not involve any registry lookups nor walking
+ * of the statement configuration. Conditions are evaluated cheapest first, stopping at the first one not satisfied.
+ *
+ * <p>
+ * A compiled statement is bound to the handlers registered at the time it was compiled, hence it needs to be
+ * recompiled when either the statement configuration or the handlers change.
+ */
+public final class CompiledStatement {
+    private final String name;
+    private final ConditionMatcher[] conditions;
+    private final ActionApplier[] actions;
+    private final boolean destinationPeerSpecific;
+    private final ImmutableSet<String> definedSets;
+
+    CompiledStatement(final String name, final List<ConditionMatcher> conditions,
+            final List<ActionApplier> actions) {
+        this.name = name;
+        this.conditions = conditions.toArray(new ConditionMatcher[0]);
+        this.actions = actions.toArray(new ActionApplier[0]);
+        this.destinationPeerSpecific = conditions.stream().anyMatch(ConditionMatcher::isDestinationPeerSpecific)
+                || actions.stream().anyMatch(ActionApplier::isDestinationPeerSpecific);
+
+        final ImmutableSet.Builder<String> sets = ImmutableSet.builder();
+        conditions.forEach(condition -> sets.addAll(condition.getDefinedSets()));
+        actions.forEach(action -> sets.addAll(action.getDefinedSets()));
+        this.definedSets = sets.build();
+    }
+
+    /**
+     * Indicate whether export evaluation of this statement depends on more than the role, local AS and route target
+     * memberships of the destination peer.
+     *
+     * @return true if any of the conditions or actions is specific to the destination peer
+     */
+    public boolean isDestinationPeerSpecific() {
+        return this.destinationPeerSpecific;
+    }
+
+    /**
+     * Return the names of defined sets any of the conditions or actions is evaluated against.
+     *
+     * @return names of referenced defined sets
+     */
+    public @NonNull Set<String> getDefinedSets() {
+        return this.definedSets;
+    }
+
+    /**
+     * Apply statement to BGP Route Attributes (Import Policy).
+     *
+     * @param routeEntryInfo      contains route Entry Info(AS, ClusterId, OriginatorId)
+     * @param afiSafi             Afi Safi Type
+     * @param routeBaseParameters route base parameters
+     * @param attributes          route attributes
+     * @return modified Route attributes
+     */
+    public @NonNull RouteAttributeContainer applyImport(final @NonNull RouteEntryBaseAttributes routeEntryInfo,
+            final @NonNull Class<? extends AfiSafiType> afiSafi,
+            final @NonNull BGPRouteEntryImportParameters routeBaseParameters,
+            final @NonNull RouteAttributeContainer attributes) {
+        final Attributes att = attributes.getAttributes();
+        if (att == null) {
+            return attributes;
+        }
+        for (final ConditionMatcher condition : this.conditions) {
+            if (!condition.matchImport(afiSafi, routeEntryInfo, routeBaseParameters, att)) {
+                return attributes;
+            }
+        }
+
+        Attributes updated = att;
+        for (final ActionApplier action : this.actions) {
+            updated = action.applyImport(routeEntryInfo, routeBaseParameters, updated);
+            if (updated == null) {
+                break;
+            }
+        }
+        return routeAttributeContainerTrue(updated);
+    }
+
+    /**
+     * Apply statement to BGP Route Attributes (Export Policy).
+     *
+     * @param routeEntryInfo       contains route Entry Info(AS, ClusterId, OriginatorId)
+     * @param afiSafi              Afi Safi Type
+     * @param baseExportParameters export Parameters
+     * @param attributes           route attributes
+     * @return modified Route attributes
+     */
+    public @NonNull RouteAttributeContainer applyExport(final @NonNull RouteEntryBaseAttributes routeEntryInfo,
+            final @NonNull Class<? extends AfiSafiType> afiSafi,
+            final @NonNull BGPRouteEntryExportParameters baseExportParameters,
+            final @NonNull RouteAttributeContainer attributes) {
+        final Attributes att = attributes.getAttributes();
+        if (att == null) {
+            return attributes;
+        }
+        for (final ConditionMatcher condition : this.conditions) {
+            if (!condition.matchExport(afiSafi, routeEntryInfo, baseExportParameters, att)) {
+                return attributes;
+            }
+        }
+
+        Attributes updated = att;
+        for (final ActionApplier action : this.actions) {
+            updated = action.applyExport(routeEntryInfo, baseExportParameters, updated);
+            if (updated == null) {
+                break;
+            }
+        }
+        return routeAttributeContainerTrue(updated);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("name", this.name).add("conditions", this.conditions.length)
+                .add("actions", this.actions.length).add("destinationPeerSpecific", this.destinationPeerSpecific)
+                .toString();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.condition.ConditionsPolicy;
+import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
+import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.AfiSafiType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+
+/**
+ * A single condition of a compiled statement, bound to its configuration and, if applicable, to the handler
+ * evaluating it.
+ */
+abstract class ConditionMatcher {
+    /**
+     * Condition which depends on route attributes and AFI/SAFI only, hence evaluates the same way for import and
+     * export.
+     */
+    abstract static class AttributeMatcher extends ConditionMatcher {
+        @Override
+        final boolean matchImport(final Class<? extends AfiSafiType> afiSafi, final RouteEntryBaseAttributes entryInfo,
+                final BGPRouteEntryImportParameters parameters, final Attributes attributes) {
+            return match(afiSafi, attributes);
+        }
+
+        @Override
+        final boolean matchExport(final Class<? extends AfiSafiType> afiSafi, final RouteEntryBaseAttributes entryInfo,
+                final BGPRouteEntryExportParameters parameters, final Attributes attributes) {
+            return match(afiSafi, attributes);
+        }
+
+        abstract boolean match(Class<? extends AfiSafiType> afiSafi, Attributes attributes);
+    }
+
+    /**
+     * Condition evaluated by a registered {@link ConditionsPolicy}.
+     */
+    static final class PolicyMatcher<T, N> extends ConditionMatcher {
+        private final ConditionsPolicy<T, N> handler;
+        private final T conditions;
+
+        PolicyMatcher(final ConditionsPolicy<T, N> handler, final T conditions) {
+            this.handler = requireNonNull(handler);
+            this.conditions = requireNonNull(conditions);
+        }
+
+        @Override
+        boolean matchImport(final Class<? extends AfiSafiType> afiSafi, final RouteEntryBaseAttributes entryInfo,
+                final BGPRouteEntryImportParameters parameters, final Attributes attributes) {
+            return this.handler.matchImportCondition(afiSafi, entryInfo, parameters,
+                this.handler.getConditionParameter(attributes), this.conditions);
+        }
+
+        @Override
+        boolean matchExport(final Class<? extends AfiSafiType> afiSafi, final RouteEntryBaseAttributes entryInfo,
+                final BGPRouteEntryExportParameters parameters, final Attributes attributes) {
+            return this.handler.matchExportCondition(afiSafi, entryInfo, parameters,
+                this.handler.getConditionParameter(attributes), this.conditions);
+        }
+
+        @Override
+        boolean isDestinationPeerSpecific() {
+            return this.handler.isDestinationPeerSpecific();
+        }
+
+        @Override
+        Set<String> getDefinedSets() {
+            return this.handler.getDefinedSets(this.conditions);
+        }
+    }
+
+    abstract boolean matchImport(Class<? extends AfiSafiType> afiSafi, RouteEntryBaseAttributes entryInfo,
+            BGPRouteEntryImportParameters parameters, Attributes attributes);
+
+    abstract boolean matchExport(Class<? extends AfiSafiType> afiSafi, RouteEntryBaseAttributes entryInfo,
+            BGPRouteEntryExportParameters parameters, Attributes attributes);
+
+    boolean isDestinationPeerSpecific() {
+        return false;
+    }
+
+    Set<String> getDefinedSets() {
+        return ImmutableSet.of();
+    }
+}
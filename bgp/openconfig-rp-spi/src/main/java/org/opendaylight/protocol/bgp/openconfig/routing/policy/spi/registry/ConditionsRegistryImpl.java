@@ -9,21 +9,21 @@ package org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry;
 
 import com.google.common.base.Preconditions;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.checkerframework.checker.lock.qual.GuardedBy;
+import org.eclipse.jdt.annotation.Nullable;
 import org.opendaylight.mdsal.binding.spec.reflect.BindingReflections;
-import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.condition.BgpConditionsAugmentationPolicy;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.condition.BgpConditionsPolicy;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.condition.ConditionsAugPolicy;
-import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
-import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry.ConditionMatcher.PolicyMatcher;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.BgpMatchConditions;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.policy.definitions.policy.definition.statements.statement.conditions.BgpConditions;
-import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.AfiSafiType;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.policy.definitions.policy.definition.statements.statement.Conditions;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
 import org.opendaylight.yangtools.concepts.AbstractRegistration;
 import org.opendaylight.yangtools.yang.binding.Augmentation;
 import org.opendaylight.yangtools.yang.binding.ChildOf;
@@ -69,64 +69,31 @@ final class ConditionsRegistryImpl {
                 .registerBgpConditionsPolicy(conditionPolicyClass, conditionPolicy);
     }
 
-    @SuppressWarnings("unchecked")
-    boolean matchExportConditions(
-            final Class<? extends AfiSafiType> afiSafi,
-            final RouteEntryBaseAttributes entryInfo,
-            final BGPRouteEntryExportParameters routeEntryExportParameters,
-            final Attributes attributes,
-            final Conditions conditions) {
-
-        if (!this.bgpConditionsRegistry
-                .matchExportConditions(afiSafi, entryInfo, routeEntryExportParameters, attributes, conditions)) {
-            return false;
+    /**
+     * Compile statement conditions into matchers, which have to be all satisfied for the statement to apply.
+     *
+     * @param conditions Statement conditions
+     * @return Condition matchers, empty if the statement applies unconditionally
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    List<ConditionMatcher> compileConditions(final @Nullable Conditions conditions) {
+        if (conditions == null) {
+            return Collections.emptyList();
         }
 
-        final Map<Class<? extends Augmentation<?>>, Augmentation<?>> conditionsAug = BindingReflections
-                .getAugmentations(conditions);
-
-        if (conditionsAug != null) {
-            for (final Map.Entry<Class<? extends Augmentation<?>>, Augmentation<?>> entry : conditionsAug.entrySet()) {
-                final ConditionsAugPolicy handler = this.conditionsRegistry.get(entry.getKey());
-                if (handler == null) {
-                    continue;
-                }
-                if (!handler.matchExportCondition(afiSafi, entryInfo, routeEntryExportParameters,
-                        handler.getConditionParameter(attributes), entry.getValue())) {
-                    return false;
-                }
-            }
-        }
-
-        return true;
-    }
-
-    @SuppressWarnings("unchecked")
-    boolean matchImportConditions(
-            final Class<? extends AfiSafiType> afiSafi, final RouteEntryBaseAttributes entryInfo,
-            final BGPRouteEntryImportParameters routeEntryImportParameters,
-            final Attributes attributes,
-            final Conditions conditions) {
-        if (!this.bgpConditionsRegistry
-                .matchImportConditions(afiSafi, entryInfo, routeEntryImportParameters, attributes, conditions)) {
-            return false;
-        }
+        final List<ConditionMatcher> matchers = new ArrayList<>();
+        this.bgpConditionsRegistry.compileConditions(conditions, matchers);
 
         final Map<Class<? extends Augmentation<?>>, Augmentation<?>> conditionsAug = BindingReflections
                 .getAugmentations(conditions);
-
-        if (conditionsAug != null && attributes != null) {
+        synchronized (this.conditionsRegistry) {
             for (final Map.Entry<Class<? extends Augmentation<?>>, Augmentation<?>> entry : conditionsAug.entrySet()) {
                 final ConditionsAugPolicy handler = this.conditionsRegistry.get(entry.getKey());
                 if (handler != null) {
-                    final Augmentation<Conditions> conditionConfig = (Augmentation<Conditions>) entry.getValue();
-                    if (!handler.matchImportCondition(afiSafi, entryInfo, routeEntryImportParameters,
-                            handler.getConditionParameter(attributes), conditionConfig)) {
-                        return false;
-                    }
+                    matchers.add(new PolicyMatcher<>(handler, (Augmentation<Conditions>) entry.getValue()));
                 }
             }
         }
-        return true;
+        return matchers;
     }
 }
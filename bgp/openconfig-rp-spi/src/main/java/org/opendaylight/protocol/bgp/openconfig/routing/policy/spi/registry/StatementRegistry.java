@@ -8,8 +8,13 @@
 
 package org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry;
 
-import static org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry.RouteAttributeContainer.routeAttributeContainerTrue;
+import static java.util.Objects.requireNonNull;
 
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.action.ActionsAugPolicy;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.action.BgpActionAugPolicy;
@@ -26,20 +31,59 @@ import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.policy.definitions.policy.definition.statements.Statement;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.policy.definitions.policy.definition.statements.statement.Actions;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.policy.definitions.policy.definition.statements.statement.Conditions;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
 import org.opendaylight.yangtools.concepts.AbstractRegistration;
+import org.opendaylight.yangtools.concepts.Registration;
 import org.opendaylight.yangtools.yang.binding.Augmentation;
 import org.opendaylight.yangtools.yang.binding.ChildOf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public final class StatementRegistry implements StatementRegistryConsumer, StatementRegistryProvider {
+    private static final Logger LOG = LoggerFactory.getLogger(StatementRegistry.class);
+
     private final ConditionsRegistryImpl conditionsRegistry;
     private final ActionsRegistryImpl actionsRegistry;
+    private final AtomicLong generation = new AtomicLong();
+    private final List<Consumer<Set<String>>> changeListeners = new CopyOnWriteArrayList<>();
 
     public StatementRegistry() {
         this.conditionsRegistry = new ConditionsRegistryImpl();
         this.actionsRegistry = new ActionsRegistryImpl();
     }
 
+    @Override
+    public CompiledStatement compileStatement(final Statement statement) {
+        return new CompiledStatement(statement.getName(),
+                this.conditionsRegistry.compileConditions(statement.getConditions()),
+                this.actionsRegistry.compileActions(statement.getActions()));
+    }
+
+    @Override
+    public long getGeneration() {
+        return this.generation.get();
+    }
+
+    @Override
+    public Registration registerChangeListener(final Consumer<Set<String>> listener) {
+        requireNonNull(listener);
+        this.changeListeners.add(listener);
+        return () -> this.changeListeners.remove(listener);
+    }
+
+    @Override
+    @SuppressWarnings("checkstyle:illegalCatch")
+    public void handlerStateChanged(final Set<String> definedSets) {
+        requireNonNull(definedSets);
+        this.generation.incrementAndGet();
+        for (final Consumer<Set<String>> listener : this.changeListeners) {
+            try {
+                listener.accept(definedSets);
+            } catch (final RuntimeException e) {
+                LOG.warn("Statement registry change listener {} failed", listener, e);
+            }
+        }
+    }
+
     @Override
     public RouteAttributeContainer applyExportStatement(
             final RouteEntryBaseAttributes routeEntryInfo,
@@ -47,20 +91,8 @@ public final class StatementRegistry implements StatementRegistryConsumer, State
             final BGPRouteEntryExportParameters routeEntryExportParameters,
             final RouteAttributeContainer attributes,
             final Statement statement) {
-        final Attributes att = attributes.getAttributes();
-        if (att == null || !this.conditionsRegistry.matchExportConditions(
-                afiSafi,
-                routeEntryInfo,
-                routeEntryExportParameters,
-                att,
-                statement.getConditions())) {
-            return attributes;
-        }
-        return routeAttributeContainerTrue(this.actionsRegistry.applyExportAction(
-                routeEntryInfo,
-                routeEntryExportParameters,
-                attributes.getAttributes(),
-                statement.getActions()));
+        return compileStatement(statement).applyExport(routeEntryInfo, afiSafi, routeEntryExportParameters,
+                attributes);
     }
 
     @Override
@@ -70,61 +102,66 @@ public final class StatementRegistry implements StatementRegistryConsumer, State
             final BGPRouteEntryImportParameters routeEntryImportParameters,
             final RouteAttributeContainer attributes,
             final Statement statement) {
-        final Attributes att = attributes.getAttributes();
-        if (att == null || !this.conditionsRegistry.matchImportConditions(
-                afiSafi,
-                routeEntryInfo,
-                routeEntryImportParameters,
-                attributes.getAttributes(),
-                statement.getConditions())) {
-            return attributes;
-        }
-        return routeAttributeContainerTrue(this.actionsRegistry.applyImportAction(
-                routeEntryInfo,
-                routeEntryImportParameters,
-                att,
-                statement.getActions()));
+        return compileStatement(statement).applyImport(routeEntryInfo, afiSafi, routeEntryImportParameters,
+                attributes);
     }
 
     @Override
     public AbstractRegistration registerConditionPolicy(
             final Class<? extends Augmentation<Conditions>> conditionPolicyClass,
             final ConditionsAugPolicy conditionPolicy) {
-        return this.conditionsRegistry.registerConditionPolicy(conditionPolicyClass, conditionPolicy);
+        return track(this.conditionsRegistry.registerConditionPolicy(conditionPolicyClass, conditionPolicy));
     }
 
     @Override
     public <T extends ChildOf<BgpMatchConditions>, N> AbstractRegistration registerBgpConditionsPolicy(
             final Class<T> conditionPolicyClass,
             final BgpConditionsPolicy<T, N> conditionPolicy) {
-        return this.conditionsRegistry.registerBgpConditionsPolicy(conditionPolicyClass, conditionPolicy);
+        return track(this.conditionsRegistry.registerBgpConditionsPolicy(conditionPolicyClass, conditionPolicy));
     }
 
     @Override
     public AbstractRegistration registerActionPolicy(
             final Class<? extends Augmentation<Actions>> actionPolicyClass,
             final ActionsAugPolicy actionPolicy) {
-        return this.actionsRegistry.registerActionPolicy(actionPolicyClass, actionPolicy);
+        return track(this.actionsRegistry.registerActionPolicy(actionPolicyClass, actionPolicy));
     }
 
     @Override
     public <T extends Augmentation<BgpConditions>, N> AbstractRegistration registerBgpConditionsAugmentationPolicy(
             final Class<T> conditionPolicyClass,
             final BgpConditionsAugmentationPolicy<T, N> conditionPolicy) {
-        return this.conditionsRegistry.registerBgpConditionsAugmentationPolicy(conditionPolicyClass, conditionPolicy);
+        return track(this.conditionsRegistry.registerBgpConditionsAugmentationPolicy(conditionPolicyClass,
+            conditionPolicy));
     }
 
     @Override
     public <T extends Augmentation<BgpActions>> AbstractRegistration registerBgpActionAugmentationPolicy(
             final Class<T> bgpActionPolicyClass,
             final BgpActionAugPolicy<T> bgpActionPolicy) {
-        return this.actionsRegistry.registerBgpActionAugmentationPolicy(bgpActionPolicyClass, bgpActionPolicy);
+        return track(this.actionsRegistry.registerBgpActionAugmentationPolicy(bgpActionPolicyClass,
+            bgpActionPolicy));
     }
 
     @Override
     public <T extends ChildOf<BgpActions>> AbstractRegistration registerBgpActionPolicy(
             final Class<T> bgpActionPolicyClass,
             final BgpActionPolicy<T> bgpActionPolicy) {
-        return this.actionsRegistry.registerBgpActionPolicy(bgpActionPolicyClass, bgpActionPolicy);
+        return track(this.actionsRegistry.registerBgpActionPolicy(bgpActionPolicyClass, bgpActionPolicy));
+    }
+
+    /**
+     * Bump the generation for a handler which has been registered and once more when it is unregistered, so that
+     * statements compiled against the previous set of handlers are recognized as stale.
+     */
+    private AbstractRegistration track(final AbstractRegistration registration) {
+        this.generation.incrementAndGet();
+        return new AbstractRegistration() {
+            @Override
+            protected void removeRegistration() {
+                registration.close();
+                StatementRegistry.this.generation.incrementAndGet();
+            }
+        };
     }
 }
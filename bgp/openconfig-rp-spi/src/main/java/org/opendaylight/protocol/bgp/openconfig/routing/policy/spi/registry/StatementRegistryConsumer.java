@@ -7,12 +7,15 @@
  */
 package org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry;
 
+import java.util.Set;
+import java.util.function.Consumer;
 import org.eclipse.jdt.annotation.NonNull;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.AfiSafiType;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.policy.definitions.policy.definition.statements.Statement;
+import org.opendaylight.yangtools.concepts.Registration;
 
 /**
  * Registry of Statement to be consumed by Export and Import BGPRIBPolicy.
@@ -45,4 +48,34 @@ public interface StatementRegistryConsumer {
     @NonNull RouteAttributeContainer applyImportStatement(@NonNull RouteEntryBaseAttributes routeEntryInfo,
             @NonNull Class<? extends AfiSafiType> afiSafi, @NonNull BGPRouteEntryImportParameters routeBaseParameters,
             @NonNull RouteAttributeContainer attributes, @NonNull Statement statement);
+
+    /**
+     * Compile statement into an evaluation plan, which can be applied repeatedly without resolving its conditions
+     * and actions again.
+     *
+     * @param statement Statement containing Conditions/Actions
+     * @return Compiled statement
+     */
+    @NonNull CompiledStatement compileStatement(@NonNull Statement statement);
+
+    /**
+     * Return the generation of registered condition and action handlers. It changes whenever a handler is registered,
+     * unregistered or reports a change of its state, at which point previously compiled statements should be compiled
+     * again.
+     *
+     * @return Current handler generation
+     */
+    long getGeneration();
+
+    /**
+     * Register a listener invoked whenever a registered handler reports a change of the state it evaluates routes
+     * against, such as the configured defined sets. The handler has already switched to the new state and the
+     * generation has been bumped by the time the listener runs. The listener is passed the names of the defined sets
+     * which have changed, only statements referencing any of them, as reported by
+     * {@link CompiledStatement#getDefinedSets()}, may evaluate routes differently.
+     *
+     * @param listener invoked after the handler change is in effect
+     * @return registration, closing it unregisters the listener
+     */
+    @NonNull Registration registerChangeListener(@NonNull Consumer<Set<String>> listener);
 }
@@ -8,6 +8,7 @@
 
 package org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry;
 
+import java.util.Set;
 import org.eclipse.jdt.annotation.NonNull;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.action.ActionsAugPolicy;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.condition.ConditionsAugPolicy;
@@ -41,4 +42,13 @@ public interface StatementRegistryProvider extends BgpStatementRegistryProvider
     @NonNull AbstractRegistration registerActionPolicy(
             @NonNull Class<? extends Augmentation<Actions>> actionPolicyClass,
             @NonNull ActionsAugPolicy actionPolicy);
+
+    /**
+     * Report that registered handlers changed the defined sets they evaluate routes against. This must be invoked
+     * after the handlers have switched to the new state: it bumps the generation and notifies consumers, which are
+     * expected to re-evaluate routes already processed by statements referencing any of the changed sets.
+     *
+     * @param definedSets names of defined sets which have been added, modified or removed
+     */
+    void handlerStateChanged(@NonNull Set<String> definedSets);
 }
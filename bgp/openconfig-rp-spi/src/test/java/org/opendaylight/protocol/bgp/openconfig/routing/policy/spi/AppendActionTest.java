@@ -15,6 +15,7 @@ import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry.CompiledStatement;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry.RouteAttributeContainer;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.IPV4UNICAST;
@@ -89,4 +90,24 @@ public class AppendActionTest extends AbstractStatementRegistryTest {
                 .build();
         assertEquals(expected, result.getAttributes());
     }
+
+    @Test
+    public void testCompiledStatementReuse() {
+        Statement statement = this.basicStatements.stream()
+                .filter(st -> st.getName().equals("multiple-append-test")).findFirst().get();
+        final CompiledStatement compiled = this.statementRegistry.compileStatement(statement);
+
+        final Attributes expected = new AttributesBuilder()
+                .setOrigin(new OriginBuilder().setValue(BgpOrigin.Igp).build())
+                .setCNextHop(new Ipv4NextHopCaseBuilder().setIpv4NextHop(new Ipv4NextHopBuilder()
+                        .setGlobal(new Ipv4Address("4.5.6.7")).build()).build())
+                .setLocalPref(new LocalPrefBuilder().setPref(100L).build())
+                .setMultiExitDisc(new MultiExitDiscBuilder().setMed(15L).build())
+                .build();
+        assertEquals(expected, compiled.applyExport(this.baseAttributes, IPV4UNICAST.class, this.exportParameters,
+                routeAttributeContainerFalse(new AttributesBuilder().build())).getAttributes());
+        assertEquals(expected, compiled.applyExport(this.baseAttributes, IPV4UNICAST.class, this.exportParameters,
+                routeAttributeContainerFalse(new AttributesBuilder()
+                        .setLocalPref(new LocalPrefBuilder().setPref(50L).build()).build())).getAttributes());
+    }
 }
@@ -7,61 +7,38 @@
  */
 package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement;
 
-import static java.util.Objects.requireNonNull;
-
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
-import org.opendaylight.mdsal.binding.api.DataBroker;
-import org.opendaylight.mdsal.binding.api.ReadTransaction;
-import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
-import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.DefinedSets1;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.DefinedSetsTracker.SetCache;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.BgpDefinedSets;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.bgp.defined.sets.CommunitySets;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.bgp.defined.sets.community.sets.CommunitySet;
-import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.bgp.defined.sets.community.sets.CommunitySetKey;
-import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.RoutingPolicy;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.DefinedSets;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.Communities;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.CommunitiesBuilder;
-import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 public class AbstractCommunityHandler {
-    private static final InstanceIdentifier<CommunitySets> COMMUNITY_SETS_IID
-            = InstanceIdentifier.create(RoutingPolicy.class).child(DefinedSets.class)
-            .augmentation(DefinedSets1.class).child(BgpDefinedSets.class)
-            .child(CommunitySets.class);
-    private final DataBroker databroker;
-    protected final LoadingCache<String, List<Communities>> communitySets = CacheBuilder.newBuilder()
-            .build(new CacheLoader<String, List<Communities>>() {
-                @Override
-                public List<Communities> load(final String key) throws ExecutionException, InterruptedException {
-                    return loadCommunitySet(key);
-                }
-            });
+    protected final SetCache<List<Communities>> communitySets;
 
-    public AbstractCommunityHandler(final DataBroker dataBroker) {
-        this.databroker = requireNonNull(dataBroker);
+    public AbstractCommunityHandler(final DefinedSetsTracker definedSets) {
+        this.communitySets = definedSets.createCache(AbstractCommunityHandler::loadCommunitySet);
     }
 
-    private List<Communities> loadCommunitySet(final String key) throws ExecutionException, InterruptedException {
-        final ReadTransaction tr = this.databroker.newReadOnlyTransaction();
-        final Optional<CommunitySet> result =
-                tr.read(LogicalDatastoreType.CONFIGURATION, COMMUNITY_SETS_IID
-                        .child(CommunitySet.class, new CommunitySetKey(key))).get();
-
-
-        if (!result.isPresent()) {
+    protected static List<Communities> loadCommunitySet(final DefinedSets definedSets, final String setReference) {
+        final BgpDefinedSets bgpDefinedSets = DefinedSetsTracker.bgpDefinedSets(definedSets);
+        final CommunitySets sets = bgpDefinedSets == null ? null : bgpDefinedSets.getCommunitySets();
+        if (sets == null || sets.getCommunitySet() == null) {
             return Collections.emptyList();
         }
 
-        return result.get().getCommunities()
-                .stream().map(ge -> new CommunitiesBuilder().setAsNumber(ge.getAsNumber())
+        final String key = DefinedSetsTracker.setName(setReference);
+        for (final CommunitySet set : sets.getCommunitySet()) {
+            if (key.equals(set.getCommunitySetName()) && set.getCommunities() != null) {
+                return set.getCommunities().stream().map(ge -> new CommunitiesBuilder().setAsNumber(ge.getAsNumber())
                         .setSemantics(ge.getSemantics()).build()).collect(Collectors.toList());
+            }
+        }
+        return Collections.emptyList();
     }
 }
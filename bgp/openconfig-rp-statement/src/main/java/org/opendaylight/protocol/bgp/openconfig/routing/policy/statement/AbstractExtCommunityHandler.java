@@ -7,60 +7,40 @@
  */
 package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement;
 
-import static java.util.Objects.requireNonNull;
-
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
-import org.opendaylight.mdsal.binding.api.DataBroker;
-import org.opendaylight.mdsal.binding.api.ReadTransaction;
-import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
-import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.DefinedSets1;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.DefinedSetsTracker.SetCache;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.BgpDefinedSets;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.bgp.defined.sets.ExtCommunitySets;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.bgp.defined.sets.ext.community.sets.ExtCommunitySet;
-import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.bgp.defined.sets.ext.community.sets.ExtCommunitySetKey;
-import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.RoutingPolicy;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.DefinedSets;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.ExtendedCommunities;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.ExtendedCommunitiesBuilder;
-import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 public class AbstractExtCommunityHandler {
-    private static final InstanceIdentifier<ExtCommunitySets> EXT_COMMUNITY_SETS_IID
-            = InstanceIdentifier.create(RoutingPolicy.class).child(DefinedSets.class)
-            .augmentation(DefinedSets1.class).child(BgpDefinedSets.class)
-            .child(ExtCommunitySets.class);
-    private final DataBroker databroker;
-    protected final LoadingCache<String, List<ExtendedCommunities>> extCommunitySets = CacheBuilder.newBuilder()
-            .build(new CacheLoader<String, List<ExtendedCommunities>>() {
-                @Override
-                public List<ExtendedCommunities> load(final String key)
-                        throws ExecutionException, InterruptedException {
-                    return loadCommunitySet(key);
-                }
-            });
+    protected final SetCache<List<ExtendedCommunities>> extCommunitySets;
 
-    public AbstractExtCommunityHandler(final DataBroker databroker) {
-        this.databroker = requireNonNull(databroker);
+    public AbstractExtCommunityHandler(final DefinedSetsTracker definedSets) {
+        this.extCommunitySets = definedSets.createCache(AbstractExtCommunityHandler::loadCommunitySet);
     }
 
-    private List<ExtendedCommunities> loadCommunitySet(final String key)
-            throws ExecutionException, InterruptedException {
-        final ReadTransaction tr = this.databroker.newReadOnlyTransaction();
-        final Optional<ExtCommunitySet> result =
-                tr.read(LogicalDatastoreType.CONFIGURATION, EXT_COMMUNITY_SETS_IID
-                        .child(ExtCommunitySet.class, new ExtCommunitySetKey(key))).get();
-        if (!result.isPresent()) {
+    protected static List<ExtendedCommunities> loadCommunitySet(final DefinedSets definedSets,
+            final String setReference) {
+        final BgpDefinedSets bgpDefinedSets = DefinedSetsTracker.bgpDefinedSets(definedSets);
+        final ExtCommunitySets sets = bgpDefinedSets == null ? null : bgpDefinedSets.getExtCommunitySets();
+        if (sets == null || sets.getExtCommunitySet() == null) {
             return Collections.emptyList();
         }
-        return result.get().getExtCommunityMember()
-                .stream().map(ge -> new ExtendedCommunitiesBuilder().setExtendedCommunity(ge.getExtendedCommunity())
-                        .setTransitive(ge.isTransitive()).build()).collect(Collectors.toList());
+
+        final String key = DefinedSetsTracker.setName(setReference);
+        for (final ExtCommunitySet set : sets.getExtCommunitySet()) {
+            if (key.equals(set.getExtCommunitySetName()) && set.getExtCommunityMember() != null) {
+                return set.getExtCommunityMember().stream().map(ge -> new ExtendedCommunitiesBuilder()
+                        .setExtendedCommunity(ge.getExtendedCommunity()).setTransitive(ge.isTransitive()).build())
+                        .collect(Collectors.toList());
+            }
+        }
+        return Collections.emptyList();
     }
 }
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Sets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.apache.commons.lang3.StringUtils;
+import org.opendaylight.mdsal.binding.api.ClusteredDataTreeChangeListener;
+import org.opendaylight.mdsal.binding.api.DataBroker;
+import org.opendaylight.mdsal.binding.api.DataTreeIdentifier;
+import org.opendaylight.mdsal.binding.api.DataTreeModification;
+import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.DefinedSets1;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.BgpDefinedSets;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.bgp.defined.sets.AsPathSets;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.bgp.defined.sets.CommunitySets;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.bgp.defined.sets.ExtCommunitySets;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.bgp.defined.sets.as.path.sets.AsPathSet;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.bgp.defined.sets.community.sets.CommunitySet;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.bgp.defined.sets.ext.community.sets.ExtCommunitySet;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.generic.defined.sets.NeighborSets;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.neighbor.set.NeighborSet;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.RoutingPolicy;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.DefinedSets;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.BgpClusterIdSets;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.BgpOriginatorIdSets;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.BgpRoleSets;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.cluster.id.set.ClusterIdSet;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.originator.id.set.OriginatorIdSet;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.role.set.RoleSet;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps an in-memory snapshot of the configured defined sets, so that condition and action handlers never read the
+ * datastore while evaluating a route. The snapshot is seeded by the initial data tree change notification and then
+ * replaced on every configuration change, dropping all values derived from the previous snapshot. Until the initial
+ * notification arrives, handlers see no defined sets and the change callback reports the seeding like any other
+ * change, so that routes evaluated in the meantime get re-evaluated.
+ *
+ * <p>
+ * Consumers must not learn about a defined set change before the handlers see it, otherwise routes would be
+ * re-evaluated against stale sets. The change callback is therefore invoked only after the new snapshot has been
+ * published and all derived values have been dropped. It is passed the names of the sets which have been added,
+ * modified or removed, so that only routes evaluated against these need to be re-evaluated.
+ */
+public final class DefinedSetsTracker implements ClusteredDataTreeChangeListener<DefinedSets>, AutoCloseable {
+    /**
+     * Values derived from the current snapshot, keyed by the defined set reference used in the policy.
+     *
+     * @param <V> derived value type
+     */
+    public static final class SetCache<V> {
+        private final DefinedSetsTracker tracker;
+        private final BiFunction<DefinedSets, String, V> loader;
+        private volatile ConcurrentMap<String, V> values = new ConcurrentHashMap<>();
+
+        SetCache(final DefinedSetsTracker tracker, final BiFunction<DefinedSets, String, V> loader) {
+            this.tracker = tracker;
+            this.loader = loader;
+        }
+
+        /**
+         * Return the value derived for a defined set reference, deriving it from the current snapshot if needed.
+         *
+         * @param setReference defined set reference
+         * @return derived value, must not be null
+         */
+        public V get(final String setReference) {
+            // Read the values before the snapshot: a map published after a snapshot change never sees the old one
+            final ConcurrentMap<String, V> local = this.values;
+            final V ret = local.get(setReference);
+            if (ret != null) {
+                return ret;
+            }
+            final DefinedSets snapshot = this.tracker.definedSets;
+            return local.computeIfAbsent(setReference, key -> this.loader.apply(snapshot, key));
+        }
+
+        void clear() {
+            this.values = new ConcurrentHashMap<>();
+        }
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(DefinedSetsTracker.class);
+    private static final InstanceIdentifier<DefinedSets> DEFINED_SETS_IID
+            = InstanceIdentifier.create(RoutingPolicy.class).child(DefinedSets.class);
+
+    private final Set<SetCache<?>> caches = ConcurrentHashMap.newKeySet();
+    private final ListenerRegistration<DefinedSetsTracker> registration;
+    private final Consumer<Set<String>> changeCallback;
+    private volatile DefinedSets definedSets;
+
+    /**
+     * Create a tracker and start listening for defined set changes.
+     *
+     * @param dataBroker data broker
+     * @param changeCallback invoked with the names of changed defined sets after each change, once handlers see the
+     *                       new defined sets
+     */
+    public DefinedSetsTracker(final DataBroker dataBroker, final Consumer<Set<String>> changeCallback) {
+        requireNonNull(dataBroker);
+        this.changeCallback = requireNonNull(changeCallback);
+        this.registration = dataBroker.registerDataTreeChangeListener(
+                DataTreeIdentifier.create(LogicalDatastoreType.CONFIGURATION, DEFINED_SETS_IID), this);
+    }
+
+    /**
+     * Create a cache of values derived from the defined sets.
+     *
+     * @param loader derives the value of a defined set reference from a snapshot, which may be null if there are
+     *               no defined sets configured
+     * @param <V> derived value type
+     * @return new cache
+     */
+    public <V> SetCache<V> createCache(final BiFunction<DefinedSets, String, V> loader) {
+        final SetCache<V> cache = new SetCache<>(this, requireNonNull(loader));
+        this.caches.add(cache);
+        return cache;
+    }
+
+    @Override
+    public void onDataTreeChanged(final Collection<DataTreeModification<DefinedSets>> changes) {
+        final Set<String> changed;
+        synchronized (this) {
+            DefinedSets updated = this.definedSets;
+            for (final DataTreeModification<DefinedSets> change : changes) {
+                updated = change.getRootNode().getDataAfter();
+            }
+            if (Objects.equals(updated, this.definedSets)) {
+                return;
+            }
+            changed = changedSets(this.definedSets, updated);
+            this.definedSets = updated;
+            LOG.debug("Defined sets {} changed, dropping {} derived caches", changed, this.caches.size());
+            this.caches.forEach(SetCache::clear);
+        }
+        if (!changed.isEmpty()) {
+            this.changeCallback.accept(changed);
+        }
+    }
+
+    private static Set<String> changedSets(final DefinedSets before, final DefinedSets after) {
+        final ListMultimap<String, Object> setsBefore = namedSets(before);
+        final ListMultimap<String, Object> setsAfter = namedSets(after);
+        return Sets.union(setsBefore.keySet(), setsAfter.keySet()).stream()
+                .filter(name -> !setsBefore.get(name).equals(setsAfter.get(name)))
+                .collect(ImmutableSet.toImmutableSet());
+    }
+
+    /**
+     * Index the sets of a snapshot which handlers evaluate routes against by their names. Names are unique only
+     * within a set type, hence a name may map to multiple sets.
+     */
+    private static ListMultimap<String, Object> namedSets(final DefinedSets definedSets) {
+        final ListMultimap<String, Object> ret = ArrayListMultimap.create();
+        if (definedSets == null) {
+            return ret;
+        }
+        final NeighborSets neighborSets = definedSets.getNeighborSets();
+        if (neighborSets != null) {
+            index(ret, neighborSets.getNeighborSet(), NeighborSet::getNeighborSetName);
+        }
+
+        final BgpDefinedSets bgpDefinedSets = bgpDefinedSets(definedSets);
+        if (bgpDefinedSets == null) {
+            return ret;
+        }
+        final CommunitySets communitySets = bgpDefinedSets.getCommunitySets();
+        if (communitySets != null) {
+            index(ret, communitySets.getCommunitySet(), CommunitySet::getCommunitySetName);
+        }
+        final ExtCommunitySets extCommunitySets = bgpDefinedSets.getExtCommunitySets();
+        if (extCommunitySets != null) {
+            index(ret, extCommunitySets.getExtCommunitySet(), ExtCommunitySet::getExtCommunitySetName);
+        }
+        final AsPathSets asPathSets = bgpDefinedSets.getAsPathSets();
+        if (asPathSets != null) {
+            index(ret, asPathSets.getAsPathSet(), AsPathSet::getAsPathSetName);
+        }
+        final BgpRoleSets roleSets = bgpDefinedSets.augmentation(BgpRoleSets.class);
+        if (roleSets != null && roleSets.getRoleSets() != null) {
+            index(ret, roleSets.getRoleSets().getRoleSet(), RoleSet::getRoleSetName);
+        }
+        final BgpOriginatorIdSets originatorIdSets = bgpDefinedSets.augmentation(BgpOriginatorIdSets.class);
+        if (originatorIdSets != null && originatorIdSets.getOriginatorIdSets() != null) {
+            index(ret, originatorIdSets.getOriginatorIdSets().getOriginatorIdSet(),
+                OriginatorIdSet::getOriginatorIdSetName);
+        }
+        final BgpClusterIdSets clusterIdSets = bgpDefinedSets.augmentation(BgpClusterIdSets.class);
+        if (clusterIdSets != null && clusterIdSets.getClusterIdSets() != null) {
+            index(ret, clusterIdSets.getClusterIdSets().getClusterIdSet(), ClusterIdSet::getClusterIdSetName);
+        }
+        return ret;
+    }
+
+    private static <T> void index(final ListMultimap<String, Object> index, final List<T> sets,
+            final Function<T, String> name) {
+        if (sets != null) {
+            sets.forEach(set -> index.put(name.apply(set), set));
+        }
+    }
+
+    @Override
+    public void close() {
+        this.registration.close();
+    }
+
+    /**
+     * Extract the name of a defined set from its reference, e.g. {@code ...community-set[community-set-name="x"]}.
+     *
+     * @param setReference defined set reference
+     * @return defined set name
+     */
+    public static String setName(final String setReference) {
+        return StringUtils.substringBetween(setReference, "=\"", "\"");
+    }
+
+    /**
+     * Extract the names of defined sets from their references, skipping absent ones.
+     *
+     * @param setReferences defined set references, may contain nulls
+     * @return defined set names
+     */
+    public static Set<String> setNames(final String... setReferences) {
+        return Arrays.stream(setReferences).filter(Objects::nonNull).map(DefinedSetsTracker::setName)
+                .filter(Objects::nonNull).collect(ImmutableSet.toImmutableSet());
+    }
+
+    /**
+     * Return the BGP defined sets of a snapshot.
+     *
+     * @param definedSets snapshot, may be null
+     * @return BGP defined sets, or null if not present
+     */
+    public static BgpDefinedSets bgpDefinedSets(final DefinedSets definedSets) {
+        if (definedSets == null) {
+            return null;
+        }
+        final DefinedSets1 bgp = definedSets.augmentation(DefinedSets1.class);
+        return bgp == null ? null : bgp.getBgpDefinedSets();
+    }
+}
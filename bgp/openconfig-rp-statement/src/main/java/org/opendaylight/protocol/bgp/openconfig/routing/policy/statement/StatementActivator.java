@@ -57,33 +57,37 @@ public final class StatementActivator extends AbstractBGPStatementProviderActiva
 
     @Override
     protected synchronized List<Registration> startImpl(final StatementRegistryProvider provider) {
-        final List<Registration> registration = new ArrayList<>(14);
-        registerActions(provider, registration);
-        registerConditions(provider, registration);
+        final List<Registration> registration = new ArrayList<>(15);
+        final DefinedSetsTracker definedSets = new DefinedSetsTracker(this.dataBroker,
+                provider::handlerStateChanged);
+        registration.add(definedSets::close);
+        registerActions(provider, registration, definedSets);
+        registerConditions(provider, registration, definedSets);
         return registration;
     }
 
-    private void registerConditions(final StatementRegistryProvider provider, final List<Registration> registration) {
+    private static void registerConditions(final StatementRegistryProvider provider,
+            final List<Registration> registration, final DefinedSetsTracker definedSets) {
         registration.add(provider.registerBgpConditionsAugmentationPolicy(MatchRoleSetCondition.class,
-                new MatchRoleSetHandler(this.dataBroker)));
+                new MatchRoleSetHandler(definedSets)));
 
         registration.add(provider.registerBgpConditionsAugmentationPolicy(MatchOriginatorIdSetCondition.class,
-                new MatchOriginatorIdSetHandler(this.dataBroker)));
+                new MatchOriginatorIdSetHandler(definedSets)));
 
         registration.add(provider.registerBgpConditionsAugmentationPolicy(MatchClusterIdSetCondition.class,
-                new MatchClusterIdSetHandler(this.dataBroker)));
+                new MatchClusterIdSetHandler(definedSets)));
 
         registration.add(provider.registerBgpConditionsPolicy(MatchAsPathSet.class,
-                new MatchAsPathSetHandler(this.dataBroker)));
+                new MatchAsPathSetHandler(definedSets)));
 
         registration.add(provider.registerBgpConditionsPolicy(MatchExtCommunitySet.class,
-                new MatchExtCommunitySetHandler(this.dataBroker)));
+                new MatchExtCommunitySetHandler(definedSets)));
 
         registration.add(provider.registerBgpConditionsPolicy(MatchCommunitySet.class,
-                new MatchCommunitySetHandler(this.dataBroker)));
+                new MatchCommunitySetHandler(definedSets)));
 
         registration.add(provider.registerBgpConditionsAugmentationPolicy(MatchBgpNeighborCondition.class,
-                new MatchBgpNeighborSetHandler(this.dataBroker)));
+                new MatchBgpNeighborSetHandler(definedSets)));
 
         registration.add(provider.registerBgpConditionsAugmentationPolicy(MatchAfiSafiNotInCondition.class,
                 MatchAfiSafiNotInHandler.getInstance()));
@@ -92,17 +96,18 @@ public final class StatementActivator extends AbstractBGPStatementProviderActiva
                 VpnNonMemberHandler.getInstance()));
     }
 
-    private void registerActions(final StatementRegistryProvider provider, final List<Registration> registration) {
+    private static void registerActions(final StatementRegistryProvider provider,
+            final List<Registration> registration, final DefinedSetsTracker definedSets) {
         registration.add(provider.registerBgpActionPolicy(SetAsPathPrepend.class, AsPathPrepend.getInstance()));
 
         registration.add(provider.registerBgpActionAugmentationPolicy(LocalAsPathPrepend.class,
                 LocalAsPathPrependHandler.getInstance()));
 
         registration.add(provider.registerBgpActionPolicy(SetCommunity.class,
-                new SetCommunityHandler(this.dataBroker)));
+                new SetCommunityHandler(definedSets)));
 
         registration.add(provider.registerBgpActionPolicy(SetExtCommunity.class,
-                new SetExtCommunityHandler(this.dataBroker)));
+                new SetExtCommunityHandler(definedSets)));
 
         registration.add(provider.registerBgpActionAugmentationPolicy(SetOriginatorIdPrepend.class,
                 SetOriginatorIdPrependHandler.getInstance()));
@@ -7,14 +7,15 @@
  */
 package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.actions;
 
+import com.google.common.collect.ImmutableSet;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
-import org.apache.commons.lang3.StringUtils;
-import org.opendaylight.mdsal.binding.api.DataBroker;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.action.BgpActionPolicy;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.AbstractCommunityHandler;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.DefinedSetsTracker;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.BgpSetCommunityOptionType;
@@ -31,8 +32,8 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.mess
  * Prepend / Replace / Remove a set of communities.
  */
 public final class SetCommunityHandler extends AbstractCommunityHandler implements BgpActionPolicy<SetCommunity> {
-    public SetCommunityHandler(final DataBroker dataBroker) {
-        super(dataBroker);
+    public SetCommunityHandler(final DefinedSetsTracker definedSets) {
+        super(definedSets);
     }
 
     @Override
@@ -71,8 +72,7 @@ public final class SetCommunityHandler extends AbstractCommunityHandler implemen
             final Attributes attributes,
             final String communitySetName,
             final BgpSetCommunityOptionType options) {
-        final String setKey = StringUtils.substringBetween(communitySetName, "=\"", "\"");
-        return inlineSetComm(attributes, this.communitySets.getUnchecked(setKey), options);
+        return inlineSetComm(attributes, this.communitySets.get(communitySetName), options);
     }
 
     private Attributes inlineSetComm(
@@ -106,4 +106,12 @@ public final class SetCommunityHandler extends AbstractCommunityHandler implemen
 
         return newAtt.setCommunities(actualComm).build();
     }
+
+    @Override
+    public Set<String> getDefinedSets(final SetCommunity bgpActions) {
+        final SetCommunityMethod setCommunityMethod = bgpActions.getSetCommunityMethod();
+        return setCommunityMethod instanceof Reference
+                ? DefinedSetsTracker.setNames(((Reference) setCommunityMethod).getCommunitySetRef())
+                : ImmutableSet.of();
+    }
 }
@@ -7,14 +7,15 @@
  */
 package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.actions;
 
+import com.google.common.collect.ImmutableSet;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
-import org.apache.commons.lang3.StringUtils;
-import org.opendaylight.mdsal.binding.api.DataBroker;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.action.BgpActionPolicy;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.AbstractExtCommunityHandler;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.DefinedSetsTracker;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.BgpSetCommunityOptionType;
@@ -32,8 +33,8 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.mess
  */
 public final class SetExtCommunityHandler extends AbstractExtCommunityHandler
         implements BgpActionPolicy<SetExtCommunity> {
-    public SetExtCommunityHandler(final DataBroker dataBroker) {
-        super(dataBroker);
+    public SetExtCommunityHandler(final DefinedSetsTracker definedSets) {
+        super(definedSets);
     }
 
     @Override
@@ -104,8 +105,14 @@ public final class SetExtCommunityHandler extends AbstractExtCommunityHandler
             final Attributes attributes,
             final String extCommunitySetName,
             final BgpSetCommunityOptionType options) {
-        final String setKey = StringUtils.substringBetween(extCommunitySetName, "=\"", "\"");
-        return inlineSetExtComm(attributes, this.extCommunitySets.getUnchecked(setKey), options);
+        return inlineSetExtComm(attributes, this.extCommunitySets.get(extCommunitySetName), options);
     }
 
+    @Override
+    public Set<String> getDefinedSets(final SetExtCommunity bgpActions) {
+        final SetExtCommunityMethod setExtCommunityMethod = bgpActions.getSetExtCommunityMethod();
+        return setExtCommunityMethod instanceof Reference
+                ? DefinedSetsTracker.setNames(((Reference) setExtCommunityMethod).getExtCommunitySetRef())
+                : ImmutableSet.of();
+    }
 }
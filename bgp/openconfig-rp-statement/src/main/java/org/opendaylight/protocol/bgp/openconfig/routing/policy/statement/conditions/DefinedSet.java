@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.conditions;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.policy.types.rev151009.MatchSetOptionsType;
+
+/**
+ * Members of a defined set, materialized for constant-time lookups. Each member is assigned a dense index, which
+ * allows {@link MatchSetOptionsType#ALL} to be evaluated without copying the route values into a temporary
+ * collection.
+ *
+ * @param <T> member type
+ */
+final class DefinedSet<T> {
+    private static final DefinedSet<?> EMPTY = new DefinedSet<>(ImmutableMap.of());
+
+    private final ImmutableMap<T, Integer> indices;
+
+    private DefinedSet(final ImmutableMap<T, Integer> indices) {
+        this.indices = indices;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> DefinedSet<T> empty() {
+        return (DefinedSet<T>) EMPTY;
+    }
+
+    static <T> DefinedSet<T> of(final Collection<? extends T> members) {
+        if (members == null || members.isEmpty()) {
+            return empty();
+        }
+        final Map<T, Integer> indices = new HashMap<>();
+        for (final T member : members) {
+            if (member != null) {
+                indices.putIfAbsent(member, indices.size());
+            }
+        }
+        return new DefinedSet<>(ImmutableMap.copyOf(indices));
+    }
+
+    boolean isEmpty() {
+        return this.indices.isEmpty();
+    }
+
+    int size() {
+        return this.indices.size();
+    }
+
+    boolean contains(final Object value) {
+        return value != null && this.indices.containsKey(value);
+    }
+
+    /**
+     * Return the index of a member.
+     *
+     * @param value value to look up
+     * @return member index, or -1 if the value is not a member
+     */
+    int indexOf(final Object value) {
+        final Integer index = value == null ? null : this.indices.get(value);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Match route values against this set.
+     *
+     * @param values route values, null is treated as an empty collection
+     * @param options match option
+     * @return ALL: values and members are equal as sets, ANY: values and members intersect, INVERT: values and
+     *         members are disjoint
+     */
+    boolean match(final Iterable<? extends T> values, final MatchSetOptionsType options) {
+        if (MatchSetOptionsType.ALL.equals(options)) {
+            return containsExactly(values);
+        }
+        final boolean found = containsAny(values);
+        if (MatchSetOptionsType.ANY.equals(options)) {
+            return found;
+        }
+        //INVERT
+        return !found;
+    }
+
+    private boolean containsAny(final Iterable<? extends T> values) {
+        if (values != null) {
+            for (final T value : values) {
+                if (contains(value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean containsExactly(final Iterable<? extends T> values) {
+        final SetCoverage coverage = new SetCoverage(size());
+        if (values != null) {
+            for (final T value : values) {
+                final int index = indexOf(value);
+                if (index < 0) {
+                    return false;
+                }
+                coverage.add(index);
+            }
+        }
+        return coverage.isComplete();
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.conditions;
+
+import java.util.Arrays;
+
+/**
+ * Defined set of primitive values, such as AS numbers or encoded communities, kept as a sorted array. Lookups do
+ * not box the value being looked up. The index of a member is its position in the array.
+ */
+final class LongDefinedSet {
+    static final LongDefinedSet EMPTY = new LongDefinedSet(new long[0]);
+
+    private final long[] members;
+
+    private LongDefinedSet(final long[] members) {
+        this.members = members;
+    }
+
+    static LongDefinedSet of(final long[] values) {
+        if (values.length == 0) {
+            return EMPTY;
+        }
+        final long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int size = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[size - 1]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return new LongDefinedSet(Arrays.copyOf(sorted, size));
+    }
+
+    boolean isEmpty() {
+        return this.members.length == 0;
+    }
+
+    int size() {
+        return this.members.length;
+    }
+
+    /**
+     * Return the index of a member.
+     *
+     * @param value value to look up
+     * @return member index, or a negative value if the value is not a member
+     */
+    int indexOf(final long value) {
+        return Arrays.binarySearch(this.members, value);
+    }
+}
@@ -7,70 +7,58 @@
  */
 package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.conditions;
 
-import static java.util.Objects.requireNonNull;
-
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import org.apache.commons.lang3.StringUtils;
-import org.opendaylight.mdsal.binding.api.DataBroker;
-import org.opendaylight.mdsal.binding.api.ReadTransaction;
-import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
+import java.util.Set;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.condition.BgpConditionsPolicy;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.DefinedSetsTracker;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.DefinedSetsTracker.SetCache;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
-import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.DefinedSets1;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.bgp.match.conditions.MatchAsPathSet;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.BgpDefinedSets;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.bgp.defined.sets.AsPathSets;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.bgp.defined.sets.as.path.sets.AsPathSet;
-import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.bgp.defined.sets.as.path.sets.AsPathSetKey;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.AfiSafiType;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.policy.types.rev151009.MatchSetOptionsType;
-import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.RoutingPolicy;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.DefinedSets;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.AsNumber;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.AsPath;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.as.path.Segments;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.AsPathSegment;
-import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 /**
  * Match a set of AS (All, ANY, INVERT).
  */
 public final class MatchAsPathSetHandler implements BgpConditionsPolicy<MatchAsPathSet, AsPath> {
-    private static final InstanceIdentifier<AsPathSets> AS_PATHS_SETS_IID
-            = InstanceIdentifier.create(RoutingPolicy.class).child(DefinedSets.class)
-            .augmentation(DefinedSets1.class).child(BgpDefinedSets.class)
-            .child(AsPathSets.class);
-    private final DataBroker dataBroker;
-    private final LoadingCache<String, AsPathSet> sets = CacheBuilder.newBuilder()
-            .build(new CacheLoader<String, AsPathSet>() {
-                @Override
-                public AsPathSet load(final String key) throws ExecutionException, InterruptedException {
-                    return loadSets(key);
-                }
-            });
+    private final SetCache<Optional<LongDefinedSet>> sets;
 
-    public MatchAsPathSetHandler(final DataBroker dataBroker) {
-        this.dataBroker = requireNonNull(dataBroker);
+    public MatchAsPathSetHandler(final DefinedSetsTracker definedSets) {
+        this.sets = definedSets.createCache(MatchAsPathSetHandler::loadSets);
     }
 
-    private AsPathSet loadSets(final String key) throws ExecutionException, InterruptedException {
-        final ReadTransaction tr = this.dataBroker.newReadOnlyTransaction();
-        final Optional<AsPathSet> result = tr.read(LogicalDatastoreType.CONFIGURATION,
-                AS_PATHS_SETS_IID.child(AsPathSet.class, new AsPathSetKey(key))).get();
-        return result.orElse(null);
+    private static Optional<LongDefinedSet> loadSets(final DefinedSets definedSets, final String asPathSetName) {
+        final BgpDefinedSets bgpDefinedSets = DefinedSetsTracker.bgpDefinedSets(definedSets);
+        final AsPathSets sets = bgpDefinedSets == null ? null : bgpDefinedSets.getAsPathSets();
+        if (sets == null || sets.getAsPathSet() == null) {
+            return Optional.empty();
+        }
+
+        final String key = DefinedSetsTracker.setName(asPathSetName);
+        for (final AsPathSet set : sets.getAsPathSet()) {
+            if (key.equals(set.getAsPathSetName())) {
+                final List<AsNumber> members = set.getAsPathSetMember();
+                if (members == null) {
+                    return Optional.of(LongDefinedSet.EMPTY);
+                }
+                return Optional.of(LongDefinedSet.of(members.stream().filter(Objects::nonNull)
+                        .mapToLong(AsNumber::getValue).toArray()));
+            }
+        }
+        return Optional.empty();
     }
 
     @Override
@@ -108,40 +96,73 @@ public final class MatchAsPathSetHandler implements BgpConditionsPolicy<MatchAsP
         if (asPath == null) {
             return false;
         }
-        final AsPathSet asPathSetFilter = this.sets.getUnchecked(StringUtils
-                .substringBetween(asPathSetName, "=\"", "\""));
+        final Optional<LongDefinedSet> asPathSetFilter = this.sets.get(asPathSetName);
 
         final List<Segments> segments = asPath.getSegments();
-        if (asPathSetFilter == null || segments == null) {
+        if (!asPathSetFilter.isPresent() || segments == null) {
             return false;
         }
 
-        final List<AsNumber> l1 = segments.stream()
-                .map(AsPathSegment::getAsSequence)
-                .filter(Objects::nonNull)
-                .flatMap(Collection::stream)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-
-        final List<AsNumber> l2 = segments.stream()
-                .map(AsPathSegment::getAsSet)
-                .filter(Objects::nonNull)
-                .flatMap(Collection::stream)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-
-        List<AsNumber> allAs = Stream.of(l1, l2).flatMap(Collection::stream).collect(Collectors.toList());
-
-        final List<AsNumber> asPathSetFilterList = asPathSetFilter.getAsPathSetMember();
+        final LongDefinedSet filter = asPathSetFilter.get();
         if (matchSetOptions.equals(MatchSetOptionsType.ALL)) {
-            return allAs.containsAll(asPathSetFilterList)
-                    && asPathSetFilterList.containsAll(allAs);
+            return containsExactly(segments, filter);
         }
-        final boolean noneInCommon = Collections.disjoint(allAs, asPathSetFilterList);
+        final boolean noneInCommon = !containsAny(segments, filter);
         if (matchSetOptions.equals(MatchSetOptionsType.ANY)) {
             return !noneInCommon;
         }
         //(matchSetOptions.equals(MatchSetOptionsType.INVERT))
         return noneInCommon;
     }
-}
\ No newline at end of file
+
+    private static boolean containsAny(final List<Segments> segments, final LongDefinedSet filter) {
+        for (final AsPathSegment segment : segments) {
+            if (containsAny(segment.getAsSequence(), filter) || containsAny(segment.getAsSet(), filter)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsAny(final List<AsNumber> asNumbers, final LongDefinedSet filter) {
+        if (asNumbers != null) {
+            for (final AsNumber as : asNumbers) {
+                if (as != null && filter.indexOf(as.getValue()) >= 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsExactly(final List<Segments> segments, final LongDefinedSet filter) {
+        final SetCoverage coverage = new SetCoverage(filter.size());
+        for (final AsPathSegment segment : segments) {
+            if (!cover(segment.getAsSequence(), filter, coverage) || !cover(segment.getAsSet(), filter, coverage)) {
+                return false;
+            }
+        }
+        return coverage.isComplete();
+    }
+
+    private static boolean cover(final List<AsNumber> asNumbers, final LongDefinedSet filter,
+            final SetCoverage coverage) {
+        if (asNumbers != null) {
+            for (final AsNumber as : asNumbers) {
+                if (as != null) {
+                    final int index = filter.indexOf(as.getValue());
+                    if (index < 0) {
+                        return false;
+                    }
+                    coverage.add(index);
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Set<String> getDefinedSets(final MatchAsPathSet conditions) {
+        return DefinedSetsTracker.setNames(conditions.getAsPathSet());
+    }
+}
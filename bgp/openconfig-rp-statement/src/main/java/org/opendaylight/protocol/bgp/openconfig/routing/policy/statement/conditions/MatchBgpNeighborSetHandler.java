@@ -7,22 +7,12 @@
  */
 package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.conditions;
 
-import static java.util.Objects.requireNonNull;
-
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.ExecutionException;
+import java.util.Set;
 import java.util.stream.Collectors;
-import org.apache.commons.lang3.StringUtils;
-import org.opendaylight.mdsal.binding.api.DataBroker;
-import org.opendaylight.mdsal.binding.api.ReadTransaction;
-import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.condition.BgpConditionsAugmentationPolicy;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.DefinedSetsTracker;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.DefinedSetsTracker.SetCache;
 import org.opendaylight.protocol.bgp.rib.spi.RouterIds;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
@@ -30,48 +20,39 @@ import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.policy.types.rev151009.MatchSetOptionsRestrictedType;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.generic.defined.sets.NeighborSets;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.neighbor.set.NeighborSet;
-import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.neighbor.set.NeighborSetKey;
-import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.RoutingPolicy;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.DefinedSets;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.BgpNeighbor;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.MatchBgpNeighborCondition;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.match.bgp.neighbor.grouping.MatchBgpNeighborSet;
-import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 /**
  * Match a set of Neighbors(ip address) (ANY, INVERT).
  */
 public final class MatchBgpNeighborSetHandler
         implements BgpConditionsAugmentationPolicy<MatchBgpNeighborCondition, Void> {
-    private static final InstanceIdentifier<NeighborSets> NEIGHBOR_SET_IID
-            = InstanceIdentifier.create(RoutingPolicy.class)
-            .child(DefinedSets.class)
-            .child(NeighborSets.class);
-    private final DataBroker dataBroker;
-    private final LoadingCache<String, List<PeerId>> peerSets = CacheBuilder.newBuilder()
-            .build(new CacheLoader<String, List<PeerId>>() {
-                @Override
-                public List<PeerId> load(final String key) throws ExecutionException, InterruptedException {
-                    return loadRoleSets(key);
-                }
-            });
-
-    public MatchBgpNeighborSetHandler(final DataBroker dataBroker) {
-        this.dataBroker = requireNonNull(dataBroker);
+    private final SetCache<DefinedSet<PeerId>> peerSets;
+
+    public MatchBgpNeighborSetHandler(final DefinedSetsTracker definedSets) {
+        this.peerSets = definedSets.createCache(MatchBgpNeighborSetHandler::loadPeerSets);
     }
 
-    private List<PeerId> loadRoleSets(final String key) throws ExecutionException, InterruptedException {
-        final ReadTransaction tr = this.dataBroker.newReadOnlyTransaction();
-        final Optional<NeighborSet> result = tr.read(LogicalDatastoreType.CONFIGURATION,
-                NEIGHBOR_SET_IID.child(NeighborSet.class, new NeighborSetKey(key))).get();
-        if (!result.isPresent()) {
-            return Collections.emptyList();
+    private static DefinedSet<PeerId> loadPeerSets(final DefinedSets definedSets, final String neighborSetName) {
+        final NeighborSets sets = definedSets == null ? null : definedSets.getNeighborSets();
+        if (sets == null || sets.getNeighborSet() == null) {
+            return DefinedSet.empty();
+        }
+
+        final String key = DefinedSetsTracker.setName(neighborSetName);
+        for (final NeighborSet set : sets.getNeighborSet()) {
+            if (key.equals(set.getNeighborSetName()) && set.getNeighbor() != null) {
+                return DefinedSet.of(set.getNeighbor().stream()
+                        .map(nei -> RouterIds.createPeerId(nei.getAddress()))
+                        .collect(Collectors.toList()));
+            }
         }
-        return result.get().getNeighbor().stream()
-                .map(nei -> RouterIds.createPeerId(nei.getAddress()))
-                .collect(Collectors.toList());
+        return DefinedSet.empty();
     }
 
     @Override
@@ -123,8 +104,7 @@ public final class MatchBgpNeighborSetHandler
             final String neighborSetName,
             final PeerId peerId,
             final MatchSetOptionsRestrictedType matchSetOptions) {
-        final List<PeerId> roles = this.peerSets.getUnchecked(StringUtils
-                .substringBetween(neighborSetName, "=\"", "\""));
+        final DefinedSet<PeerId> roles = this.peerSets.get(neighborSetName);
 
         final boolean found = roles.contains(peerId);
         if (MatchSetOptionsRestrictedType.ANY.equals(matchSetOptions)) {
@@ -138,4 +118,19 @@ public final class MatchBgpNeighborSetHandler
     public Void getConditionParameter(final Attributes attributes) {
         return null;
     }
+
+    @Override
+    public boolean isDestinationPeerSpecific() {
+        // To-neighbor sets match the identity of the destination peer
+        return true;
+    }
+
+    @Override
+    public Set<String> getDefinedSets(final MatchBgpNeighborCondition conditions) {
+        final MatchBgpNeighborSet matchBgpNeighborSet = conditions.getMatchBgpNeighborSet();
+        final BgpNeighbor from = matchBgpNeighborSet.getFromNeighbor();
+        final BgpNeighbor to = matchBgpNeighborSet.getToNeighbor();
+        return DefinedSetsTracker.setNames(from == null ? null : from.getNeighborSet(),
+                to == null ? null : to.getNeighborSet());
+    }
 }
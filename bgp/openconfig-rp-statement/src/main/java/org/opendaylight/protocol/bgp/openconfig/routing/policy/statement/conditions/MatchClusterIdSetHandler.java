@@ -7,29 +7,18 @@
  */
 package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.conditions;
 
-import static java.util.Objects.requireNonNull;
-
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
-import org.apache.commons.lang3.StringUtils;
-import org.opendaylight.mdsal.binding.api.DataBroker;
-import org.opendaylight.mdsal.binding.api.ReadTransaction;
-import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
+import java.util.Set;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.condition.BgpConditionsAugmentationPolicy;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.DefinedSetsTracker;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.DefinedSetsTracker.SetCache;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
-import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.DefinedSets1;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.BgpDefinedSets;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.AfiSafiType;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.policy.types.rev151009.MatchSetOptionsType;
-import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.RoutingPolicy;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.DefinedSets;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.ClusterId;
@@ -37,37 +26,44 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.type
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.BgpClusterIdSets;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.MatchClusterIdSetCondition;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.cluster.id.set.ClusterIdSet;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.cluster.id.set.ClusterIdSetKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.routing.policy.defined.sets.bgp.defined.sets.ClusterIdSets;
-import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 /**
  * Match a set of Cluster Id(ALL, NAY, INVERT).
  */
 public final class MatchClusterIdSetHandler
         implements BgpConditionsAugmentationPolicy<MatchClusterIdSetCondition, ClusterId> {
-    private static final InstanceIdentifier<ClusterIdSets> CLUSTERS_ID_SETS_IID
-            = InstanceIdentifier.create(RoutingPolicy.class).child(DefinedSets.class)
-            .augmentation(DefinedSets1.class).child(BgpDefinedSets.class)
-            .augmentation(BgpClusterIdSets.class).child(ClusterIdSets.class);
-    private final DataBroker dataBroker;
-    private final LoadingCache<String, ClusterIdSet> sets = CacheBuilder.newBuilder()
-            .build(new CacheLoader<String, ClusterIdSet>() {
-                @Override
-                public ClusterIdSet load(final String key) throws ExecutionException, InterruptedException {
-                    return loadSets(key);
-                }
-            });
-
-    public MatchClusterIdSetHandler(final DataBroker dataBroker) {
-        this.dataBroker = requireNonNull(dataBroker);
+    /**
+     * Configured cluster ids, plus a flag whether the local cluster id is a member as well.
+     */
+    private static final class ClusterIdFilter {
+        final DefinedSet<ClusterIdentifier> clusterIds;
+        final boolean local;
+
+        ClusterIdFilter(final ClusterIdSet clusterIdSet) {
+            this.clusterIds = DefinedSet.of(clusterIdSet.getClusterId());
+            this.local = clusterIdSet.getLocal() != null;
+        }
+    }
+
+    private final SetCache<Optional<ClusterIdFilter>> sets;
+
+    public MatchClusterIdSetHandler(final DefinedSetsTracker definedSets) {
+        this.sets = definedSets.createCache(MatchClusterIdSetHandler::loadSets);
     }
 
-    private ClusterIdSet loadSets(final String key) throws ExecutionException, InterruptedException {
-        final ReadTransaction tr = this.dataBroker.newReadOnlyTransaction();
-        final Optional<ClusterIdSet> result = tr.read(LogicalDatastoreType.CONFIGURATION,
-                CLUSTERS_ID_SETS_IID.child(ClusterIdSet.class, new ClusterIdSetKey(key))).get();
-        return result.orElse(null);
+    private static Optional<ClusterIdFilter> loadSets(final DefinedSets definedSets, final String clusterIdSetName) {
+        final BgpDefinedSets bgpDefinedSets = DefinedSetsTracker.bgpDefinedSets(definedSets);
+        final BgpClusterIdSets bgpClusterIdSets = bgpDefinedSets == null ? null
+                : bgpDefinedSets.augmentation(BgpClusterIdSets.class);
+        final ClusterIdSets sets = bgpClusterIdSets == null ? null : bgpClusterIdSets.getClusterIdSets();
+        if (sets == null || sets.getClusterIdSet() == null) {
+            return Optional.empty();
+        }
+
+        final String key = DefinedSetsTracker.setName(clusterIdSetName);
+        return sets.getClusterIdSet().stream().filter(set -> key.equals(set.getClusterIdSetName())).findFirst()
+                .map(ClusterIdFilter::new);
     }
 
     @Override
@@ -106,28 +102,21 @@ public final class MatchClusterIdSetHandler
             final ClusterId clusterId, final org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl
             .bgp._default.policy.rev180329.match.cluster.id.set.condition.grouping
             .MatchClusterIdSetCondition matchClusterIdSetCondition) {
-        final ClusterIdSet clusterIdSet = this.sets.getUnchecked(StringUtils
-                .substringBetween(matchClusterIdSetCondition.getClusterIdSet(), "=\"", "\""));
+        final Optional<ClusterIdFilter> clusterIdSet = this.sets.get(
+                matchClusterIdSetCondition.getClusterIdSet());
 
-        if (clusterIdSet == null) {
+        if (!clusterIdSet.isPresent()) {
             return false;
         }
         final MatchSetOptionsType matchOption = matchClusterIdSetCondition.getMatchSetOptions();
 
         if (clusterId != null) {
-            List<ClusterIdentifier> newList = new ArrayList<>();
-            if (clusterIdSet.getClusterId() != null) {
-                newList.addAll(clusterIdSet.getClusterId());
-            }
-            if (clusterIdSet.getLocal() != null) {
-                newList.add(localClusterId);
-            }
-
+            final ClusterIdFilter filter = clusterIdSet.get();
             final List<ClusterIdentifier> matchClusterList = clusterId.getCluster();
             if (matchOption.equals(MatchSetOptionsType.ALL)) {
-                return matchClusterList.containsAll(newList) && newList.containsAll(matchClusterList);
+                return containsExactly(matchClusterList, filter, localClusterId);
             }
-            final boolean noneInCommon = Collections.disjoint(matchClusterList, newList);
+            final boolean noneInCommon = !containsAny(matchClusterList, filter, localClusterId);
             if (matchOption.equals(MatchSetOptionsType.ANY)) {
                 return !noneInCommon;
             } else if (matchOption.equals(MatchSetOptionsType.INVERT)) {
@@ -138,4 +127,38 @@ public final class MatchClusterIdSetHandler
         }
         return false;
     }
-}
\ No newline at end of file
+
+    private static boolean containsAny(final List<ClusterIdentifier> clusterList, final ClusterIdFilter filter,
+            final ClusterIdentifier localClusterId) {
+        for (final ClusterIdentifier cluster : clusterList) {
+            if (filter.clusterIds.contains(cluster) || filter.local && cluster.equals(localClusterId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsExactly(final List<ClusterIdentifier> clusterList, final ClusterIdFilter filter,
+            final ClusterIdentifier localClusterId) {
+        final DefinedSet<ClusterIdentifier> clusterIds = filter.clusterIds;
+        // The local cluster id takes an extra slot, unless it is configured explicitly as well
+        final boolean extraLocal = filter.local && !clusterIds.contains(localClusterId);
+        final SetCoverage coverage = new SetCoverage(extraLocal ? clusterIds.size() + 1 : clusterIds.size());
+        for (final ClusterIdentifier cluster : clusterList) {
+            final int index = clusterIds.indexOf(cluster);
+            if (index >= 0) {
+                coverage.add(index);
+            } else if (extraLocal && cluster.equals(localClusterId)) {
+                coverage.add(clusterIds.size());
+            } else {
+                return false;
+            }
+        }
+        return coverage.isComplete();
+    }
+
+    @Override
+    public Set<String> getDefinedSets(final MatchClusterIdSetCondition conditions) {
+        return DefinedSetsTracker.setNames(conditions.getMatchClusterIdSetCondition().getClusterIdSet());
+    }
+}
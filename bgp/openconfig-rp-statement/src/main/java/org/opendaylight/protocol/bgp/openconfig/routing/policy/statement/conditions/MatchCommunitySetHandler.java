@@ -9,16 +9,18 @@ package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.condit
 
 import java.util.Collections;
 import java.util.List;
-import org.apache.commons.lang3.StringUtils;
-import org.opendaylight.mdsal.binding.api.DataBroker;
+import java.util.Set;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.condition.BgpConditionsPolicy;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.AbstractCommunityHandler;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.DefinedSetsTracker;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.DefinedSetsTracker.SetCache;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.bgp.match.conditions.MatchCommunitySet;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.AfiSafiType;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.policy.types.rev151009.MatchSetOptionsType;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.AsNumber;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.Communities;
 
@@ -27,8 +29,22 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.mess
  */
 public final class MatchCommunitySetHandler
         extends AbstractCommunityHandler implements BgpConditionsPolicy<MatchCommunitySet, List<Communities>> {
-    public MatchCommunitySetHandler(final DataBroker databroker) {
-        super(databroker);
+    private final SetCache<LongDefinedSet> communityFilters;
+
+    public MatchCommunitySetHandler(final DefinedSetsTracker definedSets) {
+        super(definedSets);
+        this.communityFilters = definedSets.createCache((snapshot, communitySetName) -> LongDefinedSet.of(
+            loadCommunitySet(snapshot, communitySetName).stream().mapToLong(MatchCommunitySetHandler::communityKey)
+                .toArray()));
+    }
+
+    /**
+     * Encode a community as a single long, with the AS number in the upper and the semantics in the lower 16 bits.
+     */
+    private static long communityKey(final Communities community) {
+        final AsNumber as = community.getAsNumber();
+        final Integer semantics = community.getSemantics();
+        return (as == null ? 0 : as.getValue()) << Short.SIZE | (semantics == null ? 0 : semantics);
     }
 
     @Override
@@ -57,20 +73,15 @@ public final class MatchCommunitySetHandler
     }
 
     private boolean matchCondition(
-            final List<org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path
-                    .attributes.attributes.Communities> communities,
+            final List<Communities> communities,
             final String communitySetName,
             final MatchSetOptionsType matchSetOptions) {
-
-        final String setKey = StringUtils
-                .substringBetween(communitySetName, "=\"", "\"");
-        final List<Communities> communityFilter = this.communitySets.getUnchecked(setKey);
-
-        if (communityFilter == null || communityFilter.isEmpty()) {
+        final LongDefinedSet communityFilter = this.communityFilters.get(communitySetName);
+        if (communityFilter.isEmpty()) {
             return false;
         }
 
-        List<Communities> commAttributeList;
+        final List<Communities> commAttributeList;
         if (communities == null) {
             commAttributeList = Collections.emptyList();
         } else {
@@ -78,15 +89,33 @@ public final class MatchCommunitySetHandler
         }
 
         if (matchSetOptions.equals(MatchSetOptionsType.ALL)) {
-            return commAttributeList.containsAll(communityFilter)
-                    && communityFilter.containsAll(commAttributeList);
+            final SetCoverage coverage = new SetCoverage(communityFilter.size());
+            for (final Communities community : commAttributeList) {
+                final int index = communityFilter.indexOf(communityKey(community));
+                if (index < 0) {
+                    return false;
+                }
+                coverage.add(index);
+            }
+            return coverage.isComplete();
         }
-        final boolean noneInCommon = Collections.disjoint(commAttributeList, communityFilter);
 
+        boolean noneInCommon = true;
+        for (final Communities community : commAttributeList) {
+            if (communityFilter.indexOf(communityKey(community)) >= 0) {
+                noneInCommon = false;
+                break;
+            }
+        }
         if (matchSetOptions.equals(MatchSetOptionsType.ANY)) {
             return !noneInCommon;
         }
         //(matchSetOptions.equals(MatchSetOptionsType.INVERT))
         return noneInCommon;
     }
+
+    @Override
+    public Set<String> getDefinedSets(final MatchCommunitySet conditions) {
+        return DefinedSetsTracker.setNames(conditions.getCommunitySet());
+    }
 }
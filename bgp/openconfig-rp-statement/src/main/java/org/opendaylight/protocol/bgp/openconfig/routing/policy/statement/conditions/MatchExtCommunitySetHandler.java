@@ -7,13 +7,13 @@
  */
 package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.conditions;
 
-import java.util.Collections;
 import java.util.List;
-import org.apache.commons.lang3.StringUtils;
-import org.opendaylight.mdsal.binding.api.DataBroker;
+import java.util.Set;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.condition.BgpConditionsPolicy;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.AbstractExtCommunityHandler;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.DefinedSetsTracker;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.DefinedSetsTracker.SetCache;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.bgp.match.conditions.MatchExtCommunitySet;
@@ -28,39 +28,22 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.mess
 public final class MatchExtCommunitySetHandler extends AbstractExtCommunityHandler
         implements BgpConditionsPolicy<MatchExtCommunitySet, List<ExtendedCommunities>> {
 
-    public MatchExtCommunitySetHandler(final DataBroker databroker) {
-        super(databroker);
+    private final SetCache<DefinedSet<ExtendedCommunities>> extCommunityFilters;
+
+    public MatchExtCommunitySetHandler(final DefinedSetsTracker definedSets) {
+        super(definedSets);
+        this.extCommunityFilters = definedSets.createCache(
+            (snapshot, extCommunitySetName) -> DefinedSet.of(loadCommunitySet(snapshot, extCommunitySetName)));
     }
 
     private boolean matchCondition(final List<ExtendedCommunities> extendedCommunities,
             final String matchExtCommunitySetName, final MatchSetOptionsType matchSetOptions) {
-
-        final String setKey = StringUtils
-                .substringBetween(matchExtCommunitySetName, "=\"", "\"");
-        final List<ExtendedCommunities> extCommunityfilter = this.extCommunitySets.getUnchecked(setKey);
-
-        if (extCommunityfilter == null || extCommunityfilter.isEmpty()) {
+        final DefinedSet<ExtendedCommunities> extCommunityfilter =
+                this.extCommunityFilters.get(matchExtCommunitySetName);
+        if (extCommunityfilter.isEmpty()) {
             return false;
         }
-
-        List<ExtendedCommunities> extCommList;
-        if (extendedCommunities == null) {
-            extCommList = Collections.emptyList();
-        } else {
-            extCommList = extendedCommunities;
-        }
-
-
-        if (matchSetOptions.equals(MatchSetOptionsType.ALL)) {
-            return extCommList.containsAll(extCommunityfilter)
-                    && extCommunityfilter.containsAll(extCommList);
-        }
-        final boolean noneInCommon = Collections.disjoint(extCommList, extCommunityfilter);
-        if (matchSetOptions.equals(MatchSetOptionsType.ANY)) {
-            return !noneInCommon;
-        }
-        //(matchSetOptions.equals(MatchSetOptionsType.INVERT))
-        return noneInCommon;
+        return extCommunityfilter.match(extendedCommunities, matchSetOptions);
     }
 
     @Override
@@ -89,4 +72,9 @@ public final class MatchExtCommunitySetHandler extends AbstractExtCommunityHandl
     public List<ExtendedCommunities> getConditionParameter(final Attributes attributes) {
         return attributes.getExtendedCommunities();
     }
+
+    @Override
+    public Set<String> getDefinedSets(final MatchExtCommunitySet conditions) {
+        return DefinedSetsTracker.setNames(conditions.getExtCommunitySet());
+    }
 }
@@ -7,26 +7,17 @@
  */
 package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.conditions;
 
-import static java.util.Objects.requireNonNull;
-
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
-import org.apache.commons.lang3.StringUtils;
-import org.opendaylight.mdsal.binding.api.DataBroker;
-import org.opendaylight.mdsal.binding.api.ReadTransaction;
-import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
+import java.util.Set;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.condition.BgpConditionsAugmentationPolicy;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.DefinedSetsTracker;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.DefinedSetsTracker.SetCache;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
-import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.DefinedSets1;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.BgpDefinedSets;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.AfiSafiType;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.policy.types.rev151009.MatchSetOptionsRestrictedType;
-import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.RoutingPolicy;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.DefinedSets;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
@@ -34,37 +25,31 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.mess
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.BgpOriginatorIdSets;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.MatchOriginatorIdSetCondition;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.originator.id.set.OriginatorIdSet;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.originator.id.set.OriginatorIdSetKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.routing.policy.defined.sets.bgp.defined.sets.OriginatorIdSets;
-import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 /**
  * Match an Originator Id(ANY, INVERT).
  */
 public final class MatchOriginatorIdSetHandler
         implements BgpConditionsAugmentationPolicy<MatchOriginatorIdSetCondition, OriginatorId> {
-    private static final InstanceIdentifier<OriginatorIdSets> ORIGINATOR_ID_SETS_IID
-            = InstanceIdentifier.create(RoutingPolicy.class).child(DefinedSets.class)
-            .augmentation(DefinedSets1.class).child(BgpDefinedSets.class)
-            .augmentation(BgpOriginatorIdSets.class).child(OriginatorIdSets.class);
-    private final DataBroker dataBroker;
-    private final LoadingCache<String, OriginatorIdSet> sets = CacheBuilder.newBuilder()
-            .build(new CacheLoader<String, OriginatorIdSet>() {
-                @Override
-                public OriginatorIdSet load(final String key) throws ExecutionException, InterruptedException {
-                    return loadSets(key);
-                }
-            });
+    private final SetCache<Optional<OriginatorIdSet>> sets;
 
-    public MatchOriginatorIdSetHandler(final DataBroker dataBroker) {
-        this.dataBroker = requireNonNull(dataBroker);
+    public MatchOriginatorIdSetHandler(final DefinedSetsTracker definedSets) {
+        this.sets = definedSets.createCache(MatchOriginatorIdSetHandler::loadSets);
     }
 
-    private OriginatorIdSet loadSets(final String key) throws ExecutionException, InterruptedException {
-        final ReadTransaction tr = this.dataBroker.newReadOnlyTransaction();
-        final Optional<OriginatorIdSet> result = tr.read(LogicalDatastoreType.CONFIGURATION,
-                ORIGINATOR_ID_SETS_IID.child(OriginatorIdSet.class, new OriginatorIdSetKey(key))).get();
-        return result.orElse(null);
+    private static Optional<OriginatorIdSet> loadSets(final DefinedSets definedSets,
+            final String originatorIdSetName) {
+        final BgpDefinedSets bgpDefinedSets = DefinedSetsTracker.bgpDefinedSets(definedSets);
+        final BgpOriginatorIdSets bgpOriginatorIdSets = bgpDefinedSets == null ? null
+                : bgpDefinedSets.augmentation(BgpOriginatorIdSets.class);
+        final OriginatorIdSets sets = bgpOriginatorIdSets == null ? null : bgpOriginatorIdSets.getOriginatorIdSets();
+        if (sets == null || sets.getOriginatorIdSet() == null) {
+            return Optional.empty();
+        }
+
+        final String key = DefinedSetsTracker.setName(originatorIdSetName);
+        return sets.getOriginatorIdSet().stream().filter(set -> key.equals(set.getOriginatorIdSetName())).findFirst();
     }
 
     @Override
@@ -101,12 +86,11 @@ public final class MatchOriginatorIdSetHandler
             .bgp._default.policy.rev180329.match.originator.id.set.condition.grouping
             .MatchOriginatorIdSetCondition condition) {
 
-        final OriginatorIdSet originatorIdSet = this.sets.getUnchecked(StringUtils
-                .substringBetween(condition.getOriginatorIdSet(), "=\"", "\""));
-
-        if (originatorIdSet == null) {
+        final Optional<OriginatorIdSet> set = this.sets.get(condition.getOriginatorIdSet());
+        if (!set.isPresent()) {
             return false;
         }
+        final OriginatorIdSet originatorIdSet = set.get();
         boolean found = false;
         if (originatorId != null) {
             final Ipv4Address remOrigin = originatorId.getOriginator();
@@ -122,4 +106,9 @@ public final class MatchOriginatorIdSetHandler
         return matchOption.equals(MatchSetOptionsRestrictedType.ANY) && found
                 || matchOption.equals(MatchSetOptionsRestrictedType.INVERT) && !found;
     }
-}
\ No newline at end of file
+
+    @Override
+    public Set<String> getDefinedSets(final MatchOriginatorIdSetCondition conditions) {
+        return DefinedSetsTracker.setNames(conditions.getMatchOriginatorIdSetCondition().getOriginatorIdSet());
+    }
+}
@@ -7,28 +7,18 @@
  */
 package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.conditions;
 
-import static java.util.Objects.requireNonNull;
-
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.ExecutionException;
-import org.apache.commons.lang3.StringUtils;
-import org.opendaylight.mdsal.binding.api.DataBroker;
-import org.opendaylight.mdsal.binding.api.ReadTransaction;
-import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
+import java.util.Set;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.condition.BgpConditionsAugmentationPolicy;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.DefinedSetsTracker;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.DefinedSetsTracker.SetCache;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
-import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.DefinedSets1;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.BgpDefinedSets;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.AfiSafiType;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.policy.types.rev151009.MatchSetOptionsRestrictedType;
-import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.RoutingPolicy;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.DefinedSets;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerRole;
@@ -38,39 +28,33 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp.
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.match.role.set.condition.grouping.match.role.set.FromRole;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.match.role.set.condition.grouping.match.role.set.ToRole;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.role.set.RoleSet;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.role.set.RoleSetKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.bgp._default.policy.rev180329.routing.policy.defined.sets.bgp.defined.sets.RoleSets;
-import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 /**
  * Match a Peer Role (FROM, TO).
  */
 public final class MatchRoleSetHandler implements BgpConditionsAugmentationPolicy<MatchRoleSetCondition, Void> {
-    private static final InstanceIdentifier<RoleSets> ROLE_SET_IID
-            = InstanceIdentifier.create(RoutingPolicy.class).child(DefinedSets.class)
-            .augmentation(DefinedSets1.class).child(BgpDefinedSets.class)
-            .augmentation(BgpRoleSets.class).child(RoleSets.class);
-    private final DataBroker dataBroker;
-    private final LoadingCache<String, List<PeerRole>> roleSets = CacheBuilder.newBuilder()
-            .build(new CacheLoader<String, List<PeerRole>>() {
-                @Override
-                public List<PeerRole> load(final String key) throws ExecutionException, InterruptedException {
-                    return loadRoleSets(key);
-                }
-            });
+    private final SetCache<List<PeerRole>> roleSets;
 
-    public MatchRoleSetHandler(final DataBroker dataBroker) {
-        this.dataBroker = requireNonNull(dataBroker);
+    public MatchRoleSetHandler(final DefinedSetsTracker definedSets) {
+        this.roleSets = definedSets.createCache(MatchRoleSetHandler::loadRoleSets);
     }
 
-    private List<PeerRole> loadRoleSets(final String key) throws ExecutionException, InterruptedException {
-        final ReadTransaction tr = this.dataBroker.newReadOnlyTransaction();
-        final Optional<RoleSet> result = tr.read(LogicalDatastoreType.CONFIGURATION,
-                ROLE_SET_IID.child(RoleSet.class, new RoleSetKey(key))).get();
-        if (!result.isPresent()) {
+    private static List<PeerRole> loadRoleSets(final DefinedSets definedSets, final String roleSetName) {
+        final BgpDefinedSets bgpDefinedSets = DefinedSetsTracker.bgpDefinedSets(definedSets);
+        final BgpRoleSets bgpRoleSets = bgpDefinedSets == null ? null : bgpDefinedSets.augmentation(BgpRoleSets.class);
+        final RoleSets sets = bgpRoleSets == null ? null : bgpRoleSets.getRoleSets();
+        if (sets == null || sets.getRoleSet() == null) {
             return Collections.emptyList();
         }
-        return result.get().getRole();
+
+        final String key = DefinedSetsTracker.setName(roleSetName);
+        for (final RoleSet set : sets.getRoleSet()) {
+            if (key.equals(set.getRoleSetName()) && set.getRole() != null) {
+                return set.getRole();
+            }
+        }
+        return Collections.emptyList();
     }
 
     @Override
@@ -106,8 +90,7 @@ public final class MatchRoleSetHandler implements BgpConditionsAugmentationPolic
 
     private boolean checkMatch(final String roleSetName, final PeerRole role,
             final MatchSetOptionsRestrictedType matchSetOptions) {
-        final List<PeerRole> roles = this.roleSets.getUnchecked(StringUtils
-                .substringBetween(roleSetName, "=\"", "\""));
+        final List<PeerRole> roles = this.roleSets.get(roleSetName);
 
         final boolean found = roles.contains(role);
         if (MatchSetOptionsRestrictedType.ANY.equals(matchSetOptions)) {
@@ -132,4 +115,13 @@ public final class MatchRoleSetHandler implements BgpConditionsAugmentationPolic
     public Void getConditionParameter(final Attributes attributes) {
         return null;
     }
+
+    @Override
+    public Set<String> getDefinedSets(final MatchRoleSetCondition conditions) {
+        final MatchRoleSet matchRoleSet = conditions.getMatchRoleSet();
+        final FromRole from = matchRoleSet.getFromRole();
+        final ToRole to = matchRoleSet.getToRole();
+        return DefinedSetsTracker.setNames(from == null ? null : from.getRoleSet(),
+                to == null ? null : to.getRoleSet());
+    }
 }
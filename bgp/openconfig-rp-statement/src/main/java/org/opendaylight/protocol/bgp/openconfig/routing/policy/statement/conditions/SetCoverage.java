@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.conditions;
+
+import java.util.BitSet;
+
+/**
+ * Tracks which members of a defined set have been seen while walking route values. Sets with up to 64 members are
+ * tracked in a single long.
+ */
+final class SetCoverage {
+    private final int size;
+    private final BitSet bits;
+    private long mask;
+    private int covered;
+
+    SetCoverage(final int size) {
+        this.size = size;
+        this.bits = size > Long.SIZE ? new BitSet(size) : null;
+    }
+
+    void add(final int index) {
+        if (this.bits == null) {
+            final long bit = 1L << index;
+            if ((this.mask & bit) == 0) {
+                this.mask |= bit;
+                this.covered++;
+            }
+        } else if (!this.bits.get(index)) {
+            this.bits.set(index);
+            this.covered++;
+        }
+    }
+
+    boolean isComplete() {
+        return this.covered == this.size;
+    }
+}
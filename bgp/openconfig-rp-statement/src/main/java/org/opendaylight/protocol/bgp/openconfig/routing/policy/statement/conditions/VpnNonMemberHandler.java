@@ -10,8 +10,7 @@ package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.condit
 
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Set;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.RouteEntryBaseAttributes;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.policy.condition.BgpConditionsAugmentationPolicy;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
@@ -64,17 +63,17 @@ public final class VpnNonMemberHandler implements
             final BGPRouteEntryExportParameters routeEntryExportParameters,
             final List<ExtendedCommunities> attributes,
             final VpnNonMemberCondition conditions) {
-        final List<RouteTarget> allowedRouteTarget = routeEntryExportParameters.getMemberships();
+        final Set<RouteTarget> allowedRouteTarget = routeEntryExportParameters.getMemberships();
         if (allowedRouteTarget.contains(DEFAULT)) {
             return false;
         }
-        final List<RouteTarget> toRT = attributes.stream()
-                .map(ext -> ext.getExtendedCommunity())
-                .filter(Objects::nonNull)
-                .filter(this::filterRTExtComm)
-                .map(this::extendedCommunityToRouteTarget)
-                .collect(Collectors.toList());
-        return Collections.disjoint(allowedRouteTarget, toRT);
+        for (final ExtendedCommunities ext : attributes) {
+            final ExtendedCommunity rt = ext.getExtendedCommunity();
+            if (rt != null && filterRTExtComm(rt) && allowedRouteTarget.contains(extendedCommunityToRouteTarget(rt))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private RouteTarget extendedCommunityToRouteTarget(final ExtendedCommunity rt) {
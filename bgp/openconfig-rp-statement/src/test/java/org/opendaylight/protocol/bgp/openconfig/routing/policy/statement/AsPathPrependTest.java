@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry.RouteAttributeContainer.routeAttributeContainerFalse;
+
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.impl.PolicyRIBBaseParametersImpl;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry.RouteAttributeContainer;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry.StatementRegistry;
+import org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.actions.AsPathPrepend;
+import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
+import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.policy.definitions.policy.definition.statements.statement.actions.bgp.actions.SetAsPathPrepend;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.IPV4UNICAST;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.policy.definitions.policy.definition.statements.Statement;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.AsNumber;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.AsPathBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.as.path.SegmentsBuilder;
+import org.opendaylight.yangtools.concepts.AbstractRegistration;
+
+public class AsPathPrependTest extends AbstractStatementRegistryConsumerTest {
+    @Mock
+    private BGPRouteEntryExportParameters exportParameters;
+    @Mock
+    private BGPRouteEntryImportParameters importParameters;
+    private Statement statement;
+    private PolicyRIBBaseParametersImpl baseAttributes;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        this.statement = loadStatement("as-path-prepend-statements-test").get(0);
+        this.baseAttributes = new PolicyRIBBaseParametersImpl(LOCAL_AS, IPV4, CLUSTER);
+    }
+
+    @Test
+    public void testExportPrepend() {
+        final RouteAttributeContainer result = this.statementRegistry.applyExportStatement(this.baseAttributes,
+                IPV4UNICAST.class, this.exportParameters, routeAttributeContainerFalse(createAttributes()),
+                this.statement);
+
+        final Attributes expected = new AttributesBuilder()
+                .setAsPath(new AsPathBuilder().setSegments(Collections.singletonList(new SegmentsBuilder()
+                        .setAsSequence(Collections.singletonList(new AsNumber(LOCAL_AS))).build())).build())
+                .build();
+        assertEquals(expected, result.getAttributes());
+    }
+
+    @Test
+    public void testImportPrepend() {
+        // The handler has to be resolved by the action's interface, not by its implementation class. AsPathPrepend
+        // does not support import, hence the route is rejected.
+        final RouteAttributeContainer result = this.statementRegistry.applyImportStatement(this.baseAttributes,
+                IPV4UNICAST.class, this.importParameters, routeAttributeContainerFalse(createAttributes()),
+                this.statement);
+        assertNull(result.getAttributes());
+    }
+
+    @Test
+    public void testHandlerGeneration() {
+        final StatementRegistry registry = new StatementRegistry();
+        assertMissingHandler(registry);
+
+        final long initial = registry.getGeneration();
+        final AbstractRegistration registration = registry.registerBgpActionPolicy(SetAsPathPrepend.class,
+                AsPathPrepend.getInstance());
+        final long registered = registry.getGeneration();
+        assertNotEquals(initial, registered);
+        assertNotNull(registry.compileStatement(this.statement));
+
+        registration.close();
+        assertNotEquals(registered, registry.getGeneration());
+        assertMissingHandler(registry);
+    }
+
+    private void assertMissingHandler(final StatementRegistry registry) {
+        try {
+            registry.compileStatement(this.statement);
+            fail("Statement should not compile without a set-as-path-prepend handler");
+        } catch (final IllegalStateException e) {
+            // Expected
+        }
+    }
+
+    private static Attributes createAttributes() {
+        return new AttributesBuilder().setAsPath(new AsPathBuilder().build()).build();
+    }
+}
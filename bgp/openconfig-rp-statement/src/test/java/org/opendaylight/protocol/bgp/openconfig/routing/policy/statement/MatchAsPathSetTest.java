@@ -8,29 +8,56 @@
 
 package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.opendaylight.bgpcep.config.loader.routing.policy.OpenconfigRoutingPolicyLoader.ROUTING_POLICY_IID;
+import static org.opendaylight.protocol.util.CheckUtil.checkEquals;
 import static org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry.RouteAttributeContainer.routeAttributeContainerFalse;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
+import org.opendaylight.mdsal.binding.api.WriteTransaction;
+import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.impl.PolicyRIBBaseParametersImpl;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry.RouteAttributeContainer;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
+import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.DefinedSets1;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.BgpDefinedSets;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.bgp.defined.sets.AsPathSets;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.bgp.defined.sets.as.path.sets.AsPathSet;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.bgp.defined.sets.as.path.sets.AsPathSetBuilder;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.defined.sets.bgp.defined.sets.as.path.sets.AsPathSetKey;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.IPV4UNICAST;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.DefinedSets;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.policy.definitions.policy.definition.statements.Statement;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.AsNumber;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.AsPathBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.as.path.SegmentsBuilder;
+import org.opendaylight.yangtools.concepts.Registration;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 public class MatchAsPathSetTest extends AbstractStatementRegistryConsumerTest {
+    private static final InstanceIdentifier<AsPathSet> AS_PATH_SET_IID = ROUTING_POLICY_IID
+            .child(DefinedSets.class).augmentation(DefinedSets1.class).child(BgpDefinedSets.class)
+            .child(AsPathSets.class).child(AsPathSet.class, new AsPathSetKey("test-as-path-set"));
+
     @Mock
     private BGPRouteEntryExportParameters exportParameters;
+    @Mock
+    private BGPRouteEntryImportParameters importParameters;
     private List<Statement> basicStatements;
     private PolicyRIBBaseParametersImpl baseAttributes;
 
@@ -72,6 +99,30 @@ public class MatchAsPathSetTest extends AbstractStatementRegistryConsumerTest {
         assertNull(result.getAttributes());
     }
 
+    @Test
+    public void testMatchAsPathAnyImport() {
+        final Statement statement = this.basicStatements.stream()
+                .filter(st -> st.getName().equals("reject-match-as-path-any-set")).findFirst().get();
+        RouteAttributeContainer result = this.statementRegistry.applyImportStatement(
+                this.baseAttributes,
+                IPV4UNICAST.class,
+                this.importParameters,
+                routeAttributeContainerFalse(new AttributesBuilder().build()),
+                statement);
+        assertNotNull(result.getAttributes());
+
+        result = this.statementRegistry.applyImportStatement(
+                this.baseAttributes,
+                IPV4UNICAST.class,
+                this.importParameters,
+                routeAttributeContainerFalse(new AttributesBuilder()
+                        .setAsPath(new AsPathBuilder().setSegments(Collections.singletonList(
+                                new SegmentsBuilder().setAsSequence(Collections.singletonList(
+                                        AsNumber.getDefaultInstance("65"))).build())).build()).build()),
+                statement);
+        assertNull(result.getAttributes());
+    }
+
     @Test
     public void testMatchAsPathAll() {
         Statement statement = this.basicStatements.stream()
@@ -140,4 +191,60 @@ public class MatchAsPathSetTest extends AbstractStatementRegistryConsumerTest {
                 statement);
         assertNull(result.getAttributes());
     }
+
+    @Test
+    public void testMatchAsPathSetUpdated() throws Exception {
+        final Statement statement = this.basicStatements.stream()
+                .filter(st -> st.getName().equals("reject-match-as-path-any-set")).findFirst().get();
+        final RouteAttributeContainer attributeContainer = routeAttributeContainerFalse(
+                new AttributesBuilder()
+                        .setAsPath(new AsPathBuilder().setSegments(Collections.singletonList(
+                                new SegmentsBuilder().setAsSequence(Collections.singletonList(
+                                        AsNumber.getDefaultInstance("200"))).build())).build()).build());
+        assertNotNull(this.statementRegistry.applyExportStatement(this.baseAttributes, IPV4UNICAST.class,
+                this.exportParameters, attributeContainer, statement).getAttributes());
+
+        final WriteTransaction wt = getDataBroker().newWriteOnlyTransaction();
+        wt.put(LogicalDatastoreType.CONFIGURATION, AS_PATH_SET_IID, new AsPathSetBuilder()
+                .setAsPathSetName("test-as-path-set")
+                .setAsPathSetMember(Collections.singletonList(AsNumber.getDefaultInstance("200"))).build());
+        wt.commit().get();
+
+        checkEquals(() -> assertNull(this.statementRegistry.applyExportStatement(this.baseAttributes,
+                IPV4UNICAST.class, this.exportParameters, attributeContainer, statement).getAttributes()));
+    }
+
+    @Test
+    public void testChangeListenerSeesUpdatedSet() throws Exception {
+        final Statement statement = this.basicStatements.stream()
+                .filter(st -> st.getName().equals("reject-match-as-path-any-set")).findFirst().get();
+        final RouteAttributeContainer attributeContainer = routeAttributeContainerFalse(
+                new AttributesBuilder()
+                        .setAsPath(new AsPathBuilder().setSegments(Collections.singletonList(
+                                new SegmentsBuilder().setAsSequence(Collections.singletonList(
+                                        AsNumber.getDefaultInstance("300"))).build())).build()).build());
+        assertNotNull(this.statementRegistry.applyExportStatement(this.baseAttributes, IPV4UNICAST.class,
+                this.exportParameters, attributeContainer, statement).getAttributes());
+
+        // Re-evaluate the route from the listener, as a RIB refreshing its tables does
+        final BlockingQueue<Set<String>> changed = new ArrayBlockingQueue<>(1);
+        final BlockingQueue<Optional<Attributes>> evaluated = new ArrayBlockingQueue<>(1);
+        final Registration reg = this.statementRegistry.registerChangeListener(sets -> {
+            changed.offer(sets);
+            evaluated.offer(Optional.ofNullable(this.statementRegistry.applyExportStatement(this.baseAttributes,
+                    IPV4UNICAST.class, this.exportParameters, attributeContainer, statement).getAttributes()));
+        });
+
+        final WriteTransaction wt = getDataBroker().newWriteOnlyTransaction();
+        wt.put(LogicalDatastoreType.CONFIGURATION, AS_PATH_SET_IID, new AsPathSetBuilder()
+                .setAsPathSetName("test-as-path-set")
+                .setAsPathSetMember(Collections.singletonList(AsNumber.getDefaultInstance("300"))).build());
+        wt.commit().get();
+
+        assertEquals(Optional.empty(), evaluated.poll(10, TimeUnit.SECONDS));
+        assertEquals(Collections.singleton("test-as-path-set"), changed.poll(10, TimeUnit.SECONDS));
+        assertEquals(Collections.singleton("test-as-path-set"),
+                this.statementRegistry.compileStatement(statement).getDefinedSets());
+        reg.close();
+    }
 }
@@ -22,6 +22,7 @@ import org.mockito.Mock;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.impl.PolicyRIBBaseParametersImpl;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry.RouteAttributeContainer;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
+import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.IPV4UNICAST;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.policy.definitions.policy.definition.statements.Statement;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.AsNumber;
@@ -36,6 +37,8 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.type
 public class MatchExtComTest extends AbstractStatementRegistryConsumerTest {
     @Mock
     private BGPRouteEntryExportParameters exportParameters;
+    @Mock
+    private BGPRouteEntryImportParameters importParameters;
     private List<Statement> basicStatements;
     private PolicyRIBBaseParametersImpl baseAttributes;
 
@@ -80,6 +83,34 @@ public class MatchExtComTest extends AbstractStatementRegistryConsumerTest {
         assertNull(result.getAttributes());
     }
 
+    @Test
+    public void testExtComAnyImport() {
+        final Statement statement = this.basicStatements.stream()
+                .filter(st -> st.getName().equals("ext-community-any-test")).findFirst().get();
+        RouteAttributeContainer result = this.statementRegistry.applyImportStatement(
+                this.baseAttributes,
+                IPV4UNICAST.class,
+                this.importParameters,
+                routeAttributeContainerFalse(new AttributesBuilder().build()),
+                statement);
+        assertNotNull(result.getAttributes());
+
+        result = this.statementRegistry.applyImportStatement(
+                this.baseAttributes,
+                IPV4UNICAST.class,
+                this.importParameters,
+                routeAttributeContainerFalse(new AttributesBuilder()
+                        .setExtendedCommunities(Collections.singletonList(new ExtendedCommunitiesBuilder()
+                                .setExtendedCommunity(new As4RouteOriginExtendedCommunityCaseBuilder()
+                                        .setAs4RouteOriginExtendedCommunity(new As4RouteOriginExtendedCommunityBuilder()
+                                                .setAs4SpecificCommon(new As4SpecificCommonBuilder()
+                                                        .setAsNumber(AsNumber.getDefaultInstance("65000"))
+                                                        .setLocalAdministrator(123)
+                                                        .build()).build()).build()).build())).build()),
+                statement);
+        assertNull(result.getAttributes());
+    }
+
     @Test
     public void testExtComAll() {
         Statement statement = this.basicStatements.stream()
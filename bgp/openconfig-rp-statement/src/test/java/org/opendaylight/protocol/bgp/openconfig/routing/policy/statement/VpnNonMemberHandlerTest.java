@@ -61,7 +61,7 @@ public class VpnNonMemberHandlerTest extends AbstractStatementRegistryConsumerTe
                                 .setExtendedCommunity(new As4RouteTargetExtendedCommunityCaseBuilder()
                                         .setAs4RouteTargetExtendedCommunity(RT).build()).build())).build());
 
-        doReturn(Collections.singletonList(RT)).when(this.exportParameters).getMemberships();
+        doReturn(Collections.singleton(RT)).when(this.exportParameters).getMemberships();
 
         RouteAttributeContainer result = this.statementRegistry.applyExportStatement(
                 this.baseAttributes,
@@ -71,7 +71,7 @@ public class VpnNonMemberHandlerTest extends AbstractStatementRegistryConsumerTe
                 statement);
         assertNotNull(result.getAttributes());
 
-        doReturn(Collections.emptyList()).when(this.exportParameters).getMemberships();
+        doReturn(Collections.emptySet()).when(this.exportParameters).getMemberships();
 
         result = this.statementRegistry.applyExportStatement(
                 this.baseAttributes,
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.conditions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.policy.types.rev151009.MatchSetOptionsType;
+
+public class DefinedSetTest {
+    private final DefinedSet<String> set = DefinedSet.of(Arrays.asList("a", "b", "c"));
+
+    @Test
+    public void testMatchAll() {
+        assertTrue(this.set.match(Arrays.asList("c", "b", "a", "a"), MatchSetOptionsType.ALL));
+        assertFalse(this.set.match(Arrays.asList("a", "b"), MatchSetOptionsType.ALL));
+        assertFalse(this.set.match(Arrays.asList("a", "b", "c", "d"), MatchSetOptionsType.ALL));
+        assertFalse(this.set.match(null, MatchSetOptionsType.ALL));
+        assertTrue(DefinedSet.<String>empty().match(Collections.emptyList(), MatchSetOptionsType.ALL));
+    }
+
+    @Test
+    public void testMatchAnyInvert() {
+        assertTrue(this.set.match(Arrays.asList("d", "b"), MatchSetOptionsType.ANY));
+        assertFalse(this.set.match(Arrays.asList("d", "e"), MatchSetOptionsType.ANY));
+        assertFalse(this.set.match(null, MatchSetOptionsType.ANY));
+        assertFalse(this.set.match(Arrays.asList("d", "b"), MatchSetOptionsType.INVERT));
+        assertTrue(this.set.match(Arrays.asList("d", "e"), MatchSetOptionsType.INVERT));
+    }
+
+    @Test
+    public void testLargeSetCoverage() {
+        final List<Integer> members = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            members.add(i);
+        }
+        final DefinedSet<Integer> large = DefinedSet.of(members);
+        assertTrue(large.match(members, MatchSetOptionsType.ALL));
+        assertFalse(large.match(members.subList(1, 100), MatchSetOptionsType.ALL));
+    }
+
+    @Test
+    public void testLongDefinedSet() {
+        final LongDefinedSet longSet = LongDefinedSet.of(new long[] { 5, 1, 3, 5 });
+        assertEquals(3, longSet.size());
+        assertTrue(longSet.indexOf(1) >= 0);
+        assertTrue(longSet.indexOf(5) >= 0);
+        assertTrue(longSet.indexOf(4) < 0);
+        assertTrue(LongDefinedSet.of(new long[0]).isEmpty());
+    }
+}
@@ -7,6 +7,7 @@
  */
 package org.opendaylight.protocol.bgp.state;
 
+import java.math.BigInteger;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -23,6 +24,10 @@ import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.rev151009.bgp.t
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.AfiSafiType;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.GlobalAfiSafiStateAugmentation;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.GlobalAfiSafiStateAugmentationBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.GlobalStateAugmentation;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.GlobalStateAugmentationBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.global.attribute.cache.state.AttributeCache;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.global.attribute.cache.state.AttributeCacheBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.TablesKey;
 
 public final class GlobalUtil {
@@ -71,9 +76,20 @@ public final class GlobalUtil {
                 .setRouterId(ribState.getRouteId())
                 .setTotalPaths(ribState.getTotalPathsCount())
                 .setTotalPrefixes(ribState.getTotalPrefixesCount())
+                .addAugmentation(GlobalStateAugmentation.class, new GlobalStateAugmentationBuilder()
+                        .setAttributeCache(buildAttributeCache(ribState)).build())
                 .build();
     }
 
+    private static AttributeCache buildAttributeCache(final BGPRibState ribState) {
+        final long hits = ribState.getAttributeCacheHitCount();
+        final long misses = ribState.getAttributeCacheMissCount();
+        final long total = hits + misses;
+        final short ratio = total == 0 ? 0 : (short) (hits * 100 / total);
+        return new AttributeCacheBuilder().setHits(BigInteger.valueOf(hits)).setMisses(BigInteger.valueOf(misses))
+                .setHitRatio(ratio).setSize(BigInteger.valueOf(ribState.getAttributeCacheSize())).build();
+    }
+
     /**
      * Build Afi Safi containing State.
      *
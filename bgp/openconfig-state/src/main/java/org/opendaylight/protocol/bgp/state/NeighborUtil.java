@@ -28,6 +28,7 @@ import org.opendaylight.protocol.bgp.rib.spi.state.BGPGracelfulRestartState;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPLlGracelfulRestartState;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPPeerMessagesState;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPPeerState;
+import org.opendaylight.protocol.bgp.rib.spi.state.BGPRibOutLatencyState;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPSessionState;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPTimersState;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPTransportState;
@@ -75,6 +76,15 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.open
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NeighborTimersStateAugmentationBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NeighborTransportStateAugmentation;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NeighborTransportStateAugmentationBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.neighbor.afi.safi.policy.cache.state.ImportPolicyCache;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.neighbor.afi.safi.policy.cache.state.ImportPolicyCacheBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.neighbor.parsed.attributes.cache.state.ParsedAttributesCache;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.neighbor.parsed.attributes.cache.state.ParsedAttributesCacheBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.neighbor.rib.out.latency.state.RibOutLatency;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.neighbor.rib.out.latency.state.RibOutLatencyBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.neighbor.rib.out.latency.state.rib.out.latency.Bucket;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.neighbor.rib.out.latency.state.rib.out.latency.BucketBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.neighbor.rib.out.latency.state.rib.out.latency.BucketKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.MessagesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.messages.Received;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.messages.ReceivedBuilder;
@@ -121,7 +131,8 @@ public final class NeighborUtil {
             final @NonNull BGPTableTypeRegistryConsumer bgpTableTypeRegistry) {
         return new NeighborBuilder()
                 .setNeighborAddress(neighbor.getNeighborAddress())
-                .setState(buildNeighborState(neighbor.getBGPSessionState(), neighbor.getBGPPeerMessagesState()))
+                .setState(buildNeighborState(neighbor.getBGPSessionState(), neighbor.getBGPPeerMessagesState(),
+                        neighbor.getBGPRibOutLatencyState()))
                 .setTimers(buildTimer(neighbor.getBGPTimersState()))
                 .setTransport(buildTransport(neighbor.getBGPTransportState()))
                 .setErrorHandling(buildErrorHandling(neighbor.getBGPErrorHandlingState()))
@@ -135,19 +146,26 @@ public final class NeighborUtil {
      *
      * @param sessionState         BGPPeerState containing Operational state counters
      * @param bgpPeerMessagesState message state
+     * @param ribOutLatencyState   Adj-RIB-Out latency state
      * @return Neighbor State
      */
     public static @Nullable State buildNeighborState(final @Nullable BGPSessionState sessionState,
-            final BGPPeerMessagesState bgpPeerMessagesState) {
-        if (sessionState == null && bgpPeerMessagesState == null) {
+            final BGPPeerMessagesState bgpPeerMessagesState, final @Nullable BGPRibOutLatencyState ribOutLatencyState) {
+        if (sessionState == null && bgpPeerMessagesState == null && ribOutLatencyState == null) {
             return null;
         }
         final StateBuilder builder = new StateBuilder();
         if (sessionState != null) {
             builder.addAugmentation(NeighborStateAugmentation.class, buildCapabilityState(sessionState));
         }
-        if (bgpPeerMessagesState != null) {
-            builder.addAugmentation(BgpNeighborStateAugmentation.class, buildMessageState(bgpPeerMessagesState));
+        if (bgpPeerMessagesState != null || ribOutLatencyState != null) {
+            final BgpNeighborStateAugmentationBuilder augmentation = bgpPeerMessagesState == null
+                    ? new BgpNeighborStateAugmentationBuilder()
+                    : new BgpNeighborStateAugmentationBuilder(buildMessageState(bgpPeerMessagesState));
+            if (ribOutLatencyState != null) {
+                augmentation.setRibOutLatency(buildRibOutLatency(ribOutLatencyState));
+            }
+            builder.addAugmentation(BgpNeighborStateAugmentation.class, augmentation.build());
         }
         return builder.build();
     }
@@ -262,7 +280,16 @@ public final class NeighborUtil {
             default:
         }
         return new NeighborStateAugmentationBuilder().setSupportedCapabilities(supportedCapabilities)
-                .setSessionState(sessionState).build();
+                .setSessionState(sessionState)
+                .setParsedAttributesCache(buildParsedAttributesCache(neighbor.getParsedAttributesCacheHitCount(),
+                        neighbor.getParsedAttributesCacheMissCount())).build();
+    }
+
+    private static ParsedAttributesCache buildParsedAttributesCache(final long hits, final long misses) {
+        final long total = hits + misses;
+        final short ratio = total == 0 ? 0 : (short) (hits * 100 / total);
+        return new ParsedAttributesCacheBuilder().setHits(toBigInteger(hits)).setMisses(toBigInteger(misses))
+                .setHitRatio(ratio).build();
     }
 
     /**
@@ -278,6 +305,31 @@ public final class NeighborUtil {
                         .setSent(buildMessagesSent(neighbor)).build()).build();
     }
 
+    /**
+     * Builds Adj-RIB-Out latency histogram.
+     *
+     * @return Adj-RIB-Out latency
+     */
+    public static @NonNull RibOutLatency buildRibOutLatency(final @NonNull BGPRibOutLatencyState neighbor) {
+        final List<Long> bounds = neighbor.getRibOutLatencyBucketBounds();
+        final List<Long> counts = neighbor.getRibOutLatencyBucketCounts();
+        final List<Bucket> buckets = new ArrayList<>(counts.size());
+        for (int i = 0; i < counts.size(); i++) {
+            final short index = (short) i;
+            final BucketBuilder bucket = new BucketBuilder().withKey(new BucketKey(index)).setIndex(index)
+                    .setCount(toBigInteger(counts.get(i)));
+            // The last bucket is unbounded
+            if (i < bounds.size()) {
+                bucket.setUpperBound(toBigInteger(bounds.get(i)));
+            }
+            buckets.add(bucket.build());
+        }
+        return new RibOutLatencyBuilder()
+                .setUpdates(toBigInteger(neighbor.getRibOutUpdateCount()))
+                .setMaxLatency(toBigInteger(neighbor.getRibOutMaxLatency()))
+                .setBucket(buckets).build();
+    }
+
     private static Received buildMessagesReceived(final @NonNull BGPPeerMessagesState neighbor) {
         return new ReceivedBuilder()
                 .setUPDATE(toBigInteger(neighbor.getUpdateMessagesReceivedCount()))
@@ -341,12 +393,21 @@ public final class NeighborUtil {
                     .setInstalled(neighbor.getPrefixesInstalledCount(tablesKey))
                     .setReceived(neighbor.getPrefixesReceivedCount(tablesKey))
                     .setSent(neighbor.getPrefixesSentCount(tablesKey)).build());
+            builder.setImportPolicyCache(buildImportPolicyCache(neighbor.getImportPolicyCacheHitCount(tablesKey),
+                    neighbor.getImportPolicyCacheMissCount(tablesKey)));
         }
         return new org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.multiprotocol.rev151009.bgp.common.afi
                 .safi.list.afi.safi.StateBuilder().addAugmentation(NeighborAfiSafiStateAugmentation.class,
                 builder.build()).build();
     }
 
+    private static ImportPolicyCache buildImportPolicyCache(final long hits, final long misses) {
+        final long total = hits + misses;
+        final short ratio = total == 0 ? 0 : (short) (hits * 100 / total);
+        return new ImportPolicyCacheBuilder().setHits(toBigInteger(hits)).setMisses(toBigInteger(misses))
+                .setHitRatio(ratio).build();
+    }
+
     private static org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.multiprotocol.rev151009.bgp.common.afi
             .safi.list.afi.safi.GracefulRestart buildAfiSafiGracefulRestartState(
             final @NonNull BGPLlGracelfulRestartState neighbor, final @NonNull TablesKey tablesKey) {
@@ -133,7 +133,7 @@ public class NeighborUtilTest {
 
     @Test
     public void testBuildNeighborState() {
-        assertNull(NeighborUtil.buildNeighborState(null, null));
+        assertNull(NeighborUtil.buildNeighborState(null, null, null));
     }
 
     @Test
@@ -65,6 +65,7 @@ import org.opendaylight.protocol.bgp.rib.spi.state.BGPErrorHandlingState;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPGracelfulRestartState;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPPeerMessagesState;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPPeerState;
+import org.opendaylight.protocol.bgp.rib.spi.state.BGPRibOutLatencyState;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPRibState;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPSessionState;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPStateConsumer;
@@ -117,6 +118,8 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.open
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.BgpNeighborStateAugmentationBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.GlobalAfiSafiStateAugmentation;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.GlobalAfiSafiStateAugmentationBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.GlobalStateAugmentation;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.GlobalStateAugmentationBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NeighborAfiSafiGracefulRestartStateAugmentation;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NeighborAfiSafiGracefulRestartStateAugmentationBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NeighborAfiSafiStateAugmentation;
@@ -133,6 +136,11 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.open
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NetworkInstanceProtocol;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.PeerGroupStateAugmentation;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.PeerGroupStateAugmentationBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.global.attribute.cache.state.AttributeCacheBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.neighbor.afi.safi.policy.cache.state.ImportPolicyCacheBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.neighbor.parsed.attributes.cache.state.ParsedAttributesCacheBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.neighbor.rib.out.latency.state.RibOutLatencyBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.neighbor.rib.out.latency.state.rib.out.latency.BucketBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.MessagesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.messages.ReceivedBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.messages.SentBuilder;
@@ -188,6 +196,8 @@ public class StateProviderImplTest extends AbstractDataBrokerTest {
     private BGPGracelfulRestartState bgpGracelfulRestartState;
     @Mock
     private BGPAfiSafiState bgpAfiSafiState;
+    @Mock
+    private BGPRibOutLatencyState bgpRibOutLatencyState;
 
     private final List<BGPPeerState> bgpPeerStates = new ArrayList<>();
     private final List<BGPRibState> bgpRibStates = new ArrayList<>();
@@ -223,6 +233,9 @@ public class StateProviderImplTest extends AbstractDataBrokerTest {
             this.totalPrefixesCounter.longValue())).when(this.bgpRibState).getTablesPrefixesCount();
         doAnswer(invocation -> Collections.singletonMap(TABLES_KEY,
             this.totalPathsCounter.longValue())).when(this.bgpRibState).getPathsCount();
+        doReturn(6L).when(this.bgpRibState).getAttributeCacheHitCount();
+        doReturn(2L).when(this.bgpRibState).getAttributeCacheMissCount();
+        doReturn(5L).when(this.bgpRibState).getAttributeCacheSize();
 
         // Mock Peer
         doReturn("test-group").when(this.bgpPeerState).getGroupId();
@@ -237,12 +250,19 @@ public class StateProviderImplTest extends AbstractDataBrokerTest {
         doReturn(1L).when(this.bgpPeerMessagesState).getNotificationMessagesSentCount();
         doReturn(1L).when(this.bgpPeerMessagesState).getUpdateMessagesReceivedCount();
         doReturn(1L).when(this.bgpPeerMessagesState).getUpdateMessagesSentCount();
+        doReturn(this.bgpRibOutLatencyState).when(this.bgpPeerState).getBGPRibOutLatencyState();
+        doReturn(4L).when(this.bgpRibOutLatencyState).getRibOutUpdateCount();
+        doReturn(5L).when(this.bgpRibOutLatencyState).getRibOutMaxLatency();
+        doReturn(ImmutableList.of(1L, 2L)).when(this.bgpRibOutLatencyState).getRibOutLatencyBucketBounds();
+        doReturn(ImmutableList.of(3L, 0L, 1L)).when(this.bgpRibOutLatencyState).getRibOutLatencyBucketCounts();
         doReturn(State.UP).when(this.bgpSessionState).getSessionState();
         doReturn(true).when(this.bgpSessionState).isAddPathCapabilitySupported();
         doReturn(true).when(this.bgpSessionState).isAsn32CapabilitySupported();
         doReturn(true).when(this.bgpSessionState).isGracefulRestartCapabilitySupported();
         doReturn(true).when(this.bgpSessionState).isMultiProtocolCapabilitySupported();
         doReturn(true).when(this.bgpSessionState).isRouterRefreshCapabilitySupported();
+        doReturn(3L).when(this.bgpSessionState).getParsedAttributesCacheHitCount();
+        doReturn(1L).when(this.bgpSessionState).getParsedAttributesCacheMissCount();
 
         doReturn(this.timersState).when(this.bgpPeerState).getBGPTimersState();
         doReturn(10L).when(this.timersState).getNegotiatedHoldTime();
@@ -373,6 +393,9 @@ public class StateProviderImplTest extends AbstractDataBrokerTest {
             final List<Class<? extends BgpCapability>> supportedCapabilitiesResult = stateResult
                     .augmentation(NeighborStateAugmentation.class).getSupportedCapabilities();
             Assert.assertTrue(supportedCapabilitiesResult.containsAll(this.supportedCap));
+            assertEquals(new ParsedAttributesCacheBuilder().setHits(BigInteger.valueOf(3))
+                    .setMisses(BigInteger.ONE).setHitRatio((short) 75).build(), stateResult
+                    .augmentation(NeighborStateAugmentation.class).getParsedAttributesCache());
             return bgpRib;
         });
 
@@ -475,6 +498,14 @@ public class StateProviderImplTest extends AbstractDataBrokerTest {
                 .setMessages(new MessagesBuilder().setReceived(new ReceivedBuilder()
                         .setNOTIFICATION(BigInteger.ONE).setUPDATE(BigInteger.ONE).build())
                         .setSent(new SentBuilder().setNOTIFICATION(BigInteger.ONE).setUPDATE(BigInteger.ONE).build())
+                        .build())
+                .setRibOutLatency(new RibOutLatencyBuilder().setUpdates(BigInteger.valueOf(4))
+                        .setMaxLatency(BigInteger.valueOf(5)).setBucket(ImmutableList.of(
+                                new BucketBuilder().setIndex((short) 0).setUpperBound(BigInteger.ONE)
+                                        .setCount(BigInteger.valueOf(3)).build(),
+                                new BucketBuilder().setIndex((short) 1).setUpperBound(BigInteger.valueOf(2))
+                                        .setCount(BigInteger.ZERO).build(),
+                                new BucketBuilder().setIndex((short) 2).setCount(BigInteger.ONE).build()))
                         .build()).build();
         return augmentation;
     }
@@ -482,7 +513,9 @@ public class StateProviderImplTest extends AbstractDataBrokerTest {
     private static AfiSafis buildAfiSafis() {
         final NeighborAfiSafiStateAugmentationBuilder neighborAfiSafiStateAugmentation =
                 new NeighborAfiSafiStateAugmentationBuilder().setActive(true).setPrefixes(
-                        new PrefixesBuilder().setSent(1L).setReceived(2L).setInstalled(1L).build());
+                        new PrefixesBuilder().setSent(1L).setReceived(2L).setInstalled(1L).build())
+                        .setImportPolicyCache(new ImportPolicyCacheBuilder().setHits(BigInteger.ZERO)
+                                .setMisses(BigInteger.ZERO).setHitRatio((short) 0).build());
         final AfiSafi afiSafi = new AfiSafiBuilder()
                 .setAfiSafiName(IPV4UNICAST.class)
                 .setGracefulRestart(new GracefulRestartBuilder().setState(new StateBuilder().setEnabled(false)
@@ -562,7 +595,11 @@ public class StateProviderImplTest extends AbstractDataBrokerTest {
         return new GlobalBuilder()
                 .setState(new org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.rev151009.bgp.global.base
                         .StateBuilder().setRouterId(new Ipv4Address(this.bgpId.getValue()))
-                        .setTotalPrefixes(prefixesAndPaths).setTotalPaths(prefixesAndPaths).setAs(this.as).build())
+                        .setTotalPrefixes(prefixesAndPaths).setTotalPaths(prefixesAndPaths).setAs(this.as)
+                        .addAugmentation(GlobalStateAugmentation.class, new GlobalStateAugmentationBuilder()
+                                .setAttributeCache(new AttributeCacheBuilder().setHits(BigInteger.valueOf(6))
+                                        .setMisses(BigInteger.valueOf(2)).setHitRatio((short) 75)
+                                        .setSize(BigInteger.valueOf(5)).build()).build()).build())
                 .setAfiSafis(new org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.rev151009.bgp.global.base
                         .AfiSafisBuilder().setAfiSafi(Collections.singletonList(new AfiSafiBuilder()
                         .setAfiSafiName(IPV4UNICAST.class).setState(new org.opendaylight.yang.gen.v1.http.openconfig
@@ -239,7 +239,8 @@ public final class BGPActivator extends AbstractBGPExtensionProviderActivator {
         regs.add(context.registerAttributeParser(MPUnreachAttributeParser.TYPE, mpUnreachAttributeParser));
 
         final ExtendedCommunitiesAttributeParser extendedCommunitiesAttributeParser
-                = new ExtendedCommunitiesAttributeParser(context.getExtendedCommunityRegistry());
+                = new ExtendedCommunitiesAttributeParser(context.getExtendedCommunityRegistry(),
+                    context.getReferenceCache());
         regs.add(context.registerAttributeSerializer(ExtendedCommunities.class, extendedCommunitiesAttributeParser));
         regs.add(context.registerAttributeParser(ExtendedCommunitiesAttributeParser.TYPE,
                 extendedCommunitiesAttributeParser));
@@ -55,7 +55,7 @@ public final class AsPathAttributeParser extends AbstractAttributeParser impleme
     public void parseAttribute(final ByteBuf buffer, final AttributesBuilder builder,
             final RevisedErrorHandling errorHandling, final PeerSpecificParserConstraint constraint)
                     throws BGPDocumentedException, BGPTreatAsWithdrawException {
-        builder.setAsPath(parseAsPath(this.refCache, buffer, errorHandling));
+        builder.setAsPath(this.refCache.getSharedReference(parseAsPath(this.refCache, buffer, errorHandling)));
     }
 
     @Override
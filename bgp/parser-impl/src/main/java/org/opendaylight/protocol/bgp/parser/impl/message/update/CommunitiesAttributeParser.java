@@ -9,6 +9,7 @@ package org.opendaylight.protocol.bgp.parser.impl.message.update;
 
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.collect.ImmutableList;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import java.util.ArrayList;
@@ -70,7 +71,8 @@ public final class CommunitiesAttributeParser extends AbstractAttributeParser im
         for (int i = 0; i < count; ++i) {
             set.add((Communities) parseCommunity(this.refCache, buffer.readSlice(COMMUNITY_LENGTH)));
         }
-        builder.setCommunities(set);
+        // Identical community lists are common across updates, share them
+        builder.setCommunities(this.refCache.getSharedReference(ImmutableList.copyOf(set)));
     }
 
    /**
@@ -9,6 +9,7 @@ package org.opendaylight.protocol.bgp.parser.impl.message.update;
 
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.collect.ImmutableList;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import java.util.ArrayList;
@@ -23,6 +24,8 @@ import org.opendaylight.protocol.bgp.parser.spi.AttributeUtil;
 import org.opendaylight.protocol.bgp.parser.spi.PeerSpecificParserConstraint;
 import org.opendaylight.protocol.bgp.parser.spi.RevisedErrorHandling;
 import org.opendaylight.protocol.bgp.parser.spi.extended.community.ExtendedCommunityRegistry;
+import org.opendaylight.protocol.util.NoopReferenceCache;
+import org.opendaylight.protocol.util.ReferenceCache;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.ExtendedCommunities;
@@ -32,9 +35,15 @@ public final class ExtendedCommunitiesAttributeParser extends AbstractAttributeP
     public static final int TYPE = 16;
 
     private final ExtendedCommunityRegistry ecReg;
+    private final ReferenceCache refCache;
 
     public ExtendedCommunitiesAttributeParser(final ExtendedCommunityRegistry ecReg) {
+        this(ecReg, NoopReferenceCache.getInstance());
+    }
+
+    public ExtendedCommunitiesAttributeParser(final ExtendedCommunityRegistry ecReg, final ReferenceCache refCache) {
         this.ecReg = requireNonNull(ecReg);
+        this.refCache = requireNonNull(refCache);
     }
 
     @Override
@@ -61,10 +70,10 @@ public final class ExtendedCommunitiesAttributeParser extends AbstractAttributeP
                 throw errorHandling.reportError(BGPError.MALFORMED_ATTR_LIST, e, "Failed to parse extended community");
             }
             if (exComm != null) {
-                set.add(exComm);
+                set.add(this.refCache.getSharedReference(exComm));
             }
         }
-        builder.setExtendedCommunities(set);
+        builder.setExtendedCommunities(this.refCache.getSharedReference(ImmutableList.copyOf(set)));
     }
 
     @Override
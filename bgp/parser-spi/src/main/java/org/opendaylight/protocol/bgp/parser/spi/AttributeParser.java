@@ -66,4 +66,15 @@ public interface AttributeParser {
     default boolean ignoreDuplicates(final @NonNull RevisedErrorHandling errorHandling) {
         return true;
     }
+
+    /**
+     * Determine whether parsing this attribute depends on the MP_REACH/MP_UNREACH attributes present in the builder.
+     * Such attributes cannot be parsed independently of the NLRI carried in an UPDATE message, hence their parsed
+     * form cannot be reused across messages.
+     *
+     * @return True if parsing this attribute requires access to the message's NLRI.
+     */
+    default boolean requiresNlri() {
+        return false;
+    }
 }
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.parser.spi.pojo;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.netty.buffer.ByteBuf;
+import java.util.Arrays;
+import org.eclipse.jdt.annotation.Nullable;
+import org.opendaylight.protocol.bgp.parser.spi.ParsedAttributes;
+import org.opendaylight.protocol.bgp.parser.spi.PeerConstraint;
+import org.opendaylight.protocol.bgp.parser.spi.PeerSpecificParserConstraint;
+
+/**
+ * Per-peer cache of {@link ParsedAttributes}, keyed by the raw bytes of path attributes. Peers typically send many
+ * UPDATE messages which carry the same path attributes and differ only in NLRI, for example during initial table
+ * transfer. When this cache is present in {@link PeerSpecificParserConstraint}, attributes which have already been
+ * seen are not parsed again.
+ *
+ * <p>
+ * Cached results are valid only for the set of peer constraints in effect when they were parsed, hence the cache
+ * needs to be invalidated whenever that set changes.
+ */
+public final class ParsedAttributesCache implements PeerConstraint {
+    public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+
+    /**
+     * Raw bytes of path attributes, as they appear in the buffer holding an UPDATE message. The bytes are made up of
+     * one or more segments of the buffer, which are hashed and compared in place. The bytes are copied only when
+     * an entry is inserted into the cache.
+     */
+    static final class Fingerprint {
+        private final ByteBuf buffer;
+        private int[] segments = new int[16];
+        private int segmentCount;
+        private int length;
+        private int hashCode = 1;
+
+        Fingerprint(final ByteBuf buffer) {
+            this.buffer = requireNonNull(buffer);
+        }
+
+        /**
+         * Append a segment of the buffer to this fingerprint.
+         *
+         * @param offset Absolute index of the first byte of the segment
+         * @param segmentLength Number of bytes in the segment
+         */
+        void addSegment(final int offset, final int segmentLength) {
+            if (this.segmentCount * 2 == this.segments.length) {
+                this.segments = Arrays.copyOf(this.segments, this.segments.length * 2);
+            }
+            this.segments[this.segmentCount * 2] = offset;
+            this.segments[this.segmentCount * 2 + 1] = segmentLength;
+            this.segmentCount++;
+            this.length += segmentLength;
+
+            // Same as Arrays.hashCode(byte[]), so that it matches the hash of the copied bytes
+            int hash = this.hashCode;
+            for (int i = offset; i < offset + segmentLength; i++) {
+                hash = 31 * hash + this.buffer.getByte(i);
+            }
+            this.hashCode = hash;
+        }
+
+        boolean matches(final byte[] bytes) {
+            if (bytes.length != this.length) {
+                return false;
+            }
+            int pos = 0;
+            for (int segment = 0; segment < this.segmentCount; segment++) {
+                final int offset = this.segments[segment * 2];
+                final int end = offset + this.segments[segment * 2 + 1];
+                for (int i = offset; i < end; i++) {
+                    if (this.buffer.getByte(i) != bytes[pos++]) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        Key toKey() {
+            final byte[] bytes = new byte[this.length];
+            int pos = 0;
+            for (int segment = 0; segment < this.segmentCount; segment++) {
+                final int segmentLength = this.segments[segment * 2 + 1];
+                this.buffer.getBytes(this.segments[segment * 2], bytes, pos, segmentLength);
+                pos += segmentLength;
+            }
+            return new Key(bytes, this.hashCode);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return this.hashCode == other.hashCode && matches(other.bytes);
+        }
+    }
+
+    /**
+     * Copy of the {@link Fingerprint} bytes retained in the cache. Lookups are performed with a {@link Fingerprint},
+     * which compares equal to a key with the same bytes.
+     */
+    private static final class Key {
+        private final byte[] bytes;
+        private final int hashCode;
+
+        Key(final byte[] bytes, final int hashCode) {
+            this.bytes = bytes;
+            this.hashCode = hashCode;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof Fingerprint) {
+                return obj.equals(this);
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return this.hashCode == other.hashCode && Arrays.equals(this.bytes, other.bytes);
+        }
+    }
+
+    // Keys are instances of Key, lookups are performed with a Fingerprint
+    private final Cache<Object, ParsedAttributes> cache;
+
+    public ParsedAttributesCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public ParsedAttributesCache(final int maximumSize) {
+        checkArgument(maximumSize > 0, "Maximum size %s is not positive", maximumSize);
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+    }
+
+    @Nullable ParsedAttributes getIfPresent(final Fingerprint fingerprint) {
+        return this.cache.getIfPresent(fingerprint);
+    }
+
+    void put(final Fingerprint fingerprint, final ParsedAttributes attributes) {
+        checkArgument(!attributes.getWithdrawCause().isPresent(), "Attributes %s indicate withdraw", attributes);
+        this.cache.put(fingerprint.toKey(), attributes);
+    }
+
+    /**
+     * Discard all cached attributes.
+     */
+    public void invalidate() {
+        this.cache.invalidateAll();
+    }
+
+    /**
+     * Return the number of times parsing of attributes has been avoided.
+     *
+     * @return Hit count
+     */
+    public long getHitCount() {
+        return this.cache.stats().hitCount();
+    }
+
+    /**
+     * Return the number of times attributes had to be parsed.
+     *
+     * @return Miss count
+     */
+    public long getMissCount() {
+        return this.cache.stats().missCount();
+    }
+
+    /**
+     * Return the ratio of cache lookups which have avoided parsing attributes. Returns 1.0 if there have been no
+     * lookups.
+     *
+     * @return Hit rate
+     */
+    public double getHitRate() {
+        return this.cache.stats().hitRate();
+    }
+
+    @Override
+    public String toString() {
+        final CacheStats stats = this.cache.stats();
+        return MoreObjects.toStringHelper(this).add("size", this.cache.size()).add("hits", stats.hitCount())
+                .add("misses", stats.missCount()).toString();
+    }
+}
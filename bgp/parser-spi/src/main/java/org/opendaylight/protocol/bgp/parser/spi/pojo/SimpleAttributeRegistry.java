@@ -10,8 +10,11 @@ package org.opendaylight.protocol.bgp.parser.spi.pojo;
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
 import io.netty.buffer.ByteBuf;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,15 +31,20 @@ import org.opendaylight.protocol.bgp.parser.spi.AttributeSerializer;
 import org.opendaylight.protocol.bgp.parser.spi.ParsedAttributes;
 import org.opendaylight.protocol.bgp.parser.spi.PeerSpecificParserConstraint;
 import org.opendaylight.protocol.bgp.parser.spi.RevisedErrorHandling;
+import org.opendaylight.protocol.bgp.parser.spi.pojo.ParsedAttributesCache.Fingerprint;
 import org.opendaylight.protocol.concepts.HandlerRegistry;
 import org.opendaylight.protocol.util.BitArray;
 import org.opendaylight.protocol.util.ByteArray;
+import org.opendaylight.protocol.util.NoopReferenceCache;
+import org.opendaylight.protocol.util.ReferenceCache;
 import org.opendaylight.protocol.util.Values;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.UnrecognizedAttributes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.UnrecognizedAttributesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.UnrecognizedAttributesKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.Attributes1;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.Attributes2;
 import org.opendaylight.yangtools.concepts.AbstractRegistration;
 import org.opendaylight.yangtools.concepts.Registration;
 import org.opendaylight.yangtools.yang.binding.DataContainer;
@@ -61,6 +69,10 @@ final class SimpleAttributeRegistry implements AttributeRegistry {
     private static final int TRANSITIVE_BIT = 1;
     private static final int PARTIAL_BIT = 2;
     private static final int EXTENDED_LENGTH_BIT = 3;
+    // https://tools.ietf.org/html/rfc4760#section-3
+    private static final int MP_REACH_NLRI_TYPE = 14;
+    // https://tools.ietf.org/html/rfc4760#section-4
+    private static final int MP_UNREACH_NLRI_TYPE = 15;
 
     private final HandlerRegistry<DataContainer, AttributeParser, AttributeSerializer> handlers =
             new HandlerRegistry<>();
@@ -68,7 +80,15 @@ final class SimpleAttributeRegistry implements AttributeRegistry {
     private final AtomicReference<Iterable<AttributeSerializer>> roSerializers =
         new AtomicReference<>(this.serializers.values());
     private final List<UnrecognizedAttributes> unrecognizedAttributes = new ArrayList<>();
+    private final ReferenceCache referenceCache;
 
+    SimpleAttributeRegistry() {
+        this(NoopReferenceCache.getInstance());
+    }
+
+    SimpleAttributeRegistry(final ReferenceCache referenceCache) {
+        this.referenceCache = requireNonNull(referenceCache);
+    }
 
     Registration registerAttributeParser(final int attributeType, final AttributeParser parser) {
         checkArgument(attributeType >= 0 && attributeType <= Values.UNSIGNED_BYTE_MAX_VALUE);
@@ -140,9 +160,14 @@ final class SimpleAttributeRegistry implements AttributeRegistry {
     public ParsedAttributes parseAttributes(final ByteBuf buffer, final PeerSpecificParserConstraint constraint)
             throws BGPDocumentedException, BGPParsingException {
         final RevisedErrorHandling errorHandling = RevisedErrorHandling.from(constraint);
+        final ParsedAttributesCache cache = constraint == null ? null
+                : constraint.getPeerConstraint(ParsedAttributesCache.class).orElse(null);
+        final Fingerprint fingerprint = cache == null ? null : new Fingerprint(buffer);
         final Map<Integer, RawAttribute> attributes = new TreeMap<>();
         BGPTreatAsWithdrawException withdrawCause = null;
+        boolean hasNlri = false;
         while (buffer.isReadable()) {
+            final int start = buffer.readerIndex();
             try {
                 addAttribute(buffer, errorHandling, attributes);
             } catch (BGPTreatAsWithdrawException e) {
@@ -150,6 +175,27 @@ final class SimpleAttributeRegistry implements AttributeRegistry {
                 withdrawCause = e;
                 break;
             }
+            // MP_REACH/MP_UNREACH carry NLRI, which differs from message to message, hence leave them out
+            if (isNlriAttribute(buffer.getUnsignedByte(start + 1))) {
+                hasNlri = true;
+            } else if (fingerprint != null) {
+                fingerprint.addSegment(start, buffer.readerIndex() - start);
+            }
+        }
+
+        // Attributes other than MP_REACH/MP_UNREACH are interpreted independently of the NLRI, hence we can reuse
+        // them if we have seen the same bytes before.
+        final boolean cacheable = cache != null && withdrawCause == null && !requiresNlri(attributes);
+        if (cacheable) {
+            final ParsedAttributes cached = cache.getIfPresent(fingerprint);
+            if (cached != null) {
+                if (!hasNlri) {
+                    return cached;
+                }
+                final AttributesBuilder builder = new AttributesBuilder(cached.getAttributes());
+                return buildAttributes(builder, parseRawAttributes(Maps.filterKeys(attributes,
+                    SimpleAttributeRegistry::isNlriAttribute).entrySet(), builder, errorHandling, constraint, null));
+            }
         }
 
         /*
@@ -160,7 +206,28 @@ final class SimpleAttributeRegistry implements AttributeRegistry {
         // all attributes before we can decide whether we can discard attributes, or whether we need to terminate
         // the session.
         final AttributesBuilder builder = new AttributesBuilder();
-        for (final Entry<Integer, RawAttribute> entry : attributes.entrySet()) {
+        withdrawCause = parseRawAttributes(attributes.entrySet(), builder, errorHandling, constraint, withdrawCause);
+        // Shared attributes have to be immutable, hence take a snapshot of unrecognized attributes
+        builder.setUnrecognizedAttributes(ImmutableList.copyOf(this.unrecognizedAttributes));
+        final ParsedAttributes parsed = buildAttributes(builder, withdrawCause);
+        if (cacheable && withdrawCause == null) {
+            if (hasNlri) {
+                // Cache only what the attributes other than MP_REACH/MP_UNREACH have contributed
+                builder.removeAugmentation(Attributes1.class).removeAugmentation(Attributes2.class);
+                cache.put(fingerprint, buildAttributes(builder, null));
+            } else {
+                cache.put(fingerprint, parsed);
+            }
+        }
+        return parsed;
+    }
+
+    private static BGPTreatAsWithdrawException parseRawAttributes(
+            final Collection<Entry<Integer, RawAttribute>> attributes, final AttributesBuilder builder,
+            final RevisedErrorHandling errorHandling, final PeerSpecificParserConstraint constraint,
+            final BGPTreatAsWithdrawException withdrawCause) throws BGPDocumentedException, BGPParsingException {
+        BGPTreatAsWithdrawException cause = withdrawCause;
+        for (final Entry<Integer, RawAttribute> entry : attributes) {
             LOG.debug("Parsing attribute type {}", entry.getKey());
 
             final RawAttribute a = entry.getValue();
@@ -168,15 +235,33 @@ final class SimpleAttributeRegistry implements AttributeRegistry {
                 a.parser.parseAttribute(a.buffer, builder, errorHandling, constraint);
             } catch (BGPTreatAsWithdrawException e) {
                 LOG.info("Attribute {} indicated treat-as-withdraw", entry.getKey(), e);
-                if (withdrawCause == null) {
-                    withdrawCause = e;
+                if (cause == null) {
+                    cause = e;
                 } else {
-                    withdrawCause.addSuppressed(e);
+                    cause.addSuppressed(e);
                 }
             }
         }
-        builder.setUnrecognizedAttributes(this.unrecognizedAttributes);
-        return new ParsedAttributes(builder.build(), withdrawCause);
+        return cause;
+    }
+
+    private ParsedAttributes buildAttributes(final AttributesBuilder builder,
+            final BGPTreatAsWithdrawException withdrawCause) {
+        // Peers tend to send many UPDATEs with the same attributes, make sure we keep only a single copy around
+        return new ParsedAttributes(this.referenceCache.getSharedReference(builder.build()), withdrawCause);
+    }
+
+    private static boolean isNlriAttribute(final int type) {
+        return type == MP_REACH_NLRI_TYPE || type == MP_UNREACH_NLRI_TYPE;
+    }
+
+    private static boolean requiresNlri(final Map<Integer, RawAttribute> attributes) {
+        for (final RawAttribute attribute : attributes.values()) {
+            if (attribute.parser.requiresNlri()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
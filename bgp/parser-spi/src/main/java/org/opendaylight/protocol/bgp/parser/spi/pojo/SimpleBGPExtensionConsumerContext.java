@@ -8,10 +8,11 @@
 package org.opendaylight.protocol.bgp.parser.spi.pojo;
 
 import org.opendaylight.protocol.bgp.parser.spi.BGPExtensionConsumerContext;
+import org.opendaylight.protocol.util.ReferenceCache;
 
 class SimpleBGPExtensionConsumerContext implements BGPExtensionConsumerContext {
     private final SimpleAddressFamilyRegistry afiReg = new SimpleAddressFamilyRegistry();
-    private final SimpleAttributeRegistry attrReg = new SimpleAttributeRegistry();
+    private final SimpleAttributeRegistry attrReg;
     private final SimpleCapabilityRegistry capReg = new SimpleCapabilityRegistry();
     private final SimpleMessageRegistry msgReg = new SimpleMessageRegistry();
     private final SimpleSubsequentAddressFamilyRegistry safiReg = new SimpleSubsequentAddressFamilyRegistry();
@@ -20,6 +21,10 @@ class SimpleBGPExtensionConsumerContext implements BGPExtensionConsumerContext {
     private final SimpleExtendedCommunityRegistry ecReg = new SimpleExtendedCommunityRegistry();
     private final SimpleBgpPrefixSidTlvRegistry prefixSidTlvReg = new SimpleBgpPrefixSidTlvRegistry();
 
+    SimpleBGPExtensionConsumerContext(final ReferenceCache referenceCache) {
+        this.attrReg = new SimpleAttributeRegistry(referenceCache);
+    }
+
     @Override
     public final SimpleAddressFamilyRegistry getAddressFamilyRegistry() {
         return this.afiReg;
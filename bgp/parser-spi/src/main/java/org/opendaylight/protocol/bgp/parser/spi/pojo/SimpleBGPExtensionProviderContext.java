@@ -7,9 +7,6 @@
  */
 package org.opendaylight.protocol.bgp.parser.spi.pojo;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import java.util.concurrent.atomic.AtomicReference;
 import org.opendaylight.protocol.bgp.parser.spi.AttributeParser;
 import org.opendaylight.protocol.bgp.parser.spi.AttributeSerializer;
 import org.opendaylight.protocol.bgp.parser.spi.BGPExtensionProviderContext;
@@ -26,6 +23,7 @@ import org.opendaylight.protocol.bgp.parser.spi.ParameterParser;
 import org.opendaylight.protocol.bgp.parser.spi.ParameterSerializer;
 import org.opendaylight.protocol.bgp.parser.spi.extended.community.ExtendedCommunityParser;
 import org.opendaylight.protocol.bgp.parser.spi.extended.community.ExtendedCommunitySerializer;
+import org.opendaylight.protocol.util.InterningReferenceCache;
 import org.opendaylight.protocol.util.ReferenceCache;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.open.message.BgpParameters;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.bgp.prefix.sid.bgp.prefix.sid.tlvs.BgpPrefixSidTlv;
@@ -42,30 +40,20 @@ public class SimpleBGPExtensionProviderContext extends SimpleBGPExtensionConsume
 
     public static final int DEFAULT_MAXIMUM_CACHED_OBJECTS = 100000;
 
-    private final AtomicReference<Cache<Object, Object>> cacheRef;
-    private final ReferenceCache referenceCache = new ReferenceCache() {
-        @Override
-        public <T> T getSharedReference(final T object) {
-            final Cache<Object, Object> cache = SimpleBGPExtensionProviderContext.this.cacheRef.get();
-
-            @SuppressWarnings("unchecked")
-            final T ret = (T) cache.getIfPresent(object);
-            if (ret == null) {
-                cache.put(object, object);
-                return object;
-            }
-
-            return ret;
-        }
-    };
-
     public SimpleBGPExtensionProviderContext() {
-        this(DEFAULT_MAXIMUM_CACHED_OBJECTS);
+        super(InterningReferenceCache.getInstance());
     }
 
+    /**
+     * Create a new context.
+     *
+     * @param maximumCachedObjects ignored
+     * @deprecated The reference cache is shared and holds objects only as long as they are referenced elsewhere,
+     *             hence it does not need to be bounded. Use {@link #SimpleBGPExtensionProviderContext()} instead.
+     */
+    @Deprecated
     public SimpleBGPExtensionProviderContext(final int maximumCachedObjects) {
-        final Cache<Object, Object> cache = CacheBuilder.newBuilder().maximumSize(maximumCachedObjects).build();
-        this.cacheRef = new AtomicReference<>(cache);
+        this();
     }
 
     @Override
@@ -140,7 +128,7 @@ public class SimpleBGPExtensionProviderContext extends SimpleBGPExtensionConsume
 
     @Override
     public ReferenceCache getReferenceCache() {
-        return this.referenceCache;
+        return InterningReferenceCache.getInstance();
     }
 
     @Override
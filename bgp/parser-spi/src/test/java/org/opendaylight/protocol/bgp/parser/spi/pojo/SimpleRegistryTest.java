@@ -9,8 +9,13 @@ package org.opendaylight.protocol.bgp.parser.spi.pojo;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -22,11 +27,13 @@ import java.util.Optional;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.opendaylight.protocol.bgp.parser.BGPDocumentedException;
 import org.opendaylight.protocol.bgp.parser.BGPParsingException;
 import org.opendaylight.protocol.bgp.parser.BGPTreatAsWithdrawException;
 import org.opendaylight.protocol.bgp.parser.spi.AddressFamilyRegistry;
+import org.opendaylight.protocol.bgp.parser.spi.AttributeParser;
 import org.opendaylight.protocol.bgp.parser.spi.AttributeRegistry;
 import org.opendaylight.protocol.bgp.parser.spi.BGPExtensionProviderContext;
 import org.opendaylight.protocol.bgp.parser.spi.BgpPrefixSidTlvRegistry;
@@ -35,6 +42,7 @@ import org.opendaylight.protocol.bgp.parser.spi.MessageRegistry;
 import org.opendaylight.protocol.bgp.parser.spi.MultiPathSupport;
 import org.opendaylight.protocol.bgp.parser.spi.NlriRegistry;
 import org.opendaylight.protocol.bgp.parser.spi.ParameterRegistry;
+import org.opendaylight.protocol.bgp.parser.spi.ParsedAttributes;
 import org.opendaylight.protocol.bgp.parser.spi.PeerSpecificParserConstraint;
 import org.opendaylight.protocol.bgp.parser.spi.RevisedErrorHandling;
 import org.opendaylight.protocol.bgp.parser.spi.SubsequentAddressFamilyRegistry;
@@ -43,6 +51,8 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.mess
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.bgp.prefix.sid.bgp.prefix.sid.tlvs.BgpPrefixSidTlv;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.Attributes1;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.Attributes1Builder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.update.attributes.MpReachNlri;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.update.attributes.MpReachNlriBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.update.attributes.MpUnreachNlri;
@@ -95,6 +105,81 @@ public class SimpleRegistryTest {
         verify(this.activator.attrSerializer, times(1)).serializeAttribute(any(Attributes.class), any(ByteBuf.class));
     }
 
+    @Test
+    public void testCachedAttributes() throws BGPDocumentedException, BGPParsingException,
+            BGPTreatAsWithdrawException {
+        final AttributeRegistry attrReg = this.ctx.getAttributeRegistry();
+        final byte[] attributeBytes = {
+            0x00, 0x00, 0x00
+        };
+        final ParsedAttributesCache cache = new ParsedAttributesCache();
+        final PeerSpecificParserConstraintImpl constraint = new PeerSpecificParserConstraintImpl();
+        constraint.addPeerConstraint(ParsedAttributesCache.class, cache);
+
+        final ParsedAttributes first = attrReg.parseAttributes(Unpooled.wrappedBuffer(attributeBytes), constraint);
+        final ParsedAttributes second = attrReg.parseAttributes(Unpooled.wrappedBuffer(attributeBytes), constraint);
+        assertSame(first, second);
+        verify(this.activator.attrParser, times(1)).parseAttribute(any(ByteBuf.class), any(AttributesBuilder.class),
+            any(RevisedErrorHandling.class), any(PeerSpecificParserConstraint.class));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        cache.invalidate();
+        attrReg.parseAttributes(Unpooled.wrappedBuffer(attributeBytes), constraint);
+        verify(this.activator.attrParser, times(2)).parseAttribute(any(ByteBuf.class), any(AttributesBuilder.class),
+            any(RevisedErrorHandling.class), any(PeerSpecificParserConstraint.class));
+    }
+
+    @Test
+    public void testCachedAttributesWithNlri() throws BGPDocumentedException, BGPParsingException,
+            BGPTreatAsWithdrawException {
+        final AttributeParser originParser = mock(AttributeParser.class);
+        final AttributeParser mpReachParser = mock(AttributeParser.class);
+        final AttributeParser communitiesParser = mock(AttributeParser.class);
+        doAnswer(invocation -> {
+            invocation.<AttributesBuilder>getArgument(1).addAugmentation(Attributes1.class,
+                new Attributes1Builder().build());
+            return null;
+        }).doNothing().when(mpReachParser).parseAttribute(any(ByteBuf.class), any(AttributesBuilder.class),
+            any(RevisedErrorHandling.class), any());
+        final SimpleAttributeRegistry attrReg = new SimpleAttributeRegistry();
+        attrReg.registerAttributeParser(1, originParser);
+        attrReg.registerAttributeParser(14, mpReachParser);
+        attrReg.registerAttributeParser(16, communitiesParser);
+
+        final ParsedAttributesCache cache = new ParsedAttributesCache();
+        final PeerSpecificParserConstraintImpl constraint = new PeerSpecificParserConstraintImpl();
+        constraint.addPeerConstraint(ParsedAttributesCache.class, cache);
+
+        // Extended communities are on the wire before MP_REACH, parsing follows attribute types
+        final ParsedAttributes first = attrReg.parseAttributes(Unpooled.wrappedBuffer(new byte[] {
+            0x40, 0x01, 0x01, 0x00, (byte) 0xc0, 0x10, 0x01, 0x05, (byte) 0x80, 0x0e, 0x02, 0x0a, 0x0b
+        }), constraint);
+        final InOrder inOrder = inOrder(originParser, mpReachParser, communitiesParser);
+        inOrder.verify(originParser).parseAttribute(any(ByteBuf.class), any(AttributesBuilder.class),
+            any(RevisedErrorHandling.class), any());
+        inOrder.verify(mpReachParser).parseAttribute(any(ByteBuf.class), any(AttributesBuilder.class),
+            any(RevisedErrorHandling.class), any());
+        inOrder.verify(communitiesParser).parseAttribute(any(ByteBuf.class), any(AttributesBuilder.class),
+            any(RevisedErrorHandling.class), any());
+        assertNotNull(first.getAttributes().augmentation(Attributes1.class));
+
+        // Same attributes around a different MP_REACH
+        final ParsedAttributes second = attrReg.parseAttributes(Unpooled.wrappedBuffer(new byte[] {
+            0x40, 0x01, 0x01, 0x00, (byte) 0xc0, 0x10, 0x01, 0x05, (byte) 0x80, 0x0e, 0x01, 0x0c
+        }), constraint);
+        verify(originParser, times(1)).parseAttribute(any(ByteBuf.class), any(AttributesBuilder.class),
+            any(RevisedErrorHandling.class), any());
+        verify(communitiesParser, times(1)).parseAttribute(any(ByteBuf.class), any(AttributesBuilder.class),
+            any(RevisedErrorHandling.class), any());
+        verify(mpReachParser, times(2)).parseAttribute(any(ByteBuf.class), any(AttributesBuilder.class),
+            any(RevisedErrorHandling.class), any());
+        // The cached attributes do not carry the first message's MP_REACH
+        assertNull(second.getAttributes().augmentation(Attributes1.class));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
     @Test
     public void testSimpleParameter() throws Exception {
         final ParameterRegistry paramReg = this.ctx.getParameterRegistry();
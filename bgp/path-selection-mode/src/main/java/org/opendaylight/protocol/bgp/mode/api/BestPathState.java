@@ -30,5 +30,14 @@ public interface BestPathState {
      */
     boolean isDepreferenced();
 
+    /**
+     * Return the primitive key of this state for the part of best path selection which does not depend on other paths,
+     * i.e. depreferencing, LOCAL_PREF, AS_PATH length and ORIGIN, in that order. A state with a higher key is preferred
+     * over a state with a lower key, equal keys need to be resolved by comparing MED and peer AS.
+     *
+     * @return Selection key
+     */
+    long getSelectionKey();
+
     @NonNull Attributes getAttributes();
 }
\ No newline at end of file
@@ -10,11 +10,12 @@ package org.opendaylight.protocol.bgp.mode.impl;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import com.google.common.annotations.Beta;
-import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.ImmutableSet.Builder;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.opendaylight.yangtools.concepts.Immutable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,18 +24,39 @@ import org.slf4j.LoggerFactory;
  * A map maintaining a set of values in an external array corresponding to a set of keys. This class is expected to be
  * used as a template, i.e. users subclass it to a concrete map and use exclusively that class to access the
  * functionality.
+ *
+ * <p>
+ * Instances are expected to be interned by subclasses, hence the number of distinct instances is bounded by the number
+ * of distinct key sets. Each instance memoizes the results of {@link #with(Object)} and {@link #without(Object)}, so
+ * that a steady-state transition between two key sets does not allocate. Memoized transitions are weakly referenced,
+ * so they do not prevent unused instances from being garbage-collected, and their number is bounded, so that instances
+ * touched by many distinct keys do not accumulate stale mappings.
+ *
+ * <p>
+ * Two instances are equal if they have the same keys, which allows subclasses to intern them directly, for example
+ * via {@link com.google.common.collect.Interners#newWeakInterner()}.
  */
 @Beta
 public abstract class AbstractOffsetMap<K extends Immutable & Comparable<K>, T extends AbstractOffsetMap<K, T>> {
     private static final Logger LOG = LoggerFactory.getLogger(AbstractOffsetMap.class);
     private static final String INVALIDOFFSET = "Invalid offset %s for %s router IDs";
+    // Peers tend to flap in small groups, hence a handful of transitions per instance covers the steady state
+    private static final int MAX_TRANSITIONS = 16;
 
+    // Allocated on first use, as instances created only to be interned never need them. Losing a racing update only
+    // loses a memoized transition, which is harmless.
+    private volatile ConcurrentMap<K, WeakReference<T>> withTransitions;
+    private volatile ConcurrentMap<K, WeakReference<T>> withoutTransitions;
     private final K[] keys;
 
-    protected AbstractOffsetMap(final K[] emptyKeys, final Comparator<K> comparator, final ImmutableSet<K> routerIds) {
-        final K[] array = routerIds.toArray(emptyKeys);
-        Arrays.sort(array, comparator);
-        this.keys = array;
+    /**
+     * Create a new instance.
+     *
+     * @param sortedKeys Keys, sorted according to {@link #comparator()} and not containing duplicates. The array is
+     *                   retained as-is, hence callers must not modify it afterwards.
+     */
+    protected AbstractOffsetMap(final K[] sortedKeys) {
+        this.keys = sortedKeys;
     }
 
     public final K getKey(final int offset) {
@@ -54,26 +76,31 @@ public abstract class AbstractOffsetMap<K extends Immutable & Comparable<K>, T e
     }
 
     public final T with(final K key) {
-        // TODO: we could make this faster if we had an array-backed Set and requiring
-        //       the caller to give us the result of offsetOf() -- as that indicates
-        //       where to insert the new routerId while maintaining the sorted nature
-        //       of the array
-        final Builder<K> builder = ImmutableSet.builderWithExpectedSize(size() + 1);
-        builder.add(keys);
-        builder.add(key);
-        return instanceForKeys(builder.build());
+        final T cached = lookupTransition(this.withTransitions, key);
+        if (cached != null) {
+            return cached;
+        }
+
+        ConcurrentMap<K, WeakReference<T>> transitions = this.withTransitions;
+        if (transitions == null) {
+            transitions = new ConcurrentHashMap<>(0);
+            this.withTransitions = transitions;
+        }
+        return storeTransition(transitions, key, computeWith(key));
     }
 
     public final T without(final K key) {
-        final ImmutableSet<K> set;
-        final int index = indexOf(key);
-        if (index < 0) {
-            LOG.trace("Router key {} not found", key);
-            set = ImmutableSet.of();
-        } else {
-            set = ImmutableSet.copyOf(removeValue(keys, index, emptyKeys()));
+        final T cached = lookupTransition(this.withoutTransitions, key);
+        if (cached != null) {
+            return cached;
         }
-        return instanceForKeys(set);
+
+        ConcurrentMap<K, WeakReference<T>> transitions = this.withoutTransitions;
+        if (transitions == null) {
+            transitions = new ConcurrentHashMap<>(0);
+            this.withoutTransitions = transitions;
+        }
+        return storeTransition(transitions, key, computeWithout(key));
     }
 
     public final <C> C getValue(final C[] array, final int offset) {
@@ -116,19 +143,81 @@ public abstract class AbstractOffsetMap<K extends Immutable & Comparable<K>, T e
         return ret;
     }
 
+    @Override
+    public final int hashCode() {
+        return Arrays.hashCode(keys);
+    }
+
+    @Override
+    public final boolean equals(final Object obj) {
+        return this == obj || obj != null && getClass() == obj.getClass()
+                && Arrays.equals(keys, ((AbstractOffsetMap<?, ?>) obj).keys);
+    }
+
     protected abstract Comparator<K> comparator();
 
     protected abstract K[] emptyKeys();
 
-    protected abstract T instanceForKeys(ImmutableSet<K> newKeys);
+    /**
+     * Return the interned instance for specified keys.
+     *
+     * @param newKeys Keys, sorted according to {@link #comparator()} and not containing duplicates. Implementations
+     *                may retain the array, callers must not modify it afterwards.
+     * @return Interned instance
+     */
+    protected abstract T instanceForKeys(K[] newKeys);
+
+    private T computeWith(final K key) {
+        final int offset = offsetOf(key);
+        if (offset >= 0) {
+            LOG.trace("Router key {} already present", key);
+            return instanceForKeys(this.keys);
+        }
+
+        // Binary search gives us the insertion point, so we just need to open a gap there
+        final int insertAt = -offset - 1;
+        final K[] newKeys = Arrays.copyOf(this.keys, this.keys.length + 1);
+        System.arraycopy(this.keys, insertAt, newKeys, insertAt + 1, this.keys.length - insertAt);
+        newKeys[insertAt] = key;
+        return instanceForKeys(newKeys);
+    }
+
+    private T computeWithout(final K key) {
+        final int offset = offsetOf(key);
+        if (offset < 0) {
+            LOG.trace("Router key {} not found", key);
+            return instanceForKeys(this.keys);
+        }
+        return instanceForKeys(removeValue(this.keys, offset, emptyKeys()));
+    }
+
+    private static <K, T> T lookupTransition(final ConcurrentMap<K, WeakReference<T>> transitions, final K key) {
+        if (transitions == null) {
+            return null;
+        }
+        final WeakReference<T> ref = transitions.get(key);
+        if (ref == null) {
+            return null;
+        }
+        final T ret = ref.get();
+        if (ret == null) {
+            // Target has been garbage-collected, do not keep the stale mapping around
+            transitions.remove(key, ref);
+        }
+        return ret;
+    }
 
-    private int indexOf(final K key) {
-        for (int i = 0; i < keys.length; i++) {
-            if (key.equals(keys[i])) {
-                return i;
+    private static <K, T> T storeTransition(final ConcurrentMap<K, WeakReference<T>> transitions, final K key,
+            final T target) {
+        if (transitions.size() >= MAX_TRANSITIONS) {
+            // Purge mappings whose targets have been garbage-collected and start over if that does not free up space
+            transitions.values().removeIf(ref -> ref.get() == null);
+            if (transitions.size() >= MAX_TRANSITIONS) {
+                transitions.clear();
             }
         }
-        return -1;
+        transitions.put(key, new WeakReference<>(target));
+        return target;
     }
 
     private void checkAccessOffest(final int offset) {
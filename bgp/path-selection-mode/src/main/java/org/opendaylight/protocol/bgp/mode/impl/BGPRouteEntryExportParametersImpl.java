@@ -10,6 +10,7 @@ package org.opendaylight.protocol.bgp.mode.impl;
 import static java.util.Objects.requireNonNull;
 
 import java.util.List;
+import java.util.Set;
 import org.opendaylight.protocol.bgp.rib.spi.Peer;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
 import org.opendaylight.protocol.bgp.rib.spi.policy.RTCCache;
@@ -75,7 +76,7 @@ public final class BGPRouteEntryExportParametersImpl implements BGPRouteEntryExp
     }
 
     @Override
-    public List<RouteTarget> getMemberships() {
+    public Set<RouteTarget> getMemberships() {
         return this.toPeer.getMemberships();
     }
 
@@ -83,4 +84,9 @@ public final class BGPRouteEntryExportParametersImpl implements BGPRouteEntryExp
     public List<Route> getClientRouteTargetContrainCache() {
         return this.rtCache.getClientRouteTargetContrainCache();
     }
+
+    @Override
+    public Route getClientRouteTargetContrainRoute(final String routeKey) {
+        return this.rtCache.getClientRouteTargetContrainRoute(routeKey);
+    }
 }
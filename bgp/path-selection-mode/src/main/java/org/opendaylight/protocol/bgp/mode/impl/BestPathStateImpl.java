@@ -26,6 +26,13 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.mess
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.BgpOrigin;
 
 public final class BestPathStateImpl implements BestPathState {
+    private static final int ORIGIN_BITS = 2;
+    private static final int ORIGIN_COUNT = BgpOrigin.values().length;
+    private static final int AS_PATH_LENGTH_BITS = Short.SIZE;
+    private static final int LOCAL_PREF_BITS = Integer.SIZE;
+    private static final long MAX_AS_PATH_LENGTH = (1L << AS_PATH_LENGTH_BITS) - 1;
+    private static final long LOCAL_PREF_MASK = (1L << LOCAL_PREF_BITS) - 1;
+
     private final Attributes attributes;
     private long peerAs = 0L;
     private int asPathLength = 0;
@@ -33,6 +40,7 @@ public final class BestPathStateImpl implements BestPathState {
     private long multiExitDisc;
     private BgpOrigin origin;
     private boolean depreferenced;
+    private long selectionKey;
     private boolean resolved;
 
     public BestPathStateImpl(final Attributes attributes) {
@@ -89,9 +97,36 @@ public final class BestPathStateImpl implements BestPathState {
         final List<Communities> attrCommunities = attributes.getCommunities();
         depreferenced = attrCommunities != null && attrCommunities.contains(CommunityUtil.LLGR_STALE);
 
+        this.selectionKey = computeSelectionKey();
         this.resolved = true;
     }
 
+    /**
+     * Pack the path-local selection criteria into a single long, most significant first, so that a higher value
+     * denotes a better path.
+     */
+    private long computeSelectionKey() {
+        // 0. draft-uttaro-idr-bgp-persistence-04 defines "depreferenced" paths, which lose to all others
+        long key = depreferenced ? 0 : 1;
+
+        /*
+         * 2. prefer path with higher LOCAL_PREF. A path without LOCAL_PREF has always been preferred over a path with
+         *    one, we retain that.
+         *
+         * FIXME: for eBGP cases (when the LOCAL_PREF is missing), we should assign a policy-based preference
+         *        before we ever get here.
+         */
+        key = key << 1 | (localPref == null ? 1 : 0);
+        key = key << LOCAL_PREF_BITS | (localPref == null ? 0 : localPref & LOCAL_PREF_MASK);
+
+        // 4. prefer the path with the shortest AS_PATH.
+        key = key << AS_PATH_LENGTH_BITS | MAX_AS_PATH_LENGTH - Math.min(asPathLength, MAX_AS_PATH_LENGTH);
+
+        // 5. prefer the path with the lowest origin type, relying on the declaration order in the model: IGP is lower
+        //    than Exterior Gateway Protocol (EGP), and EGP is lower than INCOMPLETE. Paths without origin come last.
+        return key << ORIGIN_BITS | (origin == null ? 0 : ORIGIN_COUNT - origin.ordinal());
+    }
+
     @Override
     public Long getLocalPref() {
         resolveValues();
@@ -122,6 +157,12 @@ public final class BestPathStateImpl implements BestPathState {
         return this.asPathLength;
     }
 
+    @Override
+    public long getSelectionKey() {
+        resolveValues();
+        return this.selectionKey;
+    }
+
     @Override
     public Attributes getAttributes() {
         return this.attributes;
@@ -7,10 +7,8 @@
  */
 package org.opendaylight.protocol.bgp.mode.impl.add;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import java.util.Comparator;
 import org.opendaylight.protocol.bgp.mode.impl.AbstractOffsetMap;
 
@@ -20,20 +18,14 @@ import org.opendaylight.protocol.bgp.mode.impl.AbstractOffsetMap;
  * @see AbstractOffsetMap
  */
 final class RouteKeyOffsets extends AbstractOffsetMap<RouteKey, RouteKeyOffsets> {
-    private static final LoadingCache<ImmutableSet<RouteKey>, RouteKeyOffsets> OFFSETMAPS = CacheBuilder.newBuilder()
-            .weakValues().build(new CacheLoader<ImmutableSet<RouteKey>, RouteKeyOffsets>() {
-                @Override
-                public RouteKeyOffsets load(final ImmutableSet<RouteKey> key) {
-                    return new RouteKeyOffsets(key);
-                }
-            });
+    private static final Interner<RouteKeyOffsets> OFFSETMAPS = Interners.newWeakInterner();
     private static final Comparator<RouteKey> COMPARATOR = RouteKey::compareTo;
     private static final RouteKey[] EMPTY_KEYS = new RouteKey[0];
 
-    static final RouteKeyOffsets EMPTY = new RouteKeyOffsets(ImmutableSet.of());
+    static final RouteKeyOffsets EMPTY = OFFSETMAPS.intern(new RouteKeyOffsets(EMPTY_KEYS));
 
-    private RouteKeyOffsets(final ImmutableSet<RouteKey> routeKeys) {
-        super(EMPTY_KEYS, COMPARATOR, routeKeys);
+    private RouteKeyOffsets(final RouteKey[] routeKeys) {
+        super(routeKeys);
     }
 
     @Override
@@ -47,7 +39,8 @@ final class RouteKeyOffsets extends AbstractOffsetMap<RouteKey, RouteKeyOffsets>
     }
 
     @Override
-    protected RouteKeyOffsets instanceForKeys(final ImmutableSet<RouteKey> newKeys) {
-        return OFFSETMAPS.getUnchecked(newKeys);
+    protected RouteKeyOffsets instanceForKeys(final RouteKey[] newKeys) {
+        // The candidate retains newKeys, so the interned instance holds the only copy of the array
+        return OFFSETMAPS.intern(new RouteKeyOffsets(newKeys));
     }
 }
\ No newline at end of file
@@ -46,6 +46,25 @@ final class BasePathSelector extends AbstractBestPathSelector {
         }
     }
 
+    /**
+     * Select the best path among precomputed states, in the same way as feeding them to {@link #processPath} in order
+     * would.
+     *
+     * @param ourAs our AS number
+     * @param states path states, null for paths without attributes
+     * @return offset of the best path, or -1 if there is no eligible path
+     */
+    static int selectBest(final long ourAs, final BestPathState[] states) {
+        int best = -1;
+        for (int i = 0; i < states.length; ++i) {
+            final BestPathState state = states[i];
+            if (state != null && (best < 0 || !isExistingPathBetter(ourAs, states[best], state))) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
     BaseBestPath result() {
         return this.bestRouterId == null ? null : new BaseBestPath(this.bestRouterId, this.bestState);
     }
@@ -7,10 +7,14 @@
  */
 package org.opendaylight.protocol.bgp.mode.impl.base;
 
+import com.google.common.annotations.VisibleForTesting;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import org.eclipse.jdt.annotation.Nullable;
+import org.opendaylight.protocol.bgp.mode.api.BestPathState;
 import org.opendaylight.protocol.bgp.mode.api.RouteEntry;
+import org.opendaylight.protocol.bgp.mode.impl.BestPathStateImpl;
 import org.opendaylight.protocol.bgp.rib.spi.RIBSupport;
 import org.opendaylight.protocol.bgp.rib.spi.RouterId;
 import org.opendaylight.protocol.bgp.rib.spi.entry.ActualBestPathRoutes;
@@ -57,11 +61,16 @@ final class BaseRouteEntry<C extends Routes & DataObject & ChoiceIn<Tables>,
 
     private static final Logger LOG = LoggerFactory.getLogger(BaseRouteEntry.class);
     private static final Route[] EMPTY_VALUES = new Route[0];
+    private static final BestPathState[] EMPTY_STATES = new BestPathState[0];
 
     private RouterIdOffsets offsets = RouterIdOffsets.EMPTY;
     private R[] values = (R[]) EMPTY_VALUES;
+    // Best path state of each value, null if the value has no attributes
+    private BestPathState[] states = EMPTY_STATES;
     private BaseBestPath bestPath;
     private BaseBestPath removedBestPath;
+    // Set when a path which is or could become the best one has changed since last selection
+    private boolean reselect;
 
     BaseRouteEntry() {
     }
@@ -69,7 +78,9 @@ final class BaseRouteEntry<C extends Routes & DataObject & ChoiceIn<Tables>,
     @Override
     public boolean removeRoute(final RouterId routerId, final Long remotePathId) {
         final int offset = this.offsets.offsetOf(routerId);
+        pathChanged(routerId, this.offsets.getValue(this.states, offset));
         this.values = this.offsets.removeValue(this.values, offset, (R[]) EMPTY_VALUES);
+        this.states = this.offsets.removeValue(this.states, offset, EMPTY_STATES);
         this.offsets = this.offsets.without(routerId);
         return this.offsets.isEmpty();
     }
@@ -80,23 +91,41 @@ final class BaseRouteEntry<C extends Routes & DataObject & ChoiceIn<Tables>,
         return ribSup.createRoute(route, key, bestPath.getAttributes());
     }
 
+    /**
+     * Record a change of a path, which is being added or removed. Unless it is the current best path or it is at least
+     * as good as the best path in terms of {@link BestPathState#getSelectionKey()}, it cannot affect the outcome of
+     * selection: any path with a lower key loses to the best path, regardless of the order in which they are compared.
+     */
+    private void pathChanged(final RouterId routerId, final @Nullable BestPathState state) {
+        if (this.bestPath == null || routerId.equals(this.bestPath.getRouterId())
+                || state != null && state.getSelectionKey() >= this.bestPath.getState().getSelectionKey()) {
+            this.reselect = true;
+        }
+    }
+
     @Override
     public boolean selectBest(final long localAs) {
+        if (!this.reselect && this.bestPath != null) {
+            LOG.trace("Best path {} not affected by changes", this.bestPath);
+            return false;
+        }
+        this.reselect = false;
+
         /*
          * FIXME: optimize flaps by making sure we consider stability of currently-selected route.
          */
-        final BasePathSelector selector = new BasePathSelector(localAs);
-
-        // Select the best route.
-        for (int i = 0; i < this.offsets.size(); ++i) {
-            final RouterId routerId = this.offsets.getKey(i);
-            final Attributes attributes = this.offsets.getValue(this.values, i).getAttributes();
-            LOG.trace("Processing router id {} attributes {}", routerId, attributes);
-            selector.processPath(routerId, attributes);
-        }
+        final int offset = BasePathSelector.selectBest(localAs, this.states);
 
         // Get the newly-selected best path.
-        final BaseBestPath newBestPath = selector.result();
+        final BaseBestPath newBestPath;
+        if (offset < 0) {
+            newBestPath = null;
+        } else {
+            final RouterId routerId = this.offsets.getKey(offset);
+            final BestPathState state = this.states[offset];
+            newBestPath = this.bestPath != null && this.bestPath.getState() == state
+                    && routerId.equals(this.bestPath.getRouterId()) ? this.bestPath : new BaseBestPath(routerId, state);
+        }
         final boolean modified = newBestPath == null || !newBestPath.equals(this.bestPath);
         if (modified) {
             if (this.offsets.isEmpty()) {
@@ -116,14 +145,26 @@ final class BaseRouteEntry<C extends Routes & DataObject & ChoiceIn<Tables>,
             offset = newOffsets.offsetOf(routerId);
 
             this.values = newOffsets.expand(this.offsets, this.values, offset);
+            this.states = newOffsets.expand(this.offsets, this.states, offset);
             this.offsets = newOffsets;
+        } else {
+            pathChanged(routerId, this.offsets.getValue(this.states, offset));
         }
 
+        final Attributes attributes = route.getAttributes();
+        final BestPathState state = attributes == null ? null : new BestPathStateImpl(attributes);
+        pathChanged(routerId, state);
         this.offsets.setValue(this.values, offset, route);
+        this.offsets.setValue(this.states, offset, state);
         LOG.trace("Added route {} from {}", route, routerId);
         return offset;
     }
 
+    @VisibleForTesting
+    BaseBestPath getBestPath() {
+        return this.bestPath;
+    }
+
     @Override
     public Optional<StaleBestPathRoute<C, S, R, I>> removeStalePaths(final RIBSupport<C, S, R, I> ribSupport,
             final String routeKey) {
@@ -11,7 +11,6 @@ import org.eclipse.jdt.annotation.NonNull;
 import org.opendaylight.protocol.bgp.mode.api.BestPathState;
 import org.opendaylight.protocol.bgp.rib.spi.RouterId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.OriginatorId;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.BgpOrigin;
 
 public class AbstractBestPathSelector {
     private final long ourAs;
@@ -41,54 +40,39 @@ public class AbstractBestPathSelector {
      * @return true if the existing path is better, false if the new path is better
      */
     protected boolean isExistingPathBetter(final @NonNull BestPathState state) {
-        // 0. draft-uttaro-idr-bgp-persistence-04 defines "depreferenced" paths
-        final boolean stateDepref = state.isDepreferenced();
-        if (this.bestState.isDepreferenced() != stateDepref) {
-            return stateDepref;
-        }
+        return isExistingPathBetter(this.ourAs, this.bestState, state);
+    }
 
-        // 1. prefer path with accessible nexthop
-        // - we assume that all nexthops are accessible
+    /**
+     * Chooses best route according to BGP best path selection.
+     *
+     * @param ourAs our AS number
+     * @param bestState attributes of the existing route
+     * @param state attributes of the new route
+     * @return true if the existing path is better, false if the new path is better
+     */
+    protected static boolean isExistingPathBetter(final long ourAs, final @NonNull BestPathState bestState,
+            final @NonNull BestPathState state) {
         /*
+         * 0. prefer path which is not depreferenced
+         * 1. prefer path with accessible nexthop
+         * - we assume that all nexthops are accessible
          * 2. prefer path with higher LOCAL_PREF
+         * 3. prefer learned path
+         * - we assume that all paths are learned
+         * 4. prefer the path with the shortest AS_PATH.
+         * 5. prefer the path with the lowest origin type
          *
-         * FIXME: for eBGP cases (when the LOCAL_PREF is missing), we should assign a policy-based preference
-         *        before we ever get here.
+         * These are captured by the selection key, see BestPathState.getSelectionKey().
          */
-        final Long bestLocal = this.bestState.getLocalPref();
-        final Long stateLocal = state.getLocalPref();
-        if (stateLocal != null) {
-            if (bestLocal == null) {
-                return true;
-            }
-
-            final Boolean bool = firstLower(stateLocal, bestLocal);
-            if (bool != null) {
-                return bool;
-            }
-        } else if (bestLocal != null) {
-            return false;
-        }
-
-        // 3. prefer learned path
-        // - we assume that all paths are learned
-
-        // 4. prefer the path with the shortest AS_PATH.
-        if (this.bestState.getAsPathLength() != state.getAsPathLength()) {
-            return this.bestState.getAsPathLength() < state.getAsPathLength();
+        final long bestKey = bestState.getSelectionKey();
+        final long stateKey = state.getSelectionKey();
+        if (bestKey != stateKey) {
+            return bestKey > stateKey;
         }
 
-        // 5. prefer the path with the lowest origin type
-        // - IGP is lower than Exterior Gateway Protocol (EGP), and EGP is lower than INCOMPLETE
-        if (!this.bestState.getOrigin().equals(state.getOrigin())) {
-            final BgpOrigin bo = this.bestState.getOrigin();
-            final BgpOrigin no = state.getOrigin();
-
-            // This trick relies on the order in which the values are declared in the model.
-            return no.ordinal() > bo.ordinal();
-        }
         // FIXME: we should be able to cache the best AS
-        final long bestAs = this.bestState.getPeerAs();
+        final long bestAs = bestState.getPeerAs();
         final long newAs = state.getPeerAs();
 
         /*
@@ -100,7 +84,7 @@ public class AbstractBestPathSelector {
          */
         if (bestAs == newAs) {
             // 6. prefer the path with the lowest multi-exit discriminator (MED)
-            final Boolean cmp = firstLower(this.bestState.getMultiExitDisc(), state.getMultiExitDisc());
+            final Boolean cmp = firstLower(bestState.getMultiExitDisc(), state.getMultiExitDisc());
             if (cmp != null) {
                 return cmp;
             }
@@ -113,7 +97,7 @@ public class AbstractBestPathSelector {
              *
              * FIXME: we should know this information from the peer directly.
              */
-            if (this.ourAs != bestAs && this.ourAs == newAs) {
+            if (ourAs != bestAs && ourAs == newAs) {
                 return true;
             }
         }
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.mode.impl.base;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import org.junit.Test;
+import org.opendaylight.protocol.bgp.mode.impl.BestPathStateImpl;
+import org.opendaylight.protocol.bgp.parser.impl.message.update.CommunityUtil;
+import org.opendaylight.protocol.bgp.rib.spi.RouterId;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.AsNumber;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.bgp.rib.rib.loc.rib.tables.routes.Ipv4RoutesCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.Ipv4Routes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.ipv4.routes.Ipv4Route;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.ipv4.routes.Ipv4RouteBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.ipv4.routes.Ipv4RouteKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.AsPathBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.Communities;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.LocalPrefBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.MultiExitDiscBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.OriginBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.as.path.SegmentsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.BgpOrigin;
+
+public class BaseRouteEntryTest {
+    private static final long OUR_AS = 20L;
+    private static final int ROUTERS = 6;
+
+    @Test
+    public void testSelectionKeyOrder() {
+        final long base = new BestPathStateImpl(attributes(100L, 2, BgpOrigin.Egp, 0L, 1L, false)).getSelectionKey();
+        assertTrue(base < new BestPathStateImpl(attributes(200L, 2, BgpOrigin.Egp, 0L, 1L, false))
+            .getSelectionKey());
+        assertTrue(base < new BestPathStateImpl(attributes(100L, 1, BgpOrigin.Egp, 0L, 1L, false))
+            .getSelectionKey());
+        assertTrue(base < new BestPathStateImpl(attributes(100L, 2, BgpOrigin.Igp, 0L, 1L, false))
+            .getSelectionKey());
+        assertTrue(base > new BestPathStateImpl(attributes(200L, 1, BgpOrigin.Igp, 0L, 1L, true))
+            .getSelectionKey());
+        assertEquals(base, new BestPathStateImpl(attributes(100L, 2, BgpOrigin.Egp, 10L, 2L, false))
+            .getSelectionKey());
+    }
+
+    /**
+     * Run random changes against an entry and verify that incremental selection yields the same best path as a full
+     * selection over the same set of paths.
+     */
+    @Test
+    public void testIncrementalSelection() {
+        final Random random = new Random(0);
+        final BaseRouteEntry<Ipv4RoutesCase, Ipv4Routes, Ipv4Route, Ipv4RouteKey> entry = new BaseRouteEntry<>();
+        final Map<RouterId, Ipv4Route> routes = new HashMap<>();
+        BaseBestPath previous = null;
+
+        for (int i = 0; i < 10_000; i++) {
+            final int changes = 1 + random.nextInt(3);
+            for (int j = 0; j < changes; j++) {
+                final RouterId routerId = RouterId.forAddress("10.0.0." + random.nextInt(ROUTERS));
+                if (routes.containsKey(routerId) && random.nextInt(3) == 0) {
+                    routes.remove(routerId);
+                    entry.removeRoute(routerId, null);
+                } else {
+                    final Ipv4Route route = new Ipv4RouteBuilder().setAttributes(randomAttributes(random)).build();
+                    routes.put(routerId, route);
+                    entry.addRoute(routerId, null, route);
+                }
+            }
+
+            final BaseRouteEntry<Ipv4RoutesCase, Ipv4Routes, Ipv4Route, Ipv4RouteKey> full = new BaseRouteEntry<>();
+            routes.forEach((routerId, route) -> full.addRoute(routerId, null, route));
+            full.selectBest(OUR_AS);
+
+            final boolean modified = entry.selectBest(OUR_AS);
+            final BaseBestPath expected = full.getBestPath();
+            assertEquals(expected, entry.getBestPath());
+            assertEquals(expected == null || !Objects.equals(expected, previous), modified);
+            previous = entry.getBestPath();
+        }
+    }
+
+    private static Attributes randomAttributes(final Random random) {
+        return attributes(random.nextInt(3) == 0 ? null : 100L * random.nextInt(2), 1 + random.nextInt(2),
+            random.nextBoolean() ? BgpOrigin.Igp : BgpOrigin.Egp, 10L * random.nextInt(2), 1L + random.nextInt(2),
+            random.nextInt(10) == 0);
+    }
+
+    private static Attributes attributes(final Long localPref, final int asPathLength, final BgpOrigin origin,
+            final long med, final long peerAs, final boolean stale) {
+        final AttributesBuilder builder = new AttributesBuilder()
+                .setOrigin(new OriginBuilder().setValue(origin).build())
+                .setMultiExitDisc(new MultiExitDiscBuilder().setMed(med).build())
+                .setAsPath(new AsPathBuilder().setSegments(Collections.singletonList(new SegmentsBuilder()
+                    .setAsSequence(Collections.nCopies(asPathLength, new AsNumber(peerAs))).build())).build());
+        if (localPref != null) {
+            builder.setLocalPref(new LocalPrefBuilder().setPref(localPref).build());
+        }
+        if (stale) {
+            builder.setCommunities(Collections.singletonList((Communities) CommunityUtil.LLGR_STALE));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.mode.impl.base;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.opendaylight.protocol.bgp.rib.spi.RouterId;
+
+public class RouterIdOffsetsTest {
+    private static final RouterId ROUTER_ID1 = RouterId.forAddress("127.0.0.1");
+    private static final RouterId ROUTER_ID2 = RouterId.forAddress("127.0.0.2");
+    private static final RouterId ROUTER_ID3 = RouterId.forAddress("127.0.0.3");
+
+    @Test
+    public void testWithKeepsOrder() {
+        final RouterIdOffsets offsets = RouterIdOffsets.EMPTY.with(ROUTER_ID3).with(ROUTER_ID1).with(ROUTER_ID2);
+        assertEquals(3, offsets.size());
+        assertSame(ROUTER_ID1, offsets.getKey(0));
+        assertSame(ROUTER_ID2, offsets.getKey(1));
+        assertSame(ROUTER_ID3, offsets.getKey(2));
+        assertEquals(1, offsets.offsetOf(ROUTER_ID2));
+    }
+
+    @Test
+    public void testInterning() {
+        final RouterIdOffsets first = RouterIdOffsets.EMPTY.with(ROUTER_ID1).with(ROUTER_ID2);
+        final RouterIdOffsets second = RouterIdOffsets.EMPTY.with(ROUTER_ID2).with(ROUTER_ID1);
+        assertSame(first, second);
+        assertSame(first, first.with(ROUTER_ID1));
+        assertSame(RouterIdOffsets.EMPTY.with(ROUTER_ID1), first.without(ROUTER_ID2));
+    }
+
+    @Test
+    public void testMemoizedTransitions() {
+        final RouterIdOffsets one = RouterIdOffsets.EMPTY.with(ROUTER_ID1);
+        final RouterIdOffsets two = one.with(ROUTER_ID2);
+        assertSame(two, one.with(ROUTER_ID2));
+        assertSame(one, two.without(ROUTER_ID2));
+        assertSame(one, two.without(ROUTER_ID2));
+    }
+
+    @Test
+    public void testManyTransitions() {
+        final RouterIdOffsets one = RouterIdOffsets.EMPTY.with(ROUTER_ID1);
+        // Exceed the memoization bound, transitions must still resolve to the interned instances
+        for (int i = 0; i < 100; i++) {
+            final RouterId routerId = RouterId.forAddress("10.0.0." + i);
+            final RouterIdOffsets two = one.with(routerId);
+            assertEquals(2, two.size());
+            assertSame(two, RouterIdOffsets.EMPTY.with(routerId).with(ROUTER_ID1));
+            assertSame(one, two.without(routerId));
+        }
+    }
+
+    @Test
+    public void testWithoutLast() {
+        final RouterIdOffsets offsets = RouterIdOffsets.EMPTY.with(ROUTER_ID1).without(ROUTER_ID1);
+        assertTrue(offsets.isEmpty());
+        assertSame(RouterIdOffsets.EMPTY, offsets);
+    }
+
+    @Test
+    public void testWithoutMissing() {
+        final RouterIdOffsets offsets = RouterIdOffsets.EMPTY.with(ROUTER_ID1);
+        assertSame(offsets, offsets.without(ROUTER_ID2));
+    }
+}
@@ -40,6 +40,7 @@ import org.opendaylight.protocol.bgp.rib.spi.RIBSupport;
 import org.opendaylight.protocol.bgp.rib.spi.entry.AbstractAdvertizedRoute;
 import org.opendaylight.protocol.bgp.rib.spi.entry.ActualBestPathRoutes;
 import org.opendaylight.protocol.bgp.rib.spi.entry.AdvertizedRoute;
+import org.opendaylight.protocol.bgp.rib.spi.entry.ExportPolicyGroups;
 import org.opendaylight.protocol.bgp.rib.spi.entry.RouteEntryDependenciesContainer;
 import org.opendaylight.protocol.bgp.rib.spi.entry.RouteKeyIdentifier;
 import org.opendaylight.protocol.bgp.rib.spi.entry.StaleBestPathRoute;
@@ -291,6 +292,15 @@ abstract class AbstractPeer extends BGPPeerStateImpl implements BGPRouteEntryImp
             R extends Route & ChildOf<? super S> & Identifiable<I>,
             I extends Identifier<R>> void refreshRibOut(final RouteEntryDependenciesContainer entryDep,
             final List<StaleBestPathRoute<C, S, R, I>> staleRoutes, final List<AdvertizedRoute<C, S, R, I>> newRoutes) {
+        refreshRibOut(entryDep, staleRoutes, newRoutes, ExportPolicyGroups.disabled());
+    }
+
+    @Override
+    public final synchronized <C extends Routes & DataObject & ChoiceIn<Tables>, S extends ChildOf<? super C>,
+            R extends Route & ChildOf<? super S> & Identifiable<I>,
+            I extends Identifier<R>> void refreshRibOut(final RouteEntryDependenciesContainer entryDep,
+            final List<StaleBestPathRoute<C, S, R, I>> staleRoutes, final List<AdvertizedRoute<C, S, R, I>> newRoutes,
+            final ExportPolicyGroups exportGroups) {
         if (this.bindingChain == null) {
             LOG.debug("Session closed, skip changes to peer AdjRibsOut {}", getPeerId());
             return;
@@ -298,7 +308,8 @@ abstract class AbstractPeer extends BGPPeerStateImpl implements BGPRouteEntryImp
         final WriteTransaction tx = this.bindingChain.newWriteOnlyTransaction();
         final RIBSupport<C, S, R, I> ribSupport = entryDep.getRIBSupport();
         deleteRouteRibOut(ribSupport, staleRoutes, tx);
-        installRouteRibOut(entryDep, newRoutes, tx);
+        // Only export policy verdicts are shared with equivalent peers, our Adj-RIB-Out is still written on its own
+        installRouteRibOut(entryDep, newRoutes, exportGroups.groupOf(this), tx);
 
         final FluentFuture<? extends CommitInfo> future = tx.commit();
         this.submitted = future;
@@ -376,7 +387,7 @@ abstract class AbstractPeer extends BGPPeerStateImpl implements BGPRouteEntryImp
     private <C extends Routes & DataObject & ChoiceIn<Tables>, S extends ChildOf<? super C>,
             R extends Route & ChildOf<? super S> & Identifiable<I>, I extends Identifier<R>> void installRouteRibOut(
                     final RouteEntryDependenciesContainer entryDep, final List<AdvertizedRoute<C, S, R, I>> routes,
-                    final WriteTransaction tx) {
+                    final ExportPolicyGroups.Group exportGroup, final WriteTransaction tx) {
         final TablesKey tk = entryDep.getRIBSupport().getTablesKey();
         final BGPPeerTracker peerTracker = entryDep.getPeerTracker();
         final RIBSupport<C, S, R, I> ribSupport = entryDep.getRIBSupport();
@@ -406,9 +417,9 @@ abstract class AbstractPeer extends BGPPeerStateImpl implements BGPRouteEntryImp
             final Peer fromPeer = peerTracker.getPeer(fromPeerId);
             final Attributes attributes = advRoute.getAttributes();
             if (fromPeer != null && attributes != null) {
-                final BGPRouteEntryExportParameters routeEntry = new BGPRouteEntryExportParametersImpl(fromPeer,
-                        this, route.getRouteKey(), this.rtCache);
-                effAttr = routingPolicies.applyExportPolicies(routeEntry, attributes, entryDep.getAfiSafType());
+                effAttr = exportGroup.applyExportPolicies(advRoute, () -> routingPolicies.applyExportPolicies(
+                    new BGPRouteEntryExportParametersImpl(fromPeer, this, route.getRouteKey(), this.rtCache),
+                    attributes, entryDep.getAfiSafType()));
             }
             effAttr.ifPresent(attributes1
                 -> storeRoute(ribSupport, addPathSupported, tableRibout, advRoute, route, attributes1, tx));
@@ -23,27 +23,22 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.MoreExecutors;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
 import org.checkerframework.checker.lock.qual.GuardedBy;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.opendaylight.mdsal.common.api.CommitInfo;
 import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
-import org.opendaylight.mdsal.dom.api.DOMDataTreeReadTransaction;
 import org.opendaylight.mdsal.dom.api.DOMDataTreeWriteTransaction;
 import org.opendaylight.protocol.bgp.rib.impl.ApplicationPeer.RegisterAppPeerListener;
 import org.opendaylight.protocol.bgp.rib.impl.spi.PeerTransactionChain;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIBSupportContext;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIBSupportContextRegistry;
+import org.opendaylight.protocol.bgp.rib.impl.spi.UpdateBatchingPreferences;
 import org.opendaylight.protocol.bgp.rib.spi.IdentifierUtils;
 import org.opendaylight.protocol.bgp.rib.spi.PeerRoleUtil;
 import org.opendaylight.protocol.bgp.rib.spi.RIBNormalizedNodes;
@@ -65,7 +60,6 @@ import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdent
 import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
 import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
 import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
-import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
 import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeBuilder;
@@ -95,22 +89,31 @@ final class AdjRibInWriter {
             .withNodeIdentifier(EFFRIBIN_NID).addChild(EMPTY_TABLES).build();
     private static final ContainerNode EMPTY_ADJRIBOUT = Builders.containerBuilder()
             .withNodeIdentifier(ADJRIBOUT_NID).addChild(EMPTY_TABLES).build();
+    // Maximum number of stale routes removed in a single transaction
+    @VisibleForTesting
+    static final int STALE_ROUTES_CHUNK_SIZE = 10000;
 
     private final Map<TablesKey, TableContext> tables;
     private final YangInstanceIdentifier ribPath;
     private final PeerTransactionChain chain;
     private final PeerRole role;
-    @GuardedBy("this")
-    private final Map<TablesKey, Collection<NodeIdentifierWithPredicates>> staleRoutesRegistry = new HashMap<>();
+    private final UpdateBatchingPreferences batching;
     @GuardedBy("this")
     private FluentFuture<? extends CommitInfo> submitted;
+    @GuardedBy("this")
+    private DOMDataTreeWriteTransaction batchTx;
+    @GuardedBy("this")
+    private int batchPrefixes;
+    @GuardedBy("this")
+    private int batchUpdates;
 
     private AdjRibInWriter(final YangInstanceIdentifier ribPath, final PeerTransactionChain chain, final PeerRole role,
-            final Map<TablesKey, TableContext> tables) {
+            final Map<TablesKey, TableContext> tables, final UpdateBatchingPreferences batching) {
         this.ribPath = requireNonNull(ribPath);
         this.chain = requireNonNull(chain);
         this.tables = requireNonNull(tables);
         this.role = requireNonNull(role);
+        this.batching = requireNonNull(batching);
     }
 
     /**
@@ -121,7 +124,20 @@ final class AdjRibInWriter {
      */
     static AdjRibInWriter create(final @NonNull YangInstanceIdentifier ribId, final @NonNull PeerRole role,
             final @NonNull PeerTransactionChain chain) {
-        return new AdjRibInWriter(ribId, chain, role, Collections.emptyMap());
+        return create(ribId, role, chain, UpdateBatchingPreferences.DISABLED);
+    }
+
+    /**
+     * Create a new writer using a transaction chain, coalescing consecutive route updates into batched transactions.
+     *
+     * @param role                peer's role
+     * @param chain               transaction chain
+     * @param batching            update batching preferences
+     * @return A fresh writer instance
+     */
+    static AdjRibInWriter create(final @NonNull YangInstanceIdentifier ribId, final @NonNull PeerRole role,
+            final @NonNull PeerTransactionChain chain, final @NonNull UpdateBatchingPreferences batching) {
+        return new AdjRibInWriter(ribId, chain, role, Collections.emptyMap(), batching);
     }
 
     /**
@@ -146,6 +162,7 @@ final class AdjRibInWriter {
             final RIBSupportContextRegistry registry, final Set<TablesKey> tableTypes,
             final Map<TablesKey, SendReceive> addPathTablesType,
             final @Nullable RegisterAppPeerListener registerAppPeerListener) {
+        flushBatch();
         final DOMDataTreeWriteTransaction tx = this.chain.getDomChain().newWriteOnlyTransaction();
 
         createEmptyPeerStructure(newPeerId, peerPath, tx);
@@ -171,7 +188,7 @@ final class AdjRibInWriter {
                 }
             }
         }, MoreExecutors.directExecutor());
-        return new AdjRibInWriter(this.ribPath, this.chain, this.role, tb);
+        return new AdjRibInWriter(this.ribPath, this.chain, this.role, tb, this.batching);
     }
 
     /**
@@ -254,6 +271,7 @@ final class AdjRibInWriter {
     }
 
     void markTableUptodate(final TablesKey tableTypes) {
+        flushBatch();
         final DOMDataTreeWriteTransaction tx = this.chain.getDomChain().newWriteOnlyTransaction();
         final TableContext ctx = this.tables.get(tableTypes);
         tx.merge(LogicalDatastoreType.OPERATIONAL, ctx.getTableId().node(ATTRIBUTES_NID).node(UPTODATE_NID),
@@ -280,12 +298,16 @@ final class AdjRibInWriter {
             return;
         }
 
-        final DOMDataTreeWriteTransaction tx = this.chain.getDomChain().newWriteOnlyTransaction();
-        final Collection<NodeIdentifierWithPredicates> routeKeys = ctx.writeRoutes(tx, nlri, attributes);
-        final Collection<NodeIdentifierWithPredicates> staleRoutes = this.staleRoutesRegistry.get(key);
-        if (staleRoutes != null) {
-            staleRoutes.removeAll(routeKeys);
+        if (this.batching.isEnabled()) {
+            final Collection<NodeIdentifierWithPredicates> routeKeys = ctx.writeRoutes(batchTransaction(), nlri,
+                attributes);
+            LOG.trace("Write routes {} batched", nlri);
+            batchUpdated(routeKeys.size());
+            return;
         }
+
+        final DOMDataTreeWriteTransaction tx = this.chain.getDomChain().newWriteOnlyTransaction();
+        ctx.writeRoutes(tx, nlri, attributes);
         LOG.trace("Write routes {}", nlri);
         final FluentFuture<? extends CommitInfo> future = tx.commit();
         this.submitted = future;
@@ -309,6 +331,14 @@ final class AdjRibInWriter {
             LOG.debug("No table for {}, not accepting NLRI {}", key, nlri);
             return;
         }
+        if (this.batching.isEnabled()) {
+            LOG.trace("Removing routes {} batched", nlri);
+            ctx.removeRoutes(batchTransaction(), nlri);
+            // Withdrawn routes are not reported back, count the message as a single prefix
+            batchUpdated(1);
+            return;
+        }
+
         LOG.trace("Removing routes {}", nlri);
         final DOMDataTreeWriteTransaction tx = this.chain.getDomChain().newWriteOnlyTransaction();
         ctx.removeRoutes(tx, nlri);
@@ -327,7 +357,69 @@ final class AdjRibInWriter {
         }, MoreExecutors.directExecutor());
     }
 
+    private DOMDataTreeWriteTransaction batchTransaction() {
+        if (this.batchTx == null) {
+            this.batchTx = this.chain.getDomChain().newWriteOnlyTransaction();
+        }
+        return this.batchTx;
+    }
+
+    private void batchUpdated(final int prefixes) {
+        this.batchPrefixes += prefixes;
+        this.batchUpdates++;
+        if (this.batchPrefixes >= this.batching.getMaxPrefixes()
+                || this.batchUpdates >= this.batching.getMaxUpdates()) {
+            flushBatch();
+        }
+    }
+
+    /**
+     * Return true if there are route updates which have been written into a batch, but not committed yet.
+     *
+     * @return true if a batch is pending
+     */
+    boolean isBatchPending() {
+        return this.batchTx != null;
+    }
+
+    /**
+     * Commit any pending batch of route updates. This method needs to be invoked once the batch linger time expires
+     * and before any other transaction is allocated from the transaction chain.
+     */
+    void flushBatch() {
+        final DOMDataTreeWriteTransaction tx = this.batchTx;
+        if (tx == null) {
+            return;
+        }
+
+        final int prefixes = this.batchPrefixes;
+        final int updates = this.batchUpdates;
+        this.batchTx = null;
+        this.batchPrefixes = 0;
+        this.batchUpdates = 0;
+
+        LOG.trace("Committing batch of {} updates with {} prefixes", updates, prefixes);
+        final FluentFuture<? extends CommitInfo> future = tx.commit();
+        this.submitted = future;
+        future.addCallback(new FutureCallback<CommitInfo>() {
+            @Override
+            public void onSuccess(final CommitInfo result) {
+                LOG.trace("Batch of {} updates with {} prefixes committed", updates, prefixes);
+            }
+
+            @Override
+            public void onFailure(final Throwable throwable) {
+                LOG.error("Write of batch of {} updates failed", updates, throwable);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    UpdateBatchingPreferences getBatching() {
+        return this.batching;
+    }
+
     void releaseChain() {
+        flushBatch();
         if (this.submitted != null) {
             try {
                 this.submitted.get();
@@ -337,86 +429,84 @@ final class AdjRibInWriter {
         }
     }
 
-    void storeStaleRoutes(final Set<TablesKey> gracefulTables) {
-        final CountDownLatch latch = new CountDownLatch(gracefulTables.size());
-
-        try (DOMDataTreeReadTransaction tx = this.chain.getDomChain().newReadOnlyTransaction()) {
-            for (TablesKey tablesKey : gracefulTables) {
-                final TableContext ctx = this.tables.get(tablesKey);
-                if (ctx == null) {
-                    LOG.warn("Missing table for address family {}", tablesKey);
-                    latch.countDown();
-                    continue;
-                }
+    /**
+     * Track keys of routes written to specified tables, so that they can be retained across graceful restart. Keys
+     * of routes in any other table are not tracked.
+     *
+     * @param gracefulTables tables whose routes may be retained across graceful restart
+     */
+    void trackGracefulTables(final Set<TablesKey> gracefulTables) {
+        this.tables.forEach((tablesKey, ctx) -> ctx.setTrackRoutes(gracefulTables.contains(tablesKey)));
+    }
 
-                tx.read(LogicalDatastoreType.OPERATIONAL, ctx.routesPath()).addCallback(
-                    new FutureCallback<Optional<NormalizedNode<?, ?>>>() {
-                        @Override
-                        public void onSuccess(final Optional<NormalizedNode<?, ?>> routesOptional) {
-                            try {
-                                if (routesOptional.isPresent()) {
-                                    synchronized (AdjRibInWriter.this.staleRoutesRegistry) {
-                                        final MapNode routesNode = (MapNode) routesOptional.get();
-                                        final List<NodeIdentifierWithPredicates> routes = routesNode.getValue().stream()
-                                                .map(MapEntryNode::getIdentifier)
-                                                .collect(Collectors.toList());
-                                        if (!routes.isEmpty()) {
-                                            AdjRibInWriter.this.staleRoutesRegistry.put(tablesKey, routes);
-                                        }
-                                    }
-                                }
-                            } finally {
-                                latch.countDown();
-                            }
-                        }
-
-                        @Override
-                        public void onFailure(final Throwable throwable) {
-                            LOG.warn("Failed to store stale routes for table {}", tablesKey, throwable);
-                            latch.countDown();
-                        }
-                    }, MoreExecutors.directExecutor());
+    /**
+     * Mark all routes in specified tables as stale. Routes are tracked as they are written, so this method does not
+     * need to access the datastore. Only tables tracked by {@link #trackGracefulTables(Set)} have their routes
+     * marked.
+     *
+     * @param gracefulTables tables whose routes are retained across graceful restart
+     */
+    void storeStaleRoutes(final Set<TablesKey> gracefulTables) {
+        for (final TablesKey tablesKey : gracefulTables) {
+            final TableContext ctx = this.tables.get(tablesKey);
+            if (ctx == null) {
+                LOG.warn("Missing table for address family {}", tablesKey);
+                continue;
             }
-        }
-
-        try {
-            latch.await();
-        } catch (InterruptedException e) {
-            LOG.warn("Interrupted while waiting to store stale routes with {} tasks of {} to finish", latch.getCount(),
-                gracefulTables, e);
+            ctx.markRoutesStale();
         }
     }
 
+    /**
+     * Remove routes which were not refreshed by the peer since they were marked as stale. Deletes are committed in
+     * chunks of bounded size, so that a large table does not result in a single huge transaction.
+     *
+     * @param tableKey table to sweep
+     */
     void removeStaleRoutes(final TablesKey tableKey) {
         final TableContext ctx = this.tables.get(tableKey);
         if (ctx == null) {
             LOG.debug("No table for {}, not removing any stale routes", tableKey);
             return;
         }
-        final Collection<NodeIdentifierWithPredicates> routeKeys = this.staleRoutesRegistry.get(tableKey);
-        if (routeKeys == null || routeKeys.isEmpty()) {
+        final Set<NodeIdentifierWithPredicates> routeKeys = ctx.takeStaleRoutes();
+        if (routeKeys.isEmpty()) {
             LOG.debug("No stale routes present in table {}", tableKey);
             return;
         }
-        LOG.trace("Removing routes {}", routeKeys);
-        final DOMDataTreeWriteTransaction tx = this.chain.getDomChain().newWriteOnlyTransaction();
-        routeKeys.forEach(routeKey -> {
+        LOG.debug("Removing {} stale routes from table {}", routeKeys.size(), tableKey);
+        flushBatch();
+        DOMDataTreeWriteTransaction tx = null;
+        int chunk = 0;
+        for (final NodeIdentifierWithPredicates routeKey : routeKeys) {
+            if (tx == null) {
+                tx = this.chain.getDomChain().newWriteOnlyTransaction();
+            }
             tx.delete(LogicalDatastoreType.OPERATIONAL, ctx.routePath(routeKey));
-        });
+            if (++chunk == STALE_ROUTES_CHUNK_SIZE) {
+                commitStaleRoutesRemoval(tx, tableKey, chunk);
+                tx = null;
+                chunk = 0;
+            }
+        }
+        if (tx != null) {
+            commitStaleRoutesRemoval(tx, tableKey, chunk);
+        }
+    }
+
+    private void commitStaleRoutesRemoval(final DOMDataTreeWriteTransaction tx, final TablesKey tableKey,
+            final int count) {
         final FluentFuture<? extends CommitInfo> future = tx.commit();
         this.submitted = future;
         future.addCallback(new FutureCallback<CommitInfo>() {
             @Override
             public void onSuccess(final CommitInfo result) {
-                LOG.trace("Removing routes {}, succeed", routeKeys);
-                synchronized (AdjRibInWriter.this.staleRoutesRegistry) {
-                    staleRoutesRegistry.remove(tableKey);
-                }
+                LOG.trace("Removing {} stale routes from table {}, succeed", count, tableKey);
             }
 
             @Override
             public void onFailure(final Throwable throwable) {
-                LOG.warn("Removing routes {}, failed", routeKeys, throwable);
+                LOG.warn("Removing {} stale routes from table {}, failed", count, tableKey, throwable);
             }
         }, MoreExecutors.directExecutor());
     }
@@ -426,10 +516,12 @@ final class AdjRibInWriter {
             return CommitInfo.emptyFluentFuture();
         }
 
+        flushBatch();
         final DOMDataTreeWriteTransaction wtx = this.chain.getDomChain().newWriteOnlyTransaction();
         tablesToClear.forEach(tableKey -> {
             final TableContext ctx = this.tables.get(tableKey);
             wtx.delete(LogicalDatastoreType.OPERATIONAL, ctx.routesPath().getParent());
+            ctx.clearRoutes();
         });
         return wtx.commit();
     }
@@ -12,13 +12,19 @@ import static org.opendaylight.protocol.bgp.rib.spi.RIBNodeIdentifiers.ADJRIBOUT
 import static org.opendaylight.protocol.bgp.rib.spi.RIBNodeIdentifiers.PEER_NID;
 import static org.opendaylight.protocol.bgp.rib.spi.RIBNodeIdentifiers.TABLES_NID;
 
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
+import org.checkerframework.checker.lock.qual.GuardedBy;
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
 import org.opendaylight.mdsal.dom.api.ClusteredDOMDataTreeChangeListener;
 import org.opendaylight.mdsal.dom.api.DOMDataTreeChangeService;
@@ -35,6 +41,9 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.mess
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.Update;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.UpdateBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.UnrecognizedAttributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.as.path.Segments;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.update.message.Nlri;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.update.message.NlriBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.update.message.WithdrawnRoutes;
@@ -42,6 +51,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.mess
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.TablesKey;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.concepts.Registration;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
@@ -56,7 +66,17 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Instantiated for each peer and table, listens on a particular peer's adj-rib-out, performs transcoding to BA form
- * (message) and sends it down the channel. This class is NOT thread-safe.
+ * (message) and sends it down the channel. Routes changed within a single notification are packed into as few
+ * UPDATE messages as possible: advertisements are grouped by their attributes, withdrawals are grouped together and
+ * do not carry any attributes.
+ *
+ * <p>
+ * While the session's channel is not writable, route changes are kept pending rather than sent. Only the last change
+ * of each route is retained, hence the backlog never exceeds the size of the table. Pending changes are sent once
+ * the channel becomes writable again, so a slow peer does not hold back the thread delivering data tree changes.
+ *
+ * <p>
+ * This class is thread-safe.
  */
 final class AdjRibOutListener implements ClusteredDOMDataTreeChangeListener, PrefixesSentCounters {
 
@@ -64,6 +84,19 @@ final class AdjRibOutListener implements ClusteredDOMDataTreeChangeListener, Pre
 
     private static final QName PREFIX_QNAME = QName.create(Ipv4Route.QNAME, "prefix").intern();
     private static final QName PATHID_QNAME = QName.create(Ipv4Route.QNAME, "path-id").intern();
+    private static final int MAX_MESSAGE_SIZE = 4096;
+    private static final int EXTENDED_MAX_MESSAGE_SIZE = 65535;
+    // Message header, withdrawn routes length and total path attribute length
+    private static final int UPDATE_OVERHEAD = 23;
+    // Upper bound on the size of attributes which are not accounted for individually, including MP_(UN)REACH headers
+    private static final int FIXED_ATTRIBUTES_SIZE = 128;
+    // Attribute type, flags and extended length
+    private static final int ATTRIBUTE_HEADER_SIZE = 4;
+    private static final int PATH_ID_SIZE = 4;
+    // Number of pending route changes sent before re-checking channel writability
+    private static final int DRAIN_BATCH_SIZE = 1024;
+    // Multiprotocol withdrawals carry only MP_UNREACH_NLRI, which RIBSupport attaches to these
+    private static final Attributes EMPTY_ATTRIBUTES = new AttributesBuilder().build();
     private final YangInstanceIdentifier.NodeIdentifier routeKeyPrefixLeaf = new YangInstanceIdentifier
             .NodeIdentifier(PREFIX_QNAME);
     private final YangInstanceIdentifier.NodeIdentifier routeKeyPathIdLeaf = new YangInstanceIdentifier
@@ -74,18 +107,29 @@ final class AdjRibOutListener implements ClusteredDOMDataTreeChangeListener, Pre
     private final RIBSupport<?, ?, ?, ?> support;
     private final boolean mpSupport;
     private final ListenerRegistration<AdjRibOutListener> registerDataTreeChangeListener;
+    private final Registration writableRegistration;
+    @GuardedBy("this")
+    private final Map<PathArgument, DataTreeCandidateNode> pendingRoutes = new LinkedHashMap<>();
     private final LongAdder prefixesSentCounter = new LongAdder();
     private final TablesKey tablesKey;
+    private final int maxMessageSize;
+    @GuardedBy("this")
     private boolean initalState;
+    @GuardedBy("this")
+    private boolean draining;
+    @GuardedBy("this")
+    private boolean drainRequested;
+    private volatile boolean closed;
 
     private AdjRibOutListener(final PeerId peerId, final TablesKey tablesKey, final YangInstanceIdentifier ribId,
             final CodecsRegistry registry, final RIBSupport<?, ?, ?, ?> support, final DOMDataTreeChangeService service,
-            final ChannelOutputLimiter session, final boolean mpSupport) {
+            final ChannelOutputLimiter session, final boolean mpSupport, final boolean extendedMessages) {
         this.session = requireNonNull(session);
         this.support = requireNonNull(support);
         this.codecs = registry.getCodecs(this.support);
         this.mpSupport = mpSupport;
         this.tablesKey = requireNonNull(tablesKey);
+        this.maxMessageSize = extendedMessages ? EXTENDED_MAX_MESSAGE_SIZE : MAX_MESSAGE_SIZE;
         final YangInstanceIdentifier adjRibOutId = ribId.node(PEER_NID).node(IdentifierUtils.domPeerId(peerId))
                 .node(ADJRIBOUT_NID).node(TABLES_NID).node(RibSupportUtils.toYangTablesKey(tablesKey));
         /*
@@ -94,6 +138,7 @@ final class AdjRibOutListener implements ClusteredDOMDataTreeChangeListener, Pre
          *  send EOR marker. initialState flag is distinguishing between first ODTC execution and the rest.
          */
         this.initalState = true;
+        this.writableRegistration = session.registerWritableListener(this::sendPendingRoutes);
         this.registerDataTreeChangeListener = service.registerDataTreeChangeListener(
                 new DOMDataTreeIdentifier(LogicalDatastoreType.OPERATIONAL, adjRibOutId), this);
     }
@@ -107,56 +152,146 @@ final class AdjRibOutListener implements ClusteredDOMDataTreeChangeListener, Pre
             final @NonNull DOMDataTreeChangeService service,
             final @NonNull ChannelOutputLimiter session,
             final boolean mpSupport) {
-        return new AdjRibOutListener(peerId, tablesKey, ribId, registry, support, service, session, mpSupport);
+        return create(peerId, tablesKey, ribId, registry, support, service, session, mpSupport, false);
+    }
+
+    static AdjRibOutListener create(
+            final @NonNull PeerId peerId,
+            final @NonNull TablesKey tablesKey,
+            final @NonNull YangInstanceIdentifier ribId,
+            final @NonNull CodecsRegistry registry,
+            final @NonNull RIBSupport<?, ?, ?, ?> support,
+            final @NonNull DOMDataTreeChangeService service,
+            final @NonNull ChannelOutputLimiter session,
+            final boolean mpSupport,
+            final boolean extendedMessages) {
+        return new AdjRibOutListener(peerId, tablesKey, ribId, registry, support, service, session, mpSupport,
+                extendedMessages);
     }
 
     @Override
     public void onDataTreeChanged(final Collection<DataTreeCandidate> changes) {
         LOG.debug("Data change received for AdjRibOut {}", changes);
-        for (final DataTreeCandidate tc : changes) {
-            LOG.trace("Change {} type {}", tc.getRootNode(), tc.getRootNode().getModificationType());
-            for (final DataTreeCandidateNode child : tc.getRootNode().getChildNodes()) {
-                processSupportedFamilyRoutes(child);
+        synchronized (this) {
+            // Only the last change of a particular route matters, as we are sending the resulting state
+            for (final DataTreeCandidate tc : changes) {
+                LOG.trace("Change {} type {}", tc.getRootNode(), tc.getRootNode().getModificationType());
+                for (final DataTreeCandidateNode child : tc.getRootNode().getChildNodes()) {
+                    for (final DataTreeCandidateNode route : this.support.changedRoutes(child)) {
+                        this.pendingRoutes.remove(route.getIdentifier());
+                        this.pendingRoutes.put(route.getIdentifier(), route);
+                    }
+                }
             }
         }
-        if (initalState) {
-            final Update endOfRib = BgpPeerUtil.createEndOfRib(this.tablesKey);
-            this.session.write(endOfRib);
-            this.initalState = false;
+        sendPendingRoutes();
+    }
+
+    /**
+     * Send pending route changes to the session. Writes are issued without holding this object's lock, as the session
+     * holds its own lock while writing and calls close() with it held when it goes down. Only a single thread drains
+     * at any given time, so that changes are written in order. Callers arriving while another thread is draining only
+     * request another round from it.
+     */
+    private void sendPendingRoutes() {
+        synchronized (this) {
+            if (this.draining) {
+                this.drainRequested = true;
+                return;
+            }
+            this.draining = true;
+        }
+
+        do {
+            drainPendingRoutes();
+        } while (continueDraining());
+    }
+
+    private void drainPendingRoutes() {
+        while (true) {
+            final List<DataTreeCandidateNode> batch;
+            synchronized (this) {
+                if (this.closed) {
+                    this.pendingRoutes.clear();
+                    return;
+                }
+                if (this.pendingRoutes.isEmpty()) {
+                    break;
+                }
+                if (this.session.isBlocked()) {
+                    LOG.debug("Session not writable, deferring {} route changes of table {}",
+                        this.pendingRoutes.size(), this.tablesKey);
+                    batch = null;
+                } else {
+                    batch = new ArrayList<>(Math.min(this.pendingRoutes.size(), DRAIN_BATCH_SIZE));
+                    final Iterator<DataTreeCandidateNode> it = this.pendingRoutes.values().iterator();
+                    while (it.hasNext() && batch.size() < DRAIN_BATCH_SIZE) {
+                        batch.add(it.next());
+                        it.remove();
+                    }
+                }
+            }
+
+            if (batch == null) {
+                this.session.flush();
+                return;
+            }
+            processRouteChanges(batch);
+        }
+
+        // End-of-RIB has to follow all routes present at the time we have registered
+        if (takeEndOfRib()) {
+            this.session.write(BgpPeerUtil.createEndOfRib(this.tablesKey));
         }
         this.session.flush();
     }
 
-    private void processSupportedFamilyRoutes(final DataTreeCandidateNode child) {
-        final Collection<DataTreeCandidateNode> changedRoutes = this.support.changedRoutes(child);
-        for (final DataTreeCandidateNode route : changedRoutes) {
-            processRouteChange(route);
+    private synchronized boolean takeEndOfRib() {
+        if (!this.initalState || this.closed) {
+            return false;
         }
+        this.initalState = false;
+        return true;
     }
 
-    private void processRouteChange(final DataTreeCandidateNode route) {
-        final Update update;
-        switch (route.getModificationType()) {
-            case UNMODIFIED:
-                LOG.debug("Skipping unmodified route {}", route.getIdentifier());
-                return;
-            case DELETE:
-            case DISAPPEARED:
-                // FIXME: we can batch deletions into a single batch
-                update = withdraw((MapEntryNode) route.getDataBefore().get());
-                LOG.debug("Withdrawing routes {}", update);
-                break;
-            case APPEARED:
-            case SUBTREE_MODIFIED:
-            case WRITE:
-                update = advertise((MapEntryNode) route.getDataAfter().get());
-                LOG.debug("Advertising routes {}", update);
-                break;
-            default:
-                LOG.warn("Ignoring unhandled modification type {}", route.getModificationType());
-                return;
+    private synchronized boolean continueDraining() {
+        if (this.drainRequested && !this.closed) {
+            this.drainRequested = false;
+            return true;
         }
-        this.session.write(update);
+        this.drainRequested = false;
+        this.draining = false;
+        return false;
+    }
+
+    private void processRouteChanges(final Collection<DataTreeCandidateNode> changedRoutes) {
+        final List<MapEntryNode> withdrawn = new ArrayList<>();
+        final Map<Attributes, List<MapEntryNode>> advertised = new LinkedHashMap<>();
+        for (final DataTreeCandidateNode route : changedRoutes) {
+            switch (route.getModificationType()) {
+                case UNMODIFIED:
+                    LOG.debug("Skipping unmodified route {}", route.getIdentifier());
+                    break;
+                case DELETE:
+                case DISAPPEARED:
+                    withdrawn.add((MapEntryNode) route.getDataBefore().get());
+                    break;
+                case APPEARED:
+                case SUBTREE_MODIFIED:
+                case WRITE:
+                    final MapEntryNode after = (MapEntryNode) route.getDataAfter().get();
+                    advertised.computeIfAbsent(routeAttributes(after), key -> new ArrayList<>()).add(after);
+                    break;
+                default:
+                    LOG.warn("Ignoring unhandled modification type {}", route.getModificationType());
+                    break;
+            }
+        }
+
+        if (!withdrawn.isEmpty()) {
+            withdraw(withdrawn);
+        }
+        advertised.forEach(this::advertise);
     }
 
     private Attributes routeAttributes(final MapEntryNode route) {
@@ -168,25 +303,125 @@ final class AdjRibOutListener implements ClusteredDOMDataTreeChangeListener, Pre
         return this.codecs.deserializeAttributes(advertisedAttrs);
     }
 
-    private Update withdraw(final MapEntryNode route) {
-        if (!this.mpSupport) {
-            return buildUpdate(Collections.emptyList(), Collections.singleton(route), routeAttributes(route));
+    private void withdraw(final List<MapEntryNode> routes) {
+        final Attributes attr = this.mpSupport ? EMPTY_ATTRIBUTES : null;
+        int offset = 0;
+        while (offset < routes.size()) {
+            final int end = packRoutes(routes, offset, attr);
+            final Update update = createUpdate(ImmutableList.of(), routes.subList(offset, end), attr);
+            LOG.debug("Withdrawing routes {}", update);
+            this.session.write(update);
+            offset = end;
+        }
+    }
+
+    private void advertise(final Attributes attr, final List<MapEntryNode> routes) {
+        int offset = 0;
+        while (offset < routes.size()) {
+            final int end = packRoutes(routes, offset, attr);
+            final Update update = createUpdate(routes.subList(offset, end), ImmutableList.of(), attr);
+            LOG.debug("Advertising routes {}", update);
+            this.prefixesSentCounter.add(end - offset);
+            this.session.write(update);
+            offset = end;
+        }
+    }
+
+    /**
+     * Find the end of a run of routes starting at specified offset, which fits into a single UPDATE message.
+     *
+     * @param routes Routes to pack
+     * @param offset Offset of the first route
+     * @param attr Attributes which will be attached to the UPDATE message, null if there are none
+     * @return Offset of the first route which does not fit, always greater than {@code offset}
+     */
+    private int packRoutes(final List<MapEntryNode> routes, final int offset, final @Nullable Attributes attr) {
+        // Keep a generous reserve for attributes, as we do not know their exact encoding here
+        final int budget = this.maxMessageSize - UPDATE_OVERHEAD
+                - Math.max(this.maxMessageSize / 2, estimateAttributesSize(attr));
+        int used = 0;
+        int end = offset;
+        while (end < routes.size()) {
+            final int size = estimateNlriSize(routes.get(end));
+            if (size < 0) {
+                // Unknown encoding, the route has to go on its own
+                return end == offset ? end + 1 : end;
+            }
+            if (end != offset && used + size > budget) {
+                break;
+            }
+            used += size;
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Estimate the size of a route's NLRI encoding. This is possible only for routes keyed by an IP prefix.
+     *
+     * @param route Route
+     * @return Upper bound of NLRI size in bytes, or -1 if it cannot be determined
+     */
+    private int estimateNlriSize(final MapEntryNode route) {
+        final Optional<DataContainerChild<? extends PathArgument, ?>> prefix = route.getChild(this.routeKeyPrefixLeaf);
+        if (!prefix.isPresent() || !(prefix.get().getValue() instanceof String)) {
+            return -1;
+        }
+        final String value = (String) prefix.get().getValue();
+        final int slash = value.lastIndexOf('/');
+        final int prefixLength;
+        try {
+            prefixLength = Integer.parseInt(value.substring(slash + 1));
+        } catch (final NumberFormatException e) {
+            LOG.debug("Failed to parse prefix length of {}", value, e);
+            return -1;
+        }
+        final int size = 1 + (prefixLength + Byte.SIZE - 1) / Byte.SIZE;
+        return route.getChild(this.routeKeyPathIdLeaf).isPresent() ? size + PATH_ID_SIZE : size;
+    }
+
+    private static int estimateAttributesSize(final @Nullable Attributes attr) {
+        int size = FIXED_ATTRIBUTES_SIZE;
+        if (attr == null) {
+            return size;
+        }
+        if (attr.getAsPath() != null && attr.getAsPath().getSegments() != null) {
+            size += ATTRIBUTE_HEADER_SIZE;
+            for (final Segments segment : attr.getAsPath().getSegments()) {
+                final int count = (segment.getAsSequence() != null ? segment.getAsSequence().size() : 0)
+                        + (segment.getAsSet() != null ? segment.getAsSet().size() : 0);
+                size += 2 + Integer.BYTES * count;
+            }
+        }
+        if (attr.getCommunities() != null) {
+            size += ATTRIBUTE_HEADER_SIZE + Integer.BYTES * attr.getCommunities().size();
+        }
+        if (attr.getExtendedCommunities() != null) {
+            size += ATTRIBUTE_HEADER_SIZE + Long.BYTES * attr.getExtendedCommunities().size();
+        }
+        if (attr.getClusterId() != null && attr.getClusterId().getCluster() != null) {
+            size += ATTRIBUTE_HEADER_SIZE + Integer.BYTES * attr.getClusterId().getCluster().size();
+        }
+        if (attr.getUnrecognizedAttributes() != null) {
+            for (final UnrecognizedAttributes unrecognized : attr.getUnrecognizedAttributes()) {
+                size += ATTRIBUTE_HEADER_SIZE + unrecognized.getValue().length;
+            }
         }
-        return this.support.buildUpdate(Collections.emptyList(), Collections.singleton(route), routeAttributes(route));
+        return size;
     }
 
-    private Update advertise(final MapEntryNode route) {
-        this.prefixesSentCounter.increment();
+    private Update createUpdate(final Collection<MapEntryNode> advertised, final Collection<MapEntryNode> withdrawn,
+            final @Nullable Attributes attr) {
         if (!this.mpSupport) {
-            return buildUpdate(Collections.singleton(route), Collections.emptyList(), routeAttributes(route));
+            return buildUpdate(advertised, withdrawn, attr);
         }
-        return this.support.buildUpdate(Collections.singleton(route), Collections.emptyList(), routeAttributes(route));
+        return this.support.buildUpdate(advertised, withdrawn, attr);
     }
 
     private Update buildUpdate(
             final @NonNull Collection<MapEntryNode> advertised,
             final @NonNull Collection<MapEntryNode> withdrawn,
-            final @NonNull Attributes attr) {
+            final @Nullable Attributes attr) {
         final UpdateBuilder ub = new UpdateBuilder().setWithdrawnRoutes(extractWithdrawnRoutes(withdrawn))
                 .setNlri(extractNlris(advertised));
         ub.setAttributes(attr);
@@ -214,8 +449,15 @@ final class AdjRibOutListener implements ClusteredDOMDataTreeChangeListener, Pre
         return pathId.map(dataContainerChild -> new PathId((Long) dataContainerChild.getValue())).orElse(null);
     }
 
+    /**
+     * Stop listening and sending route changes. This method is invoked with the session's lock held, hence it does not
+     * take this object's lock. A thread draining pending routes notices the listener has been closed before sending
+     * its next batch.
+     */
     public void close() {
+        this.closed = true;
         this.registerDataTreeChangeListener.close();
+        this.writableRegistration.close();
     }
 
     boolean isMpSupported() {
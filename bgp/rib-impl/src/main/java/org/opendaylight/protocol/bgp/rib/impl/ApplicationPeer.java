@@ -21,11 +21,9 @@ import com.google.common.net.InetAddresses;
 import com.google.common.util.concurrent.FluentFuture;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.MoreExecutors;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 import org.opendaylight.mdsal.binding.api.Transaction;
 import org.opendaylight.mdsal.binding.api.TransactionChain;
@@ -113,8 +111,8 @@ public class ApplicationPeer extends AbstractPeer implements ClusteredDOMDataTre
     private YangInstanceIdentifier peerPath;
 
     @Override
-    public List<RouteTarget> getMemberships() {
-        return Collections.emptyList();
+    public Set<RouteTarget> getMemberships() {
+        return Collections.emptySet();
     }
 
     @FunctionalInterface
@@ -163,7 +161,7 @@ public class ApplicationPeer extends AbstractPeer implements ClusteredDOMDataTre
                 Collections.emptyMap(), registerAppPeerListener);
         this.effectiveRibInWriter = new EffectiveRibInWriter(this, this.rib,
                 this.rib.createPeerDOMChain(this), this.peerPath, localTables, this.tableTypeRegistry,
-                new ArrayList<>(), this.rtCache);
+                new RouteTargetMemberships(), this.rtCache);
         this.effectiveRibInWriter.init();
         this.bgpSessionState.registerMessagesCounter(this);
         this.trackerRegistration = this.rib.getPeerTracker().registerPeer(this);
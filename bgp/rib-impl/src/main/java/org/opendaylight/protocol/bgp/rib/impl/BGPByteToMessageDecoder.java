@@ -19,6 +19,7 @@ import org.opendaylight.protocol.bgp.parser.BGPParsingException;
 import org.opendaylight.protocol.bgp.parser.spi.MessageRegistry;
 import org.opendaylight.protocol.bgp.parser.spi.PeerConstraint;
 import org.opendaylight.protocol.bgp.parser.spi.PeerSpecificParserConstraintProvider;
+import org.opendaylight.protocol.bgp.parser.spi.pojo.ParsedAttributesCache;
 import org.opendaylight.protocol.bgp.parser.spi.pojo.PeerSpecificParserConstraintImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,14 +28,32 @@ final class BGPByteToMessageDecoder extends ByteToMessageDecoder {
     private static final Logger LOG = LoggerFactory.getLogger(BGPByteToMessageDecoder.class);
     private final MessageRegistry registry;
     private final PeerSpecificParserConstraintProvider constraints;
+    private final ParsedAttributesCache attributesCache = new ParsedAttributesCache();
 
     BGPByteToMessageDecoder(final MessageRegistry registry) {
         this.constraints = new PeerSpecificParserConstraintImpl();
+        this.constraints.addPeerConstraint(ParsedAttributesCache.class, this.attributesCache);
         this.registry = requireNonNull(registry);
     }
 
     <T extends PeerConstraint> boolean addDecoderConstraint(final Class<T> classType, final T peerConstraint) {
-        return this.constraints.addPeerConstraint(classType, peerConstraint);
+        final boolean added = this.constraints.addPeerConstraint(classType, peerConstraint);
+        if (added) {
+            // Attributes parsed so far may have been interpreted differently
+            this.attributesCache.invalidate();
+        }
+        return added;
+    }
+
+    ParsedAttributesCache getAttributesCache() {
+        return this.attributesCache;
+    }
+
+    @Override
+    protected void handlerRemoved0(final ChannelHandlerContext ctx) {
+        LOG.debug("Parsed attributes cache statistics {}, hit rate {}", this.attributesCache,
+            this.attributesCache.getHitRate());
+        this.attributesCache.invalidate();
     }
 
     @Override
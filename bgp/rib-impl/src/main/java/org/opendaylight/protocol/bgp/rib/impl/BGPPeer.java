@@ -23,6 +23,7 @@ import com.google.common.util.concurrent.FluentFuture;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.netty.util.concurrent.ScheduledFuture;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -51,6 +52,7 @@ import org.opendaylight.protocol.bgp.rib.impl.config.BgpPeer;
 import org.opendaylight.protocol.bgp.rib.impl.config.GracefulRestartUtil;
 import org.opendaylight.protocol.bgp.rib.impl.spi.BGPSessionPreferences;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIB;
+import org.opendaylight.protocol.bgp.rib.impl.spi.UpdateBatchingPreferences;
 import org.opendaylight.protocol.bgp.rib.impl.state.BGPSessionStateProvider;
 import org.opendaylight.protocol.bgp.rib.spi.BGPSession;
 import org.opendaylight.protocol.bgp.rib.spi.BGPSessionListener;
@@ -117,7 +119,7 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
     private ImmutableSet<TablesKey> tables = ImmutableSet.of();
     private final RIB rib;
     private final Map<TablesKey, AdjRibOutListener> adjRibOutListenerSet = new HashMap<>();
-    private final List<RouteTarget> rtMemberships = new ArrayList<>();
+    private final RouteTargetMemberships rtMemberships = new RouteTargetMemberships();
     private final RpcProviderService rpcRegistry;
     private final BGPTableTypeRegistryConsumer tableTypeRegistry;
     private final BgpPeer bgpPeer;
@@ -149,6 +151,8 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
     private Stopwatch peerRestartStopwatch;
     private long currentSelectionDeferralTimerSeconds;
     private final List<TablesKey> missingEOT = new ArrayList<>();
+    @GuardedBy("this")
+    private ScheduledFuture<?> batchFlushFuture;
 
     public BGPPeer(
             final BGPTableTypeRegistryConsumer tableTypeRegistry,
@@ -235,7 +239,9 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
     }
 
     public synchronized void instantiateServiceInstance() {
-        this.ribWriter = AdjRibInWriter.create(this.rib.getYangRibId(), this.peerRole, this);
+        final UpdateBatchingPreferences batching = this.bgpPeer.getUpdateBatching()
+                .orElse(UpdateBatchingPreferences.DISABLED);
+        this.ribWriter = AdjRibInWriter.create(this.rib.getYangRibId(), this.peerRole, this, batching);
         setActive(true);
     }
 
@@ -318,6 +324,10 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
             mpUnreach = MessageUtil.getMpUnreachNlri(attrs);
         }
         final boolean endOfRib = BgpPeerUtil.isEndOfRib(message);
+        if (endOfRib) {
+            // End-of-RIB always completes any pending batch
+            this.ribWriter.flushBatch();
+        }
         if (mpUnreach != null) {
             if (endOfRib) {
                 final TablesKey tablesKey = new TablesKey(mpUnreach.getAfi(), mpUnreach.getSafi());
@@ -332,6 +342,36 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
             this.missingEOT.remove(IPV4_UCAST_TABLE_KEY);
             handleGracefulEndOfRib();
         }
+        scheduleBatchFlush();
+    }
+
+    @Holding("this")
+    private void scheduleBatchFlush() {
+        if (!this.ribWriter.isBatchPending()) {
+            // The batch has been flushed because it reached its size limit, the linger timer is no longer needed
+            cancelBatchFlush();
+        } else if (this.batchFlushFuture == null && this.currentSession != null) {
+            this.batchFlushFuture = this.currentSession.schedule(this::flushUpdateBatch,
+                this.ribWriter.getBatching().getLingerNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Holding("this")
+    private void cancelBatchFlush() {
+        if (this.batchFlushFuture != null) {
+            this.batchFlushFuture.cancel(false);
+            this.batchFlushFuture = null;
+        }
+    }
+
+    /**
+     * Commit pending batch of route updates once its linger time has expired.
+     */
+    private synchronized void flushUpdateBatch() {
+        this.batchFlushFuture = null;
+        if (this.ribWriter != null) {
+            this.ribWriter.flushBatch();
+        }
     }
 
     @Holding("this")
@@ -340,7 +380,7 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
             if (this.missingEOT.isEmpty()) {
                 createEffRibInWriter();
                 this.effRibInWriter.init();
-                registerPrefixesCounters(this.effRibInWriter, this.effRibInWriter);
+                registerPrefixesCounters(this.effRibInWriter, this.effRibInWriter, this.effRibInWriter);
                 for (final TablesKey key : getAfiSafisAdvertized()) {
                     createAdjRibOutListener(key, true);
                 }
@@ -387,7 +427,7 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
             this.peerRibOutIId = peerIId.child(AdjRibOut.class);
             this.trackerRegistration = this.rib.getPeerTracker().registerPeer(this);
             createEffRibInWriter();
-            registerPrefixesCounters(this.effRibInWriter, this.effRibInWriter);
+            registerPrefixesCounters(this.effRibInWriter, this.effRibInWriter, this.effRibInWriter);
 
             this.effRibInWriter.init();
             this.ribWriter = this.ribWriter.transform(this.peerId, this.peerPath, this.rib.getRibSupportContext(),
@@ -424,6 +464,9 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
             setAdvertizedGracefulRestartTableTypes(advertisedTables.stream()
                     .map(t -> new TablesKey(t.getAfi(), t.getSafi())).collect(Collectors.toList()));
         }
+        // Only routes which may be retained across graceful restart need to be tracked
+        this.ribWriter.trackGracefulTables(this.tables.stream().filter(this::isGracefulRestartReceived)
+                .collect(Collectors.toSet()));
         setAfiSafiGracefulRestartState(advertisedGracefulRestartCapability.getRestartTime(), false, restartingLocally);
 
         final Map<TablesKey, Integer> llTablesReceived;
@@ -490,10 +533,10 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
 
         // not particularly nice
         if (ribSupport != null && this.currentSession instanceof BGPSessionImpl) {
-            final ChannelOutputLimiter limiter = ((BGPSessionImpl) this.currentSession).getLimiter();
+            final BGPSessionImpl session = (BGPSessionImpl) this.currentSession;
             final AdjRibOutListener adjRibOut = AdjRibOutListener.create(this.peerId, key,
                     this.rib.getYangRibId(), this.rib.getCodecsRegistry(), ribSupport,
-                    this.rib.getService(), limiter, mpSupport);
+                    this.rib.getService(), session.getLimiter(), mpSupport, session.isExtendedMessageSupported());
             this.adjRibOutListenerSet.put(key, adjRibOut);
             registerPrefixesSentCounter(key, adjRibOut);
         }
@@ -524,6 +567,8 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
     public synchronized FluentFuture<? extends CommitInfo> releaseConnection() {
         LOG.info("Closing session with peer");
         this.sessionUp = false;
+        cancelBatchFlush();
+        this.ribWriter.flushBatch();
         this.adjRibOutListenerSet.values().forEach(AdjRibOutListener::close);
         this.adjRibOutListenerSet.clear();
         final FluentFuture<? extends CommitInfo> future;
@@ -690,8 +735,8 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
     }
 
     @Override
-    public List<RouteTarget> getMemberships() {
-        return this.rtMemberships;
+    public Set<RouteTarget> getMemberships() {
+        return this.rtMemberships.getMemberships();
     }
 
     @Override
@@ -126,6 +126,7 @@ public class BGPSessionImpl extends SimpleChannelInboundHandler<Notification> im
     private final BGPSessionStateImpl sessionState;
     private final GracefulRestartCapability gracefulCapability;
     private final LlGracefulRestartCapability llGracefulCapability;
+    private final boolean extendedMessageSupport;
     private boolean terminationReasonNotified;
 
     public BGPSessionImpl(final BGPSessionListener listener, final Channel channel, final Open remoteOpen,
@@ -194,8 +195,13 @@ public class BGPSessionImpl extends SimpleChannelInboundHandler<Notification> im
             channel.eventLoop().schedule(this::handleKeepaliveTimer, this.keepAlive, TimeUnit.SECONDS);
         }
         this.bgpId = remoteOpen.getBgpIdentifier();
+        this.extendedMessageSupport = BgpExtendedMessageUtil.advertizedBgpExtendedMessageCapability(remoteOpen);
         this.sessionState.advertizeCapabilities(this.holdTimerValue, channel.remoteAddress(), channel.localAddress(),
                 this.tableTypes, bgpParameters);
+        final BGPByteToMessageDecoder decoder = channel.pipeline().get(BGPByteToMessageDecoder.class);
+        if (decoder != null) {
+            this.sessionState.registerAttributesCache(decoder.getAttributesCache());
+        }
     }
 
     private static <T extends ChildOf<MpCapabilities>> Optional<T> findSingleCapability(
@@ -510,6 +516,16 @@ public class BGPSessionImpl extends SimpleChannelInboundHandler<Notification> im
         return this.limiter;
     }
 
+    /**
+     * Returns true if the remote peer advertised BGP Extended Message capability, hence UPDATE messages up to
+     * 65535 bytes can be sent to it.
+     *
+     * @return true if extended messages are supported
+     */
+    public boolean isExtendedMessageSupported() {
+        return this.extendedMessageSupport;
+    }
+
     @Override
     @SuppressWarnings("checkstyle:illegalCatch")
     public final void channelInactive(final ChannelHandlerContext ctx) {
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.function.Function;
+import org.opendaylight.protocol.bgp.rib.impl.spi.LocRibPrefixIndex;
+import org.opendaylight.protocol.bgp.rib.impl.spi.RIB;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.loc.rib.rpc.rev191001.BgpLocRibRpcService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.loc.rib.rpc.rev191001.CoveredPrefixesInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.loc.rib.rpc.rev191001.CoveredPrefixesOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.loc.rib.rpc.rev191001.CoveredPrefixesOutputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.loc.rib.rpc.rev191001.CoveringPrefixesInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.loc.rib.rpc.rev191001.CoveringPrefixesOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.loc.rib.rpc.rev191001.CoveringPrefixesOutputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.loc.rib.rpc.rev191001.LocRibQuery;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.loc.rib.rpc.rev191001.LongestPrefixMatchInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.loc.rib.rpc.rev191001.LongestPrefixMatchOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.loc.rib.rpc.rev191001.LongestPrefixMatchOutputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.TablesKey;
+import org.opendaylight.yangtools.yang.common.RpcError.ErrorType;
+import org.opendaylight.yangtools.yang.common.RpcResult;
+import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
+
+/**
+ * Prefix queries on Loc-RIB tables of a RIB, answered from {@link LocRibPrefixIndex}.
+ */
+public final class BgpLocRibRpc implements BgpLocRibRpcService {
+    private static final String FAILURE_MSG = "Loc-RIB table not present or its prefixes are not indexed";
+
+    private final RIB rib;
+
+    public BgpLocRibRpc(final RIB rib) {
+        this.rib = requireNonNull(rib);
+    }
+
+    @Override
+    public ListenableFuture<RpcResult<LongestPrefixMatchOutput>> longestPrefixMatch(
+            final LongestPrefixMatchInput input) {
+        return query(input, index -> new LongestPrefixMatchOutputBuilder()
+            .setRouteKey(index.longestMatch(input.getAddress())).build());
+    }
+
+    @Override
+    public ListenableFuture<RpcResult<CoveringPrefixesOutput>> coveringPrefixes(final CoveringPrefixesInput input) {
+        return query(input, index -> new CoveringPrefixesOutputBuilder()
+            .setRouteKey(index.covering(input.getPrefix())).build());
+    }
+
+    @Override
+    public ListenableFuture<RpcResult<CoveredPrefixesOutput>> coveredPrefixes(final CoveredPrefixesInput input) {
+        return query(input, index -> new CoveredPrefixesOutputBuilder()
+            .setRouteKey(index.coveredBy(input.getPrefix())).build());
+    }
+
+    private <T> ListenableFuture<RpcResult<T>> query(final LocRibQuery input,
+            final Function<LocRibPrefixIndex, T> query) {
+        final TablesKey tableKey = new TablesKey(input.getAfi(), input.getSafi());
+        final LocRibPrefixIndex index = this.rib.getLocRibPrefixIndex(tableKey);
+        if (index == null) {
+            return RpcResultBuilder.<T>failed().withError(ErrorType.RPC, FAILURE_MSG + ": " + tableKey)
+                .buildFuture();
+        }
+        return RpcResultBuilder.success(query.apply(index)).buildFuture();
+    }
+}
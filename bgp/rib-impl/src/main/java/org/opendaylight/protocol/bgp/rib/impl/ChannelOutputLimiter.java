@@ -12,19 +12,25 @@ import static java.util.Objects.requireNonNull;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import org.opendaylight.yangtools.concepts.AbstractRegistration;
+import org.opendaylight.yangtools.concepts.Registration;
 import org.opendaylight.yangtools.yang.binding.Notification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A best-effort output limiter. It does not provide any fairness, and acts as a blocking gate-keeper
- * for a sessions' channel.
+ * A best-effort output limiter. It does not provide any fairness and it never blocks writers. Instead it tracks
+ * writability of a session's channel, so that producers of bulk output, such as {@link AdjRibOutListener}, can hold
+ * back their output while the peer is not keeping up and resume once the channel becomes writable again.
  *
  * <p>
  * This class is thread-safe.
  */
 public final class ChannelOutputLimiter extends ChannelInboundHandlerAdapter {
     private static final Logger LOG = LoggerFactory.getLogger(ChannelOutputLimiter.class);
+    private final Set<Runnable> writableListeners = new CopyOnWriteArraySet<>();
     private final BGPSessionImpl session;
     private volatile boolean blocked;
 
@@ -32,32 +38,37 @@ public final class ChannelOutputLimiter extends ChannelInboundHandlerAdapter {
         this.session = requireNonNull(session);
     }
 
-    private void ensureWritable() {
-        if (this.blocked) {
-            LOG.trace("Blocked slow path tripped on session {}", this.session);
-            synchronized (this) {
-                while (this.blocked) {
-                    try {
-                        LOG.debug("Waiting for session {} to become writable", this.session);
-                        flush();
-                        this.wait();
-                    } catch (final InterruptedException e) {
-                        throw new IllegalStateException("Interrupted while waiting for channel to come back", e);
-                    }
-                }
+    /**
+     * Check whether the session's channel is currently unable to accept more output without buffering it.
+     *
+     * @return True if writes should be held back
+     */
+    boolean isBlocked() {
+        return this.blocked;
+    }
 
-                LOG.debug("Resuming write on session {}", this.session);
+    /**
+     * Register a listener which is invoked when the session's channel becomes writable again. Listeners are invoked
+     * from the channel's event loop, outside of any locks held by writers.
+     *
+     * @param listener Listener to invoke
+     * @return Registration, which needs to be closed when the listener is no longer interested
+     */
+    Registration registerWritableListener(final Runnable listener) {
+        this.writableListeners.add(requireNonNull(listener));
+        return new AbstractRegistration() {
+            @Override
+            protected void removeRegistration() {
+                ChannelOutputLimiter.this.writableListeners.remove(listener);
             }
-        }
+        };
     }
 
     public void write(final Notification msg) {
-        ensureWritable();
         this.session.write(msg);
     }
 
     ChannelFuture writeAndFlush(final Notification msg) {
-        ensureWritable();
         return this.session.writeAndFlush(msg);
     }
 
@@ -65,17 +76,29 @@ public final class ChannelOutputLimiter extends ChannelInboundHandlerAdapter {
         this.session.flush();
     }
 
+    @SuppressWarnings("checkstyle:illegalCatch")
+    private void notifyWritable() {
+        for (final Runnable listener : this.writableListeners) {
+            if (this.blocked) {
+                LOG.debug("Session {} blocked again, deferring remaining listeners", this.session);
+                return;
+            }
+            try {
+                listener.run();
+            } catch (final RuntimeException e) {
+                LOG.warn("Writable listener {} failed on session {}", listener, this.session, e);
+            }
+        }
+    }
+
     @Override
     public void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
         final boolean w = ctx.channel().isWritable();
-
-        synchronized (this) {
-            this.blocked = !w;
-            LOG.debug("Writes on session {} {}", this.session, w ? "unblocked" : "blocked");
-
-            if (w) {
-                notifyAll();
-            }
+        this.blocked = !w;
+        LOG.debug("Writes on session {} {}", this.session, w ? "unblocked" : "blocked");
+        if (w) {
+            // We may have been invoked from within a write, do not let listeners run under its locks
+            ctx.executor().execute(this::notifyWritable);
         }
 
         super.channelWritabilityChanged(ctx);
@@ -83,10 +106,7 @@ public final class ChannelOutputLimiter extends ChannelInboundHandlerAdapter {
 
     @Override
     public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
-        synchronized (this) {
-            this.blocked = false;
-            notifyAll();
-        }
+        this.blocked = false;
 
         super.channelInactive(ctx);
     }
@@ -26,6 +26,7 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.MoreExecutors;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -39,18 +40,22 @@ import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
 import org.opendaylight.mdsal.dom.api.ClusteredDOMDataTreeChangeListener;
 import org.opendaylight.mdsal.dom.api.DOMDataTreeChangeService;
 import org.opendaylight.mdsal.dom.api.DOMDataTreeIdentifier;
+import org.opendaylight.mdsal.dom.api.DOMDataTreeReadTransaction;
 import org.opendaylight.mdsal.dom.api.DOMDataTreeWriteTransaction;
 import org.opendaylight.mdsal.dom.api.DOMTransactionChain;
 import org.opendaylight.protocol.bgp.openconfig.spi.BGPTableTypeRegistryConsumer;
 import org.opendaylight.protocol.bgp.parser.impl.message.update.CommunityUtil;
+import org.opendaylight.protocol.bgp.rib.impl.ImportPolicyMemo.Result;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIB;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIBSupportContext;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIBSupportContextRegistry;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RibOutRefresh;
+import org.opendaylight.protocol.bgp.rib.impl.state.peer.ImportPolicyCacheCounters;
 import org.opendaylight.protocol.bgp.rib.impl.state.peer.PrefixesInstalledCounters;
 import org.opendaylight.protocol.bgp.rib.impl.state.peer.PrefixesReceivedCounters;
 import org.opendaylight.protocol.bgp.rib.spi.RIBNormalizedNodes;
 import org.opendaylight.protocol.bgp.rib.spi.RIBSupport;
+import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRibPolicyChangeListener;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRibRoutingPolicy;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
 import org.opendaylight.protocol.bgp.route.targetcontrain.spi.ClientRouteTargetContrainCache;
@@ -58,6 +63,7 @@ import org.opendaylight.protocol.bgp.route.targetcontrain.spi.RouteTargetMembesh
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.AfiSafiType;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.Communities;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerRole;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.TablesKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.route.target.constrain.rev180618.RouteTargetConstrainSubsequentAddressFamily;
@@ -67,6 +73,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.type
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.MplsLabeledVpnSubsequentAddressFamily;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.RouteTarget;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.concepts.Registration;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
@@ -98,10 +105,19 @@ import org.slf4j.LoggerFactory;
  * 3) output admitting routes with edited attributes into /bgp-rib/rib/peer/effective-rib-in/tables/routes
  *
  * <p>
+ * If the routing policy allows it, the outcome of import policies is memoized per table, keyed by the advertised
+ * attributes, and discarded whenever import policies change.
+ *
+ * <p>
+ * When import policies change, routes last received from the peer are re-evaluated against them and the
+ * Effective-RIB-In tables are replaced with the outcome. Tables flagged LLGR_STALE are left alone, as their routes
+ * bypass import policies.
+ *
+ * <p>
  * This class is NOT thread-safe.
  */
 final class EffectiveRibInWriter implements PrefixesReceivedCounters, PrefixesInstalledCounters,
-        AutoCloseable, ClusteredDOMDataTreeChangeListener {
+        ImportPolicyCacheCounters, AutoCloseable, ClusteredDOMDataTreeChangeListener {
 
     private static final Logger LOG = LoggerFactory.getLogger(EffectiveRibInWriter.class);
     private static final TablesKey IVP4_VPN_TABLE_KEY = new TablesKey(Ipv4AddressFamily.class,
@@ -120,19 +136,28 @@ final class EffectiveRibInWriter implements PrefixesReceivedCounters, PrefixesIn
     private final YangInstanceIdentifier peerIId;
     private final YangInstanceIdentifier effRibTables;
     private final DOMDataTreeChangeService service;
-    private final List<RouteTarget> rtMemberships;
+    private final RouteTargetMemberships rtMemberships;
     private final RibOutRefresh vpnTableRefresher;
     private final ClientRouteTargetContrainCache rtCache;
     private ListenerRegistration<?> reg;
+    private Registration policyChangeReg;
     private DOMTransactionChain chain;
     private final Map<TablesKey, LongAdder> prefixesReceived;
     private final Map<TablesKey, LongAdder> prefixesInstalled;
+    private final Map<TablesKey, ImportPolicyMemo> importPolicyMemos;
     private final BGPRibRoutingPolicy ribPolicies;
     private final BGPRouteEntryImportParameters peerImportParameters;
     private final BGPTableTypeRegistryConsumer tableTypeRegistry;
     @GuardedBy("this")
     private FluentFuture<? extends CommitInfo> submitted;
-    private boolean rtMembershipsUpdated;
+    private final Set<RouteTarget> rtMembershipsUpdated = new HashSet<>();
+    // Adj-RIB-In tables as of the last processed change, re-imported when import policies change
+    @GuardedBy("this")
+    private Optional<NormalizedNode<?, ?>> adjRibInTables = Optional.empty();
+    // Bumped whenever Effective-RIB-In is written in reaction to an Adj-RIB-In change
+    @GuardedBy("this")
+    private long adjRibInVersion;
+    private volatile boolean importPolicyChanged;
 
     EffectiveRibInWriter(
             final BGPRouteEntryImportParameters peer,
@@ -141,7 +166,7 @@ final class EffectiveRibInWriter implements PrefixesReceivedCounters, PrefixesIn
             final YangInstanceIdentifier peerIId,
             final Set<TablesKey> tables,
             final BGPTableTypeRegistryConsumer tableTypeRegistry,
-            final List<RouteTarget> rtMemberships,
+            final RouteTargetMemberships rtMemberships,
             final ClientRouteTargetContrainCache rtCache) {
         this.registry = requireNonNull(rib.getRibSupportContext());
         this.chain = requireNonNull(chain);
@@ -150,6 +175,8 @@ final class EffectiveRibInWriter implements PrefixesReceivedCounters, PrefixesIn
         this.prefixesInstalled = buildPrefixesTables(tables);
         this.prefixesReceived = buildPrefixesTables(tables);
         this.ribPolicies = requireNonNull(rib.getRibPolicies());
+        this.importPolicyMemos = this.ribPolicies.isImportPolicyReusable() ? buildImportPolicyMemos(tables)
+                : ImmutableMap.of();
         this.service = requireNonNull(rib.getService());
         this.tableTypeRegistry = requireNonNull(tableTypeRegistry);
         this.peerImportParameters = peer;
@@ -163,6 +190,13 @@ final class EffectiveRibInWriter implements PrefixesReceivedCounters, PrefixesIn
             this.peerIId.node(ADJRIBIN_NID).node(TABLES_NID));
         LOG.debug("Registered Effective RIB on {}", this.peerIId);
         this.reg = requireNonNull(this.service).registerDataTreeChangeListener(treeId, this);
+        this.policyChangeReg = this.ribPolicies.registerPolicyChangeListener(new BGPRibPolicyChangeListener() {
+            @Override
+            public void onImportPolicyChanged() {
+                EffectiveRibInWriter.this.importPolicyChanged = true;
+                reimportRoutes();
+            }
+        });
     }
 
     private static Map<TablesKey, LongAdder> buildPrefixesTables(final Set<TablesKey> tables) {
@@ -171,6 +205,12 @@ final class EffectiveRibInWriter implements PrefixesReceivedCounters, PrefixesIn
         return b.build();
     }
 
+    private static Map<TablesKey, ImportPolicyMemo> buildImportPolicyMemos(final Set<TablesKey> tables) {
+        final ImmutableMap.Builder<TablesKey, ImportPolicyMemo> b = ImmutableMap.builder();
+        tables.forEach(table -> b.put(table, new ImportPolicyMemo()));
+        return b.build();
+    }
+
     @Override
     public synchronized void onDataTreeChanged(final Collection<DataTreeCandidate> changes) {
         if (this.chain == null) {
@@ -178,11 +218,14 @@ final class EffectiveRibInWriter implements PrefixesReceivedCounters, PrefixesIn
             return;
         }
 
+        invalidateImportPolicyMemos();
+
         LOG.trace("Data changed called to effective RIB. Change : {}", changes);
         DOMDataTreeWriteTransaction tx = null;
         for (final DataTreeCandidate tc : changes) {
             final YangInstanceIdentifier rootPath = tc.getRootPath();
             final DataTreeCandidateNode root = tc.getRootNode();
+            this.adjRibInTables = root.getDataAfter();
             for (final DataTreeCandidateNode table : root.getChildNodes()) {
                 if (tx == null) {
                     tx = this.chain.newWriteOnlyTransaction();
@@ -192,26 +235,130 @@ final class EffectiveRibInWriter implements PrefixesReceivedCounters, PrefixesIn
         }
 
         if (tx != null) {
-            final FluentFuture<? extends CommitInfo> future = tx.commit();
-            this.submitted = future;
-            future.addCallback(new FutureCallback<CommitInfo>() {
-                @Override
-                public void onSuccess(final CommitInfo result) {
-                    LOG.trace("Successful commit");
-                }
+            this.adjRibInVersion++;
+            commit(tx);
+        }
+        refreshRouteTargets();
+    }
 
-                @Override
-                public void onFailure(final Throwable trw) {
-                    LOG.error("Failed commit", trw);
-                }
-            }, MoreExecutors.directExecutor());
+    /**
+     * Re-apply import policies to the routes last received from the peer. Effective-RIB-In tables are read through
+     * our transaction chain, hence the read reflects all our writes, even those not committed yet.
+     */
+    private synchronized void reimportRoutes() {
+        if (this.chain == null) {
+            return;
+        }
+
+        final long version = this.adjRibInVersion;
+        final FluentFuture<Optional<NormalizedNode<?, ?>>> future;
+        try (DOMDataTreeReadTransaction tx = this.chain.newReadOnlyTransaction()) {
+            future = tx.read(LogicalDatastoreType.OPERATIONAL, this.effRibTables.node(TABLES_NID));
+        }
+        future.addCallback(new FutureCallback<Optional<NormalizedNode<?, ?>>>() {
+            @Override
+            public void onSuccess(final Optional<NormalizedNode<?, ?>> result) {
+                reimportRoutes(version, result);
+            }
+
+            @Override
+            public void onFailure(final Throwable throwable) {
+                LOG.error("Failed to read Effective RIB of {}, routes not re-imported", peerIId, throwable);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private synchronized void reimportRoutes(final long version, final Optional<NormalizedNode<?, ?>> effTables) {
+        if (this.chain == null) {
+            return;
+        }
+        if (version != this.adjRibInVersion) {
+            // Adj-RIB-In changes have been processed since the read, which does not reflect them, start over
+            reimportRoutes();
+            return;
+        }
+
+        invalidateImportPolicyMemos();
+        if (!this.adjRibInTables.isPresent()) {
+            return;
+        }
+
+        LOG.debug("Import policies changed, re-importing routes on {}", this.peerIId);
+        DOMDataTreeWriteTransaction tx = null;
+        for (final MapEntryNode table : extractMap(this.adjRibInTables).getValue()) {
+            final NodeIdentifierWithPredicates tableKey = table.getIdentifier();
+            final RIBSupportContext ribContext = this.registry.getRIBSupportContext(tableKey);
+            final Optional<NormalizedNode<?, ?>> effTable = NormalizedNodes.findNode(effTables, tableKey);
+            if (ribContext == null || !effTable.isPresent() || isLongLivedStaleTable(Optional.of(table))) {
+                continue;
+            }
+            if (tx == null) {
+                tx = this.chain.newWriteOnlyTransaction();
+            }
+            reimportTable(tx, ribContext.getRibSupport(), effectiveTablePath(tableKey), table, effTable);
+        }
+
+        if (tx != null) {
+            commit(tx);
+        }
+        refreshRouteTargets();
+    }
+
+    @Holding("this")
+    private void reimportTable(final DOMDataTreeWriteTransaction tx, final RIBSupport<?, ?, ?, ?> ribSupport,
+            final YangInstanceIdentifier effectiveTablePath, final MapEntryNode table,
+            final Optional<NormalizedNode<?, ?>> effTable) {
+        LOG.debug("Re-import Effective Table {}", effectiveTablePath);
+        onDeleteTable(ribSupport, effectiveTablePath, effTable);
+        tx.put(LogicalDatastoreType.OPERATIONAL, effectiveTablePath.node(ROUTES_NID), EMPTY_ROUTES);
+
+        final Optional<NormalizedNode<?, ?>> maybeRoutes = findRoutesMap(ribSupport,
+            NormalizedNodes.findNode(table, ROUTES_NID));
+        if (maybeRoutes.isPresent()) {
+            final YangInstanceIdentifier routesPath = routeMapPath(ribSupport, effectiveTablePath);
+            for (final MapEntryNode route : extractMap(maybeRoutes).getValue()) {
+                // Rejected routes are already gone, as the routes have been emptied above
+                importRoute(tx, ribSupport, routesPath.node(route.getIdentifier()), route,
+                    advertisedAttributes(ribSupport, route));
+            }
         }
+    }
 
-        //Refresh VPN Table if RT Memberships were updated
-        if (this.rtMembershipsUpdated) {
-            this.vpnTableRefresher.refreshTable(IVP4_VPN_TABLE_KEY, this.peerImportParameters.getFromPeerId());
-            this.vpnTableRefresher.refreshTable(IVP6_VPN_TABLE_KEY, this.peerImportParameters.getFromPeerId());
-            this.rtMembershipsUpdated = false;
+    @Holding("this")
+    private void invalidateImportPolicyMemos() {
+        if (this.importPolicyChanged) {
+            this.importPolicyChanged = false;
+            LOG.debug("Import policies changed, discarding memoized results on {}", this.peerIId);
+            this.importPolicyMemos.values().forEach(ImportPolicyMemo::invalidate);
+        }
+    }
+
+    @Holding("this")
+    private void commit(final DOMDataTreeWriteTransaction tx) {
+        final FluentFuture<? extends CommitInfo> future = tx.commit();
+        this.submitted = future;
+        future.addCallback(new FutureCallback<CommitInfo>() {
+            @Override
+            public void onSuccess(final CommitInfo result) {
+                LOG.trace("Successful commit");
+            }
+
+            @Override
+            public void onFailure(final Throwable trw) {
+                LOG.error("Failed commit", trw);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    @Holding("this")
+    private void refreshRouteTargets() {
+        //Refresh VPN routes carrying Route Targets whose membership was updated
+        if (!this.rtMembershipsUpdated.isEmpty()) {
+            final Set<RouteTarget> updated = ImmutableSet.copyOf(this.rtMembershipsUpdated);
+            this.rtMembershipsUpdated.clear();
+            final PeerId peerId = this.peerImportParameters.getFromPeerId();
+            this.vpnTableRefresher.refreshTable(IVP4_VPN_TABLE_KEY, peerId, updated);
+            this.vpnTableRefresher.refreshTable(IVP6_VPN_TABLE_KEY, peerId, updated);
         }
     }
 
@@ -221,6 +368,10 @@ final class EffectiveRibInWriter implements PrefixesReceivedCounters, PrefixesIn
             this.reg.close();
             this.reg = null;
         }
+        if (this.policyChangeReg != null) {
+            this.policyChangeReg.close();
+            this.policyChangeReg = null;
+        }
         if (this.submitted != null) {
             try {
                 this.submitted.get();
@@ -234,6 +385,7 @@ final class EffectiveRibInWriter implements PrefixesReceivedCounters, PrefixesIn
         }
         this.prefixesReceived.values().forEach(LongAdder::reset);
         this.prefixesInstalled.values().forEach(LongAdder::reset);
+        this.importPolicyMemos.values().forEach(ImportPolicyMemo::invalidate);
     }
 
     @Override
@@ -269,6 +421,18 @@ final class EffectiveRibInWriter implements PrefixesReceivedCounters, PrefixesIn
         return this.prefixesInstalled.values().stream().mapToLong(LongAdder::longValue).sum();
     }
 
+    @Override
+    public long getImportPolicyCacheHitCount(final TablesKey tablesKey) {
+        final ImportPolicyMemo memo = this.importPolicyMemos.get(tablesKey);
+        return memo == null ? 0 : memo.getHitCount();
+    }
+
+    @Override
+    public long getImportPolicyCacheMissCount(final TablesKey tablesKey) {
+        final ImportPolicyMemo memo = this.importPolicyMemos.get(tablesKey);
+        return memo == null ? 0 : memo.getMissCount();
+    }
+
     @Holding("this")
     private void changeDataTree(final DOMDataTreeWriteTransaction tx, final YangInstanceIdentifier rootPath,
             final DataTreeCandidateNode root, final DataTreeCandidateNode table) {
@@ -434,7 +598,6 @@ final class EffectiveRibInWriter implements PrefixesReceivedCounters, PrefixesIn
             for (final MapEntryNode routeBefore : deletedRoutes) {
                 deleteRouteTarget(ribSupport, routesPath.node(routeBefore.getIdentifier()), routeBefore);
             }
-            this.rtMembershipsUpdated = true;
         }
 
         final TablesKey tablesKey = ribSupport.getTablesKey();
@@ -479,41 +642,87 @@ final class EffectiveRibInWriter implements PrefixesReceivedCounters, PrefixesIn
             final NormalizedNode<?, ?> routeAfter, final boolean longLivedStale) {
         final TablesKey tablesKey = ribSupport.getTablesKey();
         CountersUtil.increment(this.prefixesReceived.get(tablesKey), tablesKey);
-        // Lookup per-table attributes from RIBSupport
-        final ContainerNode advertisedAttrs = (ContainerNode) NormalizedNodes.findNode(routeAfter,
-            ribSupport.routeAttributesIdentifier()).orElse(null);
-        final Attributes routeAttrs = ribSupport.attributeFromContainerNode(advertisedAttrs);
-        final Optional<Attributes> optEffAtt;
+        final ContainerNode advertisedAttrs = advertisedAttributes(ribSupport, routeAfter);
         // In case we want to add LLGR_STALE we do not process route through policies since it may be
         // considered as received with LLGR_STALE from peer which is not true.
         if (longLivedStale) {
+            final Attributes routeAttrs = ribSupport.attributeFromContainerNode(advertisedAttrs);
             // LLGR procedures are in effect. If the route is tagged with NO_LLGR, it needs to be removed.
             final List<Communities> effCommunities = routeAttrs.getCommunities();
             if (effCommunities != null && effCommunities.contains(CommunityUtil.NO_LLGR)) {
                 deleteRoute(tx, ribSupport, routePath, routeBefore.orElse(null));
                 return;
             }
-            optEffAtt = Optional.of(wrapLongLivedStale(routeAttrs));
-        } else {
-            final Class<? extends AfiSafiType> afiSafiType
-                = tableTypeRegistry.getAfiSafiType(ribSupport.getTablesKey()).get();
-            optEffAtt = this.ribPolicies
-                .applyImportPolicies(this.peerImportParameters, routeAttrs, afiSafiType);
+            final Attributes attToStore = wrapLongLivedStale(routeAttrs);
+            putRoute(tx, ribSupport, routePath, routeAfter);
+
+            final YangInstanceIdentifier attPath = routePath.node(ribSupport.routeAttributesIdentifier());
+            if (!attToStore.equals(routeAttrs)) {
+                tx.put(LogicalDatastoreType.OPERATIONAL, attPath,
+                    ribSupport.attributeToContainerNode(attPath, attToStore));
+            }
+            return;
         }
-        if (!optEffAtt.isPresent()) {
+
+        if (!importRoute(tx, ribSupport, routePath, routeAfter, advertisedAttrs)) {
             deleteRoute(tx, ribSupport, routePath, routeBefore.orElse(null));
-            return;
         }
+    }
+
+    /**
+     * Apply import policies to a route and write it if accepted.
+     *
+     * @return true if the route has been accepted
+     */
+    private boolean importRoute(final DOMDataTreeWriteTransaction tx, final RIBSupport<?, ?, ?, ?> ribSupport,
+            final YangInstanceIdentifier routePath, final NormalizedNode<?, ?> routeAfter,
+            final ContainerNode advertisedAttrs) {
+        final Result result = applyImportPolicies(ribSupport, advertisedAttrs);
+        if (!result.getEffective().isPresent()) {
+            return false;
+        }
+        putRoute(tx, ribSupport, routePath, routeAfter);
+
+        if (result.isModified()) {
+            final YangInstanceIdentifier attPath = routePath.node(ribSupport.routeAttributesIdentifier());
+            tx.put(LogicalDatastoreType.OPERATIONAL, attPath, result.getEffectiveNode(ribSupport, attPath));
+        }
+        return true;
+    }
+
+    // Lookup per-table attributes from RIBSupport
+    private static ContainerNode advertisedAttributes(final RIBSupport<?, ?, ?, ?> ribSupport,
+            final NormalizedNode<?, ?> route) {
+        return (ContainerNode) NormalizedNodes.findNode(route, ribSupport.routeAttributesIdentifier()).orElse(null);
+    }
+
+    private void putRoute(final DOMDataTreeWriteTransaction tx, final RIBSupport<?, ?, ?, ?> ribSupport,
+            final YangInstanceIdentifier routePath, final NormalizedNode<?, ?> routeAfter) {
         handleRouteTarget(ModificationType.WRITE, ribSupport, routePath, routeAfter);
         tx.put(LogicalDatastoreType.OPERATIONAL, routePath, routeAfter);
+        final TablesKey tablesKey = ribSupport.getTablesKey();
         CountersUtil.increment(this.prefixesInstalled.get(tablesKey), tablesKey);
+    }
 
-        final YangInstanceIdentifier attPath = routePath.node(ribSupport.routeAttributesIdentifier());
-        final Attributes attToStore = optEffAtt.get();
-        if (!attToStore.equals(routeAttrs)) {
-            final ContainerNode finalAttribute = ribSupport.attributeToContainerNode(attPath, attToStore);
-            tx.put(LogicalDatastoreType.OPERATIONAL, attPath, finalAttribute);
+    private Result applyImportPolicies(final RIBSupport<?, ?, ?, ?> ribSupport,
+            final ContainerNode advertisedAttrs) {
+        final TablesKey tablesKey = ribSupport.getTablesKey();
+        final ImportPolicyMemo memo = advertisedAttrs == null ? null : this.importPolicyMemos.get(tablesKey);
+        if (memo != null) {
+            final Result memoized = memo.getIfPresent(advertisedAttrs);
+            if (memoized != null) {
+                return memoized;
+            }
         }
+
+        final Attributes routeAttrs = ribSupport.attributeFromContainerNode(advertisedAttrs);
+        final Class<? extends AfiSafiType> afiSafiType = this.tableTypeRegistry.getAfiSafiType(tablesKey).get();
+        final Result result = new Result(routeAttrs,
+            this.ribPolicies.applyImportPolicies(this.peerImportParameters, routeAttrs, afiSafiType));
+        if (memo != null) {
+            memo.put(advertisedAttrs, result);
+        }
+        return result;
     }
 
     private void addRouteTarget(final RouteTargetConstrainRoute rtc) {
@@ -521,7 +730,9 @@ final class EffectiveRibInWriter implements PrefixesReceivedCounters, PrefixesIn
         if (PeerRole.Ebgp != this.peerImportParameters.getFromPeerRole()) {
             this.rtCache.cacheRoute(rtc);
         }
-        this.rtMemberships.add(rtMembership);
+        if (this.rtMemberships.add(rtMembership)) {
+            this.rtMembershipsUpdated.add(rtMembership);
+        }
     }
 
     private void deleteRouteTarget(final RIBSupport<?, ?, ?, ?> ribSupport, final YangInstanceIdentifier routeIdPath,
@@ -534,7 +745,9 @@ final class EffectiveRibInWriter implements PrefixesReceivedCounters, PrefixesIn
         if (PeerRole.Ebgp != this.peerImportParameters.getFromPeerRole()) {
             this.rtCache.uncacheRoute(rtc);
         }
-        this.rtMemberships.remove(rtMembership);
+        if (this.rtMemberships.remove(rtMembership)) {
+            this.rtMembershipsUpdated.add(rtMembership);
+        }
     }
 
     private void handleRouteTarget(final ModificationType modificationType, final RIBSupport<?, ?, ?, ?> ribSupport,
@@ -547,7 +760,6 @@ final class EffectiveRibInWriter implements PrefixesReceivedCounters, PrefixesIn
             } else {
                 addRouteTarget(rtc);
             }
-            this.rtMembershipsUpdated = true;
         }
     }
 
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.util.Optional;
+import org.eclipse.jdt.annotation.Nullable;
+import org.opendaylight.protocol.bgp.rib.spi.RIBSupport;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+
+/**
+ * Memo of import policy results for a single table of a single peer, keyed by the advertised attributes container.
+ * Routes carried in the same UPDATE message, or in a table dump, typically share their attributes and hence the
+ * outcome of import policies, so the advertised attributes need to be decoded and the policies applied only once.
+ *
+ * <p>
+ * Memoized results are valid only for the policy definitions in effect when they were computed, hence the memo needs
+ * to be invalidated whenever they change.
+ */
+final class ImportPolicyMemo {
+    static final int DEFAULT_MAXIMUM_SIZE = 4096;
+
+    /**
+     * Advertised attributes and the outcome of applying import policies to them.
+     */
+    static final class Result {
+        private final Attributes advertised;
+        private final Optional<Attributes> effective;
+        private final boolean modified;
+        private ContainerNode effectiveNode;
+
+        Result(final Attributes advertised, final Optional<Attributes> effective) {
+            this.advertised = advertised;
+            this.effective = requireNonNull(effective);
+            this.modified = effective.isPresent() && !effective.get().equals(advertised);
+        }
+
+        Attributes getAdvertised() {
+            return this.advertised;
+        }
+
+        Optional<Attributes> getEffective() {
+            return this.effective;
+        }
+
+        /**
+         * Return true if the route is accepted with attributes other than the advertised ones.
+         *
+         * @return true if effective attributes need to be stored
+         */
+        boolean isModified() {
+            return this.modified;
+        }
+
+        /**
+         * Return the effective attributes serialized for storage. Serialized form is the same for all routes of
+         * a table, so it is computed only once.
+         *
+         * @param ribSupport table RIB support
+         * @param attPath path to the route attributes
+         * @return serialized effective attributes
+         */
+        ContainerNode getEffectiveNode(final RIBSupport<?, ?, ?, ?> ribSupport, final YangInstanceIdentifier attPath) {
+            ContainerNode ret = this.effectiveNode;
+            if (ret == null) {
+                ret = ribSupport.attributeToContainerNode(attPath, this.effective.get());
+                this.effectiveNode = ret;
+            }
+            return ret;
+        }
+    }
+
+    private final Cache<ContainerNode, Result> cache;
+
+    ImportPolicyMemo() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    ImportPolicyMemo(final int maximumSize) {
+        checkArgument(maximumSize > 0, "Maximum size %s is not positive", maximumSize);
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+    }
+
+    @Nullable Result getIfPresent(final ContainerNode advertisedAttrs) {
+        return this.cache.getIfPresent(advertisedAttrs);
+    }
+
+    void put(final ContainerNode advertisedAttrs, final Result result) {
+        this.cache.put(advertisedAttrs, result);
+    }
+
+    /**
+     * Discard all memoized results.
+     */
+    void invalidate() {
+        this.cache.invalidateAll();
+    }
+
+    /**
+     * Return the number of routes for which a memoized result was reused.
+     *
+     * @return Hit count
+     */
+    long getHitCount() {
+        return this.cache.stats().hitCount();
+    }
+
+    /**
+     * Return the number of routes for which import policies had to be applied.
+     *
+     * @return Miss count
+     */
+    long getMissCount() {
+        return this.cache.stats().missCount();
+    }
+
+    @Override
+    public String toString() {
+        final CacheStats stats = this.cache.stats();
+        return MoreObjects.toStringHelper(this).add("size", this.cache.size()).add("hits", stats.hitCount())
+                .add("misses", stats.missCount()).toString();
+    }
+}
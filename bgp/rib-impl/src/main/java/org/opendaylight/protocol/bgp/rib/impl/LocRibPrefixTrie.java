@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.Arrays;
+import java.util.List;
+import org.checkerframework.checker.lock.qual.GuardedBy;
+import org.opendaylight.protocol.bgp.rib.impl.spi.LocRibPrefixIndex;
+import org.opendaylight.protocol.bgp.rib.spi.entry.PrefixTrie;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IetfInetUtil;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpPrefix;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
+
+/**
+ * {@link LocRibPrefixIndex} maintained by a {@link LocRibWriter}. Route keys are added when a route entry is created
+ * and removed when it is gone, so the index reflects route keys with at least one path, regardless of the outcome of
+ * best path selection. Updates and queries are serialized on this object, so queries are not blocked by best path
+ * selection in progress.
+ */
+final class LocRibPrefixTrie implements LocRibPrefixIndex {
+    private static final int IPV4_LENGTH = 4;
+
+    @GuardedBy("this")
+    private final PrefixTrie<ImmutableSet<String>> ipv4 = PrefixTrie.ipv4();
+    @GuardedBy("this")
+    private final PrefixTrie<ImmutableSet<String>> ipv6 = PrefixTrie.ipv6();
+
+    /**
+     * Return prefix bytes, as produced by {@link IetfInetUtil}: the address followed by a byte holding the prefix
+     * length.
+     */
+    private static byte[] prefixBytes(final IpPrefix prefix) {
+        final Ipv4Prefix ipv4Prefix = prefix.getIpv4Prefix();
+        return ipv4Prefix != null ? IetfInetUtil.INSTANCE.ipv4PrefixToBytes(ipv4Prefix)
+                : IetfInetUtil.INSTANCE.ipv6PrefixToBytes(prefix.getIpv6Prefix());
+    }
+
+    private static byte[] address(final byte[] prefixBytes) {
+        return Arrays.copyOf(prefixBytes, prefixBytes.length - 1);
+    }
+
+    private static int length(final byte[] prefixBytes) {
+        return Byte.toUnsignedInt(prefixBytes[prefixBytes.length - 1]);
+    }
+
+    private PrefixTrie<ImmutableSet<String>> trieOf(final byte[] address) {
+        return address.length == IPV4_LENGTH ? this.ipv4 : this.ipv6;
+    }
+
+    /**
+     * Add a route key reachable through a prefix.
+     *
+     * @param prefix Route prefix
+     * @param routeKey Route key
+     */
+    synchronized void add(final IpPrefix prefix, final String routeKey) {
+        final byte[] bytes = prefixBytes(prefix);
+        final byte[] address = address(bytes);
+        final int length = length(bytes);
+        final PrefixTrie<ImmutableSet<String>> trie = trieOf(address);
+
+        final ImmutableSet<String> existing = trie.get(address, length);
+        if (existing == null) {
+            trie.put(address, length, ImmutableSet.of(routeKey));
+        } else if (!existing.contains(routeKey)) {
+            trie.put(address, length, ImmutableSet.<String>builder().addAll(existing).add(routeKey).build());
+        }
+    }
+
+    /**
+     * Remove a route key reachable through a prefix.
+     *
+     * @param prefix Route prefix
+     * @param routeKey Route key
+     */
+    synchronized void remove(final IpPrefix prefix, final String routeKey) {
+        final byte[] bytes = prefixBytes(prefix);
+        final byte[] address = address(bytes);
+        final int length = length(bytes);
+        final PrefixTrie<ImmutableSet<String>> trie = trieOf(address);
+
+        final ImmutableSet<String> existing = trie.get(address, length);
+        if (existing == null || !existing.contains(routeKey)) {
+            return;
+        }
+        if (existing.size() == 1) {
+            trie.remove(address, length);
+        } else {
+            trie.put(address, length, existing.stream().filter(key -> !key.equals(routeKey))
+                .collect(ImmutableSet.toImmutableSet()));
+        }
+    }
+
+    @Override
+    public synchronized List<String> longestMatch(final IpAddress address) {
+        final Ipv4Address ipv4Address = address.getIpv4Address();
+        final byte[] bytes = ipv4Address != null ? IetfInetUtil.INSTANCE.ipv4AddressBytes(ipv4Address)
+                : IetfInetUtil.INSTANCE.ipv6AddressBytes(address.getIpv6Address());
+        final ImmutableSet<String> match = trieOf(bytes).longestMatch(bytes, bytes.length * Byte.SIZE);
+        return match == null ? ImmutableList.of() : match.asList();
+    }
+
+    @Override
+    public synchronized List<String> covering(final IpPrefix prefix) {
+        final byte[] bytes = prefixBytes(prefix);
+        final byte[] address = address(bytes);
+        final ImmutableList.Builder<String> ret = ImmutableList.builder();
+        trieOf(address).covering(address, length(bytes), ret::addAll);
+        return ret.build();
+    }
+
+    @Override
+    public synchronized List<String> coveredBy(final IpPrefix prefix) {
+        final byte[] bytes = prefixBytes(prefix);
+        final byte[] address = address(bytes);
+        final ImmutableList.Builder<String> ret = ImmutableList.builder();
+        trieOf(address).coveredBy(address, length(bytes), ret::addAll);
+        return ret.build();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return MoreObjects.toStringHelper(this).add("ipv4", this.ipv4.size()).add("ipv6", this.ipv6.size())
+                .toString();
+    }
+}
@@ -18,9 +18,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.LongAdder;
 import org.checkerframework.checker.lock.qual.GuardedBy;
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.opendaylight.mdsal.binding.api.ClusteredDataTreeChangeListener;
 import org.opendaylight.mdsal.binding.api.DataBroker;
 import org.opendaylight.mdsal.binding.api.DataObjectModification;
@@ -32,6 +34,7 @@ import org.opendaylight.mdsal.common.api.CommitInfo;
 import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
 import org.opendaylight.protocol.bgp.mode.api.PathSelectionMode;
 import org.opendaylight.protocol.bgp.mode.api.RouteEntry;
+import org.opendaylight.protocol.bgp.rib.impl.spi.LocRibPrefixIndex;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RibOutRefresh;
 import org.opendaylight.protocol.bgp.rib.impl.state.rib.TotalPathsCounter;
 import org.opendaylight.protocol.bgp.rib.impl.state.rib.TotalPrefixesCounter;
@@ -40,11 +43,16 @@ import org.opendaylight.protocol.bgp.rib.spi.RIBSupport;
 import org.opendaylight.protocol.bgp.rib.spi.RouterId;
 import org.opendaylight.protocol.bgp.rib.spi.entry.ActualBestPathRoutes;
 import org.opendaylight.protocol.bgp.rib.spi.entry.AdvertizedRoute;
+import org.opendaylight.protocol.bgp.rib.spi.entry.ExportPolicyGroups;
+import org.opendaylight.protocol.bgp.rib.spi.entry.RouteEntryIndex;
 import org.opendaylight.protocol.bgp.rib.spi.entry.StaleBestPathRoute;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRibRoutingPolicy;
+import org.opendaylight.protocol.bgp.route.targetcontrain.spi.RouteTargetMembeshipUtil;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.AfiSafiType;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.AsNumber;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpPrefix;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.PathId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.ExtendedCommunities;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.Route;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.bgp.rib.Rib;
@@ -58,6 +66,8 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.tables.Attributes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.tables.AttributesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.tables.Routes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.RouteTarget;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.route.target.constrain._default.route.grouping.RouteTargetConstrainDefaultRoute;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
 import org.opendaylight.yangtools.yang.binding.ChildOf;
 import org.opendaylight.yangtools.yang.binding.ChoiceIn;
@@ -76,8 +86,14 @@ final class LocRibWriter<C extends Routes & DataObject & ChoiceIn<Tables>, S ext
         ClusteredDataTreeChangeListener<Tables> {
 
     private static final Logger LOG = LoggerFactory.getLogger(LocRibWriter.class);
+    /*
+     * Minimum number of updated entries per shard. Smaller changes are processed on the notifying thread, as
+     * the hand-off would cost more than it saves.
+     */
+    private static final int MIN_SHARD_SIZE = 64;
 
-    private final Map<String, RouteEntry<C, S, R, I>> routeEntries = new HashMap<>();
+    private final RouteEntryIndex<RouteEntry<C, S, R, I>> routeEntries;
+    private final @Nullable LocRibPrefixTrie prefixIndex;
     private final long ourAs;
     private final RIBSupport<C, S, R, I> ribSupport;
     private final DataBroker dataBroker;
@@ -88,6 +104,9 @@ final class LocRibWriter<C extends Routes & DataObject & ChoiceIn<Tables>, S ext
     private final BGPPeerTracker peerTracker;
     private final KeyedInstanceIdentifier<Rib, RibKey> ribIId;
     private final KeyedInstanceIdentifier<Tables, TablesKey> locRibTableIID;
+    private final int bestPathShards;
+    private final Executor bestPathExecutor;
+    private final RibOutExecutor ribOutExecutor;
 
     private TransactionChain chain;
     @GuardedBy("this")
@@ -101,15 +120,29 @@ final class LocRibWriter<C extends Routes & DataObject & ChoiceIn<Tables>, S ext
             final BGPRibRoutingPolicy ribPolicies,
             final BGPPeerTracker peerTracker,
             final Class<? extends AfiSafiType> afiSafiType,
-            final PathSelectionMode pathSelectionMode) {
+            final PathSelectionMode pathSelectionMode,
+            final int bestPathShards,
+            final Executor bestPathExecutor,
+            final RibOutExecutor ribOutExecutor,
+            final boolean indexPrefixes) {
         this.chain = requireNonNull(chain);
         this.ribIId = requireNonNull(ribIId);
         this.ribSupport = requireNonNull(ribSupport);
+        this.routeEntries = ribSupport.createRouteEntryIndex();
+        this.prefixIndex = indexPrefixes ? new LocRibPrefixTrie() : null;
         this.locRibTableIID = ribIId.child(LocRib.class).child(Tables.class, ribSupport.getTablesKey());
         this.ourAs = ourAs;
         this.dataBroker = requireNonNull(dataBroker);
         this.peerTracker = peerTracker;
         this.pathSelectionMode = pathSelectionMode;
+        if (bestPathShards > 1 && bestPathExecutor != null) {
+            this.bestPathShards = bestPathShards;
+            this.bestPathExecutor = bestPathExecutor;
+        } else {
+            this.bestPathShards = 1;
+            this.bestPathExecutor = null;
+        }
+        this.ribOutExecutor = ribOutExecutor;
 
         this.entryDep = new RouteEntryDependenciesContainerImpl(this.ribSupport, this.peerTracker, ribPolicies,
                 afiSafiType, this.locRibTableIID);
@@ -128,8 +161,39 @@ final class LocRibWriter<C extends Routes & DataObject & ChoiceIn<Tables>, S ext
             final BGPRibRoutingPolicy ribPolicies,
             final @NonNull BGPPeerTracker peerTracker,
             final @NonNull PathSelectionMode pathSelectionStrategy) {
+        return create(ribSupport, afiSafiType, chain, ribIId, ourAs, dataBroker, ribPolicies, peerTracker,
+                pathSelectionStrategy, 1, null, null, false);
+    }
+
+    /**
+     * Create a new LocRibWriter, which partitions best path selection into multiple shards.
+     *
+     * @param bestPathShards number of shards updated route entries are partitioned into
+     * @param bestPathExecutor executor running all but one of the shards, the remaining shard is processed
+     *                         by the notifying thread. If null, best path selection is not sharded.
+     * @param ribOutExecutor executor propagating changes into peers' Adj-RIB-Outs. If null, changes are propagated
+     *                       using a parallel stream.
+     * @param indexPrefixes maintain an index of route keys by prefix, see {@link #getPrefixIndex()}
+     */
+    public static <C extends Routes & DataObject & ChoiceIn<Tables>, S extends ChildOf<? super C>,
+                R extends Route & ChildOf<? super S> & Identifiable<I>, I extends Identifier<R>>
+                LocRibWriter<C, S, R, I> create(
+            final @NonNull RIBSupport<C, S, R, I> ribSupport,
+            final @NonNull Class<? extends AfiSafiType> afiSafiType,
+            final @NonNull TransactionChain chain,
+            final @NonNull KeyedInstanceIdentifier<Rib, RibKey> ribIId,
+            final @NonNull AsNumber ourAs,
+            final @NonNull DataBroker dataBroker,
+            final BGPRibRoutingPolicy ribPolicies,
+            final @NonNull BGPPeerTracker peerTracker,
+            final @NonNull PathSelectionMode pathSelectionStrategy,
+            final int bestPathShards,
+            final @Nullable Executor bestPathExecutor,
+            final @Nullable RibOutExecutor ribOutExecutor,
+            final boolean indexPrefixes) {
         return new LocRibWriter<>(ribSupport, chain, ribIId, ourAs.getValue(), dataBroker, ribPolicies,
-                peerTracker, afiSafiType, pathSelectionStrategy);
+                peerTracker, afiSafiType, pathSelectionStrategy, bestPathShards, bestPathExecutor, ribOutExecutor,
+                indexPrefixes);
     }
 
     private synchronized void init() {
@@ -243,13 +307,8 @@ final class LocRibWriter<C extends Routes & DataObject & ChoiceIn<Tables>, S ext
                         = this.peerTracker.getPeer(peerKIid.getKey().getPeerId());
                 if (toPeer != null && toPeer.supportsTable(this.entryDep.getLocalTablesKey())) {
                     LOG.debug("Peer {} table has been created, inserting existent routes", toPeer.getPeerId());
-                    final List<ActualBestPathRoutes<C, S, R, I>> routesToStore = new ArrayList<>();
-                    for (final Entry<String, RouteEntry<C, S, R, I>> entry : this.routeEntries.entrySet()) {
-                        final List<ActualBestPathRoutes<C, S, R, I>> filteredRoute = entry.getValue()
-                                .actualBestPaths(this.ribSupport, new RouteEntryInfoImpl(toPeer, entry.getKey()));
-                        routesToStore.addAll(filteredRoute);
-                    }
-                    toPeer.initializeRibOut(this.entryDep, routesToStore);
+                    final List<ActualBestPathRoutes<C, S, R, I>> routes = actualBestPaths(toPeer);
+                    executeRibOut(toPeer, () -> toPeer.initializeRibOut(this.entryDep, routes));
                 }
             }
             /*
@@ -298,6 +357,7 @@ final class LocRibWriter<C extends Routes & DataObject & ChoiceIn<Tables>, S ext
                         if (entry.removeRoute(routerId, pathId.getValue())) {
                             this.routeEntries.remove(routeKey);
                             this.totalPrefixesCounter.decrement();
+                            unindexPrefix(routeKey, (R) route.getDataBefore());
                             LOG.trace("Removed route from {}", routerId);
                         }
                     }
@@ -308,6 +368,7 @@ final class LocRibWriter<C extends Routes & DataObject & ChoiceIn<Tables>, S ext
                     entry = this.routeEntries.get(routeKey);
                     if (entry == null) {
                         entry = createEntry(routeKey);
+                        indexPrefix(routeKey, newRoute);
                     }
 
                     entry.addRoute(routerId, pathId.getValue(), newRoute);
@@ -323,10 +384,71 @@ final class LocRibWriter<C extends Routes & DataObject & ChoiceIn<Tables>, S ext
         }
     }
 
+    private void indexPrefix(final String routeKey, final R route) {
+        if (this.prefixIndex == null) {
+            return;
+        }
+        final IpPrefix prefix = this.ribSupport.extractRoutePrefix(route);
+        if (prefix != null) {
+            this.prefixIndex.add(prefix, routeKey);
+        }
+    }
+
+    private void unindexPrefix(final String routeKey, final @Nullable R route) {
+        if (this.prefixIndex == null) {
+            return;
+        }
+        if (route == null) {
+            LOG.debug("Route {} removed without its previous state, prefix index not updated", routeKey);
+            return;
+        }
+        final IpPrefix prefix = this.ribSupport.extractRoutePrefix(route);
+        if (prefix != null) {
+            this.prefixIndex.remove(prefix, routeKey);
+        }
+    }
+
     private void walkThrough(final WriteTransaction tx,
             final Set<Entry<RouteUpdateKey, RouteEntry<C, S, R, I>>> toUpdate) {
-        final List<StaleBestPathRoute<C, S, R, I>> staleRoutes = new ArrayList<>();
-        final List<AdvertizedRoute<C, S, R, I>> newRoutes = new ArrayList<>();
+        final SelectedPaths<C, S, R, I> selected;
+        if (this.bestPathShards > 1 && toUpdate.size() >= MIN_SHARD_SIZE * 2) {
+            selected = selectBestSharded(toUpdate);
+        } else {
+            selected = selectBest(toUpdate);
+        }
+
+        final List<StaleBestPathRoute<C, S, R, I>> staleRoutes = selected.staleRoutes;
+        final List<AdvertizedRoute<C, S, R, I>> newRoutes = selected.newRoutes;
+        updateLocRib(newRoutes, staleRoutes, tx);
+
+        // Peers which export policies cannot tell apart share the outcome of evaluating them for this batch
+        final ExportPolicyGroups exportGroups = ExportPolicyGroups.create(this.entryDep.getRoutingPolicies());
+        if (this.ribOutExecutor != null) {
+            for (final org.opendaylight.protocol.bgp.rib.spi.Peer toPeer : this.peerTracker.getNonInternalPeers()) {
+                this.ribOutExecutor.execute(toPeer,
+                    () -> toPeer.refreshRibOut(this.entryDep, staleRoutes, newRoutes, exportGroups));
+            }
+        } else {
+            this.peerTracker.getNonInternalPeers().parallelStream().forEach(
+                toPeer -> toPeer.refreshRibOut(this.entryDep, staleRoutes, newRoutes, exportGroups));
+        }
+    }
+
+    /**
+     * Run an update of a peer's Adj-RIB-Out. If we have a RIB-out executor, the update needs to go through it,
+     * so that it is ordered with respect to refreshes already queued for that peer.
+     */
+    private void executeRibOut(final org.opendaylight.protocol.bgp.rib.spi.Peer toPeer, final Runnable task) {
+        if (this.ribOutExecutor != null) {
+            this.ribOutExecutor.execute(toPeer, task);
+        } else {
+            task.run();
+        }
+    }
+
+    private SelectedPaths<C, S, R, I> selectBest(
+            final Collection<Entry<RouteUpdateKey, RouteEntry<C, S, R, I>>> toUpdate) {
+        final SelectedPaths<C, S, R, I> ret = new SelectedPaths<>();
         for (final Entry<RouteUpdateKey, RouteEntry<C, S, R, I>> e : toUpdate) {
             LOG.trace("Walking through {}", e);
             final RouteEntry<C, S, R, I> entry = e.getValue();
@@ -336,12 +458,32 @@ final class LocRibWriter<C extends Routes & DataObject & ChoiceIn<Tables>, S ext
                 continue;
             }
 
-            entry.removeStalePaths(this.ribSupport, e.getKey().getRouteId()).ifPresent(staleRoutes::add);
-            newRoutes.addAll(entry.newBestPaths(this.ribSupport, e.getKey().getRouteId()));
+            entry.removeStalePaths(this.ribSupport, e.getKey().getRouteId()).ifPresent(ret.staleRoutes::add);
+            ret.newRoutes.addAll(entry.newBestPaths(this.ribSupport, e.getKey().getRouteId()));
         }
-        updateLocRib(newRoutes, staleRoutes, tx);
-        this.peerTracker.getNonInternalPeers().parallelStream().forEach(
-            toPeer -> toPeer.refreshRibOut(this.entryDep, staleRoutes, newRoutes));
+        return ret;
+    }
+
+    /**
+     * Run best path selection in parallel. Updated entries are partitioned by their route key, hence all updates
+     * of a particular prefix end up in the same shard and are processed in their original order. Results are merged
+     * in shard order once all shards have finished. This relies on {@link RIBSupport} being safe to invoke
+     * concurrently.
+     */
+    private SelectedPaths<C, S, R, I> selectBestSharded(
+            final Set<Entry<RouteUpdateKey, RouteEntry<C, S, R, I>>> toUpdate) {
+        final int shards = Math.min(this.bestPathShards, toUpdate.size() / MIN_SHARD_SIZE);
+        final List<SelectedPaths<C, S, R, I>> results = ShardedExecution.execute(toUpdate, shards,
+            e -> e.getKey().getRouteId().hashCode(), this::selectBest, this.bestPathExecutor);
+
+        final SelectedPaths<C, S, R, I> ret = results.get(0);
+        for (int i = 1; i < results.size(); i++) {
+            final SelectedPaths<C, S, R, I> shard = results.get(i);
+            ret.staleRoutes.addAll(shard.staleRoutes);
+            ret.newRoutes.addAll(shard.newRoutes);
+        }
+        LOG.debug("Best path selection for {} entries completed in {} shards", toUpdate.size(), shards);
+        return ret;
     }
 
     private void updateLocRib(final List<AdvertizedRoute<C, S, R, I>> newRoutes,
@@ -377,6 +519,15 @@ final class LocRibWriter<C extends Routes & DataObject & ChoiceIn<Tables>, S ext
         return this.totalPathsCounter.longValue();
     }
 
+    /**
+     * Return the index of this table's route keys by prefix. The index is safe to query from any thread.
+     *
+     * @return Prefix index, or null if this writer was created without one
+     */
+    @Nullable LocRibPrefixIndex getPrefixIndex() {
+        return this.prefixIndex;
+    }
+
     TablesKey getTableKey() {
         return this.ribSupport.getTablesKey();
     }
@@ -386,13 +537,57 @@ final class LocRibWriter<C extends Routes & DataObject & ChoiceIn<Tables>, S ext
         final org.opendaylight.protocol.bgp.rib.spi.Peer toPeer = this.peerTracker.getPeer(peerId);
         if (toPeer != null && toPeer.supportsTable(this.entryDep.getLocalTablesKey())) {
             LOG.debug("Peer {} table has been created, inserting existent routes", toPeer.getPeerId());
-            final List<ActualBestPathRoutes<C, S, R, I>> routesToStore = new ArrayList<>();
-            for (final Entry<String, RouteEntry<C, S, R, I>> entry : this.routeEntries.entrySet()) {
-                final List<ActualBestPathRoutes<C, S, R, I>> filteredRoute = entry.getValue()
-                        .actualBestPaths(this.ribSupport, new RouteEntryInfoImpl(toPeer, entry.getKey()));
-                routesToStore.addAll(filteredRoute);
+            final List<ActualBestPathRoutes<C, S, R, I>> routes = actualBestPaths(toPeer);
+            executeRibOut(toPeer, () -> toPeer.reEvaluateAdvertizement(this.entryDep, routes));
+        }
+    }
+
+    @Override
+    public synchronized void refreshTable(final TablesKey tk, final PeerId peerId,
+            final Set<RouteTarget> routeTargets) {
+        if (routeTargets.stream().anyMatch(RouteTargetConstrainDefaultRoute.class::isInstance)) {
+            // Default Route Target affects every path, fall back to full reevaluation
+            refreshTable(tk, peerId);
+            return;
+        }
+        final org.opendaylight.protocol.bgp.rib.spi.Peer toPeer = this.peerTracker.getPeer(peerId);
+        if (toPeer != null && toPeer.supportsTable(this.entryDep.getLocalTablesKey())) {
+            final List<ActualBestPathRoutes<C, S, R, I>> routes = actualBestPaths(toPeer);
+            routes.removeIf(route -> !carriesRouteTarget(route, routeTargets));
+            LOG.debug("Peer {} memberships {} have changed, reevaluating {} routes", toPeer.getPeerId(),
+                routeTargets, routes.size());
+            if (!routes.isEmpty()) {
+                executeRibOut(toPeer, () -> toPeer.reEvaluateAdvertizement(this.entryDep, routes));
             }
-            toPeer.reEvaluateAdvertizement(this.entryDep, routesToStore);
         }
     }
+
+    private static boolean carriesRouteTarget(final ActualBestPathRoutes<?, ?, ?, ?> route,
+            final Set<RouteTarget> routeTargets) {
+        final List<ExtendedCommunities> communities = route.getAttributes().getExtendedCommunities();
+        if (communities != null) {
+            for (final ExtendedCommunities community : communities) {
+                final RouteTarget routeTarget = RouteTargetMembeshipUtil.getRT(community.getExtendedCommunity());
+                if (routeTarget != null && routeTargets.contains(routeTarget)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private List<ActualBestPathRoutes<C, S, R, I>> actualBestPaths(
+            final org.opendaylight.protocol.bgp.rib.spi.Peer toPeer) {
+        final List<ActualBestPathRoutes<C, S, R, I>> routesToStore = new ArrayList<>();
+        this.routeEntries.forEach((routeKey, entry) -> routesToStore.addAll(
+            entry.actualBestPaths(this.ribSupport, new RouteEntryInfoImpl(toPeer, routeKey))));
+        return routesToStore;
+    }
+
+    private static final class SelectedPaths<C extends Routes & DataObject & ChoiceIn<Tables>,
+            S extends ChildOf<? super C>, R extends Route & ChildOf<? super S> & Identifiable<I>,
+            I extends Identifier<R>> {
+        final List<StaleBestPathRoute<C, S, R, I>> staleRoutes = new ArrayList<>();
+        final List<AdvertizedRoute<C, S, R, I>> newRoutes = new ArrayList<>();
+    }
 }
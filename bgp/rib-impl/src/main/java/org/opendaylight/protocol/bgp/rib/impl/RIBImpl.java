@@ -7,6 +7,7 @@
  */
 package org.opendaylight.protocol.bgp.rib.impl;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 import static org.opendaylight.protocol.bgp.rib.spi.RIBNodeIdentifiers.BGPRIB_NID;
 import static org.opendaylight.protocol.bgp.rib.spi.RIBNodeIdentifiers.LOCRIB_NID;
@@ -15,16 +16,22 @@ import static org.opendaylight.protocol.bgp.rib.spi.RIBNodeIdentifiers.RIB_NID;
 import static org.opendaylight.protocol.bgp.rib.spi.RIBNodeIdentifiers.TABLES_NID;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.FluentFuture;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.checkerframework.checker.lock.qual.GuardedBy;
 import org.opendaylight.mdsal.binding.api.DataBroker;
 import org.opendaylight.mdsal.binding.api.Transaction;
@@ -45,13 +52,16 @@ import org.opendaylight.protocol.bgp.mode.impl.base.BasePathSelectionModeFactory
 import org.opendaylight.protocol.bgp.openconfig.spi.BGPTableTypeRegistryConsumer;
 import org.opendaylight.protocol.bgp.rib.impl.spi.BGPDispatcher;
 import org.opendaylight.protocol.bgp.rib.impl.spi.CodecsRegistry;
+import org.opendaylight.protocol.bgp.rib.impl.spi.LocRibPrefixIndex;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIB;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIBSupportContextRegistry;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RibOutRefresh;
 import org.opendaylight.protocol.bgp.rib.impl.state.BGPRibStateImpl;
 import org.opendaylight.protocol.bgp.rib.spi.BGPPeerTracker;
+import org.opendaylight.protocol.bgp.rib.spi.Peer;
 import org.opendaylight.protocol.bgp.rib.spi.RIBExtensionConsumerContext;
 import org.opendaylight.protocol.bgp.rib.spi.RIBSupport;
+import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRibPolicyChangeListener;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRibRoutingPolicy;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.AsNumber;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.BgpTableType;
@@ -65,6 +75,8 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.TablesKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.tables.Routes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.BgpId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.RouteTarget;
+import org.opendaylight.yangtools.concepts.Registration;
 import org.opendaylight.yangtools.yang.binding.ChildOf;
 import org.opendaylight.yangtools.yang.binding.ChoiceIn;
 import org.opendaylight.yangtools.yang.binding.DataObject;
@@ -108,13 +120,24 @@ public final class RIBImpl extends BGPRibStateImpl implements RIB, TransactionCh
     private final RibId ribId;
     private final BGPPeerTracker peerTracker = new BGPPeerTrackerImpl();
     private final BGPRibRoutingPolicy ribPolicies;
+    private final int bestPathShards;
+    private final int ribOutThreads;
+    private final int ribOutQueueDepth;
+    private final Set<TablesKey> prefixIndexedTables;
     @GuardedBy("this")
     private ClusterSingletonServiceRegistration registration;
     @GuardedBy("this")
+    private ExecutorService bestPathExecutor;
+    @GuardedBy("this")
+    private RibOutExecutor ribOutExecutor;
+    @GuardedBy("this")
     private DOMTransactionChain domChain;
     @GuardedBy("this")
     private boolean isServiceInstantiated;
+    @GuardedBy("this")
+    private Registration policyChangeRegistration;
     private final Map<TablesKey, RibOutRefresh> vpnTableRefresher = new HashMap<>();
+    private final Map<TablesKey, LocRibPrefixIndex> prefixIndexes = new ConcurrentHashMap<>();
 
     public RIBImpl(
             final BGPTableTypeRegistryConsumer tableTypeRegistry,
@@ -129,6 +152,29 @@ public final class RIBImpl extends BGPRibStateImpl implements RIB, TransactionCh
             final BGPRibRoutingPolicy ribPolicies,
             final List<BgpTableType> localTables,
             final Map<TablesKey, PathSelectionMode> bestPathSelectionStrategies
+    ) {
+        this(tableTypeRegistry, ribId, localAs, localBgpId, extensions, dispatcher, codecsRegistry, domDataBroker,
+                dataBroker, ribPolicies, localTables, bestPathSelectionStrategies, 1, 0,
+                RibOutExecutor.DEFAULT_QUEUE_DEPTH, Collections.emptySet());
+    }
+
+    public RIBImpl(
+            final BGPTableTypeRegistryConsumer tableTypeRegistry,
+            final RibId ribId,
+            final AsNumber localAs,
+            final BgpId localBgpId,
+            final RIBExtensionConsumerContext extensions,
+            final BGPDispatcher dispatcher,
+            final CodecsRegistryImpl codecsRegistry,
+            final DOMDataBroker domDataBroker,
+            final DataBroker dataBroker,
+            final BGPRibRoutingPolicy ribPolicies,
+            final List<BgpTableType> localTables,
+            final Map<TablesKey, PathSelectionMode> bestPathSelectionStrategies,
+            final int bestPathShards,
+            final int ribOutThreads,
+            final int ribOutQueueDepth,
+            final Set<TablesKey> prefixIndexedTables
     ) {
         super(InstanceIdentifier.create(BgpRib.class).child(Rib.class, new RibKey(requireNonNull(ribId))),
                 localBgpId, localAs);
@@ -149,6 +195,13 @@ public final class RIBImpl extends BGPRibStateImpl implements RIB, TransactionCh
                 .nodeWithKey(Rib.QNAME, RIB_ID_QNAME, ribId.getValue()).build();
         this.bestPathSelectionStrategies = requireNonNull(bestPathSelectionStrategies);
         this.ribId = ribId;
+        checkArgument(bestPathShards > 0, "Best path shard count %s must be positive", bestPathShards);
+        this.bestPathShards = bestPathShards;
+        checkArgument(ribOutThreads >= 0, "RIB-out thread count %s must not be negative", ribOutThreads);
+        checkArgument(ribOutQueueDepth > 0, "RIB-out queue depth %s must be positive", ribOutQueueDepth);
+        this.ribOutThreads = ribOutThreads;
+        this.ribOutQueueDepth = ribOutQueueDepth;
+        this.prefixIndexedTables = ImmutableSet.copyOf(prefixIndexedTables);
 
         for (final BgpTableType t : this.localTables) {
             final TablesKey key = new TablesKey(t.getAfi(), t.getSafi());
@@ -201,8 +254,16 @@ public final class RIBImpl extends BGPRibStateImpl implements RIB, TransactionCh
                 getDataBroker(),
                 this.ribPolicies,
                 this.peerTracker,
-                pathSelectionStrategy);
+                pathSelectionStrategy,
+                this.bestPathShards,
+                this.bestPathExecutor,
+                this.ribOutExecutor,
+                this.prefixIndexedTables.contains(key));
         this.vpnTableRefresher.put(key, locRibWriter);
+        final LocRibPrefixIndex prefixIndex = locRibWriter.getPrefixIndex();
+        if (prefixIndex != null) {
+            this.prefixIndexes.put(key, prefixIndex);
+        }
         registerTotalPathCounter(key, locRibWriter);
         registerTotalPrefixesCounter(key, locRibWriter);
         this.txChainToLocRibWriter.put(txChain, locRibWriter);
@@ -300,6 +361,19 @@ public final class RIBImpl extends BGPRibStateImpl implements RIB, TransactionCh
         }
     }
 
+    @Override
+    public void refreshTable(final TablesKey tk, final PeerId peerId, final Set<RouteTarget> routeTargets) {
+        final RibOutRefresh table = this.vpnTableRefresher.get(tk);
+        if (table != null) {
+            table.refreshTable(tk, peerId, routeTargets);
+        }
+    }
+
+    @Override
+    public LocRibPrefixIndex getLocRibPrefixIndex(final TablesKey tableKey) {
+        return this.prefixIndexes.get(tableKey);
+    }
+
     @Override
     public DOMDataTreeChangeService getService() {
         return (DOMDataTreeChangeService) this.domService;
@@ -376,8 +450,43 @@ public final class RIBImpl extends BGPRibStateImpl implements RIB, TransactionCh
 
         LOG.debug("Effective RIB created.");
 
+        if (this.bestPathShards > 1) {
+            // The notifying thread processes one of the shards itself
+            this.bestPathExecutor = Executors.newFixedThreadPool(this.bestPathShards - 1, new ThreadFactoryBuilder()
+                    .setNameFormat("bgp-best-path-" + this.ribId.getValue() + "-%d").setDaemon(true).build());
+        }
+        if (this.ribOutThreads > 0) {
+            this.ribOutExecutor = new RibOutExecutor("bgp-rib-out-" + this.ribId.getValue(), this.ribOutThreads,
+                this.ribOutQueueDepth);
+        }
         this.localTablesKeys.forEach(this::startLocRib);
         this.localTablesKeys.forEach(this::createLocRibWriter);
+        this.policyChangeRegistration = this.ribPolicies.registerPolicyChangeListener(
+            new BGPRibPolicyChangeListener() {
+                @Override
+                public void onExportPolicyChanged() {
+                    refreshAllTables();
+                }
+            });
+    }
+
+    /**
+     * Re-evaluate export policies of all tables towards all peers, after the export policy has changed. Import
+     * policy changes are handled by each peer's Effective-RIB-In, whose updates reach Adj-RIB-Out through best path
+     * selection. Export policies are configured per RIB, hence an export policy change affects every peer and every
+     * table it supports.
+     */
+    private void refreshAllTables() {
+        final Map<TablesKey, RibOutRefresh> tables;
+        synchronized (this) {
+            if (!this.isServiceInstantiated) {
+                return;
+            }
+            tables = ImmutableMap.copyOf(this.vpnTableRefresher);
+        }
+        for (final Peer peer : this.peerTracker.getPeers()) {
+            tables.forEach((tk, table) -> table.refreshTable(tk, peer.getPeerId()));
+        }
     }
 
     public synchronized FluentFuture<? extends CommitInfo> closeServiceInstance() {
@@ -388,9 +497,22 @@ public final class RIBImpl extends BGPRibStateImpl implements RIB, TransactionCh
         LOG.info("Close RIB {}", this.ribId.getValue());
         this.isServiceInstantiated = false;
         setActive(false);
+        if (this.policyChangeRegistration != null) {
+            this.policyChangeRegistration.close();
+            this.policyChangeRegistration = null;
+        }
 
         this.txChainToLocRibWriter.values().forEach(LocRibWriter::close);
         this.txChainToLocRibWriter.clear();
+        this.prefixIndexes.clear();
+        if (this.bestPathExecutor != null) {
+            this.bestPathExecutor.shutdown();
+            this.bestPathExecutor = null;
+        }
+        if (this.ribOutExecutor != null) {
+            this.ribOutExecutor.close();
+            this.ribOutExecutor = null;
+        }
 
         final DOMDataTreeWriteTransaction t = this.domChain.newWriteOnlyTransaction();
         t.delete(LogicalDatastoreType.OPERATIONAL, getYangRibId());
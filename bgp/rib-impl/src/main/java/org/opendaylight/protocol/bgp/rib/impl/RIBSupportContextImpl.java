@@ -57,9 +57,9 @@ class RIBSupportContextImpl extends RIBSupportContext {
     }
 
     @Override
-    public void deleteRoutes(final DOMDataTreeWriteTransaction tx, final YangInstanceIdentifier tableId,
-            final MpUnreachNlri nlri) {
-        this.ribSupport.deleteRoutes(tx, tableId, this.codecs.serializeUnreachNlri(nlri));
+    public Collection<NodeIdentifierWithPredicates> deleteRoutes(final DOMDataTreeWriteTransaction tx,
+            final YangInstanceIdentifier tableId, final MpUnreachNlri nlri) {
+        return this.ribSupport.deleteRoutes(tx, tableId, this.codecs.serializeUnreachNlri(nlri));
     }
 
     @Override
@@ -8,8 +8,11 @@
 package org.opendaylight.protocol.bgp.rib.impl;
 
 import com.google.common.collect.ImmutableList;
-import java.util.ArrayList;
+import com.google.common.collect.LinkedHashMultiset;
+import com.google.common.collect.Multiset;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.checkerframework.checker.lock.qual.GuardedBy;
 import org.opendaylight.protocol.bgp.rib.spi.policy.RTCCache;
 import org.opendaylight.protocol.bgp.route.targetcontrain.spi.ClientRouteTargetContrainCache;
@@ -17,15 +20,21 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.route.target.constrain.rev180618.route.target.constrain.routes.route.target.constrain.routes.RouteTargetConstrainRoute;
 
 public final class RTCClientRouteCache implements ClientRouteTargetContrainCache, RTCCache {
+    // Routes indexed by their route key, client peers may advertise the same route more than once
     @GuardedBy("this")
-    private final List<RouteTargetConstrainRoute> rtCache = new ArrayList<>();
+    private final Map<String, Multiset<RouteTargetConstrainRoute>> rtCache = new HashMap<>();
+    // Snapshot of all cached routes, rebuilt lazily after the cache has been modified
+    @GuardedBy("this")
+    private ImmutableList<Route> snapshot = ImmutableList.of();
 
     @Override
     public synchronized void cacheRoute(final Route route) {
         if (!(route instanceof RouteTargetConstrainRoute)) {
             return;
         }
-        this.rtCache.add((RouteTargetConstrainRoute) route);
+        this.rtCache.computeIfAbsent(route.getRouteKey(), key -> LinkedHashMultiset.create())
+                .add((RouteTargetConstrainRoute) route);
+        this.snapshot = null;
     }
 
     @Override
@@ -33,11 +42,28 @@ public final class RTCClientRouteCache implements ClientRouteTargetContrainCache
         if (!(route instanceof RouteTargetConstrainRoute)) {
             return;
         }
-        this.rtCache.remove(route);
+        final Multiset<RouteTargetConstrainRoute> routes = this.rtCache.get(route.getRouteKey());
+        if (routes != null && routes.remove(route)) {
+            if (routes.isEmpty()) {
+                this.rtCache.remove(route.getRouteKey());
+            }
+            this.snapshot = null;
+        }
     }
 
     @Override
     public synchronized List<Route> getClientRouteTargetContrainCache() {
-        return ImmutableList.copyOf(this.rtCache);
+        if (this.snapshot == null) {
+            final ImmutableList.Builder<Route> builder = ImmutableList.builder();
+            this.rtCache.values().forEach(builder::addAll);
+            this.snapshot = builder.build();
+        }
+        return this.snapshot;
+    }
+
+    @Override
+    public synchronized Route getClientRouteTargetContrainRoute(final String routeKey) {
+        final Multiset<RouteTargetConstrainRoute> routes = this.rtCache.get(routeKey);
+        return routes == null ? null : routes.iterator().next();
     }
-}
\ No newline at end of file
+}
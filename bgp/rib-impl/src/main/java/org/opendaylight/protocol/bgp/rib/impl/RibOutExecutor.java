@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import org.opendaylight.protocol.bgp.rib.spi.Peer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executor propagating Loc-RIB changes into peers' Adj-RIB-Outs. It is made up of a number of stripes, each of which
+ * is a single thread draining a bounded queue. A peer is always served by the same stripe, hence its Adj-RIB-Out is
+ * updated in the order in which changes were submitted, while peers on different stripes are updated in parallel.
+ * Submitters are blocked while the stripe's queue is full, which slows Loc-RIB processing down to the pace at which
+ * Adj-RIB-Outs are updated.
+ *
+ * <p>
+ * Time between submission and completion of each task is recorded through {@link Peer#recordRibOutLatency(long)}.
+ */
+final class RibOutExecutor implements AutoCloseable {
+    static final int DEFAULT_QUEUE_DEPTH = 1024;
+
+    private static final Logger LOG = LoggerFactory.getLogger(RibOutExecutor.class);
+    // Makes a stripe's thread exit once it has executed all tasks queued before it
+    private static final Runnable SHUTDOWN = () -> { };
+
+    private final List<BlockingQueue<Runnable>> stripes;
+    private final String name;
+    private volatile boolean closed;
+
+    RibOutExecutor(final String name, final int threads, final int queueDepth) {
+        checkArgument(threads > 0, "Thread count %s must be positive", threads);
+        checkArgument(queueDepth > 0, "Queue depth %s must be positive", queueDepth);
+        this.name = requireNonNull(name);
+        this.stripes = new ArrayList<>(threads);
+        final ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true)
+                .build();
+        for (int i = 0; i < threads; i++) {
+            final BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueDepth);
+            this.stripes.add(queue);
+            threadFactory.newThread(() -> drain(queue)).start();
+        }
+        LOG.debug("Started RIB-out executor {} with {} threads", name, threads);
+    }
+
+    /**
+     * Execute a task updating a peer's Adj-RIB-Out. Tasks submitted for the same peer are executed in order. If the
+     * peer's stripe has a full queue, this method blocks until the stripe makes room for the task.
+     *
+     * @param peer Peer whose Adj-RIB-Out is updated
+     * @param task Task to execute
+     * @throws RejectedExecutionException if this executor has been closed, or the caller was interrupted while
+     *                                    waiting for room in the queue
+     */
+    @SuppressWarnings("checkstyle:illegalCatch")
+    void execute(final Peer peer, final Runnable task) {
+        requireNonNull(task);
+        if (this.closed) {
+            throw new RejectedExecutionException("Executor " + this.name + " has been closed");
+        }
+
+        final long submitted = System.nanoTime();
+        final Runnable timedTask = () -> {
+            try {
+                task.run();
+            } catch (final RuntimeException e) {
+                LOG.error("Failed to update Adj-RIB-Out of peer {}", peer.getPeerId(), e);
+            }
+            peer.recordRibOutLatency(System.nanoTime() - submitted);
+        };
+
+        final BlockingQueue<Runnable> queue = stripeFor(peer);
+        if (!queue.offer(timedTask)) {
+            LOG.debug("Executor {} queue full, waiting to update Adj-RIB-Out of peer {}", this.name,
+                peer.getPeerId());
+            try {
+                queue.put(timedTask);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for queue space", e);
+            }
+        }
+    }
+
+    private BlockingQueue<Runnable> stripeFor(final Peer peer) {
+        return this.stripes.get(Math.floorMod(peer.getPeerId().hashCode(), this.stripes.size()));
+    }
+
+    private static void drain(final BlockingQueue<Runnable> queue) {
+        while (true) {
+            final Runnable task;
+            try {
+                task = queue.take();
+            } catch (final InterruptedException e) {
+                LOG.warn("Interrupted while waiting for Adj-RIB-Out updates, {} updates not executed", queue.size(),
+                    e);
+                return;
+            }
+            if (task == SHUTDOWN) {
+                return;
+            }
+            task.run();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        for (final BlockingQueue<Runnable> queue : this.stripes) {
+            try {
+                queue.put(SHUTDOWN);
+            } catch (final InterruptedException e) {
+                LOG.warn("Interrupted while shutting down executor {}", this.name, e);
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multiset;
+import org.checkerframework.checker.lock.qual.GuardedBy;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.RouteTarget;
+
+/**
+ * Route Target memberships advertised by a single peer. Each Route Target is reference-counted, as the peer may
+ * advertise it in more than one RT Constrain route, and it remains a membership until the last such route is
+ * withdrawn.
+ *
+ * <p>
+ * Memberships are consulted for every route exported to the peer, hence they are exposed as an immutable snapshot,
+ * which is rebuilt only after the set of distinct Route Targets has changed.
+ */
+final class RouteTargetMemberships {
+    @GuardedBy("this")
+    private final Multiset<RouteTarget> counts = HashMultiset.create();
+    private volatile ImmutableSet<RouteTarget> snapshot = ImmutableSet.of();
+
+    /**
+     * Add a reference to a Route Target.
+     *
+     * @param routeTarget Route Target
+     * @return true if the Route Target has become a membership
+     */
+    synchronized boolean add(final RouteTarget routeTarget) {
+        if (this.counts.add(routeTarget) && this.counts.count(routeTarget) == 1) {
+            this.snapshot = null;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remove a reference to a Route Target.
+     *
+     * @param routeTarget Route Target
+     * @return true if the Route Target is no longer a membership
+     */
+    synchronized boolean remove(final RouteTarget routeTarget) {
+        if (this.counts.remove(routeTarget) && !this.counts.contains(routeTarget)) {
+            this.snapshot = null;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Return current memberships.
+     *
+     * @return immutable set of Route Targets
+     */
+    ImmutableSet<RouteTarget> getMemberships() {
+        final ImmutableSet<RouteTarget> local = this.snapshot;
+        return local != null ? local : buildSnapshot();
+    }
+
+    private synchronized ImmutableSet<RouteTarget> buildSnapshot() {
+        ImmutableSet<RouteTarget> local = this.snapshot;
+        if (local == null) {
+            local = ImmutableSet.copyOf(this.counts.elementSet());
+            this.snapshot = local;
+        }
+        return local;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return MoreObjects.toStringHelper(this).add("memberships", this.counts).toString();
+    }
+}
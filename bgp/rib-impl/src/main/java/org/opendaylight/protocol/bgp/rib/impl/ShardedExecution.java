@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Runs a task over a collection split into shards. Items are assigned to shards by their hash, hence items with the
+ * same hash are always processed by the same task invocation, in their original iteration order. The first shard is
+ * processed by the calling thread, the others are handed off to an executor.
+ */
+final class ShardedExecution {
+    private ShardedExecution() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Run a task over items split into shards and wait for all shards to complete. If any shard fails, this method
+     * still waits for all the other shards before throwing, so that no item is being processed once it returns.
+     *
+     * @param items items to process
+     * @param shards number of shards, must be positive
+     * @param hashFunction function assigning items to shards
+     * @param task task processing a single shard. It is invoked concurrently, hence it must be safe to do so.
+     * @param executor executor running all but the first shard
+     * @return Results of the task, in shard order
+     * @throws RuntimeException if any of the shards failed. Failures of other shards are attached as suppressed
+     *                          exceptions.
+     */
+    @SuppressWarnings("checkstyle:illegalCatch")
+    static <E, T> List<T> execute(final Collection<E> items, final int shards, final ToIntFunction<E> hashFunction,
+            final Function<List<E>, T> task, final Executor executor) {
+        checkArgument(shards > 0, "Shard count %s must be positive", shards);
+        requireNonNull(executor);
+
+        final List<List<E>> partitions = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            partitions.add(new ArrayList<>(items.size() / shards + 1));
+        }
+        for (final E item : items) {
+            partitions.get(Math.floorMod(hashFunction.applyAsInt(item), shards)).add(item);
+        }
+
+        final List<CompletableFuture<T>> futures = new ArrayList<>(shards - 1);
+        for (int i = 1; i < shards; i++) {
+            final List<E> partition = partitions.get(i);
+            futures.add(CompletableFuture.supplyAsync(() -> task.apply(partition), executor));
+        }
+
+        final List<T> ret = new ArrayList<>(shards);
+        RuntimeException failure = null;
+        try {
+            ret.add(task.apply(partitions.get(0)));
+        } catch (final RuntimeException e) {
+            failure = e;
+        }
+
+        for (final CompletableFuture<T> future : futures) {
+            try {
+                ret.add(future.join());
+            } catch (final CompletionException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return ret;
+    }
+}
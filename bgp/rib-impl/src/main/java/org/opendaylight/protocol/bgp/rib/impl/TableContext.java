@@ -10,6 +10,9 @@ package org.opendaylight.protocol.bgp.rib.impl;
 import static java.util.Objects.requireNonNull;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
 import org.opendaylight.mdsal.dom.api.DOMDataTreeWriteTransaction;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIBSupportContext;
@@ -30,6 +33,11 @@ import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgum
 final class TableContext {
     private final YangInstanceIdentifier tableId;
     private final RIBSupportContext tableSupport;
+    // Keys of routes present in the table, maintained as routes are written and removed. They are needed only for
+    // tables which may be retained across graceful restart, hence they are null unless tracking is enabled. Routes
+    // retained from a previous session are kept separately until they are refreshed by the peer.
+    private Set<NodeIdentifierWithPredicates> routes;
+    private Set<NodeIdentifierWithPredicates> staleRoutes = Collections.emptySet();
 
     TableContext(final RIBSupportContext tableSupport, final YangInstanceIdentifier tableId) {
         this.tableSupport = requireNonNull(tableSupport);
@@ -40,6 +48,24 @@ final class TableContext {
         return this.tableId;
     }
 
+    /**
+     * Enable or disable tracking of route keys. Routes written before tracking is enabled are not known to this
+     * context, hence it should be enabled before the peer starts advertising routes. Disabling tracking does not
+     * affect routes already marked as stale.
+     *
+     * @param track true if keys of written routes should be tracked
+     */
+    void setTrackRoutes(final boolean track) {
+        if (!track) {
+            this.routes = null;
+        } else if (this.routes == null) {
+            this.routes = new HashSet<>();
+        }
+    }
+
+    boolean isTrackingRoutes() {
+        return this.routes != null;
+    }
 
     void createEmptyTableStructure(final DOMDataTreeWriteTransaction tx) {
         this.tableSupport.createEmptyTableStructure(tx, this.tableId);
@@ -51,11 +77,67 @@ final class TableContext {
 
     Collection<NodeIdentifierWithPredicates> writeRoutes(final DOMDataTreeWriteTransaction tx, final MpReachNlri nlri,
                                                          final Attributes attributes) {
-        return this.tableSupport.writeRoutes(tx, this.tableId, nlri, attributes);
+        final Collection<NodeIdentifierWithPredicates> routeKeys = this.tableSupport.writeRoutes(tx, this.tableId,
+            nlri, attributes);
+        if (this.routes != null) {
+            this.routes.addAll(routeKeys);
+        }
+        removeStale(routeKeys);
+        return routeKeys;
     }
 
     void removeRoutes(final DOMDataTreeWriteTransaction tx, final MpUnreachNlri nlri) {
-        this.tableSupport.deleteRoutes(tx, this.tableId, nlri);
+        final Collection<NodeIdentifierWithPredicates> routeKeys = this.tableSupport.deleteRoutes(tx, this.tableId,
+            nlri);
+        if (this.routes != null) {
+            // Not Set.removeAll(), which may iterate over the set and look each key up in the collection
+            routeKeys.forEach(this.routes::remove);
+        }
+        removeStale(routeKeys);
+    }
+
+    private void removeStale(final Collection<NodeIdentifierWithPredicates> routeKeys) {
+        if (!this.staleRoutes.isEmpty()) {
+            routeKeys.forEach(this.staleRoutes::remove);
+        }
+    }
+
+    /**
+     * Mark all routes currently present in the table as stale. Routes remain stale until they are advertised again
+     * or until they are swept by {@link #takeStaleRoutes()}. This has no effect unless tracking is enabled.
+     */
+    void markRoutesStale() {
+        if (this.routes == null || this.routes.isEmpty()) {
+            return;
+        }
+        if (this.staleRoutes.isEmpty()) {
+            this.staleRoutes = this.routes;
+            this.routes = new HashSet<>();
+        } else {
+            this.staleRoutes.addAll(this.routes);
+            this.routes.clear();
+        }
+    }
+
+    /**
+     * Return keys of routes which are still stale and stop tracking them, as they are about to be removed.
+     *
+     * @return keys of stale routes
+     */
+    Set<NodeIdentifierWithPredicates> takeStaleRoutes() {
+        final Set<NodeIdentifierWithPredicates> ret = this.staleRoutes;
+        this.staleRoutes = Collections.emptySet();
+        return ret;
+    }
+
+    /**
+     * Stop tracking any routes, as the table has been cleared.
+     */
+    void clearRoutes() {
+        if (this.routes != null) {
+            this.routes = new HashSet<>();
+        }
+        this.staleRoutes = Collections.emptySet();
     }
 
     YangInstanceIdentifier routesPath() {
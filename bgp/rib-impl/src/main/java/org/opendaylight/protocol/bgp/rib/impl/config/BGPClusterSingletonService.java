@@ -12,6 +12,7 @@ import static org.opendaylight.protocol.bgp.rib.impl.config.OpenConfigMappingUti
 import static org.opendaylight.protocol.bgp.rib.impl.config.OpenConfigMappingUtil.getNeighborInstanceIdentifier;
 import static org.opendaylight.protocol.bgp.rib.impl.config.OpenConfigMappingUtil.getRibInstanceName;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -41,6 +42,7 @@ import org.opendaylight.mdsal.singleton.common.api.ClusterSingletonServiceProvid
 import org.opendaylight.mdsal.singleton.common.api.ServiceGroupIdentifier;
 import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.BGPRibRoutingPolicyFactory;
 import org.opendaylight.protocol.bgp.openconfig.spi.BGPTableTypeRegistryConsumer;
+import org.opendaylight.protocol.bgp.rib.impl.BgpLocRibRpc;
 import org.opendaylight.protocol.bgp.rib.impl.spi.BGPDispatcher;
 import org.opendaylight.protocol.bgp.rib.spi.RIBExtensionConsumerContext;
 import org.opendaylight.protocol.bgp.rib.spi.util.ClusterSingletonServiceRegistrationHelper;
@@ -49,7 +51,9 @@ import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.rev151009.bgp.n
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.rev151009.bgp.top.Bgp;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.rev151009.bgp.top.bgp.Global;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.rev151009.bgp.top.bgp.Neighbors;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.loc.rib.rpc.rev191001.BgpLocRibRpcService;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NeighborPeerGroupConfig;
+import org.opendaylight.yangtools.concepts.ObjectRegistration;
 import org.opendaylight.yangtools.yang.binding.DataObject;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.slf4j.Logger;
@@ -78,6 +82,8 @@ public final class BGPClusterSingletonService implements ClusterSingletonService
     private final DataBroker dataBroker;
     private final DOMSchemaService schemaService;
     private final RpcProviderService rpcRegistry;
+    @GuardedBy("this")
+    private ObjectRegistration<BgpLocRibRpcService> locRibRpcRegistration;
 
     BGPClusterSingletonService(
             final @NonNull PeerGroupConfigLoader peerGroupLoader,
@@ -114,6 +120,7 @@ public final class BGPClusterSingletonService implements ClusterSingletonService
     public synchronized void instantiateServiceInstance() {
         if (this.ribImpl != null) {
             this.ribImpl.instantiateServiceInstance();
+            registerLocRibRpc();
             this.peers.values().forEach(PeerBean::instantiateServiceInstance);
         }
         this.instantiated.set(true);
@@ -124,6 +131,7 @@ public final class BGPClusterSingletonService implements ClusterSingletonService
     public synchronized ListenableFuture<? extends CommitInfo> closeServiceInstance() {
         LOG.info("BGPClusterSingletonService {} close service instance", this.serviceGroupIdentifier.getValue());
         this.instantiated.set(false);
+        closeLocRibRpc();
 
         final List<ListenableFuture<? extends CommitInfo>> futurePeerCloseList = this.peers.values().stream()
                 .map(PeerBean::closeServiceInstance).collect(Collectors.toList());
@@ -199,6 +207,7 @@ public final class BGPClusterSingletonService implements ClusterSingletonService
 
     @SuppressWarnings("checkstyle:illegalCatch")
     private void closeRibService() {
+        closeLocRibRpc();
         try {
             this.ribImpl.closeServiceInstance().get(TIMEOUT_NS, TimeUnit.NANOSECONDS);
         } catch (final Exception e) {
@@ -213,6 +222,23 @@ public final class BGPClusterSingletonService implements ClusterSingletonService
         ribImpl.start(global, ribInstanceName, this.tableTypeRegistry);
         if (this.instantiated.get()) {
             this.ribImpl.instantiateServiceInstance();
+            registerLocRibRpc();
+        }
+    }
+
+    @Holding("this")
+    private void registerLocRibRpc() {
+        if (this.rpcRegistry != null && this.locRibRpcRegistration == null) {
+            this.locRibRpcRegistration = this.rpcRegistry.registerRpcImplementation(BgpLocRibRpcService.class,
+                new BgpLocRibRpc(this.ribImpl), ImmutableSet.of(this.ribImpl.getInstanceIdentifier()));
+        }
+    }
+
+    @Holding("this")
+    private void closeLocRibRpc() {
+        if (this.locRibRpcRegistration != null) {
+            this.locRibRpcRegistration.close();
+            this.locRibRpcRegistration = null;
         }
     }
 
@@ -36,6 +36,7 @@ import org.opendaylight.protocol.bgp.rib.impl.spi.BGPDispatcher;
 import org.opendaylight.protocol.bgp.rib.impl.spi.BGPPeerRegistry;
 import org.opendaylight.protocol.bgp.rib.impl.spi.BGPSessionPreferences;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIB;
+import org.opendaylight.protocol.bgp.rib.impl.spi.UpdateBatchingPreferences;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPPeerState;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPPeerStateConsumer;
 import org.opendaylight.protocol.concepts.KeyMapping;
@@ -220,6 +221,7 @@ public class BgpPeer implements PeerBean, BGPPeerStateConsumer {
         private final List<OptionalCapabilities> finalCapabilities;
         private final int gracefulRestartTimer;
         private final RevisedErrorHandlingSupport errorHandling;
+        private final UpdateBatchingPreferences updateBatching;
 
 
         private BgpPeerSingletonService(final RIB rib, final Neighbor neighbor, final InstanceIdentifier<Bgp> bgpIid,
@@ -271,6 +273,7 @@ public class BgpPeer implements PeerBean, BGPPeerStateConsumer {
             }
 
             this.errorHandling = OpenConfigMappingUtil.getRevisedErrorHandling(role, peerGroup, neighbor);
+            this.updateBatching = OpenConfigMappingUtil.getUpdateBatching(neighbor);
             this.bgpPeer = new BGPPeer(tableTypeRegistry, this.neighborAddress, peerGroupName, rib, role, clusterId,
                     neighborLocalAs, BgpPeer.this.rpcRegistry, afiSafisAdvertized, gracefulTables, llGracefulTimers,
                     BgpPeer.this);
@@ -344,4 +347,8 @@ public class BgpPeer implements PeerBean, BGPPeerStateConsumer {
     public synchronized Optional<RevisedErrorHandlingSupport> getErrorHandling() {
         return Optional.ofNullable(this.bgpPeerSingletonService.errorHandling);
     }
+
+    public synchronized Optional<UpdateBatchingPreferences> getUpdateBatching() {
+        return Optional.ofNullable(this.bgpPeerSingletonService.updateBatching);
+    }
 }
@@ -13,6 +13,7 @@ import com.google.common.collect.ImmutableList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -26,6 +27,7 @@ import org.opendaylight.protocol.bgp.mode.impl.add.n.paths.AddPathBestNPathSelec
 import org.opendaylight.protocol.bgp.openconfig.spi.BGPTableTypeRegistryConsumer;
 import org.opendaylight.protocol.bgp.parser.spi.RevisedErrorHandlingSupport;
 import org.opendaylight.protocol.bgp.parser.spi.pojo.RevisedErrorHandlingSupportImpl;
+import org.opendaylight.protocol.bgp.rib.impl.spi.UpdateBatchingPreferences;
 import org.opendaylight.protocol.concepts.KeyMapping;
 import org.opendaylight.protocol.util.Ipv4Util;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.multiprotocol.rev151009.BgpCommonAfiSafiList;
@@ -56,10 +58,12 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.mult
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.mp.capabilities.add.path.capability.AddressFamilies;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.mp.capabilities.add.path.capability.AddressFamiliesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.GlobalAddPathsConfig;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.GlobalAfiSafiConfigAugmentation;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.GlobalConfigAugmentation;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NeighborAddPathsConfig;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NeighborPeerGroupConfig;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NeighborTransportConfig;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NeighborUpdateBatchingConfig;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.PeerGroupTransportConfig;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.TransportConfig;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerRole;
@@ -77,6 +81,12 @@ final class OpenConfigMappingUtil {
     private static final List<AfiSafi> DEFAULT_AFISAFI = ImmutableList.of(IPV4_AFISAFI);
     private static final int CONNECT_RETRY = 30;
     private static final PortNumber PORT = new PortNumber(179);
+    private static final int UPDATE_BATCH_MAX_PREFIXES = 10000;
+    private static final int UPDATE_BATCH_MAX_UPDATES = 1000;
+    private static final int UPDATE_BATCH_LINGER_TIME = 5;
+    private static final int BEST_PATH_SHARDS = 1;
+    private static final int RIB_OUT_THREADS = 0;
+    private static final int RIB_OUT_QUEUE_DEPTH = 1024;
 
     private OpenConfigMappingUtil() {
         throw new UnsupportedOperationException();
@@ -133,6 +143,36 @@ final class OpenConfigMappingUtil {
         return new ClusterIdentifier(globalConfig.getRouterId());
     }
 
+    static int getBestPathShards(final org.opendaylight.yang.gen.v1.http.openconfig.net
+            .yang.bgp.rev151009.bgp.global.base.Config globalConfig) {
+        final GlobalConfigAugmentation globalConfigAugmentation
+                = globalConfig.augmentation(GlobalConfigAugmentation.class);
+        if (globalConfigAugmentation != null && globalConfigAugmentation.getBestPathShards() != null) {
+            return globalConfigAugmentation.getBestPathShards();
+        }
+        return BEST_PATH_SHARDS;
+    }
+
+    static int getRibOutThreads(final org.opendaylight.yang.gen.v1.http.openconfig.net
+            .yang.bgp.rev151009.bgp.global.base.Config globalConfig) {
+        final GlobalConfigAugmentation globalConfigAugmentation
+                = globalConfig.augmentation(GlobalConfigAugmentation.class);
+        if (globalConfigAugmentation != null && globalConfigAugmentation.getRibOutThreads() != null) {
+            return globalConfigAugmentation.getRibOutThreads();
+        }
+        return RIB_OUT_THREADS;
+    }
+
+    static int getRibOutQueueDepth(final org.opendaylight.yang.gen.v1.http.openconfig.net
+            .yang.bgp.rev151009.bgp.global.base.Config globalConfig) {
+        final GlobalConfigAugmentation globalConfigAugmentation
+                = globalConfig.augmentation(GlobalConfigAugmentation.class);
+        if (globalConfigAugmentation != null && globalConfigAugmentation.getRibOutQueueDepth() != null) {
+            return globalConfigAugmentation.getRibOutQueueDepth().intValue();
+        }
+        return RIB_OUT_QUEUE_DEPTH;
+    }
+
     static @Nullable ClusterIdentifier getNeighborClusterIdentifier(
             final @Nullable RouteReflector routeReflector, final @Nullable PeerGroup peerGroup) {
         if (peerGroup != null) {
@@ -178,6 +218,23 @@ final class OpenConfigMappingUtil {
         return pathSelectionModes;
     }
 
+    static Set<TablesKey> toPrefixIndexedTables(final List<AfiSafi> afiSafis,
+            final BGPTableTypeRegistryConsumer tableTypeRegistry) {
+        final Set<TablesKey> prefixIndexedTables = new HashSet<>();
+        for (final AfiSafi afiSafi : afiSafis) {
+            final org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.multiprotocol.rev151009.bgp.common.afi
+                    .safi.list.afi.safi.Config config = afiSafi.getConfig();
+            if (config != null) {
+                final GlobalAfiSafiConfigAugmentation configAugmentation
+                        = config.augmentation(GlobalAfiSafiConfigAugmentation.class);
+                if (configAugmentation != null && Boolean.TRUE.equals(configAugmentation.isLocRibPrefixIndex())) {
+                    tableTypeRegistry.getTableKey(afiSafi.getAfiSafiName()).ifPresent(prefixIndexedTables::add);
+                }
+            }
+        }
+        return prefixIndexedTables;
+    }
+
     static boolean isApplicationPeer(final Neighbor neighbor) {
         final org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.rev151009.bgp.neighbor.group
                 .Config config = neighbor.getConfig();
@@ -492,4 +549,23 @@ final class OpenConfigMappingUtil {
             .Config config = errorHandling.getConfig();
         return config == null ? Optional.empty() : Optional.of(config.isTreatAsWithdraw());
     }
+
+    static @Nullable UpdateBatchingPreferences getUpdateBatching(final Neighbor neighbor) {
+        final org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.rev151009.bgp.neighbor.group
+                .Config config = neighbor.getConfig();
+        if (config == null) {
+            return null;
+        }
+        final NeighborUpdateBatchingConfig batching = config.augmentation(NeighborUpdateBatchingConfig.class);
+        if (batching == null || !Boolean.TRUE.equals(batching.isUpdateBatching())) {
+            return null;
+        }
+        final Long maxPrefixes = batching.getUpdateBatchMaxPrefixes();
+        final Long maxUpdates = batching.getUpdateBatchMaxUpdates();
+        final Integer lingerTime = batching.getUpdateBatchLingerTime();
+        return new UpdateBatchingPreferences(
+                maxPrefixes == null ? UPDATE_BATCH_MAX_PREFIXES : (int) Math.min(maxPrefixes, Integer.MAX_VALUE),
+                maxUpdates == null ? UPDATE_BATCH_MAX_UPDATES : (int) Math.min(maxUpdates, Integer.MAX_VALUE),
+                lingerTime == null ? UPDATE_BATCH_LINGER_TIME : lingerTime);
+    }
 }
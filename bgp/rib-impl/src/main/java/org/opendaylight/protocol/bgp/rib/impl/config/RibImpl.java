@@ -8,7 +8,10 @@
 package org.opendaylight.protocol.bgp.rib.impl.config;
 
 import static org.opendaylight.protocol.bgp.rib.impl.config.OpenConfigMappingUtil.getAfiSafiWithDefault;
+import static org.opendaylight.protocol.bgp.rib.impl.config.OpenConfigMappingUtil.getBestPathShards;
 import static org.opendaylight.protocol.bgp.rib.impl.config.OpenConfigMappingUtil.getGlobalClusterIdentifier;
+import static org.opendaylight.protocol.bgp.rib.impl.config.OpenConfigMappingUtil.getRibOutQueueDepth;
+import static org.opendaylight.protocol.bgp.rib.impl.config.OpenConfigMappingUtil.getRibOutThreads;
 import static org.opendaylight.protocol.bgp.rib.impl.config.OpenConfigMappingUtil.toTableTypes;
 
 import com.google.common.base.Preconditions;
@@ -34,6 +37,7 @@ import org.opendaylight.protocol.bgp.rib.impl.CodecsRegistryImpl;
 import org.opendaylight.protocol.bgp.rib.impl.RIBImpl;
 import org.opendaylight.protocol.bgp.rib.impl.spi.BGPDispatcher;
 import org.opendaylight.protocol.bgp.rib.impl.spi.CodecsRegistry;
+import org.opendaylight.protocol.bgp.rib.impl.spi.LocRibPrefixIndex;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIB;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIBSupportContextRegistry;
 import org.opendaylight.protocol.bgp.rib.spi.BGPPeerTracker;
@@ -54,6 +58,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.TablesKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.BgpId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.ClusterIdentifier;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.RouteTarget;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
 import org.opendaylight.yangtools.yang.binding.KeyedInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
@@ -78,6 +83,9 @@ public final class RibImpl implements RIB, BGPRibStateConsumer, AutoCloseable {
     private Ipv4Address routerId;
 
     private ClusterIdentifier clusterId;
+    private int bestPathShards;
+    private int ribOutThreads;
+    private int ribOutQueueDepth;
     private final DataBroker dataBroker;
 
     public RibImpl(
@@ -111,10 +119,16 @@ public final class RibImpl implements RIB, BGPRibStateConsumer, AutoCloseable {
         final AsNumber globalAs = globalConfig.getAs();
         final Ipv4Address globalRouterId = global.getConfig().getRouterId();
         final ClusterIdentifier globalClusterId = getGlobalClusterIdentifier(globalConfig);
+        final int globalBestPathShards = getBestPathShards(globalConfig);
+        final int globalRibOutThreads = getRibOutThreads(globalConfig);
+        final int globalRibOutQueueDepth = getRibOutQueueDepth(globalConfig);
         return this.afiSafi.containsAll(globalAfiSafi) && globalAfiSafi.containsAll(this.afiSafi)
                 && globalAs.equals(this.asNumber)
                 && globalRouterId.getValue().equals(this.routerId.getValue())
-                && globalClusterId.getValue().equals(this.clusterId.getValue());
+                && globalClusterId.getValue().equals(this.clusterId.getValue())
+                && globalBestPathShards == this.bestPathShards
+                && globalRibOutThreads == this.ribOutThreads
+                && globalRibOutQueueDepth == this.ribOutQueueDepth;
     }
 
     @Override
@@ -221,6 +235,11 @@ public final class RibImpl implements RIB, BGPRibStateConsumer, AutoCloseable {
         return this.ribImpl.getPeerTracker();
     }
 
+    @Override
+    public LocRibPrefixIndex getLocRibPrefixIndex(final TablesKey tableKey) {
+        return this.ribImpl.getLocRibPrefixIndex(tableKey);
+    }
+
     @Override
     public String toString() {
         return this.ribImpl != null ? this.ribImpl.toString() : "";
@@ -235,6 +254,9 @@ public final class RibImpl implements RIB, BGPRibStateConsumer, AutoCloseable {
         this.asNumber = globalConfig.getAs();
         this.routerId = globalConfig.getRouterId();
         this.clusterId = getGlobalClusterIdentifier(globalConfig);
+        this.bestPathShards = getBestPathShards(globalConfig);
+        this.ribOutThreads = getRibOutThreads(globalConfig);
+        this.ribOutQueueDepth = getRibOutQueueDepth(globalConfig);
         final Map<TablesKey, PathSelectionMode> pathSelectionModes = OpenConfigMappingUtil
                 .toPathSelectionMode(this.afiSafi, tableTypeRegistry).entrySet()
                 .stream()
@@ -258,7 +280,11 @@ public final class RibImpl implements RIB, BGPRibStateConsumer, AutoCloseable {
                 this.dataBroker,
                 ribPolicy,
                 toTableTypes(this.afiSafi, tableTypeRegistry),
-                pathSelectionModes);
+                pathSelectionModes,
+                this.bestPathShards,
+                this.ribOutThreads,
+                this.ribOutQueueDepth,
+                OpenConfigMappingUtil.toPrefixIndexedTables(this.afiSafi, tableTypeRegistry));
     }
 
     @Override
@@ -276,4 +302,9 @@ public final class RibImpl implements RIB, BGPRibStateConsumer, AutoCloseable {
     public void refreshTable(final TablesKey tk, final PeerId peerId) {
         this.ribImpl.refreshTable(tk, peerId);
     }
+
+    @Override
+    public void refreshTable(final TablesKey tk, final PeerId peerId, final Set<RouteTarget> routeTargets) {
+        this.ribImpl.refreshTable(tk, peerId, routeTargets);
+    }
 }
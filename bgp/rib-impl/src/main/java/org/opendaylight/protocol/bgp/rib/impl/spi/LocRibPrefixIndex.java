@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl.spi;
+
+import java.util.List;
+import org.eclipse.jdt.annotation.NonNull;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpPrefix;
+
+/**
+ * In-memory index of Loc-RIB routes of a single table by their IP prefix, answering prefix queries without scanning
+ * the table in the datastore. Queries return route keys, which identify routes in the Loc-RIB table. A single prefix
+ * may be reachable through multiple route keys, for example in different Route Distinguishers of L3VPN tables.
+ * Tables of families whose routes are not IP prefixes do not have any entries.
+ */
+public interface LocRibPrefixIndex {
+    /**
+     * Return route keys of the most specific prefix covering an address.
+     *
+     * @param address IP address
+     * @return Route keys, empty if no prefix covers the address
+     */
+    @NonNull List<String> longestMatch(@NonNull IpAddress address);
+
+    /**
+     * Return route keys of all prefixes covering a prefix, including the prefix itself, from the least specific
+     * to the most specific one.
+     *
+     * @param prefix IP prefix
+     * @return Route keys, empty if no prefix covers the prefix
+     */
+    @NonNull List<String> covering(@NonNull IpPrefix prefix);
+
+    /**
+     * Return route keys of all prefixes covered by a prefix, including the prefix itself.
+     *
+     * @param prefix IP prefix
+     * @return Route keys, empty if the prefix does not cover any prefix
+     */
+    @NonNull List<String> coveredBy(@NonNull IpPrefix prefix);
+}
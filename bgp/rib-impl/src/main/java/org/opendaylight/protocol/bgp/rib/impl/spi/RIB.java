@@ -9,6 +9,7 @@ package org.opendaylight.protocol.bgp.rib.impl.spi;
 
 import java.util.Set;
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.opendaylight.mdsal.binding.api.DataBroker;
 import org.opendaylight.mdsal.binding.api.TransactionChain;
 import org.opendaylight.mdsal.binding.api.TransactionChainListener;
@@ -127,4 +128,12 @@ public interface RIB extends RibReference, RibOutRefresh {
      * @return peer tracker
      */
     BGPPeerTracker getPeerTracker();
+
+    /**
+     * Returns the prefix index of a Loc-RIB table.
+     *
+     * @param tableKey table
+     * @return prefix index, or null if the table is not present or its prefixes are not indexed
+     */
+    @Nullable LocRibPrefixIndex getLocRibPrefixIndex(@NonNull TablesKey tableKey);
 }
@@ -44,9 +44,10 @@ public abstract class RIBSupportContext {
      * @param tx Transaction to be used
      * @param tableId Instance Identifier of table to be updated
      * @param nlri UnreachNlri which contains routes to be removed.
+     * @return Set of processed route key identifiers
      */
-    public abstract void deleteRoutes(DOMDataTreeWriteTransaction tx, YangInstanceIdentifier tableId,
-            MpUnreachNlri nlri);
+    public abstract Collection<NodeIdentifierWithPredicates> deleteRoutes(DOMDataTreeWriteTransaction tx,
+            YangInstanceIdentifier tableId, MpUnreachNlri nlri);
 
     /**
      * Writes supplied routes and attributes to RIB table using supplied transaction.
@@ -8,8 +8,10 @@
 
 package org.opendaylight.protocol.bgp.rib.impl.spi;
 
+import java.util.Set;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.TablesKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.RouteTarget;
 
 /**
  * Forces a reevaluation of paths and update on peer ribout.
@@ -22,4 +24,16 @@ public interface RibOutRefresh {
      * @param peerId peer to advertize / withdraw paths after reevaluation
      */
     void refreshTable(TablesKey tk, PeerId peerId);
+
+    /**
+     * Triggers the reevaluation of paths affected by a change of peer Route Target memberships. Only paths carrying
+     * any of the Route Targets need to be reevaluated, unless the default Route Target is among them.
+     *
+     * @param tk           table key of table route paths to be reevaluated
+     * @param peerId       peer to advertize / withdraw paths after reevaluation
+     * @param routeTargets Route Targets whose membership has changed
+     */
+    default void refreshTable(final TablesKey tk, final PeerId peerId, final Set<RouteTarget> routeTargets) {
+        refreshTable(tk, peerId);
+    }
 }
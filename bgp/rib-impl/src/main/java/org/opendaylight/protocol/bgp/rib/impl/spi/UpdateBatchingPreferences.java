@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl.spi;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.MoreObjects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DTO for Adj-RIB-In update batching preferences of a single peer. When batching is enabled, consecutive UPDATE
+ * messages are written into a single transaction until either the prefix count, the UPDATE count or the linger time
+ * bound is hit.
+ */
+public final class UpdateBatchingPreferences {
+    public static final UpdateBatchingPreferences DISABLED = new UpdateBatchingPreferences(1, 1, 0);
+
+    private final int maxPrefixes;
+    private final int maxUpdates;
+    private final long lingerNanos;
+
+    /**
+     * Creates a new DTO for update batching.
+     *
+     * @param maxPrefixes maximum number of prefixes in a single batch
+     * @param maxUpdates maximum number of UPDATE messages in a single batch
+     * @param lingerMillis maximum time a batch is held open, in milliseconds
+     */
+    public UpdateBatchingPreferences(final int maxPrefixes, final int maxUpdates, final long lingerMillis) {
+        checkArgument(maxPrefixes > 0, "Maximum prefixes %s must be positive", maxPrefixes);
+        checkArgument(maxUpdates > 0, "Maximum updates %s must be positive", maxUpdates);
+        checkArgument(lingerMillis >= 0, "Linger time %s must not be negative", lingerMillis);
+        this.maxPrefixes = maxPrefixes;
+        this.maxUpdates = maxUpdates;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+    }
+
+    /**
+     * Returns true if batching is in effect, i.e. more than a single UPDATE can be held in a transaction.
+     *
+     * @return true if batching is enabled
+     */
+    public boolean isEnabled() {
+        return this.maxUpdates > 1 && this.lingerNanos > 0;
+    }
+
+    /**
+     * Returns maximum number of prefixes in a single batch.
+     *
+     * @return maximum number of prefixes
+     */
+    public int getMaxPrefixes() {
+        return this.maxPrefixes;
+    }
+
+    /**
+     * Returns maximum number of UPDATE messages in a single batch.
+     *
+     * @return maximum number of UPDATE messages
+     */
+    public int getMaxUpdates() {
+        return this.maxUpdates;
+    }
+
+    /**
+     * Returns maximum time a batch is held open.
+     *
+     * @return linger time, in nanoseconds
+     */
+    public long getLingerNanos() {
+        return this.lingerNanos;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("maxPrefixes", this.maxPrefixes)
+                .add("maxUpdates", this.maxUpdates).add("lingerNanos", this.lingerNanos).toString();
+    }
+}
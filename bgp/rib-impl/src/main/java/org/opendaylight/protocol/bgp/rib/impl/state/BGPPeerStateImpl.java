@@ -9,6 +9,7 @@ package org.opendaylight.protocol.bgp.rib.impl.state;
 
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import java.util.Collections;
 import java.util.HashMap;
@@ -16,12 +17,18 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import org.checkerframework.checker.lock.qual.GuardedBy;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.opendaylight.protocol.bgp.rib.DefaultRibReference;
 import org.opendaylight.protocol.bgp.rib.impl.spi.BGPMessagesListener;
+import org.opendaylight.protocol.bgp.rib.impl.state.peer.ImportPolicyCacheCounters;
 import org.opendaylight.protocol.bgp.rib.impl.state.peer.PrefixesInstalledCounters;
 import org.opendaylight.protocol.bgp.rib.impl.state.peer.PrefixesReceivedCounters;
 import org.opendaylight.protocol.bgp.rib.impl.state.peer.PrefixesSentCounters;
@@ -32,6 +39,7 @@ import org.opendaylight.protocol.bgp.rib.spi.state.BGPLlGracelfulRestartState;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPPeerMessagesState;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPPeerState;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPPeerStateConsumer;
+import org.opendaylight.protocol.bgp.rib.spi.state.BGPRibOutLatencyState;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.operational.rev151009.BgpAfiSafiGracefulRestartState.Mode;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.Notify;
@@ -44,8 +52,12 @@ import org.opendaylight.yangtools.yang.binding.Notification;
 
 public abstract class BGPPeerStateImpl extends DefaultRibReference implements BGPPeerState, BGPAfiSafiState,
         BGPGracelfulRestartState, BGPLlGracelfulRestartState,BGPErrorHandlingState, BGPPeerMessagesState,
-        BGPPeerStateConsumer, BGPMessagesListener {
+        BGPPeerStateConsumer, BGPMessagesListener, BGPRibOutLatencyState {
     private static final long NONE = 0L;
+    // Latency buckets of 1us, 2us, 4us, ... 2^20us (~1s), followed by a catch-all bucket
+    private static final int LATENCY_BUCKETS = 22;
+    private static final List<Long> LATENCY_BUCKET_BOUNDS = LongStream.range(0, LATENCY_BUCKETS - 1)
+            .mapToObj(i -> 1L << i).collect(ImmutableList.toImmutableList());
     private final IpAddress neighborAddress;
     private final Set<TablesKey> afiSafisAdvertized;
     private final Set<TablesKey> afiSafisGracefulAdvertized;
@@ -57,6 +69,8 @@ public abstract class BGPPeerStateImpl extends DefaultRibReference implements BG
     private final LongAdder updateReceivedCounter = new LongAdder();
     private final LongAdder notificationReceivedCounter = new LongAdder();
     private final LongAdder erroneousUpdate = new LongAdder();
+    private final AtomicLongArray ribOutLatencyBuckets = new AtomicLongArray(LATENCY_BUCKETS);
+    private final LongAccumulator ribOutMaxLatency = new LongAccumulator(Long::max, 0);
     private final String groupId;
     @GuardedBy("this")
     private boolean active;
@@ -68,6 +82,8 @@ public abstract class BGPPeerStateImpl extends DefaultRibReference implements BG
     @GuardedBy("this")
     private PrefixesInstalledCounters prefixesInstalled;
     @GuardedBy("this")
+    private ImportPolicyCacheCounters importPolicyCache;
+    @GuardedBy("this")
     private boolean localRestarting;
     @GuardedBy("this")
     private int peerRestartTime;
@@ -149,6 +165,22 @@ public abstract class BGPPeerStateImpl extends DefaultRibReference implements BG
         return this.prefixesReceived.getPrefixedReceivedCount(tablesKey);
     }
 
+    @Override
+    public final synchronized long getImportPolicyCacheHitCount(final TablesKey tablesKey) {
+        if (this.importPolicyCache == null) {
+            return NONE;
+        }
+        return this.importPolicyCache.getImportPolicyCacheHitCount(tablesKey);
+    }
+
+    @Override
+    public final synchronized long getImportPolicyCacheMissCount(final TablesKey tablesKey) {
+        if (this.importPolicyCache == null) {
+            return NONE;
+        }
+        return this.importPolicyCache.getImportPolicyCacheMissCount(tablesKey);
+    }
+
     @Override
     public final Set<TablesKey> getAfiSafisAdvertized() {
         return ImmutableSet.copyOf(this.afiSafisAdvertized);
@@ -206,9 +238,11 @@ public abstract class BGPPeerStateImpl extends DefaultRibReference implements BG
 
     protected final synchronized void registerPrefixesCounters(
             final @NonNull PrefixesReceivedCounters newPrefixesReceived,
-            final @NonNull PrefixesInstalledCounters newPrefixesInstalled) {
+            final @NonNull PrefixesInstalledCounters newPrefixesInstalled,
+            final @NonNull ImportPolicyCacheCounters newImportPolicyCache) {
         this.prefixesReceived = newPrefixesReceived;
         this.prefixesInstalled = newPrefixesInstalled;
+        this.importPolicyCache = newImportPolicyCache;
     }
 
     protected final synchronized void resetState() {
@@ -274,6 +308,48 @@ public abstract class BGPPeerStateImpl extends DefaultRibReference implements BG
         }
     }
 
+    /**
+     * Record latency of an update to this peer's Adj-RIB-Out.
+     *
+     * @param latencyNanos latency in nanoseconds
+     */
+    public final void recordRibOutLatency(final long latencyNanos) {
+        final long micros = Math.max(TimeUnit.NANOSECONDS.toMicros(latencyNanos), 1);
+        final int bucket = Long.SIZE - Long.numberOfLeadingZeros(micros - 1);
+        this.ribOutLatencyBuckets.incrementAndGet(Math.min(bucket, LATENCY_BUCKETS - 1));
+        this.ribOutMaxLatency.accumulate(micros);
+    }
+
+    @Override
+    public final BGPRibOutLatencyState getBGPRibOutLatencyState() {
+        return this;
+    }
+
+    @Override
+    public final long getRibOutUpdateCount() {
+        long count = 0;
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            count += this.ribOutLatencyBuckets.get(i);
+        }
+        return count;
+    }
+
+    @Override
+    public final long getRibOutMaxLatency() {
+        return this.ribOutMaxLatency.get();
+    }
+
+    @Override
+    public final List<Long> getRibOutLatencyBucketBounds() {
+        return LATENCY_BUCKET_BOUNDS;
+    }
+
+    @Override
+    public final List<Long> getRibOutLatencyBucketCounts() {
+        return IntStream.range(0, LATENCY_BUCKETS).mapToObj(this.ribOutLatencyBuckets::get)
+                .collect(ImmutableList.toImmutableList());
+    }
+
     @Override
     public final synchronized boolean isActive() {
         return this.active;
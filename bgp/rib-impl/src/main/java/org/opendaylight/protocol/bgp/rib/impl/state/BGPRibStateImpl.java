@@ -19,6 +19,7 @@ import org.opendaylight.protocol.bgp.rib.impl.state.rib.TotalPathsCounter;
 import org.opendaylight.protocol.bgp.rib.impl.state.rib.TotalPrefixesCounter;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPRibState;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPRibStateConsumer;
+import org.opendaylight.protocol.util.InterningReferenceCache;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.AsNumber;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.bgp.rib.Rib;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.bgp.rib.RibKey;
@@ -75,6 +76,21 @@ public class BGPRibStateImpl extends DefaultRibReference implements BGPRibState,
         return this.totalPrefixes.get(tablesKey).getPrefixesCount();
     }
 
+    @Override
+    public final long getAttributeCacheHitCount() {
+        return InterningReferenceCache.getInstance().getHitCount();
+    }
+
+    @Override
+    public final long getAttributeCacheMissCount() {
+        return InterningReferenceCache.getInstance().getMissCount();
+    }
+
+    @Override
+    public final long getAttributeCacheSize() {
+        return InterningReferenceCache.getInstance().getSize();
+    }
+
     @Override
     public final AsNumber getAs() {
         return this.localAs;
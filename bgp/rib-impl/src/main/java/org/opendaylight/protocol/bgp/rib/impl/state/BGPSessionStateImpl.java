@@ -14,6 +14,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import org.checkerframework.checker.lock.qual.GuardedBy;
+import org.opendaylight.protocol.bgp.parser.spi.pojo.ParsedAttributesCache;
 import org.opendaylight.protocol.bgp.rib.impl.StrictBGPPeerRegistry;
 import org.opendaylight.protocol.bgp.rib.impl.spi.BGPMessagesListener;
 import org.opendaylight.protocol.bgp.rib.impl.spi.BGPSessionStateListener;
@@ -54,6 +55,8 @@ public final class BGPSessionStateImpl implements BGPSessionState, BGPTimersStat
     private State sessionState;
     @GuardedBy("this")
     private BGPMessagesListener messagesListenerCounter;
+    @GuardedBy("this")
+    private ParsedAttributesCache attributesCache;
 
     public BGPSessionStateImpl() {
         this.sessionState = State.OPEN_CONFIRM;
@@ -150,6 +153,16 @@ public final class BGPSessionStateImpl implements BGPSessionState, BGPTimersStat
         return this.routerRefreshCapability;
     }
 
+    @Override
+    public synchronized long getParsedAttributesCacheHitCount() {
+        return this.attributesCache == null ? 0 : this.attributesCache.getHitCount();
+    }
+
+    @Override
+    public synchronized long getParsedAttributesCacheMissCount() {
+        return this.attributesCache == null ? 0 : this.attributesCache.getMissCount();
+    }
+
     @Override
     public synchronized PortNumber getLocalPort() {
         return this.localPort;
@@ -178,4 +191,8 @@ public final class BGPSessionStateImpl implements BGPSessionState, BGPTimersStat
     public synchronized void registerMessagesCounter(final BGPMessagesListener bgpMessagesListener) {
         this.messagesListenerCounter = bgpMessagesListener;
     }
+
+    public synchronized void registerAttributesCache(final ParsedAttributesCache parsedAttributesCache) {
+        this.attributesCache = parsedAttributesCache;
+    }
 }
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl.state.peer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.TablesKey;
+
+/**
+ * Expose Import Policy Cache Hit/Miss Counts.
+ */
+@NonNullByDefault
+public interface ImportPolicyCacheCounters {
+    /**
+     * Routes received from Peer whose import policy result was reused from an earlier route, per Table.
+     *
+     * @param tablesKey table
+     * @return count
+     */
+    long getImportPolicyCacheHitCount(TablesKey tablesKey);
+
+    /**
+     * Routes received from Peer for which import policy was applied, per Table.
+     *
+     * @param tablesKey table
+     * @return count
+     */
+    long getImportPolicyCacheMissCount(TablesKey tablesKey);
+}
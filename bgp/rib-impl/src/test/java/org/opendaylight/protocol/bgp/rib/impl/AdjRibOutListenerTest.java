@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.opendaylight.protocol.bgp.rib.spi.RIBNodeIdentifiers.ATTRIBUTES_NID;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.concurrent.EventExecutor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.mdsal.dom.api.DOMDataTreeChangeService;
+import org.opendaylight.mdsal.dom.api.DOMDataTreeIdentifier;
+import org.opendaylight.protocol.bgp.rib.impl.spi.Codecs;
+import org.opendaylight.protocol.bgp.rib.impl.spi.CodecsRegistry;
+import org.opendaylight.protocol.bgp.rib.spi.RIBSupport;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.ipv4.routes.Ipv4Route;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.Update;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.UpdateBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.LocalPrefBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.BgpRib;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.TablesKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.Ipv4AddressFamily;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.UnicastSubsequentAddressFamily;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.yang.binding.Notification;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+
+public class AdjRibOutListenerTest {
+    private static final TablesKey TABLES_KEY = new TablesKey(Ipv4AddressFamily.class,
+        UnicastSubsequentAddressFamily.class);
+    private static final QName PREFIX_QNAME = QName.create(Ipv4Route.QNAME, "prefix").intern();
+    private static final QName ROUTE_KEY_QNAME = QName.create(Ipv4Route.QNAME, "route-key").intern();
+    private static final QName ATTRIBUTE_QNAME = QName.create(ATTRIBUTES_NID.getNodeType(), "test").intern();
+    private static final Attributes ATTRIBUTES_A = new AttributesBuilder()
+            .setLocalPref(new LocalPrefBuilder().setPref(100L).build()).build();
+    private static final Attributes ATTRIBUTES_B = new AttributesBuilder()
+            .setLocalPref(new LocalPrefBuilder().setPref(200L).build()).build();
+    private static final Update EMPTY_UPDATE = new UpdateBuilder().build();
+
+    @Mock
+    private BGPSessionImpl bgpSession;
+    @Mock
+    private CodecsRegistry registry;
+    @Mock
+    private Codecs codecs;
+    @Mock
+    private RIBSupport<?, ?, ?, ?> support;
+    @Mock
+    private DOMDataTreeChangeService service;
+    @Mock
+    private ListenerRegistration<AdjRibOutListener> registration;
+    @Mock
+    private DataTreeCandidateNode tables;
+    @Mock
+    private ChannelHandlerContext ctx;
+    @Mock
+    private Channel channel;
+    @Mock
+    private EventExecutor executor;
+    private ChannelOutputLimiter limiter;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        this.limiter = new ChannelOutputLimiter(this.bgpSession);
+        doReturn(this.codecs).when(this.registry).getCodecs(this.support);
+        doReturn(ATTRIBUTES_NID).when(this.support).routeAttributesIdentifier();
+        doReturn(this.registration).when(this.service).registerDataTreeChangeListener(any(DOMDataTreeIdentifier.class),
+            any(AdjRibOutListener.class));
+        doReturn(ATTRIBUTES_A).when(this.codecs).deserializeAttributes(attributesNode("a"));
+        doReturn(ATTRIBUTES_B).when(this.codecs).deserializeAttributes(attributesNode("b"));
+        doReturn(EMPTY_UPDATE).when(this.support).buildUpdate(anyCollection(), anyCollection(), any(Attributes.class));
+        doReturn(this.channel).when(this.ctx).channel();
+        doReturn(this.executor).when(this.ctx).executor();
+        doAnswer(invocation -> {
+            final Runnable task = invocation.getArgument(0);
+            task.run();
+            return null;
+        }).when(this.executor).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void testPackStandardMessages() {
+        final List<Update> updates = advertiseRoutes(false, 1000);
+        assertEquals(2, updates.size());
+        assertEquals(1000, updates.get(0).getNlri().size() + updates.get(1).getNlri().size());
+        for (final Update update : updates) {
+            // Each /24 NLRI takes up 4 bytes
+            assertTrue(update.getNlri().size() * 4 < 4096 / 2);
+            assertEquals(ATTRIBUTES_A, update.getAttributes());
+        }
+    }
+
+    @Test
+    public void testPackExtendedMessages() {
+        final List<Update> updates = advertiseRoutes(true, 1000);
+        assertEquals(1, updates.size());
+        assertEquals(1000, updates.get(0).getNlri().size());
+    }
+
+    @Test
+    public void testGroupByAttributes() {
+        final AdjRibOutListener listener = createListener(false, false);
+        listener.onDataTreeChanged(change(
+            written(route("10.0.0.0/24", "a")),
+            written(route("10.0.1.0/24", "b")),
+            written(route("10.0.2.0/24", "a")),
+            written(route("10.0.3.0/24", "b"))));
+
+        final List<Update> updates = sentUpdates(3);
+        assertEquals(ATTRIBUTES_A, updates.get(0).getAttributes());
+        assertEquals(2, updates.get(0).getNlri().size());
+        assertEquals("10.0.0.0/24", updates.get(0).getNlri().get(0).getPrefix().getValue());
+        assertEquals("10.0.2.0/24", updates.get(0).getNlri().get(1).getPrefix().getValue());
+        assertEquals(ATTRIBUTES_B, updates.get(1).getAttributes());
+        assertEquals(2, updates.get(1).getNlri().size());
+        assertEquals(EMPTY_UPDATE, updates.get(2));
+        assertEquals(4, listener.getPrefixesSentCount());
+    }
+
+    @Test
+    public void testWithdrawalsWithoutAttributes() {
+        final AdjRibOutListener listener = createListener(false, false);
+        listener.onDataTreeChanged(change(
+            deleted(route("10.0.0.0/24", "a")),
+            deleted(route("10.0.1.0/24", "b"))));
+
+        final Update update = sentUpdates(2).get(0);
+        assertNull(update.getAttributes());
+        assertEquals(2, update.getWithdrawnRoutes().size());
+        verify(this.codecs, never()).deserializeAttributes(any(ContainerNode.class));
+        assertEquals(0, listener.getPrefixesSentCount());
+    }
+
+    @Test
+    public void testMpWithdrawalsWithoutAttributes() {
+        final AdjRibOutListener listener = createListener(true, false);
+        listener.onDataTreeChanged(change(
+            deleted(route("10.0.0.0/24", "a")),
+            deleted(route("10.0.1.0/24", "b"))));
+
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<Collection<MapEntryNode>> withdrawn = ArgumentCaptor.forClass(Collection.class);
+        verify(this.support).buildUpdate(eq(Collections.emptyList()), withdrawn.capture(),
+            eq(new AttributesBuilder().build()));
+        assertEquals(2, withdrawn.getValue().size());
+        verify(this.codecs, never()).deserializeAttributes(any(ContainerNode.class));
+    }
+
+    @Test
+    public void testRoutesWithoutPrefix() {
+        final AdjRibOutListener listener = createListener(true, false);
+        listener.onDataTreeChanged(change(
+            written(keyedRoute("route1")),
+            written(keyedRoute("route2")),
+            written(keyedRoute("route3"))));
+
+        // The size of these routes is unknown, hence each of them has to be sent on its own
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<Collection<MapEntryNode>> advertised = ArgumentCaptor.forClass(Collection.class);
+        verify(this.support, times(3)).buildUpdate(advertised.capture(), eq(Collections.emptyList()),
+            eq(ATTRIBUTES_A));
+        for (final Collection<MapEntryNode> routes : advertised.getAllValues()) {
+            assertEquals(1, routes.size());
+        }
+        assertEquals(3, listener.getPrefixesSentCount());
+    }
+
+    @Test
+    public void testEndOfRibOnce() {
+        final AdjRibOutListener listener = createListener(false, false);
+        listener.onDataTreeChanged(change(written(route("10.0.0.0/24", "a"))));
+        final List<Update> initial = sentUpdates(2);
+        assertEquals(1, initial.get(0).getNlri().size());
+        assertEquals(EMPTY_UPDATE, initial.get(1));
+
+        // End-of-RIB is sent only after the initial routes
+        listener.onDataTreeChanged(change(written(route("10.0.1.0/24", "a"))));
+        final List<Update> sent = sentUpdates(3);
+        assertEquals("10.0.1.0/24", sent.get(2).getNlri().get(0).getPrefix().getValue());
+    }
+
+    @Test
+    public void testEndOfRibOnEmptyTable() {
+        createListener(false, false).onDataTreeChanged(change());
+        assertEquals(EMPTY_UPDATE, sentUpdates(1).get(0));
+    }
+
+    @Test
+    public void testPendingRouteSuperseded() throws Exception {
+        final AdjRibOutListener listener = createListener(false, false);
+        setWritable(false);
+        listener.onDataTreeChanged(change(written(route("10.0.0.0/24", "a")), written(route("10.0.1.0/24", "a"))));
+        listener.onDataTreeChanged(change(written(route("10.0.0.0/24", "b")), deleted(route("10.0.1.0/24", "a"))));
+        verify(this.bgpSession, never()).write(any(Notification.class));
+
+        // Only the last change of each route is sent, End-of-RIB follows them
+        setWritable(true);
+        final List<Update> sent = sentUpdates(3);
+        assertEquals(1, sent.get(0).getWithdrawnRoutes().size());
+        assertEquals("10.0.1.0/24", sent.get(0).getWithdrawnRoutes().get(0).getPrefix().getValue());
+        assertEquals(ATTRIBUTES_B, sent.get(1).getAttributes());
+        assertEquals("10.0.0.0/24", sent.get(1).getNlri().get(0).getPrefix().getValue());
+        assertEquals(EMPTY_UPDATE, sent.get(2));
+        assertEquals(1, listener.getPrefixesSentCount());
+    }
+
+    @Test
+    public void testDrainAfterWritable() throws Exception {
+        final AdjRibOutListener listener = createListener(false, true);
+        setWritable(false);
+        final List<DataTreeCandidateNode> routes = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            routes.add(written(route("10." + (i >> 8) + "." + (i & 0xff) + ".0/24", "a")));
+        }
+        listener.onDataTreeChanged(change(routes.toArray(new DataTreeCandidateNode[0])));
+        verify(this.bgpSession, never()).write(any(Notification.class));
+
+        setWritable(true);
+        final List<Update> sent = sentUpdates(-1);
+        int advertised = 0;
+        for (final Update update : sent.subList(0, sent.size() - 1)) {
+            advertised += update.getNlri().size();
+        }
+        assertEquals(3000, advertised);
+        assertEquals(EMPTY_UPDATE, sent.get(sent.size() - 1));
+        assertEquals(3000, listener.getPrefixesSentCount());
+    }
+
+    @Test
+    public void testClosedDropsPending() throws Exception {
+        final AdjRibOutListener listener = createListener(false, false);
+        setWritable(false);
+        listener.onDataTreeChanged(change(written(route("10.0.0.0/24", "a"))));
+        listener.close();
+        verify(this.registration).close();
+
+        setWritable(true);
+        listener.onDataTreeChanged(change(written(route("10.0.1.0/24", "a"))));
+        verify(this.bgpSession, never()).write(any(Notification.class));
+    }
+
+    @Test
+    public void testCloseDoesNotLock() throws InterruptedException {
+        final AdjRibOutListener listener = createListener(false, false);
+        // The session invokes close() with its lock held, it must not wait for the listener
+        final Thread closer = new Thread(listener::close);
+        synchronized (listener) {
+            closer.start();
+            closer.join(10000);
+            assertFalse(closer.isAlive());
+        }
+    }
+
+    private List<Update> advertiseRoutes(final boolean extendedMessages, final int count) {
+        final AdjRibOutListener listener = createListener(false, extendedMessages);
+        final List<DataTreeCandidateNode> routes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            routes.add(written(route("10." + (i >> 8) + "." + (i & 0xff) + ".0/24", "a")));
+        }
+        listener.onDataTreeChanged(change(routes.toArray(new DataTreeCandidateNode[0])));
+
+        final List<Update> sent = sentUpdates(-1);
+        // The last message is End-of-RIB
+        assertEquals(EMPTY_UPDATE, sent.get(sent.size() - 1));
+        return sent.subList(0, sent.size() - 1);
+    }
+
+    private void setWritable(final boolean writable) throws Exception {
+        doReturn(writable).when(this.channel).isWritable();
+        this.limiter.channelWritabilityChanged(this.ctx);
+    }
+
+    private AdjRibOutListener createListener(final boolean mpSupport, final boolean extendedMessages) {
+        return AdjRibOutListener.create(new PeerId("bgp://127.0.0.1"), TABLES_KEY, YangInstanceIdentifier.of(
+            BgpRib.QNAME), this.registry, this.support, this.service, this.limiter, mpSupport, extendedMessages);
+    }
+
+    private List<Update> sentUpdates(final int expected) {
+        final ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
+        verify(this.bgpSession, expected < 0 ? atLeastOnce() : times(expected))
+            .write(captor.capture());
+        final List<Update> ret = new ArrayList<>();
+        for (final Notification msg : captor.getAllValues()) {
+            ret.add((Update) msg);
+        }
+        return ret;
+    }
+
+    private Collection<DataTreeCandidate> change(final DataTreeCandidateNode... routes) {
+        final DataTreeCandidateNode root = mock(DataTreeCandidateNode.class);
+        doReturn(Collections.singletonList(this.tables)).when(root).getChildNodes();
+        doReturn(ModificationType.SUBTREE_MODIFIED).when(root).getModificationType();
+        final DataTreeCandidate candidate = mock(DataTreeCandidate.class);
+        doReturn(root).when(candidate).getRootNode();
+        final List<DataTreeCandidateNode> changed = new ArrayList<>(routes.length);
+        Collections.addAll(changed, routes);
+        doReturn(changed).when(this.support).changedRoutes(this.tables);
+        return Collections.singletonList(candidate);
+    }
+
+    private static DataTreeCandidateNode written(final MapEntryNode route) {
+        final DataTreeCandidateNode node = mock(DataTreeCandidateNode.class);
+        doReturn(route.getIdentifier()).when(node).getIdentifier();
+        doReturn(ModificationType.WRITE).when(node).getModificationType();
+        doReturn(Optional.of(route)).when(node).getDataAfter();
+        return node;
+    }
+
+    private static DataTreeCandidateNode deleted(final MapEntryNode route) {
+        final DataTreeCandidateNode node = mock(DataTreeCandidateNode.class);
+        doReturn(route.getIdentifier()).when(node).getIdentifier();
+        doReturn(ModificationType.DELETE).when(node).getModificationType();
+        doReturn(Optional.of(route)).when(node).getDataBefore();
+        doReturn(Optional.empty()).when(node).getDataAfter();
+        return node;
+    }
+
+    private static MapEntryNode route(final String prefix, final String attributes) {
+        return ImmutableNodes.mapEntryBuilder(Ipv4Route.QNAME, PREFIX_QNAME, prefix)
+                .withChild(ImmutableNodes.leafNode(PREFIX_QNAME, prefix))
+                .withChild(attributesNode(attributes))
+                .build();
+    }
+
+    private static MapEntryNode keyedRoute(final String routeKey) {
+        return ImmutableNodes.mapEntryBuilder(Ipv4Route.QNAME, ROUTE_KEY_QNAME, routeKey)
+                .withChild(ImmutableNodes.leafNode(ROUTE_KEY_QNAME, routeKey))
+                .withChild(attributesNode("a"))
+                .build();
+    }
+
+    private static ContainerNode attributesNode(final String value) {
+        return Builders.containerBuilder().withNodeIdentifier(ATTRIBUTES_NID)
+                .withChild(ImmutableNodes.leafNode(ATTRIBUTE_QNAME, value))
+                .build();
+    }
+}
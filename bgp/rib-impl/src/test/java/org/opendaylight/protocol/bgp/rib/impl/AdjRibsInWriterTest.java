@@ -7,12 +7,18 @@
  */
 package org.opendaylight.protocol.bgp.rib.impl;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.opendaylight.protocol.bgp.rib.spi.RIBNodeIdentifiers.ADJRIBIN_NID;
 import static org.opendaylight.protocol.bgp.rib.spi.RIBNodeIdentifiers.ATTRIBUTES_NID;
@@ -22,11 +28,16 @@ import static org.opendaylight.protocol.bgp.rib.spi.RIBNodeIdentifiers.UPTODATE_
 
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.FluentFuture;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.opendaylight.mdsal.common.api.CommitInfo;
@@ -36,11 +47,19 @@ import org.opendaylight.mdsal.dom.api.DOMTransactionChain;
 import org.opendaylight.protocol.bgp.rib.impl.spi.PeerTransactionChain;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIBSupportContext;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIBSupportContextRegistry;
+import org.opendaylight.protocol.bgp.rib.impl.spi.UpdateBatchingPreferences;
 import org.opendaylight.protocol.bgp.rib.spi.IdentifierUtils;
 import org.opendaylight.protocol.bgp.rib.spi.RIBNormalizedNodes;
 import org.opendaylight.protocol.bgp.rib.spi.RIBQNames;
+import org.opendaylight.protocol.bgp.rib.spi.RIBSupport;
 import org.opendaylight.protocol.bgp.rib.spi.RibSupportUtils;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.SendReceive;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.update.attributes.MpReachNlri;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.update.attributes.MpReachNlriBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.update.attributes.MpUnreachNlri;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.update.attributes.MpUnreachNlriBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerRole;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.Rib;
@@ -49,7 +68,10 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.TablesKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.Ipv4AddressFamily;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.UnicastSubsequentAddressFamily;
+import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 
 public class AdjRibsInWriterTest {
@@ -58,6 +80,11 @@ public class AdjRibsInWriterTest {
     private static final Map<TablesKey, SendReceive> ADD_PATH_TABLE_MAPS
             = Collections.singletonMap(K4, SendReceive.Both);
     private final Set<TablesKey> tableTypes = Sets.newHashSet(K4);
+    private static final QName ROUTE_QNAME = QName.create(Rib.QNAME, "route");
+    private static final NodeIdentifierWithPredicates ROUTE1 = NodeIdentifierWithPredicates.of(ROUTE_QNAME,
+        QName.create(ROUTE_QNAME, "route-key"), "1.1.1.1/32");
+    private static final NodeIdentifierWithPredicates ROUTE2 = NodeIdentifierWithPredicates.of(ROUTE_QNAME,
+        QName.create(ROUTE_QNAME, "route-key"), "2.2.2.2/32");
     private final String peerIp = "12.34.56.78";
     @Mock
     private DOMTransactionChain chain;
@@ -69,6 +96,8 @@ public class AdjRibsInWriterTest {
     private RIBSupportContext context;
     @Mock
     private PeerTransactionChain ptc;
+    @Mock
+    private RIBSupport<?, ?, ?, ?> ribSupport;
     private AdjRibInWriter writer;
 
     @Before
@@ -103,6 +132,152 @@ public class AdjRibsInWriterTest {
         verifyUptodateSetToFalse(peerPath);
     }
 
+    @Test
+    public void testUpdateBatching() {
+        this.writer = AdjRibInWriter.create(YangInstanceIdentifier.of(Rib.QNAME), PeerRole.Ebgp, this.ptc,
+            new UpdateBatchingPreferences(100, 3, 5));
+        final YangInstanceIdentifier peerPath = YangInstanceIdentifier.builder().node(RIB_NID)
+                .node(Peer.QNAME).nodeWithKey(Peer.QNAME,
+                        RIBQNames.PEER_ID_QNAME, this.peerIp).build();
+        this.writer = this.writer.transform(new PeerId(this.peerIp), peerPath, this.registry, this.tableTypes,
+            ADD_PATH_TABLE_MAPS);
+        verify(this.tx, times(1)).commit();
+
+        final MpReachNlri reach = new MpReachNlriBuilder().setAfi(Ipv4AddressFamily.class)
+                .setSafi(UnicastSubsequentAddressFamily.class).build();
+        final MpUnreachNlri unreach = new MpUnreachNlriBuilder().setAfi(Ipv4AddressFamily.class)
+                .setSafi(UnicastSubsequentAddressFamily.class).build();
+        this.writer.updateRoutes(reach, new AttributesBuilder().build());
+        this.writer.removeRoutes(unreach);
+        assertTrue(this.writer.isBatchPending());
+        verify(this.tx, times(1)).commit();
+
+        // third update hits the bound
+        this.writer.updateRoutes(reach, new AttributesBuilder().build());
+        assertFalse(this.writer.isBatchPending());
+        verify(this.tx, times(2)).commit();
+
+        // explicit flush commits partial batch
+        this.writer.updateRoutes(reach, new AttributesBuilder().build());
+        assertTrue(this.writer.isBatchPending());
+        this.writer.flushBatch();
+        assertFalse(this.writer.isBatchPending());
+        verify(this.tx, times(3)).commit();
+        verify(this.chain, times(3)).newWriteOnlyTransaction();
+    }
+
+    @Test
+    public void testStaleRoutes() {
+        this.writer = AdjRibInWriter.create(YangInstanceIdentifier.of(Rib.QNAME), PeerRole.Ebgp, this.ptc);
+        final YangInstanceIdentifier peerPath = YangInstanceIdentifier.builder().node(RIB_NID)
+                .node(Peer.QNAME).nodeWithKey(Peer.QNAME,
+                        RIBQNames.PEER_ID_QNAME, this.peerIp).build();
+        this.writer = this.writer.transform(new PeerId(this.peerIp), peerPath, this.registry, this.tableTypes,
+            ADD_PATH_TABLE_MAPS);
+        doReturn(this.ribSupport).when(this.context).getRibSupport();
+        doReturn(YangInstanceIdentifier.of(ROUTE1.getNodeType()).node(ROUTE1)).when(this.ribSupport)
+            .routePath(any(YangInstanceIdentifier.class), eq(ROUTE1));
+        doReturn(YangInstanceIdentifier.of(ROUTE2.getNodeType()).node(ROUTE2)).when(this.ribSupport)
+            .routePath(any(YangInstanceIdentifier.class), eq(ROUTE2));
+
+        final MpReachNlri reach = new MpReachNlriBuilder().setAfi(Ipv4AddressFamily.class)
+                .setSafi(UnicastSubsequentAddressFamily.class).build();
+        this.writer.trackGracefulTables(this.tableTypes);
+        doReturn(Arrays.asList(ROUTE1, ROUTE2)).when(this.context).writeRoutes(any(DOMDataTreeWriteTransaction.class),
+            any(YangInstanceIdentifier.class), eq(reach), any(Attributes.class));
+        this.writer.updateRoutes(reach, new AttributesBuilder().build());
+
+        // Only the route not advertised again after restart is removed
+        this.writer.storeStaleRoutes(this.tableTypes);
+        doReturn(Collections.singletonList(ROUTE1)).when(this.context).writeRoutes(
+            any(DOMDataTreeWriteTransaction.class), any(YangInstanceIdentifier.class), eq(reach),
+            any(Attributes.class));
+        this.writer.updateRoutes(reach, new AttributesBuilder().build());
+        this.writer.removeStaleRoutes(K4);
+        verify(this.tx).delete(LogicalDatastoreType.OPERATIONAL,
+            YangInstanceIdentifier.of(ROUTE2.getNodeType()).node(ROUTE2));
+        verify(this.tx, never()).delete(LogicalDatastoreType.OPERATIONAL,
+            YangInstanceIdentifier.of(ROUTE1.getNodeType()).node(ROUTE1));
+
+        // Stale routes have been swept
+        this.writer.removeStaleRoutes(K4);
+        verify(this.tx, times(1)).delete(eq(LogicalDatastoreType.OPERATIONAL), any(YangInstanceIdentifier.class));
+    }
+
+    @Test
+    public void testStaleRoutesNotTracked() {
+        this.writer = AdjRibInWriter.create(YangInstanceIdentifier.of(Rib.QNAME), PeerRole.Ebgp, this.ptc);
+        final YangInstanceIdentifier peerPath = YangInstanceIdentifier.builder().node(RIB_NID)
+                .node(Peer.QNAME).nodeWithKey(Peer.QNAME,
+                        RIBQNames.PEER_ID_QNAME, this.peerIp).build();
+        this.writer = this.writer.transform(new PeerId(this.peerIp), peerPath, this.registry, this.tableTypes,
+            ADD_PATH_TABLE_MAPS);
+        this.writer.trackGracefulTables(Collections.emptySet());
+
+        final MpReachNlri reach = new MpReachNlriBuilder().setAfi(Ipv4AddressFamily.class)
+                .setSafi(UnicastSubsequentAddressFamily.class).build();
+        doReturn(Arrays.asList(ROUTE1, ROUTE2)).when(this.context).writeRoutes(any(DOMDataTreeWriteTransaction.class),
+            any(YangInstanceIdentifier.class), eq(reach), any(Attributes.class));
+        this.writer.updateRoutes(reach, new AttributesBuilder().build());
+
+        // Keys of routes in a table which is not retained across graceful restart are not known
+        this.writer.storeStaleRoutes(this.tableTypes);
+        this.writer.removeStaleRoutes(K4);
+        verify(this.tx, never()).delete(eq(LogicalDatastoreType.OPERATIONAL), any(YangInstanceIdentifier.class));
+    }
+
+    @Test
+    public void testStaleRoutesChunkedSweep() {
+        this.writer = AdjRibInWriter.create(YangInstanceIdentifier.of(Rib.QNAME), PeerRole.Ebgp, this.ptc);
+        final YangInstanceIdentifier peerPath = YangInstanceIdentifier.builder().node(RIB_NID)
+                .node(Peer.QNAME).nodeWithKey(Peer.QNAME,
+                        RIBQNames.PEER_ID_QNAME, this.peerIp).build();
+        this.writer = this.writer.transform(new PeerId(this.peerIp), peerPath, this.registry, this.tableTypes,
+            ADD_PATH_TABLE_MAPS);
+        this.writer.trackGracefulTables(this.tableTypes);
+        verify(this.tx, times(1)).commit();
+        doReturn(this.ribSupport).when(this.context).getRibSupport();
+        doAnswer(invocation -> YangInstanceIdentifier.of(ROUTE_QNAME).node(invocation.<PathArgument>getArgument(1)))
+            .when(this.ribSupport).routePath(any(YangInstanceIdentifier.class), any(PathArgument.class));
+
+        // Every other route is advertised again after restart, the rest does not fit into a single chunk
+        final int count = 3 * AdjRibInWriter.STALE_ROUTES_CHUNK_SIZE + 1;
+        final List<NodeIdentifierWithPredicates> all = new ArrayList<>(count);
+        final List<NodeIdentifierWithPredicates> readvertised = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final NodeIdentifierWithPredicates route = NodeIdentifierWithPredicates.of(ROUTE_QNAME,
+                QName.create(ROUTE_QNAME, "route-key"), "route-" + i);
+            all.add(route);
+            if (i % 2 == 0) {
+                readvertised.add(route);
+            }
+        }
+
+        final MpReachNlri reach = new MpReachNlriBuilder().setAfi(Ipv4AddressFamily.class)
+                .setSafi(UnicastSubsequentAddressFamily.class).build();
+        doReturn(all).when(this.context).writeRoutes(any(DOMDataTreeWriteTransaction.class),
+            any(YangInstanceIdentifier.class), eq(reach), any(Attributes.class));
+        this.writer.updateRoutes(reach, new AttributesBuilder().build());
+        verify(this.tx, times(2)).commit();
+
+        this.writer.storeStaleRoutes(this.tableTypes);
+        doReturn(readvertised).when(this.context).writeRoutes(any(DOMDataTreeWriteTransaction.class),
+            any(YangInstanceIdentifier.class), eq(reach), any(Attributes.class));
+        this.writer.updateRoutes(reach, new AttributesBuilder().build());
+        verify(this.tx, times(3)).commit();
+        this.writer.removeStaleRoutes(K4);
+
+        // Routes which were not advertised again fit into two chunks
+        verify(this.tx, times(5)).commit();
+        final ArgumentCaptor<YangInstanceIdentifier> deleted = ArgumentCaptor.forClass(YangInstanceIdentifier.class);
+        verify(this.tx, times(count - readvertised.size())).delete(eq(LogicalDatastoreType.OPERATIONAL),
+            deleted.capture());
+        final Set<PathArgument> deletedRoutes = deleted.getAllValues().stream()
+            .map(YangInstanceIdentifier::getLastPathArgument).collect(Collectors.toSet());
+        assertEquals(count - readvertised.size(), deletedRoutes.size());
+        readvertised.forEach(route -> assertFalse(deletedRoutes.contains(route)));
+    }
+
     private void verifyUptodateSetToFalse(final YangInstanceIdentifier peerPath) {
         final YangInstanceIdentifier path = peerPath.node(ADJRIBIN_NID)
                 .node(TABLES_NID).node(RibSupportUtils.toYangTablesKey(K4))
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.ExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.opendaylight.protocol.bgp.rib.impl.spi.RIB;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpPrefix;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.loc.rib.rpc.rev191001.CoveredPrefixesInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.loc.rib.rpc.rev191001.CoveredPrefixesOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.loc.rib.rpc.rev191001.CoveringPrefixesInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.loc.rib.rpc.rev191001.CoveringPrefixesOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.loc.rib.rpc.rev191001.LongestPrefixMatchInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.loc.rib.rpc.rev191001.LongestPrefixMatchOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.loc.rib.rpc.rev191001.RibRef;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.TablesKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.Ipv4AddressFamily;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.Ipv6AddressFamily;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.UnicastSubsequentAddressFamily;
+import org.opendaylight.yangtools.yang.common.RpcResult;
+
+@RunWith(MockitoJUnitRunner.StrictStubs.class)
+public final class BgpLocRibRpcTest {
+    private static final TablesKey IPV4_TABLE = new TablesKey(Ipv4AddressFamily.class,
+        UnicastSubsequentAddressFamily.class);
+
+    @Mock
+    private RIB rib;
+    @Mock
+    private RibRef ribRef;
+    private final LocRibPrefixTrie trie = new LocRibPrefixTrie();
+    private BgpLocRibRpc rpc;
+
+    @Before
+    public void setUp() {
+        this.trie.add(new IpPrefix(new Ipv4Prefix("10.0.0.0/8")), "10.0.0.0/8");
+        this.trie.add(new IpPrefix(new Ipv4Prefix("10.1.0.0/16")), "10.1.0.0/16");
+        this.trie.add(new IpPrefix(new Ipv4Prefix("10.1.2.0/24")), "10.1.2.0/24");
+        this.rpc = new BgpLocRibRpc(this.rib);
+    }
+
+    @Test
+    public void testLongestPrefixMatch() throws InterruptedException, ExecutionException {
+        doReturn(this.trie).when(this.rib).getLocRibPrefixIndex(IPV4_TABLE);
+        final RpcResult<LongestPrefixMatchOutput> result = this.rpc.longestPrefixMatch(
+            new LongestPrefixMatchInputBuilder().setRibRef(this.ribRef).setAfi(Ipv4AddressFamily.class)
+                .setSafi(UnicastSubsequentAddressFamily.class).setAddress(new IpAddress(new Ipv4Address("10.1.3.1")))
+                .build()).get();
+        assertTrue(result.isSuccessful());
+        assertEquals(ImmutableList.of("10.1.0.0/16"), result.getResult().getRouteKey());
+    }
+
+    @Test
+    public void testCoveringPrefixes() throws InterruptedException, ExecutionException {
+        doReturn(this.trie).when(this.rib).getLocRibPrefixIndex(IPV4_TABLE);
+        final RpcResult<CoveringPrefixesOutput> result = this.rpc.coveringPrefixes(
+            new CoveringPrefixesInputBuilder().setRibRef(this.ribRef).setAfi(Ipv4AddressFamily.class)
+                .setSafi(UnicastSubsequentAddressFamily.class).setPrefix(new IpPrefix(new Ipv4Prefix("10.1.2.0/24")))
+                .build()).get();
+        assertTrue(result.isSuccessful());
+        assertEquals(ImmutableList.of("10.0.0.0/8", "10.1.0.0/16", "10.1.2.0/24"), result.getResult().getRouteKey());
+    }
+
+    @Test
+    public void testCoveredPrefixes() throws InterruptedException, ExecutionException {
+        doReturn(this.trie).when(this.rib).getLocRibPrefixIndex(IPV4_TABLE);
+        final RpcResult<CoveredPrefixesOutput> result = this.rpc.coveredPrefixes(
+            new CoveredPrefixesInputBuilder().setRibRef(this.ribRef).setAfi(Ipv4AddressFamily.class)
+                .setSafi(UnicastSubsequentAddressFamily.class).setPrefix(new IpPrefix(new Ipv4Prefix("10.1.0.0/16")))
+                .build()).get();
+        assertTrue(result.isSuccessful());
+        assertEquals(ImmutableList.of("10.1.0.0/16", "10.1.2.0/24"), result.getResult().getRouteKey());
+    }
+
+    @Test
+    public void testTableNotIndexed() throws InterruptedException, ExecutionException {
+        // Tables without loc-rib-prefix-index enabled do not have any index
+        final RpcResult<CoveredPrefixesOutput> result = this.rpc.coveredPrefixes(
+            new CoveredPrefixesInputBuilder().setRibRef(this.ribRef).setAfi(Ipv6AddressFamily.class)
+                .setSafi(UnicastSubsequentAddressFamily.class).setPrefix(new IpPrefix(new Ipv4Prefix("10.0.0.0/8")))
+                .build()).get();
+        assertFalse(result.isSuccessful());
+        assertEquals(1, result.getErrors().size());
+    }
+}
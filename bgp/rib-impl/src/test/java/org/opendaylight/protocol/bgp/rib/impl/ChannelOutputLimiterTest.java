@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.concurrent.EventExecutor;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.opendaylight.yangtools.concepts.Registration;
+
+@RunWith(MockitoJUnitRunner.StrictStubs.class)
+public final class ChannelOutputLimiterTest {
+    @Mock
+    private BGPSessionImpl session;
+    @Mock
+    private ChannelHandlerContext ctx;
+    @Mock
+    private Channel channel;
+    @Mock
+    private EventExecutor executor;
+    @Mock
+    private Runnable listener;
+    private ChannelOutputLimiter limiter;
+
+    @Before
+    public void setUp() {
+        this.limiter = new ChannelOutputLimiter(this.session);
+        doReturn(this.channel).when(this.ctx).channel();
+    }
+
+    @Test
+    public void testWritableListener() throws Exception {
+        doAnswer(invocation -> {
+            final Runnable task = invocation.getArgument(0);
+            task.run();
+            return null;
+        }).when(this.executor).execute(any(Runnable.class));
+        doReturn(this.executor).when(this.ctx).executor();
+        final Registration reg = this.limiter.registerWritableListener(this.listener);
+
+        doReturn(false).when(this.channel).isWritable();
+        this.limiter.channelWritabilityChanged(this.ctx);
+        assertTrue(this.limiter.isBlocked());
+        verify(this.listener, never()).run();
+
+        doReturn(true).when(this.channel).isWritable();
+        this.limiter.channelWritabilityChanged(this.ctx);
+        assertFalse(this.limiter.isBlocked());
+        verify(this.listener, times(1)).run();
+
+        reg.close();
+        this.limiter.channelWritabilityChanged(this.ctx);
+        verify(this.listener, times(1)).run();
+    }
+
+    @Test
+    public void testChannelInactiveUnblocks() throws Exception {
+        doReturn(false).when(this.channel).isWritable();
+        this.limiter.channelWritabilityChanged(this.ctx);
+        assertTrue(this.limiter.isBlocked());
+
+        this.limiter.channelInactive(this.ctx);
+        assertFalse(this.limiter.isBlocked());
+    }
+}
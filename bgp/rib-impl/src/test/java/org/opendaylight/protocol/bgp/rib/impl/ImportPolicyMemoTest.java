@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.opendaylight.protocol.bgp.rib.spi.RIBNodeIdentifiers.ATTRIBUTES_NID;
+
+import java.util.Optional;
+import org.junit.Test;
+import org.opendaylight.protocol.bgp.rib.impl.ImportPolicyMemo.Result;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.LocalPrefBuilder;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+
+public class ImportPolicyMemoTest {
+    private static final Attributes ADVERTISED = new AttributesBuilder()
+            .setLocalPref(new LocalPrefBuilder().setPref(100L).build()).build();
+    private static final Attributes MODIFIED = new AttributesBuilder()
+            .setLocalPref(new LocalPrefBuilder().setPref(200L).build()).build();
+
+    private static ContainerNode attributesNode(final String value) {
+        return Builders.containerBuilder().withNodeIdentifier(ATTRIBUTES_NID)
+                .withChild(ImmutableNodes.leafNode(QName.create(ATTRIBUTES_NID.getNodeType(), "test"), value))
+                .build();
+    }
+
+    @Test
+    public void testResultModified() {
+        assertFalse(new Result(ADVERTISED, Optional.of(ADVERTISED)).isModified());
+        assertFalse(new Result(ADVERTISED, Optional.empty()).isModified());
+        assertTrue(new Result(ADVERTISED, Optional.of(MODIFIED)).isModified());
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        final ImportPolicyMemo memo = new ImportPolicyMemo();
+        final Result result = new Result(ADVERTISED, Optional.of(MODIFIED));
+
+        assertNull(memo.getIfPresent(attributesNode("a")));
+        memo.put(attributesNode("a"), result);
+        assertSame(result, memo.getIfPresent(attributesNode("a")));
+        assertNull(memo.getIfPresent(attributesNode("b")));
+        assertEquals(1, memo.getHitCount());
+        assertEquals(2, memo.getMissCount());
+
+        memo.invalidate();
+        assertNull(memo.getIfPresent(attributesNode("a")));
+        assertEquals(3, memo.getMissCount());
+    }
+}
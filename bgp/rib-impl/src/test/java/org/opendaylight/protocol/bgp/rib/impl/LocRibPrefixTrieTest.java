@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpPrefix;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv6Address;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv6Prefix;
+
+public class LocRibPrefixTrieTest {
+    private static final IpPrefix NET_8 = new IpPrefix(new Ipv4Prefix("10.0.0.0/8"));
+    private static final IpPrefix NET_16 = new IpPrefix(new Ipv4Prefix("10.1.0.0/16"));
+    private static final IpPrefix NET_24 = new IpPrefix(new Ipv4Prefix("10.1.2.0/24"));
+    private static final IpPrefix NET_V6 = new IpPrefix(new Ipv6Prefix("2001:db8::/32"));
+    private static final IpAddress HOST = new IpAddress(new Ipv4Address("10.1.2.3"));
+
+    @Test
+    public void testQueries() {
+        final LocRibPrefixTrie trie = new LocRibPrefixTrie();
+        trie.add(NET_8, "10.0.0.0/8");
+        trie.add(NET_16, "10.1.0.0/16");
+        trie.add(NET_24, "10.1.2.0/24");
+        trie.add(NET_V6, "2001:db8::/32");
+
+        assertEquals(ImmutableList.of("10.1.2.0/24"), trie.longestMatch(HOST));
+        assertEquals(ImmutableList.of("10.0.0.0/8", "10.1.0.0/16", "10.1.2.0/24"), trie.covering(NET_24));
+        assertEquals(ImmutableList.of("10.1.0.0/16", "10.1.2.0/24"), trie.coveredBy(NET_16));
+        assertEquals(ImmutableList.of("2001:db8::/32"),
+            trie.longestMatch(new IpAddress(new Ipv6Address("2001:db8::1"))));
+
+        trie.remove(NET_24, "10.1.2.0/24");
+        assertEquals(ImmutableList.of("10.1.0.0/16"), trie.longestMatch(HOST));
+        assertEquals(ImmutableList.of("2001:db8::/32"), trie.coveredBy(new IpPrefix(new Ipv6Prefix("::/0"))));
+    }
+
+    @Test
+    public void testMultipleRouteKeys() {
+        final LocRibPrefixTrie trie = new LocRibPrefixTrie();
+        trie.add(NET_24, "rd1");
+        trie.add(NET_24, "rd2");
+        trie.add(NET_24, "rd2");
+        assertEquals(ImmutableSet.of("rd1", "rd2"), ImmutableSet.copyOf(trie.longestMatch(HOST)));
+
+        trie.remove(NET_24, "rd1");
+        assertEquals(ImmutableList.of("rd2"), trie.longestMatch(HOST));
+        trie.remove(NET_24, "rd1");
+        assertEquals(ImmutableList.of("rd2"), trie.longestMatch(HOST));
+        trie.remove(NET_24, "rd2");
+        assertEquals(ImmutableList.of(), trie.longestMatch(HOST));
+    }
+}
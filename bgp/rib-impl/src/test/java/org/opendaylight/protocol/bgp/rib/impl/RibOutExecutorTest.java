@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.opendaylight.protocol.bgp.rib.spi.Peer;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerId;
+
+@RunWith(MockitoJUnitRunner.StrictStubs.class)
+public final class RibOutExecutorTest {
+    private static final int TASKS = 100;
+    private static final PeerId PEER_ID = new PeerId("bgp://127.0.0.1");
+
+    @Mock
+    private Peer peer;
+    private RibOutExecutor executor;
+
+    @Before
+    public void setUp() {
+        this.executor = new RibOutExecutor("test-rib-out", 4, 2);
+    }
+
+    @After
+    public void tearDown() {
+        this.executor.close();
+    }
+
+    @Test
+    public void testPeerTasksOrdered() throws InterruptedException {
+        doReturn(PEER_ID).when(this.peer).getPeerId();
+        final List<Integer> executed = new ArrayList<>();
+        final CountDownLatch done = new CountDownLatch(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            final int task = i;
+            this.executor.execute(this.peer, () -> {
+                executed.add(task);
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < TASKS; i++) {
+            assertEquals(i, executed.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testLatencyRecorded() throws InterruptedException {
+        doReturn(PEER_ID).when(this.peer).getPeerId();
+        final CountDownLatch done = new CountDownLatch(1);
+        this.executor.execute(this.peer, done::countDown);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        verify(this.peer, timeout(10000)).recordRibOutLatency(anyLong());
+    }
+
+    @Test
+    public void testFullQueueBlocksSubmitter() throws InterruptedException {
+        doReturn(PEER_ID).when(this.peer).getPeerId();
+        final RibOutExecutor single = new RibOutExecutor("test-single", 1, 1);
+        try {
+            final CountDownLatch running = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            single.execute(this.peer, () -> {
+                running.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertTrue(running.await(10, TimeUnit.SECONDS));
+            // Fills the queue
+            single.execute(this.peer, () -> { });
+
+            final CountDownLatch submitted = new CountDownLatch(1);
+            final CountDownLatch executed = new CountDownLatch(1);
+            final Thread submitter = new Thread(() -> {
+                single.execute(this.peer, executed::countDown);
+                submitted.countDown();
+            });
+            submitter.start();
+            assertFalse(submitted.await(200, TimeUnit.MILLISECONDS));
+
+            release.countDown();
+            assertTrue(submitted.await(10, TimeUnit.SECONDS));
+            assertTrue(executed.await(10, TimeUnit.SECONDS));
+        } finally {
+            single.close();
+        }
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testClosed() {
+        this.executor.close();
+        this.executor.execute(this.peer, () -> { });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidThreads() {
+        new RibOutExecutor("test-rib-out", 0, 1);
+    }
+}
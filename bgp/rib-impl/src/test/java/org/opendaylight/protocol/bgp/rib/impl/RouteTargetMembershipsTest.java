@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.AsNumber;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.RouteTarget;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.as._4.route.target.extended.community.grouping.As4RouteTargetExtendedCommunityBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.as._4.spec.common.As4SpecificCommonBuilder;
+
+public class RouteTargetMembershipsTest {
+    private static final RouteTarget RT1 = routeTarget(100);
+    private static final RouteTarget RT2 = routeTarget(200);
+
+    private static RouteTarget routeTarget(final int localAdministrator) {
+        return new As4RouteTargetExtendedCommunityBuilder().setAs4SpecificCommon(new As4SpecificCommonBuilder()
+            .setAsNumber(new AsNumber(20L)).setLocalAdministrator(localAdministrator).build()).build();
+    }
+
+    @Test
+    public void testReferenceCounting() {
+        final RouteTargetMemberships memberships = new RouteTargetMemberships();
+        assertTrue(memberships.add(RT1));
+        assertFalse(memberships.add(RT1));
+        assertTrue(memberships.add(RT2));
+        assertEquals(ImmutableSet.of(RT1, RT2), memberships.getMemberships());
+
+        assertFalse(memberships.remove(RT1));
+        assertEquals(ImmutableSet.of(RT1, RT2), memberships.getMemberships());
+        assertTrue(memberships.remove(RT1));
+        assertEquals(ImmutableSet.of(RT2), memberships.getMemberships());
+        assertFalse(memberships.remove(RT1));
+    }
+
+    @Test
+    public void testSnapshot() {
+        final RouteTargetMemberships memberships = new RouteTargetMemberships();
+        memberships.add(RT1);
+        final Set<RouteTarget> snapshot = memberships.getMemberships();
+        assertSame(snapshot, memberships.getMemberships());
+
+        // Additional reference does not change memberships, hence neither the snapshot
+        memberships.add(RT1);
+        assertSame(snapshot, memberships.getMemberships());
+
+        memberships.add(RT2);
+        assertNotSame(snapshot, memberships.getMemberships());
+        assertEquals(ImmutableSet.of(RT1), snapshot);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public final class ShardedExecutionTest {
+    private static final int SHARDS = 4;
+    private static final int KEYS = 16;
+    private static final int ITEMS = 1024;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        this.executor = Executors.newFixedThreadPool(SHARDS - 1);
+    }
+
+    @After
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testShardsPreserveOrder() {
+        // Item i has key i % KEYS and sequence number i / KEYS
+        final List<Integer> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(i);
+        }
+
+        final Thread caller = Thread.currentThread();
+        final List<ShardResult> results = ShardedExecution.execute(items, SHARDS, item -> item % KEYS,
+            ShardResult::new, this.executor);
+        assertEquals(SHARDS, results.size());
+        assertSame(caller, results.get(0).thread);
+
+        final Set<Integer> seen = new HashSet<>();
+        for (int shard = 0; shard < SHARDS; shard++) {
+            final ShardResult result = results.get(shard);
+            if (shard != 0) {
+                assertNotEquals(caller, result.thread);
+            }
+
+            final int[] lastSequence = new int[KEYS];
+            for (final Integer item : result.items) {
+                assertEquals(shard, item % KEYS % SHARDS);
+                assertTrue(seen.add(item));
+                // Items with the same key must be processed in their original order
+                assertTrue(item / KEYS >= lastSequence[item % KEYS]);
+                lastSequence[item % KEYS] = item / KEYS;
+            }
+        }
+        assertEquals(ITEMS, seen.size());
+    }
+
+    @Test
+    public void testFailureWaitsForAllShards() {
+        final List<Integer> items = new ArrayList<>(SHARDS);
+        for (int i = 0; i < SHARDS; i++) {
+            items.add(i);
+        }
+
+        final AtomicInteger completed = new AtomicInteger();
+        try {
+            ShardedExecution.execute(items, SHARDS, item -> item, shard -> {
+                if (shard.get(0) == 0) {
+                    throw new IllegalStateException("first shard failed");
+                }
+                try {
+                    Thread.sleep(100);
+                } catch (final InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return completed.incrementAndGet();
+            }, this.executor);
+            fail("Failure of the first shard should have been propagated");
+        } catch (final IllegalStateException e) {
+            assertEquals("first shard failed", e.getMessage());
+            assertEquals(SHARDS - 1, completed.get());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidShards() {
+        ShardedExecution.execute(new ArrayList<Integer>(), 0, item -> item, shard -> shard, this.executor);
+    }
+
+    private static final class ShardResult {
+        final Thread thread = Thread.currentThread();
+        final List<Integer> items;
+
+        ShardResult(final List<Integer> items) {
+            this.items = items;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import com.google.common.collect.ImmutableList;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -86,6 +87,8 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.mult
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.mp.capabilities.add.path.capability.AddressFamiliesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.GlobalAddPathsConfig;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.GlobalAddPathsConfigBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.GlobalAfiSafiConfigAugmentation;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.GlobalAfiSafiConfigAugmentationBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.GlobalConfigAugmentation;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.GlobalConfigAugmentationBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NeighborAddPathsConfig;
@@ -98,6 +101,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.open
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.PeerGroupTransportConfig;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.PeerGroupTransportConfigBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerRole;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.TablesKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.Ipv4AddressFamily;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.Ipv6AddressFamily;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.MplsLabeledVpnSubsequentAddressFamily;
@@ -365,6 +369,32 @@ public class OpenConfigMappingUtilTest {
                 OpenConfigMappingUtil.getGlobalClusterIdentifier(configBuilder.build()).getValue());
     }
 
+    @Test
+    public void testGetBestPathShards() {
+        final org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.rev151009.bgp.global.base
+                .ConfigBuilder configBuilder = new org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.rev151009
+                .bgp.global.base.ConfigBuilder();
+        assertEquals(1, OpenConfigMappingUtil.getBestPathShards(configBuilder.build()));
+
+        configBuilder.addAugmentation(GlobalConfigAugmentation.class, new GlobalConfigAugmentationBuilder()
+                .setBestPathShards(8).build());
+        assertEquals(8, OpenConfigMappingUtil.getBestPathShards(configBuilder.build()));
+    }
+
+    @Test
+    public void testGetRibOutExecutorConfig() {
+        final org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.rev151009.bgp.global.base
+                .ConfigBuilder configBuilder = new org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.rev151009
+                .bgp.global.base.ConfigBuilder();
+        assertEquals(0, OpenConfigMappingUtil.getRibOutThreads(configBuilder.build()));
+        assertEquals(1024, OpenConfigMappingUtil.getRibOutQueueDepth(configBuilder.build()));
+
+        configBuilder.addAugmentation(GlobalConfigAugmentation.class, new GlobalConfigAugmentationBuilder()
+                .setRibOutThreads(4).setRibOutQueueDepth(64L).build());
+        assertEquals(4, OpenConfigMappingUtil.getRibOutThreads(configBuilder.build()));
+        assertEquals(64, OpenConfigMappingUtil.getRibOutQueueDepth(configBuilder.build()));
+    }
+
     @Test
     public void testGetNeighborClusterIdentifier() {
 
@@ -416,6 +446,26 @@ public class OpenConfigMappingUtilTest {
         assertEquals(expected.get(1), result.get(1));
     }
 
+    @Test
+    public void toPrefixIndexedTables() {
+        final TablesKey ipv4 = new TablesKey(Ipv4AddressFamily.class, UnicastSubsequentAddressFamily.class);
+        doReturn(java.util.Optional.of(ipv4)).when(this.tableTypeRegistry).getTableKey(IPV4UNICAST.class);
+        final List<AfiSafi> families = new ArrayList<>();
+        families.add(new AfiSafiBuilder().setAfiSafiName(IPV4UNICAST.class)
+            .setConfig(new org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.multiprotocol.rev151009.bgp
+                .common.afi.safi.list.afi.safi.ConfigBuilder().setAfiSafiName(IPV4UNICAST.class)
+                .addAugmentation(GlobalAfiSafiConfigAugmentation.class, new GlobalAfiSafiConfigAugmentationBuilder()
+                    .setLocRibPrefixIndex(Boolean.TRUE).build()).build()).build());
+        families.add(new AfiSafiBuilder().setAfiSafiName(IPV6UNICAST.class)
+            .setConfig(new org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.multiprotocol.rev151009.bgp
+                .common.afi.safi.list.afi.safi.ConfigBuilder().setAfiSafiName(IPV6UNICAST.class)
+                .addAugmentation(GlobalAfiSafiConfigAugmentation.class, new GlobalAfiSafiConfigAugmentationBuilder()
+                    .setLocRibPrefixIndex(Boolean.FALSE).build()).build()).build());
+        families.add(new AfiSafiBuilder().setAfiSafiName(IPV6LABELLEDUNICAST.class).build());
+        assertEquals(Collections.singleton(ipv4),
+            OpenConfigMappingUtil.toPrefixIndexedTables(families, this.tableTypeRegistry));
+    }
+
     @Test
     public void toPeerRole() {
         Neighbor neighbor = new NeighborBuilder().setConfig(new ConfigBuilder()
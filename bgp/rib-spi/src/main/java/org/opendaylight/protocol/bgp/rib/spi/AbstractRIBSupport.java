@@ -302,10 +302,12 @@ public abstract class AbstractRIBSupport<
      * @param tablePath    YangInstanceIdentifier to be passed into implementation
      * @param destination  ContainerNode DOM representation of NLRI in Update message
      * @param routesNodeId NodeIdentifier
+     * @return List of processed route identifiers
      */
-    private void deleteDestinationRoutes(final DOMDataTreeWriteTransaction tx, final YangInstanceIdentifier tablePath,
-            final ContainerNode destination, final NodeIdentifier routesNodeId) {
-        processDestination(tx, tablePath.node(routesNodeId), destination, null, DELETE_ROUTE);
+    private Collection<NodeIdentifierWithPredicates> deleteDestinationRoutes(final DOMDataTreeWriteTransaction tx,
+            final YangInstanceIdentifier tablePath, final ContainerNode destination,
+            final NodeIdentifier routesNodeId) {
+        return processDestination(tx, tablePath.node(routesNodeId), destination, null, DELETE_ROUTE);
     }
 
     /**
@@ -399,9 +401,9 @@ public abstract class AbstractRIBSupport<
     }
 
     @Override
-    public final void deleteRoutes(final DOMDataTreeWriteTransaction tx, final YangInstanceIdentifier tablePath,
-            final ContainerNode nlri) {
-        deleteRoutes(tx, tablePath, nlri, ROUTES_NID);
+    public final Collection<NodeIdentifierWithPredicates> deleteRoutes(final DOMDataTreeWriteTransaction tx,
+            final YangInstanceIdentifier tablePath, final ContainerNode nlri) {
+        return deleteRoutes(tx, tablePath, nlri, ROUTES_NID);
     }
 
     @Override
@@ -441,17 +443,18 @@ public abstract class AbstractRIBSupport<
 
     @Override
     @SuppressWarnings("checkstyle:OverloadMethodsDeclarationOrder")
-    public final void deleteRoutes(final DOMDataTreeWriteTransaction tx, final YangInstanceIdentifier tablePath,
-            final ContainerNode nlri, final NodeIdentifier routesNodeId) {
+    public final Collection<NodeIdentifierWithPredicates> deleteRoutes(final DOMDataTreeWriteTransaction tx,
+            final YangInstanceIdentifier tablePath, final ContainerNode nlri, final NodeIdentifier routesNodeId) {
         final Optional<DataContainerChild<? extends PathArgument, ?>> maybeRoutes = nlri.getChild(WITHDRAWN_ROUTES);
         if (maybeRoutes.isPresent()) {
             final ContainerNode destination = getDestination(maybeRoutes.get(), destinationContainerIdentifier());
             if (destination != null) {
-                deleteDestinationRoutes(tx, tablePath, destination, routesNodeId);
+                return deleteDestinationRoutes(tx, tablePath, destination, routesNodeId);
             }
         } else {
             LOG.debug("Withdrawn routes are not present in NLRI {}", nlri);
         }
+        return Collections.emptyList();
     }
 
     @Override
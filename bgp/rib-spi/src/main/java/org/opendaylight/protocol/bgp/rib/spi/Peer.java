@@ -12,6 +12,7 @@ import java.util.List;
 import org.eclipse.jdt.annotation.NonNull;
 import org.opendaylight.protocol.bgp.rib.spi.entry.ActualBestPathRoutes;
 import org.opendaylight.protocol.bgp.rib.spi.entry.AdvertizedRoute;
+import org.opendaylight.protocol.bgp.rib.spi.entry.ExportPolicyGroups;
 import org.opendaylight.protocol.bgp.rib.spi.entry.RouteEntryDependenciesContainer;
 import org.opendaylight.protocol.bgp.rib.spi.entry.StaleBestPathRoute;
 import org.opendaylight.protocol.bgp.rib.spi.policy.RouteTargetMembershipConsumer;
@@ -62,6 +63,24 @@ public interface Peer extends PeerTrackerInformation, RouteTargetMembershipConsu
                     @NonNull List<StaleBestPathRoute<C, S, R, I>> staleRoutes,
                     @NonNull List<AdvertizedRoute<C, S, R, I>> newRoutes);
 
+    /**
+     * Update peers ribout after path selection processing, sharing export policy results with other peers updated
+     * with the same routes. Default implementation does not share anything.
+     *
+     * @param entryDep     RouteEntryDependenciesContainer
+     * @param staleRoutes  routes to be removed.
+     * @param newRoutes    routes to be advertized.
+     * @param exportGroups export policy results shared among peers
+     */
+    default <C extends Routes & DataObject & ChoiceIn<Tables>, S extends ChildOf<? super C>,
+            R extends Route & ChildOf<? super S> & Identifiable<I>,
+            I extends Identifier<R>> void refreshRibOut(@NonNull RouteEntryDependenciesContainer entryDep,
+                    @NonNull List<StaleBestPathRoute<C, S, R, I>> staleRoutes,
+                    @NonNull List<AdvertizedRoute<C, S, R, I>> newRoutes,
+                    @NonNull ExportPolicyGroups exportGroups) {
+        refreshRibOut(entryDep, staleRoutes, newRoutes);
+    }
+
     /**
      * Stores under peers rib Out already present routes, before proceed to process any new route advertizement.
      *
@@ -84,4 +103,14 @@ public interface Peer extends PeerTrackerInformation, RouteTargetMembershipConsu
             R extends Route & ChildOf<? super S> & Identifiable<I>,
             I extends Identifier<R>> void reEvaluateAdvertizement(@NonNull RouteEntryDependenciesContainer entryDep,
                     @NonNull List<ActualBestPathRoutes<C, S, R, I>> routes);
+
+    /**
+     * Record latency of an update to this peer's Adj-RIB-Out, from the time it was requested until it completed.
+     * Default implementation does nothing.
+     *
+     * @param latencyNanos latency in nanoseconds
+     */
+    default void recordRibOutLatency(final long latencyNanos) {
+        // No-op
+    }
 }
@@ -16,6 +16,9 @@ import java.util.List;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.opendaylight.mdsal.dom.api.DOMDataTreeWriteTransaction;
+import org.opendaylight.protocol.bgp.rib.spi.entry.RouteEntryIndex;
+import org.opendaylight.protocol.bgp.rib.spi.entry.StringRouteEntryIndex;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpPrefix;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.PathId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.Update;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
@@ -47,6 +50,13 @@ import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNod
  * Interface implemented for AFI/SAFI-specific RIB extensions. The extensions need
  * to register an implementation of this class and the RIB core then calls into it
  * to inquire about details specific to that particular model.
+ *
+ * <p>
+ * Implementations must be thread-safe. The RIB core invokes them concurrently from multiple threads, for example when
+ * best path selection is split into shards, each shard extracts route keys and calls
+ * {@link #createRoute(Route, Identifier, Attributes)} and {@link #createRouteIdentifier(KeyedInstanceIdentifier,
+ * Identifier)} independently. Implementations are therefore expected to be stateless or to keep only immutable or
+ * concurrency-safe state.
  */
 public interface RIBSupport<
         C extends Routes & DataObject & ChoiceIn<Tables>,
@@ -106,9 +116,10 @@ public interface RIBSupport<
      * @param tx        DOMDataWriteTransaction
      * @param tablePath YangInstanceIdentifier
      * @param nlri      ContainerNode DOM representation of NLRI in Update message
+     * @return List of processed route Identifiers
      */
-    void deleteRoutes(@NonNull DOMDataTreeWriteTransaction tx, @NonNull YangInstanceIdentifier tablePath,
-            @NonNull ContainerNode nlri);
+    Collection<NodeIdentifierWithPredicates> deleteRoutes(@NonNull DOMDataTreeWriteTransaction tx,
+            @NonNull YangInstanceIdentifier tablePath, @NonNull ContainerNode nlri);
 
     /**
      * Given the NLRI as ContainerNode, this method should extract withdrawn routes
@@ -123,9 +134,11 @@ public interface RIBSupport<
      * @param tablePath    YangInstanceIdentifier
      * @param nlri         ContainerNode DOM representation of NLRI in Update message
      * @param routesNodeId NodeIdentifier of "routes" data node
+     * @return List of processed routes identifiers
      */
-    void deleteRoutes(@NonNull DOMDataTreeWriteTransaction tx, @NonNull YangInstanceIdentifier tablePath,
-            @NonNull ContainerNode nlri, @NonNull NodeIdentifier routesNodeId);
+    Collection<NodeIdentifierWithPredicates> deleteRoutes(@NonNull DOMDataTreeWriteTransaction tx,
+            @NonNull YangInstanceIdentifier tablePath, @NonNull ContainerNode nlri,
+            @NonNull NodeIdentifier routesNodeId);
 
     /**
      * Given the NLRI as ContainerNode, this method should extract advertised routes
@@ -314,6 +327,29 @@ public interface RIBSupport<
      */
     @NonNull String extractRouteKey(@NonNull I routeListKey);
 
+    /**
+     * Create a new index of route entries keyed by route keys, as returned by {@link #extractRouteKey(Identifier)}.
+     * Families whose route keys have a compact binary representation should override this method to reduce memory
+     * footprint of large tables.
+     *
+     * @param <V> Route entry type
+     * @return A new empty index
+     */
+    default <V> @NonNull RouteEntryIndex<V> createRouteEntryIndex() {
+        return new StringRouteEntryIndex<>();
+    }
+
+    /**
+     * Extract the IP prefix a route is reachable through, so that the Loc-RIB can index routes for longest-prefix
+     * match, covering and covered-by queries. Families whose routes are not IP prefixes do not override this method.
+     *
+     * @param route Route
+     * @return Route prefix, or null if the route is not an IP prefix
+     */
+    default @Nullable IpPrefix extractRoutePrefix(@NonNull R route) {
+        return null;
+    }
+
     /**
      * Extract a route list from the adj-rib-in instantiation of table routes.
      *
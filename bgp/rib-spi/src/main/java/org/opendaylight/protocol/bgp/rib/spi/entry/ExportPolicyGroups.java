@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.spi.entry;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.opendaylight.protocol.bgp.rib.spi.Peer;
+import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRibRoutingPolicy;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.AsNumber;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerRole;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.RouteTarget;
+
+/**
+ * Export policy results shared among destination peers which export policies cannot tell apart, as they have the same
+ * role, local AS and route target memberships. Destination peers of a single batch of advertised routes are
+ * partitioned into such groups and export policies are evaluated once per group and route.
+ *
+ * <p>
+ * Only the export policy verdict is shared, and only within a single batch. These are not BGP update groups: every
+ * peer still writes its own Adj-RIB-Out and each session encodes its own UPDATE messages from it.
+ *
+ * <p>
+ * Routes are identified by reference, hence an instance must not outlive the batch of routes it was created for.
+ * Instances are safe for concurrent use by peers updating their Adj-RIB-Out in parallel.
+ */
+public final class ExportPolicyGroups {
+    /**
+     * Export policy results of a single group of destination peers.
+     */
+    @FunctionalInterface
+    public interface Group {
+        /**
+         * Return the outcome of export policies for a route, evaluating them only if no other member of the group
+         * has done so already.
+         *
+         * @param route advertised route
+         * @param policy export policy evaluation for this route
+         * @return outcome of export policies
+         */
+        @NonNull Optional<Attributes> applyExportPolicies(@NonNull AdvertizedRoute<?, ?, ?, ?> route,
+                @NonNull Supplier<Optional<Attributes>> policy);
+    }
+
+    private static final Group UNSHARED = (route, policy) -> policy.get();
+    private static final ExportPolicyGroups DISABLED = new ExportPolicyGroups(null);
+
+    private final @Nullable ConcurrentMap<GroupKey, Group> groups;
+
+    private ExportPolicyGroups(final @Nullable ConcurrentMap<GroupKey, Group> groups) {
+        this.groups = groups;
+    }
+
+    /**
+     * Create groups for a single batch of routes, if the routing policy allows sharing of export policy results.
+     *
+     * @param policy routing policy
+     * @return export policy groups
+     */
+    public static @NonNull ExportPolicyGroups create(final @NonNull BGPRibRoutingPolicy policy) {
+        return policy.isExportPolicyShareable() ? new ExportPolicyGroups(new ConcurrentHashMap<>()) : DISABLED;
+    }
+
+    /**
+     * Return groups which do not share anything, so each peer evaluates export policies on its own.
+     *
+     * @return export policy groups
+     */
+    public static @NonNull ExportPolicyGroups disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Return the group a destination peer belongs to.
+     *
+     * @param toPeer destination peer
+     * @return export policy group
+     */
+    public @NonNull Group groupOf(final @NonNull Peer toPeer) {
+        final ConcurrentMap<GroupKey, Group> local = this.groups;
+        if (local == null) {
+            return UNSHARED;
+        }
+        return local.computeIfAbsent(new GroupKey(toPeer), key -> new SharedGroup());
+    }
+
+    /**
+     * Return the number of groups destination peers were partitioned into.
+     *
+     * @return number of groups, zero if sharing is disabled
+     */
+    public int size() {
+        final ConcurrentMap<GroupKey, Group> local = this.groups;
+        return local == null ? 0 : local.size();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("groups", size()).toString();
+    }
+
+    private static final class SharedGroup implements Group {
+        // AdvertizedRoute does not override equals(), hence this map is keyed by reference
+        private final ConcurrentMap<AdvertizedRoute<?, ?, ?, ?>, Optional<Attributes>> results =
+                new ConcurrentHashMap<>();
+
+        @Override
+        public Optional<Attributes> applyExportPolicies(final AdvertizedRoute<?, ?, ?, ?> route,
+                final Supplier<Optional<Attributes>> policy) {
+            final Optional<Attributes> existing = this.results.get(route);
+            if (existing != null) {
+                return existing;
+            }
+            // Concurrent members may evaluate the same route, the outcome is the same
+            final Optional<Attributes> computed = policy.get();
+            final Optional<Attributes> raced = this.results.putIfAbsent(route, computed);
+            return raced != null ? raced : computed;
+        }
+    }
+
+    private static final class GroupKey {
+        private final PeerRole role;
+        private final @Nullable AsNumber localAs;
+        private final ImmutableSet<RouteTarget> memberships;
+
+        GroupKey(final Peer toPeer) {
+            this.role = toPeer.getRole();
+            this.localAs = toPeer.getLocalAs();
+            this.memberships = ImmutableSet.copyOf(toPeer.getMemberships());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.role, this.localAs, this.memberships);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof GroupKey)) {
+                return false;
+            }
+            final GroupKey other = (GroupKey) obj;
+            return this.role == other.role && Objects.equals(this.localAs, other.localAs)
+                    && this.memberships.equals(other.memberships);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.spi.entry;
+
+import java.util.function.BiConsumer;
+
+/**
+ * {@link RouteEntryIndex} for IPv4 prefix route keys. Prefixes in their canonical dotted-quad form are packed into
+ * a single long (address and prefix length) and stored in an open-addressing table with linear probing. Route keys
+ * which are not in canonical form are kept in a {@link StringRouteEntryIndex}, so that the original String can be
+ * reproduced exactly.
+ *
+ * @param <V> Route entry type
+ */
+public final class Ipv4RouteEntryIndex<V> implements RouteEntryIndex<V> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_PREFIX_LENGTH = 32;
+    // Packed key value marking an empty slot. Valid keys always carry a non-zero length part.
+    private static final long EMPTY = 0;
+
+    private final StringRouteEntryIndex<V> fallback = new StringRouteEntryIndex<>();
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int mask = INITIAL_CAPACITY - 1;
+    private int size;
+
+    /**
+     * Pack a canonical IPv4 prefix string into a long. The upper bits hold the address, the lowest byte holds
+     * the prefix length incremented by one, so a valid key is never zero.
+     *
+     * @param routeKey Route key
+     * @return Packed key, or {@link #EMPTY} if the string is not a canonical IPv4 prefix
+     */
+    static long pack(final String routeKey) {
+        final int length = routeKey.length();
+        long address = 0;
+        int pos = 0;
+        for (int octet = 0; octet < 4; octet++) {
+            final int start = pos;
+            int value = 0;
+            while (pos < length) {
+                final char ch = routeKey.charAt(pos);
+                if (ch < '0' || ch > '9') {
+                    break;
+                }
+                value = value * 10 + ch - '0';
+                pos++;
+            }
+            final int digits = pos - start;
+            if (digits == 0 || digits > 3 || value > 255 || (digits > 1 && routeKey.charAt(start) == '0')) {
+                return EMPTY;
+            }
+            if (pos == length || routeKey.charAt(pos) != (octet == 3 ? '/' : '.')) {
+                return EMPTY;
+            }
+            pos++;
+            address = (address << Byte.SIZE) | value;
+        }
+
+        final int start = pos;
+        int prefixLength = 0;
+        while (pos < length) {
+            final char ch = routeKey.charAt(pos);
+            if (ch < '0' || ch > '9') {
+                return EMPTY;
+            }
+            prefixLength = prefixLength * 10 + ch - '0';
+            pos++;
+        }
+        final int digits = pos - start;
+        if (digits == 0 || digits > 2 || prefixLength > MAX_PREFIX_LENGTH
+                || (digits > 1 && routeKey.charAt(start) == '0')) {
+            return EMPTY;
+        }
+        return (address << Byte.SIZE) | (prefixLength + 1);
+    }
+
+    /**
+     * Reconstruct the route key string from a packed key.
+     *
+     * @param key Packed key
+     * @return Route key
+     */
+    static String unpack(final long key) {
+        final long address = key >>> Byte.SIZE;
+        return new StringBuilder(18)
+                .append((address >>> 24) & 0xFF).append('.')
+                .append((address >>> 16) & 0xFF).append('.')
+                .append((address >>> 8) & 0xFF).append('.')
+                .append(address & 0xFF).append('/')
+                .append((key & 0xFF) - 1).toString();
+    }
+
+    private static int hash(final long key) {
+        final long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    private int find(final long key) {
+        int slot = hash(key) & this.mask;
+        while (true) {
+            final long existing = this.keys[slot];
+            if (existing == key) {
+                return slot;
+            }
+            if (existing == EMPTY) {
+                return -1;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(final String routeKey) {
+        final long key = pack(routeKey);
+        if (key == EMPTY) {
+            return this.fallback.get(routeKey);
+        }
+        final int slot = find(key);
+        return slot < 0 ? null : (V) this.values[slot];
+    }
+
+    @Override
+    public void put(final String routeKey, final V entry) {
+        final long key = pack(routeKey);
+        if (key == EMPTY) {
+            this.fallback.put(routeKey, entry);
+            return;
+        }
+
+        int slot = hash(key) & this.mask;
+        while (true) {
+            final long existing = this.keys[slot];
+            if (existing == key) {
+                this.values[slot] = entry;
+                return;
+            }
+            if (existing == EMPTY) {
+                break;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+
+        this.keys[slot] = key;
+        this.values[slot] = entry;
+        // Keep load factor at or below 0.75
+        if (++this.size > this.keys.length - (this.keys.length >>> 2)) {
+            resize(this.keys.length << 1);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(final String routeKey) {
+        final long key = pack(routeKey);
+        if (key == EMPTY) {
+            return this.fallback.remove(routeKey);
+        }
+        final int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+
+        final V ret = (V) this.values[slot];
+        // Backward-shift deletion: move subsequent entries of the probe sequence into the gap
+        int gap = slot;
+        int next = (gap + 1) & this.mask;
+        while (this.keys[next] != EMPTY) {
+            final int ideal = hash(this.keys[next]) & this.mask;
+            if (((next - ideal) & this.mask) >= ((next - gap) & this.mask)) {
+                this.keys[gap] = this.keys[next];
+                this.values[gap] = this.values[next];
+                gap = next;
+            }
+            next = (next + 1) & this.mask;
+        }
+        this.keys[gap] = EMPTY;
+        this.values[gap] = null;
+        this.size--;
+        return ret;
+    }
+
+    private void resize(final int capacity) {
+        final long[] oldKeys = this.keys;
+        final Object[] oldValues = this.values;
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            final long key = oldKeys[i];
+            if (key != EMPTY) {
+                int slot = hash(key) & this.mask;
+                while (this.keys[slot] != EMPTY) {
+                    slot = (slot + 1) & this.mask;
+                }
+                this.keys[slot] = key;
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.size + this.fallback.size();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(final BiConsumer<String, V> action) {
+        for (int i = 0; i < this.keys.length; i++) {
+            final long key = this.keys[i];
+            if (key != EMPTY) {
+                action.accept(unpack(key), (V) this.values[i]);
+            }
+        }
+        this.fallback.forEach(action);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{size=" + size() + ", capacity=" + this.keys.length + ", fallback="
+                + this.fallback.size() + "}";
+    }
+}
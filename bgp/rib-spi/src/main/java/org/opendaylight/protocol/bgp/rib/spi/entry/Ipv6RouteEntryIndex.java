@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.spi.entry;
+
+import com.google.common.net.InetAddresses;
+import java.net.InetAddress;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link RouteEntryIndex} for IPv6 prefix route keys. Prefixes in their canonical (RFC5952) form are packed into
+ * two longs holding the address and a byte holding the prefix length, stored in an open-addressing table with
+ * linear probing. Route keys which are not in canonical form are kept in a {@link StringRouteEntryIndex}, so that
+ * the original String can be reproduced exactly. This class is NOT thread-safe.
+ *
+ * @param <V> Route entry type
+ */
+public final class Ipv6RouteEntryIndex<V> implements RouteEntryIndex<V> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_PREFIX_LENGTH = 128;
+    // Eight groups of four digits, seven colons, slash and three digits of prefix length
+    private static final int MAX_ROUTE_KEY_LENGTH = 43;
+    private static final int GROUPS = 8;
+    // Result of locate() for route keys which are not canonical IPv6 prefixes
+    private static final int NOT_CANONICAL = Integer.MIN_VALUE;
+    // Length value marking an empty slot. Valid slots hold prefix length incremented by one.
+    private static final byte EMPTY = 0;
+
+    private final StringRouteEntryIndex<V> fallback = new StringRouteEntryIndex<>();
+    // Address high and low words, interleaved
+    private long[] addresses = new long[INITIAL_CAPACITY * 2];
+    private byte[] lengths = new byte[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int mask = INITIAL_CAPACITY - 1;
+    private int size;
+
+    /**
+     * Locate the slot holding a route key. The key is parsed directly into its packed form, which succeeds only if
+     * it is a canonical (RFC5952) IPv6 prefix, as produced by {@link InetAddresses#toAddrString(InetAddress)}.
+     *
+     * @param routeKey Route key
+     * @param insert True if an empty slot should be claimed for the key if it is not present
+     * @return Slot index, -1 if the key is not present, or {@link #NOT_CANONICAL}
+     */
+    private int locate(final String routeKey, final boolean insert) {
+        final int slash = routeKey.indexOf('/');
+        if (slash <= 0) {
+            return NOT_CANONICAL;
+        }
+        final int prefixLength = parsePrefixLength(routeKey, slash + 1);
+        if (prefixLength < 0) {
+            return NOT_CANONICAL;
+        }
+
+        // Position of the compressed zero groups and the number of groups following them
+        final int gap = routeKey.indexOf("::");
+        int tailGroups = 0;
+        if (gap >= 0 && gap + 2 < slash) {
+            tailGroups = 1;
+            for (int i = gap + 2; i < slash; i++) {
+                if (routeKey.charAt(i) == ':') {
+                    tailGroups++;
+                }
+            }
+        }
+
+        long high = 0;
+        long low = 0;
+        int group = 0;
+        int gapStart = -1;
+        int gapLength = 0;
+        int pos = 0;
+        while (pos < slash) {
+            if (pos == gap) {
+                gapStart = group;
+                gapLength = GROUPS - tailGroups - group;
+                if (gapLength < 1) {
+                    return NOT_CANONICAL;
+                }
+                group += gapLength;
+                pos += 2;
+                continue;
+            }
+            if (group == GROUPS) {
+                return NOT_CANONICAL;
+            }
+
+            final int start = pos;
+            int value = 0;
+            while (pos < slash) {
+                final int digit = hexDigit(routeKey.charAt(pos));
+                if (digit < 0) {
+                    break;
+                }
+                value = value << 4 | digit;
+                pos++;
+            }
+            final int digits = pos - start;
+            if (digits == 0 || digits > 4 || (digits > 1 && routeKey.charAt(start) == '0')) {
+                return NOT_CANONICAL;
+            }
+            if (group < GROUPS / 2) {
+                high |= (long) value << (Short.SIZE * (GROUPS / 2 - 1 - group));
+            } else {
+                low |= (long) value << (Short.SIZE * (GROUPS - 1 - group));
+            }
+            group++;
+
+            if (pos < slash && pos != gap) {
+                // Single colon separating groups, which has to be followed by another group
+                if (routeKey.charAt(pos) != ':' || ++pos == slash) {
+                    return NOT_CANONICAL;
+                }
+            }
+        }
+        if (group != GROUPS || !isCanonicalGap(high, low, gapStart, gapLength)) {
+            return NOT_CANONICAL;
+        }
+
+        final byte length = (byte) (prefixLength + 1);
+        int slot = hash(high, low, length) & this.mask;
+        while (this.lengths[slot] != EMPTY) {
+            if (this.lengths[slot] == length && this.addresses[slot * 2] == high
+                    && this.addresses[slot * 2 + 1] == low) {
+                return slot;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        if (!insert) {
+            return -1;
+        }
+        store(slot, high, low, length, null);
+        this.size++;
+        return slot;
+    }
+
+    private static int parsePrefixLength(final String routeKey, final int start) {
+        final int length = routeKey.length();
+        final int digits = length - start;
+        if (digits == 0 || digits > 3 || (digits > 1 && routeKey.charAt(start) == '0')) {
+            return -1;
+        }
+        int value = 0;
+        for (int pos = start; pos < length; pos++) {
+            final char ch = routeKey.charAt(pos);
+            if (ch < '0' || ch > '9') {
+                return -1;
+            }
+            value = value * 10 + ch - '0';
+        }
+        return value > MAX_PREFIX_LENGTH ? -1 : value;
+    }
+
+    private static int hexDigit(final char ch) {
+        if (ch >= '0' && ch <= '9') {
+            return ch - '0';
+        }
+        if (ch >= 'a' && ch <= 'f') {
+            return ch - 'a' + 10;
+        }
+        return -1;
+    }
+
+    /**
+     * Check whether the compressed zero groups are the ones RFC5952 requires to be compressed.
+     */
+    private static boolean isCanonicalGap(final long high, final long low, final int gapStart, final int gapLength) {
+        final int run = longestZeroRun(high, low);
+        if (run < 0) {
+            return gapStart < 0;
+        }
+        return gapStart == run >>> Short.SIZE && gapLength == (run & 0xFFFF);
+    }
+
+    /**
+     * Find the longest run of two or more zero groups, the first one if there are multiple such runs.
+     *
+     * @return Run start in the upper and run length in the lower 16 bits, or -1 if there is no such run
+     */
+    private static int longestZeroRun(final long high, final long low) {
+        int runStart = -1;
+        int runLength = 1;
+        int group = 0;
+        while (group < GROUPS) {
+            if (groupAt(high, low, group) != 0) {
+                group++;
+                continue;
+            }
+            final int start = group;
+            while (group < GROUPS && groupAt(high, low, group) == 0) {
+                group++;
+            }
+            if (group - start > runLength) {
+                runStart = start;
+                runLength = group - start;
+            }
+        }
+        return runStart < 0 ? -1 : runStart << Short.SIZE | runLength;
+    }
+
+    private static int groupAt(final long high, final long low, final int group) {
+        final long word = group < GROUPS / 2 ? high : low;
+        return (int) (word >>> (Short.SIZE * (GROUPS / 2 - 1 - group % (GROUPS / 2)))) & 0xFFFF;
+    }
+
+    /**
+     * Format a packed prefix in its canonical form. This is done directly rather than through {@link InetAddress},
+     * which would turn IPv4-mapped addresses into IPv4 ones.
+     */
+    private static String unpack(final long high, final long low, final byte length) {
+        final int run = longestZeroRun(high, low);
+        final int runStart = run < 0 ? GROUPS : run >>> Short.SIZE;
+        final int runEnd = run < 0 ? GROUPS : runStart + (run & 0xFFFF);
+        final StringBuilder sb = new StringBuilder(MAX_ROUTE_KEY_LENGTH);
+        int group = 0;
+        while (group < GROUPS) {
+            if (group == runStart) {
+                sb.append("::");
+                group = runEnd;
+                continue;
+            }
+            if (group != 0 && group != runEnd) {
+                sb.append(':');
+            }
+            sb.append(Integer.toHexString(groupAt(high, low, group)));
+            group++;
+        }
+        return sb.append('/').append(Byte.toUnsignedInt(length) - 1).toString();
+    }
+
+    private static int hash(final long high, final long low, final byte length) {
+        final long mixed = (high * 31 + low) * 0x9E3779B97F4A7C15L + length;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(final String routeKey) {
+        final int slot = locate(routeKey, false);
+        if (slot == NOT_CANONICAL) {
+            return this.fallback.get(routeKey);
+        }
+        return slot < 0 ? null : (V) this.values[slot];
+    }
+
+    @Override
+    public void put(final String routeKey, final V entry) {
+        final int slot = locate(routeKey, true);
+        if (slot == NOT_CANONICAL) {
+            this.fallback.put(routeKey, entry);
+            return;
+        }
+
+        this.values[slot] = entry;
+        // Keep load factor at or below 0.75
+        if (this.size > this.lengths.length - (this.lengths.length >>> 2)) {
+            resize(this.lengths.length << 1);
+        }
+    }
+
+    private void store(final int slot, final long high, final long low, final byte length, final Object entry) {
+        this.addresses[slot * 2] = high;
+        this.addresses[slot * 2 + 1] = low;
+        this.lengths[slot] = length;
+        this.values[slot] = entry;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(final String routeKey) {
+        final int slot = locate(routeKey, false);
+        if (slot == NOT_CANONICAL) {
+            return this.fallback.remove(routeKey);
+        }
+        if (slot < 0) {
+            return null;
+        }
+
+        final V ret = (V) this.values[slot];
+        // Backward-shift deletion: move subsequent entries of the probe sequence into the gap
+        int gap = slot;
+        int next = (gap + 1) & this.mask;
+        while (this.lengths[next] != EMPTY) {
+            final long high = this.addresses[next * 2];
+            final long low = this.addresses[next * 2 + 1];
+            final byte length = this.lengths[next];
+            final int ideal = hash(high, low, length) & this.mask;
+            if (((next - ideal) & this.mask) >= ((next - gap) & this.mask)) {
+                store(gap, high, low, length, this.values[next]);
+                gap = next;
+            }
+            next = (next + 1) & this.mask;
+        }
+        store(gap, 0, 0, EMPTY, null);
+        this.size--;
+        return ret;
+    }
+
+    private void resize(final int capacity) {
+        final long[] oldAddresses = this.addresses;
+        final byte[] oldLengths = this.lengths;
+        final Object[] oldValues = this.values;
+        this.addresses = new long[capacity * 2];
+        this.lengths = new byte[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+
+        for (int i = 0; i < oldLengths.length; i++) {
+            final byte length = oldLengths[i];
+            if (length != EMPTY) {
+                final long high = oldAddresses[i * 2];
+                final long low = oldAddresses[i * 2 + 1];
+                int slot = hash(high, low, length) & this.mask;
+                while (this.lengths[slot] != EMPTY) {
+                    slot = (slot + 1) & this.mask;
+                }
+                store(slot, high, low, length, oldValues[i]);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.size + this.fallback.size();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(final BiConsumer<String, V> action) {
+        for (int i = 0; i < this.lengths.length; i++) {
+            final byte length = this.lengths[i];
+            if (length != EMPTY) {
+                action.accept(unpack(this.addresses[i * 2], this.addresses[i * 2 + 1], length), (V) this.values[i]);
+            }
+        }
+        this.fallback.forEach(action);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{size=" + size() + ", capacity=" + this.lengths.length + ", fallback="
+                + this.fallback.size() + "}";
+    }
+}
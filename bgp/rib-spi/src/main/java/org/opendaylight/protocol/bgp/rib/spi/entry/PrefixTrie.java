@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.spi.entry;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.function.Consumer;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Path-compressed binary (Patricia) trie mapping IP prefixes to values. Each node holds a prefix, which covers
+ * the prefixes of all nodes in its subtree, so that longest-prefix match, covering and covered-by queries need to
+ * visit only the nodes on the path to the queried prefix, plus the subtree of matches in case of covered-by
+ * queries. Nodes which do not hold a value exist only where two prefixes diverge, hence the trie has at most
+ * twice as many nodes as values. Host bits of prefixes are ignored. This class is NOT thread-safe.
+ *
+ * @param <V> Value type
+ */
+public final class PrefixTrie<V> {
+    private static final class Node<V> {
+        final byte[] address;
+        final int length;
+        V value;
+        Node<V> zero;
+        Node<V> one;
+
+        Node(final byte[] address, final int length, final V value) {
+            this.address = address;
+            this.length = length;
+            this.value = value;
+        }
+
+        Node<V> child(final int bit) {
+            return bit == 0 ? this.zero : this.one;
+        }
+
+        void setChild(final int bit, final Node<V> child) {
+            if (bit == 0) {
+                this.zero = child;
+            } else {
+                this.one = child;
+            }
+        }
+    }
+
+    private final int addressBytes;
+    private Node<V> root;
+    private int size;
+
+    private PrefixTrie(final int addressBytes) {
+        this.addressBytes = addressBytes;
+    }
+
+    /**
+     * Create a new trie for IPv4 prefixes, which are identified by 4-byte addresses.
+     *
+     * @param <V> Value type
+     * @return A new empty trie
+     */
+    public static <V> @NonNull PrefixTrie<V> ipv4() {
+        return new PrefixTrie<>(4);
+    }
+
+    /**
+     * Create a new trie for IPv6 prefixes, which are identified by 16-byte addresses.
+     *
+     * @param <V> Value type
+     * @return A new empty trie
+     */
+    public static <V> @NonNull PrefixTrie<V> ipv6() {
+        return new PrefixTrie<>(16);
+    }
+
+    private static int bit(final byte[] address, final int index) {
+        return (address[index >>> 3] >>> (7 - (index & 7))) & 1;
+    }
+
+    /**
+     * Return the number of leading bits two prefixes have in common, up to the length of the shorter one.
+     */
+    private static int commonLength(final byte[] first, final int firstLength, final byte[] second,
+            final int secondLength) {
+        final int limit = Math.min(firstLength, secondLength);
+        for (int i = 0; (i << 3) < limit; i++) {
+            final int diff = (first[i] ^ second[i]) & 0xFF;
+            if (diff != 0) {
+                return Math.min(limit, (i << 3) + Integer.numberOfLeadingZeros(diff) - 24);
+            }
+        }
+        return limit;
+    }
+
+    private static boolean covers(final Node<?> node, final byte[] address, final int length) {
+        return node.length <= length && commonLength(node.address, node.length, address, length) == node.length;
+    }
+
+    private byte[] checkPrefix(final byte[] address, final int length) {
+        checkArgument(address.length == this.addressBytes, "Address %s bytes long, expected %s", address.length,
+            this.addressBytes);
+        checkArgument(length >= 0 && length <= this.addressBytes * Byte.SIZE, "Invalid prefix length %s", length);
+        return address;
+    }
+
+    private static byte[] mask(final byte[] address, final int length) {
+        final byte[] ret = new byte[address.length];
+        final int full = length >>> 3;
+        System.arraycopy(address, 0, ret, 0, full);
+        final int partial = length & 7;
+        if (partial != 0) {
+            ret[full] = (byte) (address[full] & (0xFF00 >>> partial));
+        }
+        return ret;
+    }
+
+    private void replace(final Node<V> parent, final Node<V> oldChild, final Node<V> newChild) {
+        if (parent == null) {
+            this.root = newChild;
+        } else if (parent.zero == oldChild) {
+            parent.zero = newChild;
+        } else {
+            parent.one = newChild;
+        }
+    }
+
+    private Node<V> find(final byte[] address, final int length) {
+        Node<V> node = this.root;
+        while (node != null && covers(node, address, length)) {
+            if (node.length == length) {
+                return node;
+            }
+            node = node.child(bit(address, node.length));
+        }
+        return null;
+    }
+
+    /**
+     * Return the value associated with a prefix.
+     *
+     * @param address Prefix address
+     * @param length Prefix length
+     * @return Associated value, or null if not present
+     */
+    public @Nullable V get(final byte[] address, final int length) {
+        final Node<V> node = find(checkPrefix(address, length), length);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Associate a value with a prefix, replacing any previous association.
+     *
+     * @param address Prefix address
+     * @param length Prefix length
+     * @param value Value
+     * @return Previously associated value, or null if not present
+     */
+    public @Nullable V put(final byte[] address, final int length, final @NonNull V value) {
+        checkPrefix(address, length);
+        requireNonNull(value);
+
+        Node<V> parent = null;
+        Node<V> node = this.root;
+        while (node != null) {
+            final int common = commonLength(node.address, node.length, address, length);
+            if (common == node.length) {
+                if (node.length == length) {
+                    final V ret = node.value;
+                    node.value = value;
+                    if (ret == null) {
+                        this.size++;
+                    }
+                    return ret;
+                }
+                parent = node;
+                node = node.child(bit(address, node.length));
+                continue;
+            }
+
+            final Node<V> created = new Node<>(mask(address, length), length, value);
+            if (common == length) {
+                // The new prefix covers the existing node
+                created.setChild(bit(node.address, length), node);
+                replace(parent, node, created);
+            } else {
+                // The prefixes diverge, join them with a valueless node
+                final Node<V> join = new Node<>(mask(address, common), common, null);
+                join.setChild(bit(address, common), created);
+                join.setChild(bit(node.address, common), node);
+                replace(parent, node, join);
+            }
+            this.size++;
+            return null;
+        }
+
+        final Node<V> created = new Node<>(mask(address, length), length, value);
+        if (parent == null) {
+            this.root = created;
+        } else {
+            parent.setChild(bit(address, parent.length), created);
+        }
+        this.size++;
+        return null;
+    }
+
+    /**
+     * Remove the value associated with a prefix.
+     *
+     * @param address Prefix address
+     * @param length Prefix length
+     * @return Removed value, or null if not present
+     */
+    public @Nullable V remove(final byte[] address, final int length) {
+        checkPrefix(address, length);
+
+        Node<V> grandParent = null;
+        Node<V> parent = null;
+        Node<V> node = this.root;
+        while (node != null && covers(node, address, length) && node.length != length) {
+            grandParent = parent;
+            parent = node;
+            node = node.child(bit(address, node.length));
+        }
+        if (node == null || node.length != length || !covers(node, address, length) || node.value == null) {
+            return null;
+        }
+
+        final V ret = node.value;
+        node.value = null;
+        this.size--;
+
+        if (node.zero != null && node.one != null) {
+            // Still needed to join its children
+            return ret;
+        }
+        final Node<V> child = node.zero != null ? node.zero : node.one;
+        replace(parent, node, child);
+        if (child == null && parent != null && parent.value == null) {
+            // Parent was joining us with a sibling, which can take its place
+            replace(grandParent, parent, parent.zero != null ? parent.zero : parent.one);
+        }
+        return ret;
+    }
+
+    /**
+     * Return the value associated with the most specific prefix covering a prefix. Addresses can be matched by
+     * specifying the maximum prefix length.
+     *
+     * @param address Prefix address
+     * @param length Prefix length
+     * @return Matching value, or null if no prefix covers the prefix
+     */
+    public @Nullable V longestMatch(final byte[] address, final int length) {
+        checkPrefix(address, length);
+
+        V ret = null;
+        Node<V> node = this.root;
+        while (node != null && covers(node, address, length)) {
+            if (node.value != null) {
+                ret = node.value;
+            }
+            if (node.length == length) {
+                break;
+            }
+            node = node.child(bit(address, node.length));
+        }
+        return ret;
+    }
+
+    /**
+     * Invoke an action for the values associated with all prefixes covering a prefix, including the prefix itself,
+     * from the least specific to the most specific one.
+     *
+     * @param address Prefix address
+     * @param length Prefix length
+     * @param action Action to invoke
+     */
+    public void covering(final byte[] address, final int length, final @NonNull Consumer<V> action) {
+        checkPrefix(address, length);
+
+        Node<V> node = this.root;
+        while (node != null && covers(node, address, length)) {
+            if (node.value != null) {
+                action.accept(node.value);
+            }
+            if (node.length == length) {
+                break;
+            }
+            node = node.child(bit(address, node.length));
+        }
+    }
+
+    /**
+     * Invoke an action for the values associated with all prefixes covered by a prefix, including the prefix itself,
+     * in ascending order of address and length.
+     *
+     * @param address Prefix address
+     * @param length Prefix length
+     * @param action Action to invoke
+     */
+    public void coveredBy(final byte[] address, final int length, final @NonNull Consumer<V> action) {
+        checkPrefix(address, length);
+
+        Node<V> node = this.root;
+        while (node != null) {
+            final int common = commonLength(node.address, node.length, address, length);
+            if (node.length >= length) {
+                if (common == length) {
+                    walk(node, action);
+                }
+                return;
+            }
+            if (common < node.length) {
+                return;
+            }
+            node = node.child(bit(address, node.length));
+        }
+    }
+
+    private static <V> void walk(final Node<V> node, final Consumer<V> action) {
+        if (node.value != null) {
+            action.accept(node.value);
+        }
+        // Depth is bounded by address length
+        if (node.zero != null) {
+            walk(node.zero, action);
+        }
+        if (node.one != null) {
+            walk(node.one, action);
+        }
+    }
+
+    /**
+     * Return the number of prefixes with an associated value.
+     *
+     * @return Number of values
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Return true if this trie contains no values.
+     *
+     * @return True if there are no values
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{addressBytes=" + this.addressBytes + ", size=" + this.size + "}";
+    }
+}
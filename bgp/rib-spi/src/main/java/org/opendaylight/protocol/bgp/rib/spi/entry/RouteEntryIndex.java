@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.spi.entry;
+
+import java.util.function.BiConsumer;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Index of route entries keyed by route key, as extracted by
+ * {@link org.opendaylight.protocol.bgp.rib.spi.RIBSupport#extractRouteKey(org.opendaylight.yangtools.yang.binding
+ * .Identifier)}. Implementations are free to store the route key in a form more compact than a String, but need
+ * to reproduce it exactly when the index is walked. Implementations are NOT required to be thread-safe.
+ *
+ * @param <V> Route entry type
+ */
+public interface RouteEntryIndex<V> {
+    /**
+     * Return the entry associated with a route key.
+     *
+     * @param routeKey Route key
+     * @return Associated entry, or null if not present
+     */
+    @Nullable V get(@NonNull String routeKey);
+
+    /**
+     * Associate an entry with a route key, replacing any previous association.
+     *
+     * @param routeKey Route key
+     * @param entry Route entry
+     */
+    void put(@NonNull String routeKey, @NonNull V entry);
+
+    /**
+     * Remove the entry associated with a route key.
+     *
+     * @param routeKey Route key
+     * @return Removed entry, or null if not present
+     */
+    @Nullable V remove(@NonNull String routeKey);
+
+    /**
+     * Return the number of entries in this index.
+     *
+     * @return Number of entries
+     */
+    int size();
+
+    /**
+     * Return true if this index contains no entries.
+     *
+     * @return True if there are no entries
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Invoke an action for each route key and its associated entry. The index must not be modified while this method
+     * is executing.
+     *
+     * @param action Action to invoke
+     */
+    void forEach(@NonNull BiConsumer<String, V> action);
+}
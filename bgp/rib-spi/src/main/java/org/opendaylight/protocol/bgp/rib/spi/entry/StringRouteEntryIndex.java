@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.spi.entry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link RouteEntryIndex} backed by a {@link HashMap} keyed by the String route key. Used for address families whose
+ * route keys do not have a compact binary representation.
+ *
+ * @param <V> Route entry type
+ */
+public final class StringRouteEntryIndex<V> implements RouteEntryIndex<V> {
+    private final Map<String, V> entries = new HashMap<>();
+
+    @Override
+    public V get(final String routeKey) {
+        return this.entries.get(routeKey);
+    }
+
+    @Override
+    public void put(final String routeKey, final V entry) {
+        this.entries.put(routeKey, entry);
+    }
+
+    @Override
+    public V remove(final String routeKey) {
+        return this.entries.remove(routeKey);
+    }
+
+    @Override
+    public int size() {
+        return this.entries.size();
+    }
+
+    @Override
+    public void forEach(final BiConsumer<String, V> action) {
+        this.entries.forEach(action);
+    }
+}
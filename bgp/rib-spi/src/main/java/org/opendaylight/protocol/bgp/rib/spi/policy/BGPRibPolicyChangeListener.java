@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.spi.policy;
+
+/**
+ * Listener for changes of {@link BGPRibRoutingPolicy}, notified separately for import and export policies, so that
+ * only routes processed by the changed direction need to be re-evaluated. Both methods are invoked after the change
+ * is in effect.
+ */
+public interface BGPRibPolicyChangeListener {
+    /**
+     * Invoked when import policies may evaluate routes differently, hence routes received from peers need to be
+     * re-imported.
+     */
+    default void onImportPolicyChanged() {
+        // No-op
+    }
+
+    /**
+     * Invoked when export policies may evaluate routes differently, hence routes advertised to peers need to be
+     * re-exported.
+     */
+    default void onExportPolicyChanged() {
+        // No-op
+    }
+}
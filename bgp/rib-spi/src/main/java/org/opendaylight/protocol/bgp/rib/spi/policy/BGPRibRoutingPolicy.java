@@ -11,6 +11,7 @@ import java.util.Optional;
 import org.eclipse.jdt.annotation.NonNull;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.AfiSafiType;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yangtools.concepts.Registration;
 
 /**
  * Interface for BGP RIB Routing Policy. Apply Import/Export Routing Policy to route attributes.
@@ -37,4 +38,41 @@ public interface BGPRibRoutingPolicy {
      */
     @NonNull Optional<Attributes> applyExportPolicies(@NonNull BGPRouteEntryExportParameters policyParameters,
             @NonNull Attributes attributes, @NonNull Class<? extends AfiSafiType> afiSafType);
+
+    /**
+     * Indicate whether the outcome of import policies depends only on the arguments of
+     * {@link #applyImportPolicies(BGPRouteEntryImportParameters, Attributes, Class)} and on the policy definitions in
+     * effect. If it does, the outcome may be reused for routes with equal attributes received from the same peer,
+     * until an import policy change is reported through
+     * {@link #registerPolicyChangeListener(BGPRibPolicyChangeListener)}. Default implementation returns false.
+     *
+     * @return true if import policy outcome may be reused
+     */
+    default boolean isImportPolicyReusable() {
+        return false;
+    }
+
+    /**
+     * Indicate whether the outcome of export policies depends on the destination peer only through its role, local
+     * AS and route target memberships. If it does, the outcome may be shared among all destination peers which have
+     * these equal. The answer may change when an export policy change is reported through
+     * {@link #registerPolicyChangeListener(BGPRibPolicyChangeListener)}. Default implementation returns false.
+     *
+     * @return true if export policy outcome may be shared among destination peers
+     */
+    default boolean isExportPolicyShareable() {
+        return false;
+    }
+
+    /**
+     * Register a listener notified whenever import or export policies may evaluate routes differently, so routes
+     * already processed by the previous definitions can be re-evaluated. Only the affected direction is reported.
+     * Default implementation does not track any changes.
+     *
+     * @param listener notified after the new definitions are in effect
+     * @return registration, closing it unregisters the listener
+     */
+    default @NonNull Registration registerPolicyChangeListener(final @NonNull BGPRibPolicyChangeListener listener) {
+        return () -> { };
+    }
 }
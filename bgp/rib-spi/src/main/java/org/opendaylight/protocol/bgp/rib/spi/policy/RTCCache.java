@@ -9,6 +9,7 @@ package org.opendaylight.protocol.bgp.rib.spi.policy;
 
 import java.util.List;
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.Route;
 
 public interface RTCCache {
@@ -18,4 +19,15 @@ public interface RTCCache {
      * @return rtc cache
      */
     @NonNull List<Route> getClientRouteTargetContrainCache();
+
+    /**
+     * Lookup RTC route advertized per clients peers by its route key.
+     *
+     * @param routeKey route key
+     * @return rtc route, or null if no such route is cached
+     */
+    default @Nullable Route getClientRouteTargetContrainRoute(final @NonNull String routeKey) {
+        return getClientRouteTargetContrainCache().stream().filter(rt -> routeKey.equals(rt.getRouteKey()))
+                .findFirst().orElse(null);
+    }
 }
@@ -7,7 +7,7 @@
  */
 package org.opendaylight.protocol.bgp.rib.spi.policy;
 
-import java.util.List;
+import java.util.Set;
 import org.eclipse.jdt.annotation.NonNull;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.RouteTarget;
 
@@ -16,7 +16,8 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.type
  */
 public interface RouteTargetMembershipConsumer {
     /**
-     * Returns list of Route target advertized per Peer.
+     * Returns set of Route target advertized per Peer. The returned set is an immutable snapshot, which does not
+     * reflect subsequent membership changes.
      */
-    @NonNull List<RouteTarget> getMemberships();
+    @NonNull Set<RouteTarget> getMemberships();
 }
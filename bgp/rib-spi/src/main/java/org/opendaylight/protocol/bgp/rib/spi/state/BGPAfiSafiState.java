@@ -47,6 +47,23 @@ public interface BGPAfiSafiState extends BGPLlGracelfulRestartState {
      */
     long getPrefixesReceivedCount(@NonNull TablesKey tablesKey);
 
+    /**
+     * Routes received from the peer whose import policy result was reused from an earlier route with the same
+     * attributes.
+     *
+     * @param tablesKey tablesKey Type
+     * @return Import policy cache hit count
+     */
+    long getImportPolicyCacheHitCount(@NonNull TablesKey tablesKey);
+
+    /**
+     * Routes received from the peer for which import policy had to be applied.
+     *
+     * @param tablesKey tablesKey Type
+     * @return Import policy cache miss count
+     */
+    long getImportPolicyCacheMissCount(@NonNull TablesKey tablesKey);
+
     /**
      * List of TablesKey - Afi Safi Advertized to the neighbor.
      *
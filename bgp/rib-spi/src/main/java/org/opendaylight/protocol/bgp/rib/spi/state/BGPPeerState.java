@@ -21,6 +21,7 @@ import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.
  * - Operational state of graceful-restart associated with a BGP neighbor
  * - Per-AFI-SAFI operational state and counters to the BGP neighbor
  * - Per-AFI-SAFI operational state for BGP graceful-restart
+ * - Latency of updates to the neighbor's Adj-RIB-Out
  */
 public interface BGPPeerState extends RibReference {
     /**
@@ -110,4 +111,11 @@ public interface BGPPeerState extends RibReference {
      * @return BGPGracelfulRestartState
      */
     @NonNull BGPGracelfulRestartState getBGPGracelfulRestart();
+
+    /**
+     * BGP Adj-RIB-Out update latency State.
+     *
+     * @return BGPRibOutLatencyState
+     */
+    @NonNull BGPRibOutLatencyState getBGPRibOutLatencyState();
 }
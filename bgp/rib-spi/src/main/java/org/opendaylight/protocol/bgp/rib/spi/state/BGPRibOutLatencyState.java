@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.spi.state;
+
+import java.util.List;
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * Latency of Adj-RIB-Out updates towards a BGP neighbor, measured from the time Loc-RIB changes are handed off for
+ * propagation to the time they are written into the neighbor's Adj-RIB-Out. Latencies are kept in a histogram with
+ * exponentially growing buckets.
+ */
+public interface BGPRibOutLatencyState {
+    /**
+     * Number of Adj-RIB-Out updates measured.
+     *
+     * @return count
+     */
+    long getRibOutUpdateCount();
+
+    /**
+     * Highest latency measured, in microseconds.
+     *
+     * @return latency
+     */
+    long getRibOutMaxLatency();
+
+    /**
+     * Upper bounds of histogram buckets, in microseconds. Each bound is inclusive and there is one more bucket than
+     * there are bounds, which counts all latencies exceeding the last bound.
+     *
+     * @return bucket upper bounds
+     */
+    @NonNull List<Long> getRibOutLatencyBucketBounds();
+
+    /**
+     * Number of updates in each histogram bucket.
+     *
+     * @return bucket counts
+     */
+    @NonNull List<Long> getRibOutLatencyBucketCounts();
+}
@@ -71,6 +71,29 @@ public interface BGPRibState extends RibReference {
      */
     long getPrefixesCount(TablesKey tablesKey);
 
+    /**
+     * Number of path attribute lookups answered with a previously cached object. Path attributes are shared across
+     * all RIBs, hence this counter covers the whole process.
+     *
+     * @return count
+     */
+    long getAttributeCacheHitCount();
+
+    /**
+     * Number of path attribute lookups which did not find an equal cached object. Path attributes are shared across
+     * all RIBs, hence this counter covers the whole process.
+     *
+     * @return count
+     */
+    long getAttributeCacheMissCount();
+
+    /**
+     * Approximate number of path attribute objects held in the shared cache.
+     *
+     * @return count
+     */
+    long getAttributeCacheSize();
+
     /**
      * AS.
      *
@@ -56,4 +56,20 @@ public interface BGPSessionState {
      * @return true if supported
      */
     boolean isRouterRefreshCapabilitySupported();
+
+    /**
+     * Number of received UPDATE messages whose path attributes were reused from an earlier message instead of being
+     * parsed.
+     *
+     * @return count
+     */
+    long getParsedAttributesCacheHitCount();
+
+    /**
+     * Number of received UPDATE messages whose path attributes were looked up in the parsed attributes cache, but
+     * had to be parsed.
+     *
+     * @return count
+     */
+    long getParsedAttributesCacheMissCount();
 }
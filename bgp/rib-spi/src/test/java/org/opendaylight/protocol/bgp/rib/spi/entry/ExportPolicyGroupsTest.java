@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.spi.entry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.protocol.bgp.rib.spi.Peer;
+import org.opendaylight.protocol.bgp.rib.spi.RIBSupport;
+import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRibRoutingPolicy;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerRole;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.Route;
+
+public class ExportPolicyGroupsTest {
+    private static final Attributes ATTRIBUTES = new AttributesBuilder().build();
+
+    private final AtomicInteger evaluations = new AtomicInteger();
+    private final Supplier<Optional<Attributes>> policy = () -> {
+        this.evaluations.incrementAndGet();
+        return Optional.of(ATTRIBUTES);
+    };
+    private AdvertizedRoute<?, ?, ?, ?> route;
+
+    @Before
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public void setUp() {
+        final RIBSupport ribSupport = mock(RIBSupport.class);
+        final Route routeData = mock(Route.class);
+        doReturn("10.0.0.0/8").when(routeData).getRouteKey();
+        this.route = new AdvertizedRoute(ribSupport, routeData, ATTRIBUTES, new PeerId("bgp://127.0.0.1"), false);
+    }
+
+    private static Peer mockPeer(final PeerRole role) {
+        final Peer peer = mock(Peer.class);
+        doReturn(role).when(peer).getRole();
+        doReturn(Collections.emptySet()).when(peer).getMemberships();
+        return peer;
+    }
+
+    private static BGPRibRoutingPolicy mockPolicy(final boolean shareable) {
+        final BGPRibRoutingPolicy ribPolicy = mock(BGPRibRoutingPolicy.class);
+        doReturn(shareable).when(ribPolicy).isExportPolicyShareable();
+        return ribPolicy;
+    }
+
+    @Test
+    public void testShared() {
+        final ExportPolicyGroups groups = ExportPolicyGroups.create(mockPolicy(true));
+        final ExportPolicyGroups.Group first = groups.groupOf(mockPeer(PeerRole.RrClient));
+        final ExportPolicyGroups.Group second = groups.groupOf(mockPeer(PeerRole.RrClient));
+        final ExportPolicyGroups.Group other = groups.groupOf(mockPeer(PeerRole.Ebgp));
+        assertSame(first, second);
+        assertNotSame(first, other);
+        assertEquals(2, groups.size());
+
+        first.applyExportPolicies(this.route, this.policy);
+        second.applyExportPolicies(this.route, this.policy);
+        assertEquals(1, this.evaluations.get());
+        other.applyExportPolicies(this.route, this.policy);
+        assertEquals(2, this.evaluations.get());
+    }
+
+    @Test
+    public void testNotShareable() {
+        final ExportPolicyGroups groups = ExportPolicyGroups.create(mockPolicy(false));
+        final ExportPolicyGroups.Group first = groups.groupOf(mockPeer(PeerRole.RrClient));
+        final ExportPolicyGroups.Group second = groups.groupOf(mockPeer(PeerRole.RrClient));
+        assertEquals(0, groups.size());
+
+        first.applyExportPolicies(this.route, this.policy);
+        second.applyExportPolicies(this.route, this.policy);
+        assertEquals(2, this.evaluations.get());
+    }
+}
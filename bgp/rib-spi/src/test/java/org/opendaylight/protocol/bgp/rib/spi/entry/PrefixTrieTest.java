@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.spi.entry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.net.InetAddresses;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class PrefixTrieTest {
+    private static byte[] address(final String prefix) {
+        final int slash = prefix.indexOf('/');
+        return InetAddresses.forString(slash < 0 ? prefix : prefix.substring(0, slash)).getAddress();
+    }
+
+    private static int length(final String prefix) {
+        return Integer.parseInt(prefix.substring(prefix.indexOf('/') + 1));
+    }
+
+    private static void put(final PrefixTrie<String> trie, final String prefix) {
+        trie.put(address(prefix), length(prefix), prefix);
+    }
+
+    private static List<String> covering(final PrefixTrie<String> trie, final String prefix) {
+        final List<String> ret = new ArrayList<>();
+        trie.covering(address(prefix), length(prefix), ret::add);
+        return ret;
+    }
+
+    private static List<String> coveredBy(final PrefixTrie<String> trie, final String prefix) {
+        final List<String> ret = new ArrayList<>();
+        trie.coveredBy(address(prefix), length(prefix), ret::add);
+        return ret;
+    }
+
+    @Test
+    public void testIpv4Queries() {
+        final PrefixTrie<String> trie = PrefixTrie.ipv4();
+        put(trie, "10.0.0.0/8");
+        put(trie, "10.1.0.0/16");
+        put(trie, "10.1.2.0/24");
+        put(trie, "10.2.0.0/16");
+        put(trie, "192.168.0.0/16");
+        assertEquals(5, trie.size());
+
+        assertEquals("10.1.2.0/24", trie.longestMatch(address("10.1.2.3"), 32));
+        assertEquals("10.1.0.0/16", trie.longestMatch(address("10.1.3.3"), 32));
+        assertEquals("10.0.0.0/8", trie.longestMatch(address("10.3.0.1"), 32));
+        assertNull(trie.longestMatch(address("11.0.0.1"), 32));
+
+        assertEquals(ImmutableList.of("10.0.0.0/8", "10.1.0.0/16", "10.1.2.0/24"), covering(trie, "10.1.2.128/25"));
+        assertEquals(ImmutableList.of("10.0.0.0/8", "10.1.0.0/16"), covering(trie, "10.1.0.0/16"));
+        assertEquals(ImmutableList.of(), covering(trie, "0.0.0.0/0"));
+
+        assertEquals(ImmutableList.of("10.0.0.0/8", "10.1.0.0/16", "10.1.2.0/24", "10.2.0.0/16"),
+            coveredBy(trie, "10.0.0.0/8"));
+        assertEquals(ImmutableList.of("10.1.0.0/16", "10.1.2.0/24"), coveredBy(trie, "10.1.0.0/15"));
+        assertEquals(ImmutableList.of(), coveredBy(trie, "10.1.3.0/24"));
+        assertEquals(5, coveredBy(trie, "0.0.0.0/0").size());
+
+        assertEquals("10.1.0.0/16", trie.remove(address("10.1.0.0"), 16));
+        assertNull(trie.remove(address("10.1.0.0"), 16));
+        assertEquals("10.0.0.0/8", trie.longestMatch(address("10.1.3.3"), 32));
+        assertEquals(ImmutableList.of("10.0.0.0/8", "10.1.2.0/24"), covering(trie, "10.1.2.0/24"));
+        assertEquals(4, trie.size());
+    }
+
+    @Test
+    public void testIpv6Queries() {
+        final PrefixTrie<String> trie = PrefixTrie.ipv6();
+        put(trie, "2001:db8::/32");
+        put(trie, "2001:db8:1::/48");
+        put(trie, "::/0");
+
+        assertEquals("2001:db8:1::/48", trie.longestMatch(address("2001:db8:1::1"), 128));
+        assertEquals("2001:db8::/32", trie.longestMatch(address("2001:db8:2::1"), 128));
+        assertEquals("::/0", trie.longestMatch(address("2001:db9::1"), 128));
+        assertEquals(ImmutableList.of("2001:db8::/32", "2001:db8:1::/48"), coveredBy(trie, "2001:db8::/32"));
+    }
+
+    @Test
+    public void testHostBitsIgnored() {
+        final PrefixTrie<String> trie = PrefixTrie.ipv4();
+        trie.put(address("10.1.2.3"), 8, "10.0.0.0/8");
+        assertEquals("10.0.0.0/8", trie.get(address("10.0.0.0"), 8));
+        assertEquals("10.0.0.0/8", trie.remove(address("10.255.0.0"), 8));
+        assertTrue(trie.isEmpty());
+    }
+
+    /**
+     * Compare query results against a brute-force scan over random prefixes, clustered into a small part of the
+     * address space, so that prefixes nest and diverge often.
+     */
+    @Test
+    public void testRandomized() {
+        final Random random = new Random(0);
+        final PrefixTrie<String> trie = PrefixTrie.ipv4();
+        final Map<String, String> expected = new HashMap<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            final String prefix = randomPrefix(random);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(prefix), trie.remove(address(prefix), length(prefix)));
+            } else {
+                assertEquals(expected.put(prefix, prefix), trie.put(address(prefix), length(prefix), prefix));
+            }
+            assertEquals(expected.size(), trie.size());
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            final String query = randomPrefix(random);
+            final List<String> covering = new ArrayList<>();
+            final List<String> coveredBy = new ArrayList<>();
+            for (final String prefix : expected.keySet()) {
+                if (covers(prefix, query)) {
+                    covering.add(prefix);
+                }
+                if (covers(query, prefix)) {
+                    coveredBy.add(prefix);
+                }
+            }
+            covering.sort((first, second) -> Integer.compare(length(first), length(second)));
+            assertEquals(covering, covering(trie, query));
+            assertEquals(covering.isEmpty() ? null : covering.get(covering.size() - 1),
+                trie.longestMatch(address(query), length(query)));
+            final List<String> actual = coveredBy(trie, query);
+            assertEquals(coveredBy.size(), actual.size());
+            assertTrue(actual.containsAll(coveredBy));
+        }
+    }
+
+    private static String randomPrefix(final Random random) {
+        final int length = 8 + random.nextInt(17);
+        final int address = 10 << 24 | (random.nextInt(1 << 16) << 8) & -(1 << (32 - length));
+        return InetAddresses.fromInteger(address).getHostAddress() + "/" + length;
+    }
+
+    private static boolean covers(final String outer, final String inner) {
+        final int outerLength = length(outer);
+        if (outerLength > length(inner)) {
+            return false;
+        }
+        final int mask = outerLength == 0 ? 0 : -(1 << (32 - outerLength));
+        return (InetAddresses.coerceToInteger(InetAddresses.forString(outer.substring(0, outer.indexOf('/'))))
+                & mask) == (InetAddresses.coerceToInteger(InetAddresses.forString(inner.substring(0,
+                    inner.indexOf('/')))) & mask);
+    }
+}
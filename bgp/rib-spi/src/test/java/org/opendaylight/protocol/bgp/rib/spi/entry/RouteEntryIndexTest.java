@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.spi.entry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import org.junit.Test;
+
+public class RouteEntryIndexTest {
+    @Test
+    public void testIpv4Pack() {
+        assertEquals("10.0.0.0/8", Ipv4RouteEntryIndex.unpack(Ipv4RouteEntryIndex.pack("10.0.0.0/8")));
+        assertEquals("0.0.0.0/0", Ipv4RouteEntryIndex.unpack(Ipv4RouteEntryIndex.pack("0.0.0.0/0")));
+        assertEquals("255.255.255.255/32",
+            Ipv4RouteEntryIndex.unpack(Ipv4RouteEntryIndex.pack("255.255.255.255/32")));
+        assertEquals("10.0.0.1/8", Ipv4RouteEntryIndex.unpack(Ipv4RouteEntryIndex.pack("10.0.0.1/8")));
+
+        assertEquals(0, Ipv4RouteEntryIndex.pack("010.0.0.0/8"));
+        assertEquals(0, Ipv4RouteEntryIndex.pack("10.0.0.0/08"));
+        assertEquals(0, Ipv4RouteEntryIndex.pack("10.0.0.0/33"));
+        assertEquals(0, Ipv4RouteEntryIndex.pack("10.0.0.256/24"));
+        assertEquals(0, Ipv4RouteEntryIndex.pack("10.0.0/24"));
+        assertEquals(0, Ipv4RouteEntryIndex.pack("10.0.0.0"));
+        assertEquals(0, Ipv4RouteEntryIndex.pack("10.0.0.0/"));
+        assertEquals(0, Ipv4RouteEntryIndex.pack("rd:1:10.0.0.0/8"));
+    }
+
+    @Test
+    public void testIpv4Index() {
+        assertIndex(new Ipv4RouteEntryIndex<>(), RouteEntryIndexTest::ipv4Prefix, "010.0.0.0/8");
+    }
+
+    @Test
+    public void testIpv6Index() {
+        assertIndex(new Ipv6RouteEntryIndex<>(), RouteEntryIndexTest::ipv6Prefix, "2001:0db8::/32");
+    }
+
+    @Test
+    public void testStringIndex() {
+        assertIndex(new StringRouteEntryIndex<>(), RouteEntryIndexTest::ipv4Prefix, "flowspec");
+    }
+
+    @Test
+    public void testIpv6CanonicalForms() {
+        final Ipv6RouteEntryIndex<Integer> index = new Ipv6RouteEntryIndex<>();
+        final String[] canonical = { "::/0", "::1/128", "1::/16", "2001:db8:0:1:1:1:1:1/64", "2001:db8::1:0:0:1/128",
+            "1:2:3:4:5:6:7:8/64", "fe80::/10", "::ffff:102:304/128", "1:0:1::/48", "1::1:0:0:0/64" };
+        final String[] nonCanonical = { "2001:0db8::/32", "2001:DB8::/32", "2001:db8:0:0:1::1/128",
+            "2001:db8::0:1/64", "::ffff:1.2.3.4/128", "1:2:3:4:5:6:7::/64", "1::2::3/64", "1:/8", "/8", "::/129",
+            "::/01", ":::/0" };
+        for (int i = 0; i < canonical.length; i++) {
+            index.put(canonical[i], i);
+        }
+        assertTrue(index.toString().endsWith("fallback=0}"));
+        // Canonical keys are reproduced exactly, including IPv4-mapped addresses
+        final Map<String, Integer> iterated = new HashMap<>();
+        index.forEach(iterated::put);
+        assertEquals(canonical.length, iterated.size());
+        for (int i = 0; i < canonical.length; i++) {
+            assertEquals(Integer.valueOf(i), iterated.get(canonical[i]));
+        }
+        for (int i = 0; i < nonCanonical.length; i++) {
+            index.put(nonCanonical[i], -i);
+        }
+        assertTrue(index.toString().endsWith("fallback=" + nonCanonical.length + "}"));
+
+        for (int i = 0; i < canonical.length; i++) {
+            assertEquals(Integer.valueOf(i), index.remove(canonical[i]));
+        }
+        for (int i = 0; i < nonCanonical.length; i++) {
+            assertEquals(Integer.valueOf(-i), index.remove(nonCanonical[i]));
+        }
+        assertTrue(index.isEmpty());
+    }
+
+    private static void assertIndex(final RouteEntryIndex<Integer> index, final Function<Integer, String> keyFunc,
+            final String nonCanonical) {
+        final Map<String, Integer> expected = new HashMap<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            final int value = random.nextInt(20_000);
+            final String key = keyFunc.apply(value);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), index.remove(key));
+            } else {
+                expected.put(key, value);
+                index.put(key, value);
+            }
+            assertEquals(expected.get(key), index.get(key));
+        }
+
+        expected.put(nonCanonical, -1);
+        index.put(nonCanonical, -1);
+        assertEquals(Integer.valueOf(-1), index.get(nonCanonical));
+        assertEquals(expected.size(), index.size());
+
+        final Map<String, Integer> actual = new HashMap<>();
+        index.forEach((key, value) -> assertNull(actual.put(key, value)));
+        assertEquals(expected, actual);
+
+        for (final String key : expected.keySet()) {
+            assertEquals(expected.get(key), index.remove(key));
+        }
+        assertTrue(index.isEmpty());
+    }
+
+    private static String ipv4Prefix(final int value) {
+        return ((value >>> 14) & 0xFF) + "." + ((value >>> 6) & 0xFF) + "." + ((value << 2) & 0xFF) + ".0/"
+                + (value % 3 == 0 ? 24 : 22);
+    }
+
+    private static String ipv6Prefix(final int value) {
+        return "2001:db8:" + Integer.toHexString(value >>> 8) + ":" + Integer.toHexString(value & 0xFF) + "::/"
+                + (value % 3 == 0 ? 64 : 48);
+    }
+}
@@ -17,6 +17,7 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.GlobalEventExecutor;
 import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -64,7 +65,6 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.pcep.client.attributes.path.computation.client.ReportedLspKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.pcep.client.attributes.path.computation.client.reported.lsp.Path;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
-import org.opendaylight.yangtools.yang.binding.DataObject;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.opendaylight.yangtools.yang.common.RpcResult;
 import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
@@ -101,6 +101,7 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
     final SessionStateImpl listenerState;
     @GuardedBy("this")
     private final Map<S, PCEPRequest> requests = new HashMap<>();
+    // LSPs as last reported by the PCC, keyed by name. LSP lookups are answered from here, not from the datastore
     @GuardedBy("this")
     private final Map<String, ReportedLsp> lspData = new HashMap<>();
     private final ServerSessionManager serverSessionManager;
@@ -114,6 +115,9 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
     private SyncOptimization syncOptimization;
     @GuardedBy("this")
     private boolean triggeredResyncInProcess;
+    // Reports received during state synchronization, which have not been committed yet
+    @GuardedBy("this")
+    private MessageContext pendingContext;
 
     AbstractTopologySessionListener(final ServerSessionManager serverSessionManager) {
         this.serverSessionManager = requireNonNull(serverSessionManager);
@@ -183,6 +187,7 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
             AbstractTopologySessionListener.this.session.close(TerminationReason.UNKNOWN);
             return;
         }
+        flushPendingContext();
         final MessageContext ctx = new MessageContext(this.nodeState.getChain().newWriteOnlyTransaction());
         updatePccNode(ctx, new PathComputationClientBuilder().setStateSync(pccSyncState).build());
         if (pccSyncState != PccSyncState.Synchronized) {
@@ -219,7 +224,8 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
     private synchronized void tearDown(final PCEPSession psession) {
 
         requireNonNull(psession);
-        this.serverSessionManager.releaseNodeState(this.nodeState, psession, isLspDbPersisted());
+        flushPendingContext();
+        this.serverSessionManager.releaseNodeState(this.nodeState, psession, this, isLspDbPersisted());
         clearNodeState();
 
         try {
@@ -277,25 +283,69 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
             psession.close(TerminationReason.UNKNOWN);
             return;
         }
-        final MessageContext ctx = new MessageContext(this.nodeState.getChain().newWriteOnlyTransaction());
+        final MessageContext pending = this.pendingContext;
+        final MessageContext ctx = pending != null ? pending
+                : new MessageContext(this.nodeState.getChain().newWriteOnlyTransaction());
 
         if (onMessage(ctx, message)) {
             LOG.warn("Unhandled message {} on session {}", message, psession);
-            //cancel not supported, submit empty transaction
-            ctx.trans.commit().addCallback(new FutureCallback<CommitInfo>() {
-                @Override
-                public void onSuccess(final CommitInfo result) {
-                    LOG.trace("Successful commit");
-                }
+            if (ctx != pending) {
+                //cancel not supported, submit empty transaction
+                ctx.trans.commit().addCallback(new FutureCallback<CommitInfo>() {
+                    @Override
+                    public void onSuccess(final CommitInfo result) {
+                        LOG.trace("Successful commit");
+                    }
+
+                    @Override
+                    public void onFailure(final Throwable trw) {
+                        LOG.error("Failed commit", trw);
+                    }
+                }, MoreExecutors.directExecutor());
+            }
+            return;
+        }
 
-                @Override
-                public void onFailure(final Throwable trw) {
-                    LOG.error("Failed commit", trw);
-                }
-            }, MoreExecutors.directExecutor());
+        /*
+         * While the peer is synchronizing its LSP state, accumulate reports into a single transaction until the
+         * batch is full, its time window expires or the peer signals the end of synchronization. Reports which
+         * resolve outstanding requests are committed immediately, so as not to delay them.
+         */
+        if (!this.synced.get() && !ctx.hasRequests()
+                && ++ctx.messages < this.serverSessionManager.getStateSyncBatchSize()) {
+            if (pending == null) {
+                this.pendingContext = ctx;
+                GlobalEventExecutor.INSTANCE.schedule(() -> flushPendingContext(ctx),
+                        this.serverSessionManager.getStateSyncBatchWindowNanos(), TimeUnit.NANOSECONDS);
+            }
             return;
         }
 
+        this.pendingContext = null;
+        commitContext(psession, ctx);
+    }
+
+    private synchronized void flushPendingContext(final MessageContext ctx) {
+        if (this.pendingContext == ctx) {
+            LOG.debug("Committing {} reports received on session {}", ctx.messages, this.session);
+            this.pendingContext = null;
+            commitContext(this.session, ctx);
+        }
+    }
+
+    /**
+     * Commit any reports accumulated during state synchronization. This needs to happen before any other access
+     * to the node's transaction chain, so that the datastore observes the updates in order.
+     */
+    @Holding("this")
+    private void flushPendingContext() {
+        final MessageContext ctx = this.pendingContext;
+        if (ctx != null) {
+            flushPendingContext(ctx);
+        }
+    }
+
+    private static void commitContext(final PCEPSession psession, final MessageContext ctx) {
         ctx.trans.commit().addCallback(new FutureCallback<CommitInfo>() {
             @Override
             public void onSuccess(final CommitInfo result) {
@@ -315,6 +365,7 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
 
     @Override
     public synchronized void close() {
+        flushPendingContext();
         clearNodeState();
         if (this.session != null) {
             LOG.info("Closing session {}", session);
@@ -441,48 +492,46 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
     private static List<Path> makeBeforeBreak(final ReportedLspBuilder rlb, final ReportedLsp previous,
             final String name, final boolean remove) {
         // just one path should be reported
-        Preconditions.checkState(rlb.getPath().size() == 1);
+        final List<Path> reported = rlb.getPath();
+        Preconditions.checkState(reported.size() == 1);
         final org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.rsvp.rev150820.LspId reportedLspId =
-                rlb.getPath().get(0).getLspId();
-        final List<Path> updatedPaths;
-        //lspId = 0 and remove = false -> tunnel is down, still exists but no path is signaled
-        //remove existing tunnel's paths now, as explicit path remove will not come
-        if (!remove && reportedLspId.getValue() == 0) {
-            updatedPaths = new ArrayList<>();
-            LOG.debug("Remove previous paths {} to this lsp name {}", previous.getPath(), name);
-        } else {
-            // check previous report for existing paths
-            updatedPaths = new ArrayList<>(previous.getPath());
-            LOG.debug("Found previous paths {} to this lsp name {}", updatedPaths, name);
-            for (final Path path : previous.getPath()) {
-                //we found reported path in previous reports
-                if (path.getLspId().getValue() == 0 || path.getLspId().equals(reportedLspId)) {
-                    LOG.debug("Match on lsp-id {}", path.getLspId().getValue());
-                    // path that was reported previously and does have the same lsp-id, path will be updated
-                    final boolean r = updatedPaths.remove(path);
-                    LOG.trace("Request removed? {}", r);
-                }
-            }
-        }
-        // if the path does not exist in previous report, add it to path list, it's a new ERO
-        // only one path will be added
-        //lspId is 0 means confirmation message that shouldn't be added (because we have no means of deleting it later)
-        LOG.trace("Adding new path {} to {}", rlb.getPath(), updatedPaths);
-        updatedPaths.addAll(rlb.getPath());
-        if (remove) {
-            if (reportedLspId.getValue() == 0) {
+                reported.get(0).getLspId();
+        if (reportedLspId.getValue() == 0) {
+            if (remove) {
                 // if lsp-id also 0, remove all paths
                 LOG.debug("Removing all paths.");
-                updatedPaths.clear();
+                return ImmutableList.of();
+            }
+            //lspId = 0 and remove = false -> tunnel is down, still exists but no path is signaled
+            //remove existing tunnel's paths now, as explicit path remove will not come
+            LOG.debug("Remove previous paths {} to this lsp name {}", previous.getPath(), name);
+            return reported;
+        }
+
+        // check previous report for existing paths
+        LOG.debug("Found previous paths {} to this lsp name {}", previous.getPath(), name);
+        final ImmutableList.Builder<Path> updatedPaths = ImmutableList.builder();
+        for (final Path path : previous.getPath()) {
+            //we found reported path in previous reports
+            if (path.getLspId().getValue() == 0 || path.getLspId().equals(reportedLspId)) {
+                // path that was reported previously and does have the same lsp-id, path will be updated
+                LOG.debug("Match on lsp-id {}", path.getLspId().getValue());
             } else {
-                // path is marked to be removed
-                LOG.debug("Removing path {} from {}", rlb.getPath(), updatedPaths);
-                final boolean r = updatedPaths.removeAll(rlb.getPath());
-                LOG.trace("Request removed? {}", r);
+                updatedPaths.add(path);
             }
         }
-        LOG.debug("Setting new paths {} to lsp {}", updatedPaths, name);
-        return updatedPaths;
+        if (remove) {
+            // path is marked to be removed
+            LOG.debug("Removing path {} from {}", reported, previous.getPath());
+        } else {
+            // if the path does not exist in previous report, add it to path list, it's a new ERO
+            // only one path will be added
+            LOG.trace("Adding new path {} to {}", reported, previous.getPath());
+            updatedPaths.addAll(reported);
+        }
+        final List<Path> ret = updatedPaths.build();
+        LOG.debug("Setting new paths {} to lsp {}", ret, name);
+        return ret;
     }
 
     /**
@@ -545,18 +594,20 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
     }
 
     /**
-     * Reads operational data on this node. Doesn't attempt to read the data,
-     * if the node does not exist. In this case returns null.
+     * Looks up an LSP among the last reports kept by this listener. Reports accumulated during state synchronization
+     * are committed first, hence the result reflects exactly the reports submitted to the node's transaction chain,
+     * including those whose commit has not completed yet. This is what a read through the transaction chain would
+     * return, without the cost of the read. Returns null if the node does not exist.
      *
-     * @param id InstanceIdentifier of the node
-     * @return null if the node does not exists, or operational data
+     * @param name LSP name
+     * @return null if the node does not exists, or the reported LSP
      */
-    final synchronized <T extends DataObject> FluentFuture<Optional<T>>
-        readOperationalData(final InstanceIdentifier<T> id) {
+    final synchronized FluentFuture<Optional<ReportedLsp>> lookupReportedLsp(final String name) {
         if (this.nodeState == null) {
             return null;
         }
-        return this.nodeState.readOperationalData(id);
+        flushPendingContext();
+        return FluentFuture.from(Futures.immediateFuture(Optional.ofNullable(this.lspData.get(name))));
     }
 
     protected abstract Object validateReportedLsp(Optional<ReportedLsp> rep, LspId input);
@@ -624,6 +675,7 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
     static final class MessageContext {
         private final Collection<PCEPRequest> requests = new ArrayList<>();
         private final WriteTransaction trans;
+        private int messages;
 
         private MessageContext(final WriteTransaction trans) {
             this.trans = requireNonNull(trans);
@@ -633,6 +685,10 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
             this.requests.add(req);
         }
 
+        private boolean hasRequests() {
+            return !this.requests.isEmpty();
+        }
+
         private void notifyRequests() {
             for (final PCEPRequest r : this.requests) {
                 r.done(OperationResults.SUCCESS);
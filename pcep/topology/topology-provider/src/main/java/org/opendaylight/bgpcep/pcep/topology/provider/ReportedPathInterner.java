@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.bgpcep.pcep.topology.provider;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.explicit.route.object.Ero;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.reported.route.object.Rro;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.pcep.client.attributes.path.computation.client.reported.lsp.PathBuilder;
+
+/**
+ * Shares route objects of reported paths. LSPs towards the same destination typically follow the same route, hence
+ * their EROs and RROs are equal. Interning them keeps only a single instance of each distinct route object among
+ * the reported LSPs retained by all sessions, whose paths are still regular binding objects.
+ */
+final class ReportedPathInterner {
+    private static final Interner<Ero> EROS = Interners.newWeakInterner();
+    private static final Interner<Rro> RROS = Interners.newWeakInterner();
+
+    private ReportedPathInterner() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Replace route objects in a path builder with their interned instances.
+     *
+     * @param builder Path builder
+     * @return The same builder
+     */
+    static PathBuilder intern(final PathBuilder builder) {
+        final Ero ero = builder.getEro();
+        if (ero != null) {
+            builder.setEro(EROS.intern(ero));
+        }
+        final Rro rro = builder.getRro();
+        if (rro != null) {
+            builder.setRro(RROS.intern(rro));
+        }
+        return builder;
+    }
+}
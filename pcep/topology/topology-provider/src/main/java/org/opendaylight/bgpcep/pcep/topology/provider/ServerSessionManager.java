@@ -10,6 +10,7 @@ package org.opendaylight.bgpcep.pcep.topology.provider;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.FluentFuture;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -17,12 +18,15 @@ import com.google.common.util.concurrent.MoreExecutors;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import org.checkerframework.checker.lock.qual.GuardedBy;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.opendaylight.bgpcep.pcep.topology.provider.config.PCEPTopologyConfiguration;
 import org.opendaylight.bgpcep.pcep.topology.provider.config.PCEPTopologyProviderDependencies;
 import org.opendaylight.bgpcep.pcep.topology.spi.stats.TopologySessionStatsRegistry;
@@ -62,6 +66,12 @@ import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Tracks PCEP sessions of a single topology and routes topology RPCs to them. Sessions of different PCCs are
+ * independent: RPCs only look the session listener up and leave serialization to that listener, while binding and
+ * releasing of a node is serialized on that node's {@link TopologyNodeState}. Only creation and tear down of the
+ * whole topology instance is exclusive with respect to all nodes.
+ */
 final class ServerSessionManager implements PCEPSessionListenerFactory, TopologySessionRPCs, PCEPPeerProposal,
         TopologySessionStatsRegistry {
     private static final Logger LOG = LoggerFactory.getLogger(ServerSessionManager.class);
@@ -69,14 +79,16 @@ final class ServerSessionManager implements PCEPSessionListenerFactory, Topology
     private static final String FAILURE_MSG = "Failed to find session";
     @VisibleForTesting
     final AtomicBoolean isClosed = new AtomicBoolean(false);
-    @GuardedBy("this")
-    private final Map<NodeId, TopologySessionListener> nodes = new HashMap<>();
-    @GuardedBy("this")
-    private final Map<NodeId, TopologyNodeState> state = new HashMap<>();
+    private final ConcurrentMap<NodeId, TopologySessionListener> nodes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<NodeId, TopologyNodeState> state = new ConcurrentHashMap<>();
+    // Shared by node operations, exclusive for service instance lifecycle
+    private final ReadWriteLock lifecycleLock = new ReentrantReadWriteLock();
     private final TopologySessionListenerFactory listenerFactory;
     private final InstanceIdentifier<Topology> topology;
     private final PCEPStatefulPeerProposal peerProposal;
     private final short rpcTimeout;
+    private final int stateSyncBatchSize;
+    private final long stateSyncBatchWindowNanos;
     private final PCEPTopologyProviderDependencies dependenciesProvider;
     private final PCEPDispatcherDependencies pcepDispatcherDependencies;
 
@@ -90,6 +102,8 @@ final class ServerSessionManager implements PCEPSessionListenerFactory, Topology
         this.peerProposal = PCEPStatefulPeerProposal
                 .createStatefulPeerProposal(this.dependenciesProvider.getDataBroker(), this.topology);
         this.rpcTimeout = configDependencies.getRpcTimeout();
+        this.stateSyncBatchSize = configDependencies.getStateSyncBatchSize();
+        this.stateSyncBatchWindowNanos = configDependencies.getStateSyncBatchWindowNanos();
         this.pcepDispatcherDependencies = new PCEPDispatcherDependenciesImpl(this, configDependencies);
     }
 
@@ -100,7 +114,17 @@ final class ServerSessionManager implements PCEPSessionListenerFactory, Topology
     /**
      * Create Base Topology.
      */
-    synchronized void instantiateServiceInstance() {
+    void instantiateServiceInstance() {
+        final Lock lock = this.lifecycleLock.writeLock();
+        lock.lock();
+        try {
+            createTopology();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void createTopology() {
         final TopologyKey key = InstanceIdentifier.keyOf(this.topology);
         final TopologyId topologyId = key.getTopologyId();
         final WriteTransaction tx = this.dependenciesProvider.getDataBroker().newWriteOnlyTransaction();
@@ -119,46 +143,70 @@ final class ServerSessionManager implements PCEPSessionListenerFactory, Topology
         }
     }
 
-    synchronized void releaseNodeState(final TopologyNodeState nodeState, final PCEPSession session,
-            final boolean persistNode) {
-        if (this.isClosed.get()) {
-            LOG.error("Session Manager has already been closed.");
-            return;
-        }
-        this.nodes.remove(createNodeId(session.getRemoteAddress()));
-        if (nodeState != null) {
-            LOG.debug("Node {} unbound", nodeState.getNodeId());
-            nodeState.released(persistNode);
+    void releaseNodeState(final TopologyNodeState nodeState, final PCEPSession session,
+            final TopologySessionListener sessionListener, final boolean persistNode) {
+        final Lock lock = this.lifecycleLock.readLock();
+        lock.lock();
+        try {
+            if (this.isClosed.get()) {
+                LOG.error("Session Manager has already been closed.");
+                return;
+            }
+            final NodeId id = createNodeId(session.getRemoteAddress());
+            if (nodeState == null) {
+                this.nodes.remove(id, sessionListener);
+                return;
+            }
+            synchronized (nodeState) {
+                // A listener which has been replaced by a newer session must not release the newer session's state
+                if (this.nodes.remove(id, sessionListener)) {
+                    LOG.debug("Node {} unbound", nodeState.getNodeId());
+                    nodeState.released(persistNode);
+                } else {
+                    LOG.debug("Node {} is bound to another listener, not releasing it", nodeState.getNodeId());
+                }
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
-    synchronized TopologyNodeState takeNodeState(final InetAddress address,
-            final TopologySessionListener sessionListener, final boolean retrieveNode) {
+    TopologyNodeState takeNodeState(final InetAddress address, final TopologySessionListener sessionListener,
+            final boolean retrieveNode) {
         final NodeId id = createNodeId(address);
-        if (this.isClosed.get()) {
-            LOG.error("Server Session Manager is closed. Unable to create topology node {} with listener {}",
-                    id, sessionListener);
-            return null;
-        }
-
-        LOG.debug("Node {} requested by listener {}", id, sessionListener);
-        TopologyNodeState ret = this.state.get(id);
+        final TopologyNodeState ret;
+        final TopologySessionListener existingSessionListener;
+        final Lock lock = this.lifecycleLock.readLock();
+        lock.lock();
+        try {
+            if (this.isClosed.get()) {
+                LOG.error("Server Session Manager is closed. Unable to create topology node {} with listener {}",
+                        id, sessionListener);
+                return null;
+            }
 
-        if (ret == null) {
-            ret = new TopologyNodeState(this.dependenciesProvider.getDataBroker(), this.topology, id,
-                    DEFAULT_HOLD_STATE_NANOS);
-            LOG.debug("Created topology node {} for id {} at {}", ret, id, ret.getNodeId());
-            this.state.put(id, ret);
+            LOG.debug("Node {} requested by listener {}", id, sessionListener);
+            ret = this.state.computeIfAbsent(id, key -> {
+                final TopologyNodeState created = new TopologyNodeState(this.dependenciesProvider.getDataBroker(),
+                        this.topology, key, DEFAULT_HOLD_STATE_NANOS);
+                LOG.debug("Created topology node {} for id {} at {}", created, key, created.getNodeId());
+                return created;
+            });
+            synchronized (ret) {
+                existingSessionListener = this.nodes.put(id, sessionListener);
+                ret.taken(retrieveNode);
+            }
+        } finally {
+            lock.unlock();
         }
-        // if another listener requests the same session, close it
-        final TopologySessionListener existingSessionListener = this.nodes.get(id);
+
+        // if another listener requests the same session, close it. This acquires the other listener's lock, hence we
+        // must not hold any of our locks at this point.
         if (existingSessionListener != null && !sessionListener.equals(existingSessionListener)) {
             LOG.error("New session listener {} is in conflict with existing session listener {} on node {},"
                     + " closing the existing one.", existingSessionListener, sessionListener, id);
             existingSessionListener.close();
         }
-        ret.taken(retrieveNode);
-        this.nodes.put(id, sessionListener);
         LOG.debug("Node {} bound to listener {}", id, sessionListener);
         return ret;
     }
@@ -168,7 +216,7 @@ final class ServerSessionManager implements PCEPSessionListenerFactory, Topology
         return this.listenerFactory.createTopologySessionListener(this);
     }
 
-    private synchronized TopologySessionListener checkSessionPresence(final NodeId nodeId) {
+    private TopologySessionListener checkSessionPresence(final NodeId nodeId) {
         // Get the listener corresponding to the node
         final TopologySessionListener l = this.nodes.get(nodeId);
         if (l == null) {
@@ -179,31 +227,31 @@ final class ServerSessionManager implements PCEPSessionListenerFactory, Topology
     }
 
     @Override
-    public synchronized ListenableFuture<OperationResult> addLsp(final AddLspArgs input) {
+    public ListenableFuture<OperationResult> addLsp(final AddLspArgs input) {
         final TopologySessionListener l = checkSessionPresence(input.getNode());
         return l != null ? l.addLsp(input) : OperationResults.UNSENT.future();
     }
 
     @Override
-    public synchronized ListenableFuture<OperationResult> removeLsp(final RemoveLspArgs input) {
+    public ListenableFuture<OperationResult> removeLsp(final RemoveLspArgs input) {
         final TopologySessionListener l = checkSessionPresence(input.getNode());
         return l != null ? l.removeLsp(input) : OperationResults.UNSENT.future();
     }
 
     @Override
-    public synchronized ListenableFuture<OperationResult> updateLsp(final UpdateLspArgs input) {
+    public ListenableFuture<OperationResult> updateLsp(final UpdateLspArgs input) {
         final TopologySessionListener l = checkSessionPresence(input.getNode());
         return l != null ? l.updateLsp(input) : OperationResults.UNSENT.future();
     }
 
     @Override
-    public synchronized ListenableFuture<OperationResult> ensureLspOperational(final EnsureLspOperationalInput input) {
+    public ListenableFuture<OperationResult> ensureLspOperational(final EnsureLspOperationalInput input) {
         final TopologySessionListener l = checkSessionPresence(input.getNode());
         return l != null ? l.ensureLspOperational(input) : OperationResults.UNSENT.future();
     }
 
     @Override
-    public synchronized ListenableFuture<OperationResult> triggerSync(final TriggerSyncArgs input) {
+    public ListenableFuture<OperationResult> triggerSync(final TriggerSyncArgs input) {
         final TopologySessionListener l = checkSessionPresence(input.getNode());
         return l != null ? l.triggerSync(input) : OperationResults.UNSENT.future();
     }
@@ -219,15 +267,34 @@ final class ServerSessionManager implements PCEPSessionListenerFactory, Topology
         return listener.tearDownSession(input);
     }
 
-    synchronized FluentFuture<? extends CommitInfo> closeServiceInstance() {
-        if (this.isClosed.getAndSet(true)) {
-            LOG.error("Session Manager has already been closed.");
-            return CommitInfo.emptyFluentFuture();
+    FluentFuture<? extends CommitInfo> closeServiceInstance() {
+        final List<TopologySessionListener> listeners;
+        final Lock lock = this.lifecycleLock.writeLock();
+        lock.lock();
+        try {
+            if (this.isClosed.getAndSet(true)) {
+                LOG.error("Session Manager has already been closed.");
+                return CommitInfo.emptyFluentFuture();
+            }
+            listeners = ImmutableList.copyOf(this.nodes.values());
+            this.nodes.clear();
+        } finally {
+            lock.unlock();
         }
-        for (final TopologySessionListener node : this.nodes.values()) {
-            node.close();
+
+        // Closing a listener acquires its lock, while the listener may be waiting for our lock in takeNodeState() or
+        // releaseNodeState(), hence we must not hold any of our locks at this point. Those calls observe isClosed.
+        listeners.forEach(TopologySessionListener::close);
+
+        lock.lock();
+        try {
+            return closeTopology();
+        } finally {
+            lock.unlock();
         }
-        this.nodes.clear();
+    }
+
+    private FluentFuture<? extends CommitInfo> closeTopology() {
         for (final TopologyNodeState topologyNodeState : this.state.values()) {
             topologyNodeState.close();
         }
@@ -261,14 +328,22 @@ final class ServerSessionManager implements PCEPSessionListenerFactory, Topology
         return this.rpcTimeout;
     }
 
+    int getStateSyncBatchSize() {
+        return this.stateSyncBatchSize;
+    }
+
+    long getStateSyncBatchWindowNanos() {
+        return this.stateSyncBatchWindowNanos;
+    }
+
     @Override
-    public synchronized void bind(final KeyedInstanceIdentifier<Node, NodeKey> nodeId,
+    public void bind(final KeyedInstanceIdentifier<Node, NodeKey> nodeId,
             final PcepSessionState sessionState) {
         this.dependenciesProvider.getStateRegistry().bind(nodeId, sessionState);
     }
 
     @Override
-    public synchronized void unbind(final KeyedInstanceIdentifier<Node, NodeKey> nodeId) {
+    public void unbind(final KeyedInstanceIdentifier<Node, NodeKey> nodeId) {
         this.dependenciesProvider.getStateRegistry().unbind(nodeId);
     }
 
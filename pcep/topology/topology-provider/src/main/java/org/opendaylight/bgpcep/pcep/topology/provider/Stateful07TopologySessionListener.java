@@ -173,8 +173,7 @@ class Stateful07TopologySessionListener extends AbstractTopologySessionListener<
         LOG.trace("Trigger Lsp Resynchronization {}", input);
 
         // Make sure the LSP exists
-        final InstanceIdentifier<ReportedLsp> lsp = lspIdentifier(input.getName());
-        final FluentFuture<Optional<ReportedLsp>> f = readOperationalData(lsp);
+        final FluentFuture<Optional<ReportedLsp>> f = lookupReportedLsp(input.getName());
         if (f == null) {
             return OperationResults.createUnsent(PCEPErrors.LSP_INTERNAL_ERROR).future();
         }
@@ -363,7 +362,7 @@ class Stateful07TopologySessionListener extends AbstractTopologySessionListener<
                         .LspId(lsp.getPlspId().getValue()));
             }
         }
-        return pb.build();
+        return ReportedPathInterner.intern(pb).build();
     }
 
     @Override
@@ -397,7 +396,7 @@ class Stateful07TopologySessionListener extends AbstractTopologySessionListener<
         LOG.trace("AddLspArgs {}", input);
         // Make sure there is no such LSP
         final InstanceIdentifier<ReportedLsp> lsp = lspIdentifier(input.getName());
-        final ListenableFuture<Optional<ReportedLsp>> f = readOperationalData(lsp);
+        final ListenableFuture<Optional<ReportedLsp>> f = lookupReportedLsp(input.getName());
         return f == null ? OperationResults.createUnsent(PCEPErrors.LSP_INTERNAL_ERROR).future()
                 : Futures.transformAsync(f, new AddFunction(input, lsp), MoreExecutors.directExecutor());
     }
@@ -408,8 +407,7 @@ class Stateful07TopologySessionListener extends AbstractTopologySessionListener<
         checkArgument(input != null && input.getName() != null && input.getNode() != null, MISSING_XML_TAG);
         LOG.trace("RemoveLspArgs {}", input);
         // Make sure the LSP exists, we need it for PLSP-ID
-        final InstanceIdentifier<ReportedLsp> lsp = lspIdentifier(input.getName());
-        final ListenableFuture<Optional<ReportedLsp>> f = readOperationalData(lsp);
+        final ListenableFuture<Optional<ReportedLsp>> f = lookupReportedLsp(input.getName());
         return f == null ? OperationResults.createUnsent(PCEPErrors.LSP_INTERNAL_ERROR).future()
                 : Futures.transformAsync(f, rep -> {
                     final Lsp reportedLsp = validateReportedLsp(rep, input);
@@ -484,8 +482,7 @@ class Stateful07TopologySessionListener extends AbstractTopologySessionListener<
                 && input.getArguments() != null, MISSING_XML_TAG);
         LOG.trace("UpdateLspArgs {}", input);
         // Make sure the LSP exists
-        final InstanceIdentifier<ReportedLsp> lsp = lspIdentifier(input.getName());
-        final ListenableFuture<Optional<ReportedLsp>> f = readOperationalData(lsp);
+        final ListenableFuture<Optional<ReportedLsp>> f = lookupReportedLsp(input.getName());
         return f == null ? OperationResults.createUnsent(PCEPErrors.LSP_INTERNAL_ERROR).future()
                 : Futures.transformAsync(f, new UpdateFunction(input), MoreExecutors.directExecutor());
     }
@@ -507,7 +504,7 @@ class Stateful07TopologySessionListener extends AbstractTopologySessionListener<
         // Make sure the LSP exists
         final InstanceIdentifier<ReportedLsp> lsp = lspIdentifier(input.getName());
         LOG.debug("Checking if LSP {} has operational state {}", lsp, op);
-        final ListenableFuture<Optional<ReportedLsp>> f = readOperationalData(lsp);
+        final ListenableFuture<Optional<ReportedLsp>> f = lookupReportedLsp(input.getName());
         return f == null ? OperationResults.createUnsent(PCEPErrors.LSP_INTERNAL_ERROR).future()
                 : listenableFuture(f, input, op);
     }
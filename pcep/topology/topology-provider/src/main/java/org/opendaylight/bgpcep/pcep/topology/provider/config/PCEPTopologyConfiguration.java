@@ -10,6 +10,7 @@ package org.opendaylight.bgpcep.pcep.topology.provider.config;
 import static java.util.Objects.requireNonNull;
 
 import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
 import org.eclipse.jdt.annotation.NonNull;
 import org.opendaylight.protocol.concepts.KeyMapping;
 import org.opendaylight.protocol.pcep.SpeakerIdMapping;
@@ -21,10 +22,15 @@ import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 public final class PCEPTopologyConfiguration {
+    private static final int DEFAULT_STATE_SYNC_BATCH_SIZE = 1000;
+    private static final int DEFAULT_STATE_SYNC_BATCH_WINDOW = 500;
+
     private final InetSocketAddress address;
     private final KeyMapping keys;
     private final TopologyId topologyId;
     private final short rpcTimeout;
+    private final int stateSyncBatchSize;
+    private final long stateSyncBatchWindowNanos;
     private final SpeakerIdMapping speakerIds;
     private final InstanceIdentifier<Topology> topology;
 
@@ -36,6 +42,11 @@ public final class PCEPTopologyConfiguration {
         this.speakerIds = requireNonNull(PCEPTopologyProviderUtil.contructSpeakersId(topology));
         this.topologyId = requireNonNull(topology.getTopologyId());
         this.rpcTimeout = config.getRpcTimeout();
+        final Integer batchSize = config.getStateSyncBatchSize();
+        this.stateSyncBatchSize = batchSize != null ? batchSize : DEFAULT_STATE_SYNC_BATCH_SIZE;
+        final Integer batchWindow = config.getStateSyncBatchWindow();
+        this.stateSyncBatchWindowNanos = TimeUnit.MILLISECONDS.toNanos(batchWindow != null ? batchWindow
+                : DEFAULT_STATE_SYNC_BATCH_WINDOW);
         this.topology = InstanceIdentifier.builder(NetworkTopology.class)
                 .child(Topology.class, new TopologyKey(this.topologyId)).build();
     }
@@ -52,6 +63,14 @@ public final class PCEPTopologyConfiguration {
         return this.rpcTimeout;
     }
 
+    public int getStateSyncBatchSize() {
+        return this.stateSyncBatchSize;
+    }
+
+    public long getStateSyncBatchWindowNanos() {
+        return this.stateSyncBatchWindowNanos;
+    }
+
     public @NonNull InetSocketAddress getAddress() {
         return this.address;
     }
@@ -75,6 +75,8 @@ public abstract class AbstractPCEPSessionTest<T extends TopologySessionListenerF
     static final short DEAD_TIMER = 30;
     static final short KEEP_ALIVE = 10;
     static final short RPC_TIMEOUT = 4;
+    static final int STATE_SYNC_BATCH_SIZE = 1000;
+    static final int STATE_SYNC_BATCH_WINDOW = 500;
     private static final TopologyId TEST_TOPOLOGY_ID = new TopologyId("testtopo");
     static final InstanceIdentifier<Topology> TOPO_IID = InstanceIdentifier.builder(NetworkTopology.class)
             .child(Topology.class, new TopologyKey(TEST_TOPOLOGY_ID)).build();
@@ -148,6 +150,8 @@ public abstract class AbstractPCEPSessionTest<T extends TopologySessionListenerF
         doReturn(new IpAddress(new Ipv4Address(this.testAddress))).when(this.sessionConfig).getListenAddress();
         doReturn(new PortNumber(4189)).when(this.sessionConfig).getListenPort();
         doReturn(RPC_TIMEOUT).when(this.sessionConfig).getRpcTimeout();
+        doReturn(getStateSyncBatchSize()).when(this.sessionConfig).getStateSyncBatchSize();
+        doReturn(getStateSyncBatchWindow()).when(this.sessionConfig).getStateSyncBatchWindow();
         doReturn(TEST_TOPOLOGY_ID).when(this.topology).getTopologyId();
         doReturn(Collections.emptyList()).when(this.topology).getNode();
 
@@ -189,6 +193,14 @@ public abstract class AbstractPCEPSessionTest<T extends TopologySessionListenerF
                 .getIpPrefix().getIpv4Prefix().getValue();
     }
 
+    protected int getStateSyncBatchSize() {
+        return STATE_SYNC_BATCH_SIZE;
+    }
+
+    protected int getStateSyncBatchWindow() {
+        return STATE_SYNC_BATCH_WINDOW;
+    }
+
     protected Open getLocalPref() {
         return this.localPrefs;
     }
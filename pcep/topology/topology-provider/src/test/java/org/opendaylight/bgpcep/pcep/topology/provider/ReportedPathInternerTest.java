@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.bgpcep.pcep.topology.provider;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.explicit.route.object.Ero;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.explicit.route.object.EroBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.reported.route.object.Rro;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.reported.route.object.RroBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.pcep.client.attributes.path.computation.client.reported.lsp.Path;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.pcep.client.attributes.path.computation.client.reported.lsp.PathBuilder;
+
+public class ReportedPathInternerTest {
+    @Test
+    public void testEqualRouteObjectsAreShared() {
+        final Ero ero = new EroBuilder().setProcessingRule(false).setIgnore(false).build();
+        final Rro rro = new RroBuilder().setProcessingRule(false).setIgnore(false).build();
+        final Path first = ReportedPathInterner.intern(new PathBuilder().setEro(ero).setRro(rro)).build();
+
+        final Ero otherEro = new EroBuilder().setProcessingRule(false).setIgnore(false).build();
+        final Rro otherRro = new RroBuilder().setProcessingRule(false).setIgnore(false).build();
+        final Path second = ReportedPathInterner.intern(new PathBuilder().setEro(otherEro).setRro(otherRro)).build();
+
+        assertSame(first.getEro(), second.getEro());
+        assertSame(first.getRro(), second.getRro());
+    }
+
+    @Test
+    public void testMissingRouteObjects() {
+        final Path path = ReportedPathInterner.intern(new PathBuilder()).build();
+        assertNull(path.getEro());
+        assertNull(path.getRro());
+    }
+}
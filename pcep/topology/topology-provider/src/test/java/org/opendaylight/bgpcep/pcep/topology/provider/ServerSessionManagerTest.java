@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.bgpcep.pcep.topology.provider;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.bgpcep.pcep.topology.provider.config.PCEPTopologyConfiguration;
+import org.opendaylight.bgpcep.pcep.topology.provider.config.PCEPTopologyProviderDependencies;
+import org.opendaylight.bgpcep.pcep.topology.spi.stats.TopologySessionStatsRegistry;
+import org.opendaylight.mdsal.binding.dom.adapter.test.AbstractConcurrentDataBrokerTest;
+import org.opendaylight.protocol.pcep.PCEPSession;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.PortNumber;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.config.rev171025.pcep.config.SessionConfig;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.AddLspArgs;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.AddLspInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.OperationResult;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TopologyId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.Topology;
+
+public class ServerSessionManagerTest extends AbstractConcurrentDataBrokerTest {
+    private static final int PCC_COUNT = 2000;
+
+    @Mock
+    private PCEPTopologyProviderDependencies topologyDependencies;
+    @Mock
+    private TopologySessionStatsRegistry statsRegistry;
+    @Mock
+    private TopologySessionListenerFactory listenerFactory;
+    @Mock
+    private SessionConfig sessionConfig;
+    @Mock
+    private Topology topology;
+    private ServerSessionManager manager;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doReturn(getDataBroker()).when(this.topologyDependencies).getDataBroker();
+        doReturn(this.statsRegistry).when(this.topologyDependencies).getStateRegistry();
+        doReturn(new IpAddress(new Ipv4Address("127.0.0.1"))).when(this.sessionConfig).getListenAddress();
+        doReturn(new PortNumber(4189)).when(this.sessionConfig).getListenPort();
+        doReturn((short) 4).when(this.sessionConfig).getRpcTimeout();
+        doReturn(new TopologyId("testtopo")).when(this.topology).getTopologyId();
+        doReturn(Collections.emptyList()).when(this.topology).getNode();
+
+        this.manager = new ServerSessionManager(this.topologyDependencies, this.listenerFactory,
+                new PCEPTopologyConfiguration(this.sessionConfig, this.topology));
+        this.manager.instantiateServiceInstance();
+        this.executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        this.executor.shutdownNow();
+        this.manager.closeServiceInstance();
+    }
+
+    /**
+     * An RPC blocked in the session listener of one PCC must not hold up RPCs targeting any other PCC.
+     */
+    @Test
+    public void testRpcsForDifferentNodesProceedInParallel() throws Exception {
+        final List<TopologySessionListener> listeners = new ArrayList<>(PCC_COUNT);
+        for (int i = 0; i < PCC_COUNT; i++) {
+            final TopologySessionListener listener = mock(TopologySessionListener.class);
+            doReturn(OperationResults.SUCCESS.future()).when(listener).addLsp(any());
+            assertNotNull(this.manager.takeNodeState(pccAddress(i), listener, false));
+            listeners.add(listener);
+        }
+
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            blocked.countDown();
+            release.await();
+            return OperationResults.SUCCESS.future();
+        }).when(listeners.get(0)).addLsp(any());
+
+        final Future<?> blockedRpc = this.executor.submit(() -> this.manager.addLsp(addLspArgs(0)));
+        assertTrue(blocked.await(10, TimeUnit.SECONDS));
+        for (int i = 1; i < PCC_COUNT; i++) {
+            final OperationResult result = this.manager.addLsp(addLspArgs(i)).get(10, TimeUnit.SECONDS);
+            assertSame(OperationResults.SUCCESS, result);
+            verify(listeners.get(i)).addLsp(any());
+        }
+
+        release.countDown();
+        blockedRpc.get(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * A session listener which has been replaced by a newer session for the same PCC must not unbind the newer one
+     * when it is torn down.
+     */
+    @Test
+    public void testReplacedListenerRelease() throws Exception {
+        final TopologySessionListener oldListener = mock(TopologySessionListener.class);
+        final TopologySessionListener newListener = mock(TopologySessionListener.class);
+        doReturn(OperationResults.SUCCESS.future()).when(newListener).addLsp(any());
+        final TopologyNodeState oldState = this.manager.takeNodeState(pccAddress(0), oldListener, false);
+        this.manager.takeNodeState(pccAddress(0), newListener, false);
+        verify(oldListener).close();
+
+        final PCEPSession session = mock(PCEPSession.class);
+        doReturn(pccAddress(0)).when(session).getRemoteAddress();
+        this.manager.releaseNodeState(oldState, session, oldListener, false);
+
+        assertSame(OperationResults.SUCCESS, this.manager.addLsp(addLspArgs(0)).get());
+        verify(oldListener, never()).addLsp(any());
+    }
+
+    private static InetAddress pccAddress(final int index) throws UnknownHostException {
+        return InetAddress.getByAddress(new byte[]{10, 0, (byte) (index >> 8), (byte) index});
+    }
+
+    private static AddLspArgs addLspArgs(final int index) throws UnknownHostException {
+        return new AddLspInputBuilder().setName("lsp")
+                .setNode(new NodeId("pcc://" + pccAddress(index).getHostAddress())).build();
+    }
+}
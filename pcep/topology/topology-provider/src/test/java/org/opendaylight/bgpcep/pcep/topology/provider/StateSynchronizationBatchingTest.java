@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.bgpcep.pcep.topology.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.opendaylight.protocol.pcep.pcc.mock.spi.MsgBuilderUtil.createLspTlvs;
+import static org.opendaylight.protocol.pcep.pcc.mock.spi.MsgBuilderUtil.createPath;
+import static org.opendaylight.protocol.pcep.pcc.mock.spi.MsgBuilderUtil.createSrp;
+import static org.opendaylight.protocol.util.CheckTestUtil.readDataOperational;
+
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.mdsal.binding.api.ReadTransaction;
+import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
+import org.opendaylight.protocol.pcep.impl.PCEPSessionImpl;
+import org.opendaylight.protocol.pcep.pcc.mock.spi.MsgBuilderUtil;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4AddressNoZone;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.network.topology.rev140113.NetworkTopologyRef;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.crabbe.initiated.rev181109.Pcinitiate;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.crabbe.initiated.rev181109.Stateful1;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.crabbe.initiated.rev181109.Stateful1Builder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.Arguments1;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.Arguments1Builder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.Arguments2;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.Arguments2Builder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.OperationalStatus;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.Pcrpt;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.PlspId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.Tlvs1;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.Tlvs1Builder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.lsp.object.LspBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.srp.object.Srp;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.stateful.capability.tlv.StatefulBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.endpoints.address.family.Ipv4CaseBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.endpoints.address.family.ipv4._case.Ipv4Builder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.endpoints.object.EndpointsObjBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.open.object.Open;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.open.object.OpenBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.open.object.open.TlvsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.AddLspInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.AddLspInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.AddLspOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.EnsureLspOperationalInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.OperationResult;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.PccSyncState;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.add.lsp.args.ArgumentsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.pcep.client.attributes.path.computation.client.ReportedLsp;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.pcep.client.attributes.path.computation.client.ReportedLspKey;
+import org.opendaylight.yangtools.yang.common.RpcResult;
+
+/**
+ * Verifies when reports received during state synchronization are committed. The batch window is set to its maximum,
+ * so that it never expires while a test runs, see
+ * {@link Stateful07TopologySessionListenerTest#testStateSyncBatchWindow()} for the window itself.
+ */
+public class StateSynchronizationBatchingTest
+        extends AbstractPCEPSessionTest<Stateful07TopologySessionListenerFactory> {
+    private static final int BATCH_SIZE = 3;
+    private static final int BATCH_WINDOW = 65535;
+
+    private Stateful07TopologySessionListener listener;
+    private PCEPSessionImpl session;
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        this.listener = (Stateful07TopologySessionListener) getSessionListener();
+        this.session = getPCEPSession(getLocalPref(), getRemotePref());
+        this.listener.onSessionUp(this.session);
+        assertFalse(this.listener.isSessionSynchronized());
+    }
+
+    @Test
+    public void testBatchSize() throws Exception {
+        this.listener.onMessage(this.session, createReport(1L, Optional.empty()));
+        this.listener.onMessage(this.session, createReport(2L, Optional.empty()));
+        assertFalse(readReportedLsp(1L).isPresent());
+        assertFalse(readReportedLsp(2L).isPresent());
+
+        // the third report fills the batch
+        this.listener.onMessage(this.session, createReport(3L, Optional.empty()));
+        readDataOperational(getDataBroker(), this.pathComputationClientIId, pcc -> {
+            assertEquals(BATCH_SIZE, pcc.getReportedLsp().size());
+            return pcc;
+        });
+    }
+
+    @Test
+    public void testEndOfSync() throws Exception {
+        this.listener.onMessage(this.session, createReport(1L, Optional.empty()));
+        assertFalse(readReportedLsp(1L).isPresent());
+
+        this.listener.onMessage(this.session, MsgBuilderUtil.createPcRtpMessage(new LspBuilder().setSync(false)
+                .build(), Optional.of(createSrp(0L)), null));
+        assertTrue(this.listener.isSessionSynchronized());
+        readDataOperational(getDataBroker(), this.pathComputationClientIId, pcc -> {
+            assertEquals(PccSyncState.Synchronized, pcc.getStateSync());
+            assertEquals(1, pcc.getReportedLsp().size());
+            return pcc;
+        });
+    }
+
+    @Test
+    public void testRequestResolved() throws Exception {
+        final Future<RpcResult<AddLspOutput>> futureOutput = this.topologyRpcs.addLsp(createAddLspInput(2L));
+        assertEquals(1, this.receivedMsgs.size());
+        final long srpId = ((Pcinitiate) this.receivedMsgs.get(0)).getPcinitiateMessage().getRequests().get(0)
+                .getSrp().getOperationId().getValue();
+
+        this.listener.onMessage(this.session, createReport(1L, Optional.empty()));
+        assertFalse(readReportedLsp(1L).isPresent());
+        assertFalse(futureOutput.isDone());
+
+        // the report resolving the request commits the whole batch, before the request completes
+        this.listener.onMessage(this.session, createReport(2L, Optional.of(createSrp(srpId))));
+        assertNull(futureOutput.get().getResult().getFailure());
+        assertTrue(readReportedLsp(1L).isPresent());
+        assertTrue(readReportedLsp(2L).isPresent());
+        assertFalse(this.listener.isSessionSynchronized());
+    }
+
+    @Test
+    public void testRpcRead() throws Exception {
+        this.listener.onMessage(this.session, createReport(1L, Optional.empty()));
+        assertFalse(readReportedLsp(1L).isPresent());
+
+        // looking up the LSP commits the batch, so that the RPC does not run ahead of the datastore
+        final OperationResult result = this.topologyRpcs.ensureLspOperational(new EnsureLspOperationalInputBuilder()
+                .setArguments(new org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep
+                        .rev181109.ensure.lsp.operational.args.ArgumentsBuilder().addAugmentation(Arguments1.class,
+                                new Arguments1Builder().setOperational(OperationalStatus.Active).build()).build())
+                .setName(lspName(1L)).setNetworkTopologyRef(new NetworkTopologyRef(TOPO_IID)).setNode(this.nodeId)
+                .build()).get().getResult();
+        assertNull(result.getFailure());
+        readDataOperational(getDataBroker(), this.pathComputationClientIId, pcc -> {
+            assertEquals(1, pcc.getReportedLsp().size());
+            return pcc;
+        });
+    }
+
+    @Override
+    protected int getStateSyncBatchSize() {
+        return BATCH_SIZE;
+    }
+
+    @Override
+    protected int getStateSyncBatchWindow() {
+        return BATCH_WINDOW;
+    }
+
+    @Override
+    protected Open getLocalPref() {
+        return new OpenBuilder(super.getLocalPref()).setTlvs(new TlvsBuilder().addAugmentation(Tlvs1.class,
+                new Tlvs1Builder().setStateful(new StatefulBuilder().addAugmentation(Stateful1.class,
+                        new Stateful1Builder().setInitiation(Boolean.TRUE).build()).build()).build()).build()).build();
+    }
+
+    @Override
+    protected Open getRemotePref() {
+        return getLocalPref();
+    }
+
+    private String lspName(final long lspId) {
+        return "pcc_" + this.testAddress + "_tunnel_" + lspId;
+    }
+
+    private Pcrpt createReport(final long lspId, final Optional<Srp> srp) {
+        return MsgBuilderUtil.createPcRtpMessage(new LspBuilder().setPlspId(new PlspId(lspId))
+                        .setTlvs(createLspTlvs(lspId, true, this.testAddress, this.testAddress, this.testAddress,
+                                Optional.empty()))
+                        .setSync(true).setRemove(false).setDelegate(true).setOperational(OperationalStatus.Active)
+                        .build(), srp, createPath(Collections.emptyList()));
+    }
+
+    private AddLspInput createAddLspInput(final long lspId) {
+        final ArgumentsBuilder argsBuilder = new ArgumentsBuilder();
+        argsBuilder.setEndpointsObj(new EndpointsObjBuilder().setAddressFamily(new Ipv4CaseBuilder().setIpv4(
+                new Ipv4Builder().setSourceIpv4Address(new Ipv4AddressNoZone(this.testAddress))
+                        .setDestinationIpv4Address(new Ipv4AddressNoZone(this.testAddress)).build()).build()).build());
+        argsBuilder.setEro(createEroWithIpPrefixes(Lists.newArrayList(this.eroIpPrefix)));
+        argsBuilder.addAugmentation(Arguments2.class, new Arguments2Builder().setLsp(new LspBuilder()
+                .setDelegate(true).setAdministrative(true).build()).build());
+        return new AddLspInputBuilder().setName(lspName(lspId)).setArguments(argsBuilder.build())
+                .setNetworkTopologyRef(new NetworkTopologyRef(TOPO_IID)).setNode(this.nodeId).build();
+    }
+
+    /*
+     * Reads the LSP from the datastore once, without waiting for it to appear.
+     */
+    private Optional<ReportedLsp> readReportedLsp(final long lspId) throws InterruptedException,
+            ExecutionException {
+        try (ReadTransaction tx = getDataBroker().newReadOnlyTransaction()) {
+            return tx.read(LogicalDatastoreType.OPERATIONAL, this.pathComputationClientIId.child(ReportedLsp.class,
+                    new ReportedLspKey(lspName(lspId)))).get();
+        }
+    }
+}
@@ -493,6 +493,24 @@ public class Stateful07TopologySessionListenerTest
         });
     }
 
+    @Test
+    public void testStateSyncBatchWindow() throws Exception {
+        this.listener.onSessionUp(this.session);
+        // neither End-of-Sync nor a full batch follows, the report is committed once the batch window expires
+        final Tlvs tlvs = createLspTlvs(0L, true, this.testAddress, this.testAddress, this.testAddress,
+                Optional.empty());
+        final Pcrpt pcRpt = MsgBuilderUtil.createPcRtpMessage(new LspBuilder().setTlvs(tlvs).setPlspId(new PlspId(1L))
+                        .setSync(true).setRemove(false).setOperational(OperationalStatus.Active).build(),
+                Optional.empty(), MsgBuilderUtil.createPath(Collections.emptyList()));
+        this.listener.onMessage(this.session, pcRpt);
+        readDataOperational(getDataBroker(), this.pathComputationClientIId, pcc -> {
+            assertEquals(1, pcc.getReportedLsp().size());
+            assertEquals(this.tunnelName, pcc.getReportedLsp().get(0).getName());
+            return pcc;
+        });
+        assertFalse(this.listener.isSessionSynchronized());
+    }
+
     @Test
     public void testUpdateUnknownLsp() throws InterruptedException, ExecutionException {
         this.listener.onSessionUp(this.session);
@@ -9,9 +9,8 @@ package org.opendaylight.bgpcep.pcep.tunnel.provider;
 
 import static java.util.Objects.requireNonNull;
 
-import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.FluentFuture;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.MoreExecutors;
 import java.util.ArrayList;
@@ -20,13 +19,14 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.opendaylight.mdsal.binding.api.ClusteredDataTreeChangeListener;
 import org.opendaylight.mdsal.binding.api.DataBroker;
 import org.opendaylight.mdsal.binding.api.DataObjectModification;
 import org.opendaylight.mdsal.binding.api.DataTreeModification;
+import org.opendaylight.mdsal.binding.api.ReadTransaction;
 import org.opendaylight.mdsal.binding.api.ReadWriteTransaction;
 import org.opendaylight.mdsal.common.api.CommitInfo;
 import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
@@ -69,8 +69,6 @@ import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.TerminationPoint1;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.TerminationPoint1Builder;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.igp.termination.point.attributes.IgpTerminationPointAttributesBuilder;
-import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.igp.termination.point.attributes.igp.termination.point.attributes.TerminationPointType;
-import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.igp.termination.point.attributes.igp.termination.point.attributes.termination.point.type.Ip;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.igp.termination.point.attributes.igp.termination.point.attributes.termination.point.type.IpBuilder;
 import org.opendaylight.yangtools.yang.binding.DataObject;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
@@ -83,6 +81,10 @@ public final class NodeChangedListener implements ClusteredDataTreeChangeListene
     private final InstanceIdentifier<Topology> target;
     private final DataBroker dataProvider;
     private final TopologyId source;
+    private final TunnelTopologyIndex index = new TunnelTopologyIndex();
+    // Set once a write to the target topology fails, so that the index is rebuilt from the datastore
+    private final AtomicBoolean indexStale = new AtomicBoolean();
+    private FluentFuture<? extends CommitInfo> lastCommit = CommitInfo.emptyFluentFuture();
 
     NodeChangedListener(final DataBroker dataProvider, final TopologyId source,
             final InstanceIdentifier<Topology> target) {
@@ -149,59 +151,29 @@ public final class NodeChangedListener implements ClusteredDataTreeChangeListene
         return snb.build();
     }
 
-    private void handleSni(final InstanceIdentifier<Node> sni, final Node node, final Boolean inControl,
+    private void handleSni(final InstanceIdentifier<Node> sni, final NodeKey node, final Boolean inControl,
             final ReadWriteTransaction trans) {
         if (sni != null) {
             final NodeKey k = InstanceIdentifier.keyOf(sni);
-            boolean have = false;
             /*
              * We may have found a termination point which has been created as a destination,
              * so it does not have a supporting node pointer. Since we now know what it is,
              * fill it in.
              */
-            if (node.getSupportingNode() != null) {
-                for (final SupportingNode sn : node.getSupportingNode()) {
-                    if (sn.getNodeRef().equals(k.getNodeId())) {
-                        have = true;
-                        break;
-                    }
-                }
-            }
-            if (!have) {
+            if (this.index.addSupportingNode(node.getNodeId(), k.getNodeId())) {
                 final SupportingNode sn = createSupportingNode(k.getNodeId(), inControl);
-                trans.put(LogicalDatastoreType.OPERATIONAL, this.target.child(Node.class, node.key()).child(
+                trans.put(LogicalDatastoreType.OPERATIONAL, this.target.child(Node.class, node).child(
                         SupportingNode.class, sn.key()), sn);
             }
         }
     }
 
     private InstanceIdentifier<TerminationPoint> getIpTerminationPoint(final ReadWriteTransaction trans,
-            final IpAddress addr, final InstanceIdentifier<Node> sni, final Boolean inControl)
-            throws ExecutionException, InterruptedException {
-        final Topology topo = trans.read(LogicalDatastoreType.OPERATIONAL, this.target).get().get();
-        if (topo.getNode() != null) {
-            for (final Node n : topo.getNode()) {
-                if (n.getTerminationPoint() != null) {
-                    for (final TerminationPoint tp : n.getTerminationPoint()) {
-                        final TerminationPoint1 tpa = tp.augmentation(TerminationPoint1.class);
-                        if (tpa != null) {
-                            final TerminationPointType tpt = tpa.getIgpTerminationPointAttributes()
-                                    .getTerminationPointType();
-                            if (tpt instanceof Ip) {
-                                for (final IpAddress address : ((Ip) tpt).getIpAddress()) {
-                                    if (addr.equals(address)) {
-                                        handleSni(sni, n, inControl, trans);
-                                        return this.target.builder().child(Node.class, n.key())
-                                                .child(TerminationPoint.class, tp.key()).build();
-                                    }
-                                }
-                            } else {
-                                LOG.debug("Ignoring termination point type {}", tpt);
-                            }
-                        }
-                    }
-                }
-            }
+            final IpAddress addr, final InstanceIdentifier<Node> sni, final Boolean inControl) {
+        final InstanceIdentifier<TerminationPoint> tp = this.index.terminationPoint(addr);
+        if (tp != null) {
+            handleSni(sni, tp.firstKeyOf(Node.class), inControl, trans);
+            return tp;
         }
         LOG.debug("Termination point for {} not found, creating a new one", addr);
         return createTP(addr, sni, inControl, trans);
@@ -221,17 +193,22 @@ public final class NodeChangedListener implements ClusteredDataTreeChangeListene
         final NodeBuilder nb = new NodeBuilder();
         nb.withKey(nk).setNodeId(nk.getNodeId());
         nb.setTerminationPoint(Lists.newArrayList(tpb.build()));
+        final NodeId supportingNode;
         if (sni != null) {
-            nb.setSupportingNode(Lists.newArrayList(createSupportingNode(InstanceIdentifier.keyOf(sni).getNodeId(),
-                    inControl)));
+            supportingNode = InstanceIdentifier.keyOf(sni).getNodeId();
+            nb.setSupportingNode(Lists.newArrayList(createSupportingNode(supportingNode, inControl)));
+        } else {
+            supportingNode = null;
         }
         final InstanceIdentifier<Node> nid = this.target.child(Node.class, nb.key());
         trans.put(LogicalDatastoreType.OPERATIONAL, nid, nb.build());
-        return nid.child(TerminationPoint.class, tpb.key());
+        final InstanceIdentifier<TerminationPoint> tp = nid.child(TerminationPoint.class, tpb.key());
+        this.index.addNode(tp, addr, supportingNode);
+        return tp;
     }
 
     private void create(final ReadWriteTransaction trans, final InstanceIdentifier<ReportedLsp> identifier,
-            final ReportedLsp value) throws ExecutionException, InterruptedException {
+            final ReportedLsp value) {
         final InstanceIdentifier<Node> ni = identifier.firstIdentifierOf(Node.class);
 
         final Path1 rl = value.getPath().get(0).augmentation(Path1.class);
@@ -288,7 +265,9 @@ public final class NodeChangedListener implements ClusteredDataTreeChangeListene
         lb.addAugmentation(org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful
                 .rev181109.Link1.class, slab.build());
 
-        trans.put(LogicalDatastoreType.OPERATIONAL, linkForLsp(id), lb.build());
+        final Link link = lb.build();
+        trans.put(LogicalDatastoreType.OPERATIONAL, linkForLsp(id), link);
+        this.index.putLink(link);
     }
 
     private InstanceIdentifier<TerminationPoint> tpIdentifier(final NodeId node, final TpId tp) {
@@ -301,112 +280,57 @@ public final class NodeChangedListener implements ClusteredDataTreeChangeListene
     }
 
     private void remove(final ReadWriteTransaction trans, final InstanceIdentifier<ReportedLsp> identifier,
-            final ReportedLsp value) throws ExecutionException, InterruptedException {
-        final InstanceIdentifier<Link> li = linkForLsp(linkIdForLsp(identifier, value));
-
-        final Optional<Link> ol = trans.read(LogicalDatastoreType.OPERATIONAL, li).get();
-        if (!ol.isPresent()) {
+            final ReportedLsp value) {
+        final LinkId linkId = linkIdForLsp(identifier, value);
+        final Link l = this.index.removeLink(linkId);
+        if (l == null) {
             return;
         }
 
-        final Link l = ol.get();
+        final InstanceIdentifier<Link> li = linkForLsp(linkId);
         LOG.debug("Removing link {} (was {})", li, l);
         trans.delete(LogicalDatastoreType.OPERATIONAL, li);
 
         LOG.debug("Searching for orphan links/nodes");
-        final Optional<Topology> ot = trans.read(LogicalDatastoreType.OPERATIONAL, this.target).get();
-        Preconditions.checkState(ot.isPresent());
-
-        final Topology topology = ot.get();
-        final NodeId srcNode = l.getSource().getSourceNode();
-        final NodeId dstNode = l.getDestination().getDestNode();
-        final TpId srcTp = l.getSource().getSourceTp();
-        final TpId dstTp = l.getDestination().getDestTp();
-
-        boolean orphSrcNode = true;
-        boolean orphDstNode = true;
-        boolean orphDstTp = true;
-        boolean orphSrcTp = true;
-        for (final Link lw : nonNullList(topology.getLink())) {
-            LOG.trace("Checking link {}", lw);
-
-            final NodeId sn = lw.getSource().getSourceNode();
-            final NodeId dn = lw.getDestination().getDestNode();
-            final TpId st = lw.getSource().getSourceTp();
-            final TpId dt = lw.getDestination().getDestTp();
-
-            // Source node checks
-            if (srcNode.equals(sn)) {
-                if (orphSrcNode) {
-                    LOG.debug("Node {} held by source of link {}", srcNode, lw);
-                    orphSrcNode = false;
-                }
-                if (orphSrcTp && srcTp.equals(st)) {
-                    LOG.debug("TP {} held by source of link {}", srcTp, lw);
-                    orphSrcTp = false;
-                }
-            }
-            if (srcNode.equals(dn)) {
-                if (orphSrcNode) {
-                    LOG.debug("Node {} held by destination of link {}", srcNode, lw);
-                    orphSrcNode = false;
-                }
-                if (orphSrcTp && srcTp.equals(dt)) {
-                    LOG.debug("TP {} held by destination of link {}", srcTp, lw);
-                    orphSrcTp = false;
-                }
-            }
+        removeIfOrphan(trans, l.getSource().getSourceNode(), l.getSource().getSourceTp());
+        removeIfOrphan(trans, l.getDestination().getDestNode(), l.getDestination().getDestTp());
+    }
 
-            // Destination node checks
-            if (dstNode.equals(sn)) {
-                if (orphDstNode) {
-                    LOG.debug("Node {} held by source of link {}", dstNode, lw);
-                    orphDstNode = false;
-                }
-                if (orphDstTp && dstTp.equals(st)) {
-                    LOG.debug("TP {} held by source of link {}", dstTp, lw);
-                    orphDstTp = false;
-                }
-            }
-            if (dstNode.equals(dn)) {
-                if (orphDstNode) {
-                    LOG.debug("Node {} held by destination of link {}", dstNode, lw);
-                    orphDstNode = false;
-                }
-                if (orphDstTp && dstTp.equals(dt)) {
-                    LOG.debug("TP {} held by destination of link {}", dstTp, lw);
-                    orphDstTp = false;
-                }
-            }
+    private void removeIfOrphan(final ReadWriteTransaction trans, final NodeId node, final TpId tp) {
+        if (!this.index.isNodeReferenced(node)) {
+            LOG.debug("Removing orphan node {}", node);
+            trans.delete(LogicalDatastoreType.OPERATIONAL, nodeIdentifier(node));
+            this.index.removeNode(node);
+        } else if (!this.index.isTerminationPointReferenced(node, tp)) {
+            LOG.debug("Removing orphan TP {} on node {}", tp, node);
+            trans.delete(LogicalDatastoreType.OPERATIONAL, tpIdentifier(node, tp));
+            this.index.removeTerminationPoint(node, tp);
         }
+    }
 
-        if (orphSrcNode && !orphSrcTp) {
-            LOG.warn("Orphan source node {} but not TP {}, retaining the node", srcNode, srcTp);
-            orphSrcNode = false;
-        }
-        if (orphDstNode && !orphDstTp) {
-            LOG.warn("Orphan destination node {} but not TP {}, retaining the node", dstNode, dstTp);
-            orphDstNode = false;
+    private void rebuildIndex() {
+        // Wait for writes of earlier changes to settle, so that they are not missing from the topology read back
+        try {
+            this.lastCommit.get();
+        } catch (final InterruptedException | ExecutionException e) {
+            LOG.debug("Previous topology change was not committed", e);
         }
 
-        if (orphSrcNode) {
-            LOG.debug("Removing orphan node {}", srcNode);
-            trans.delete(LogicalDatastoreType.OPERATIONAL, nodeIdentifier(srcNode));
-        } else if (orphSrcTp) {
-            LOG.debug("Removing orphan TP {} on node {}", srcTp, srcNode);
-            trans.delete(LogicalDatastoreType.OPERATIONAL, tpIdentifier(srcNode, srcTp));
-        }
-        if (orphDstNode) {
-            LOG.debug("Removing orphan node {}", dstNode);
-            trans.delete(LogicalDatastoreType.OPERATIONAL, nodeIdentifier(dstNode));
-        } else if (orphDstTp) {
-            LOG.debug("Removing orphan TP {} on node {}", dstTp, dstNode);
-            trans.delete(LogicalDatastoreType.OPERATIONAL, tpIdentifier(dstNode, dstTp));
+        try (ReadTransaction rtx = this.dataProvider.newReadOnlyTransaction()) {
+            this.index.reset(this.target, rtx.read(LogicalDatastoreType.OPERATIONAL, this.target).get()
+                .orElse(null));
+            LOG.info("Rebuilt index of topology {}", this.target);
+        } catch (final InterruptedException | ExecutionException e) {
+            LOG.warn("Failed to read topology {}, its index will be rebuilt on next change", this.target, e);
+            this.indexStale.set(true);
         }
     }
 
     @Override
     public void onDataTreeChanged(final Collection<DataTreeModification<Node>> changes) {
+        if (this.indexStale.getAndSet(false)) {
+            rebuildIndex();
+        }
         final ReadWriteTransaction trans = this.dataProvider.newReadWriteTransaction();
 
         final Set<InstanceIdentifier<ReportedLsp>> lsps = new HashSet<>();
@@ -432,7 +356,9 @@ public final class NodeChangedListener implements ClusteredDataTreeChangeListene
         // We now have list of all affected LSPs. Walk them create/remove them
         updateTransaction(trans, lsps, original, updated, created);
 
-        trans.commit().addCallback(new FutureCallback<CommitInfo>() {
+        final FluentFuture<? extends CommitInfo> future = trans.commit();
+        this.lastCommit = future;
+        future.addCallback(new FutureCallback<CommitInfo>() {
             @Override
             public void onSuccess(final CommitInfo result) {
                 LOG.trace("Topology change committed successfully");
@@ -441,6 +367,8 @@ public final class NodeChangedListener implements ClusteredDataTreeChangeListene
             @Override
             public void onFailure(final Throwable throwable) {
                 LOG.error("Failed to propagate a topology change, target topology became inconsistent", throwable);
+                // The index already reflects the change, hence it needs to be rebuilt from what was committed
+                NodeChangedListener.this.indexStale.set(true);
             }
         }, MoreExecutors.directExecutor());
     }
@@ -495,18 +423,10 @@ public final class NodeChangedListener implements ClusteredDataTreeChangeListene
 
             LOG.debug("Updating lsp {} value {} -> {}", i, oldValue, newValue);
             if (oldValue != null) {
-                try {
-                    remove(trans, i, oldValue);
-                } catch (final ExecutionException | InterruptedException e) {
-                    LOG.warn("Failed to remove LSP {}", i, e);
-                }
+                remove(trans, i, oldValue);
             }
             if (newValue != null) {
-                try {
-                    create(trans, i, newValue);
-                } catch (final ExecutionException | InterruptedException e) {
-                    LOG.warn("Failed to add LSP {}", i, e);
-                }
+                create(trans, i, newValue);
             }
         }
     }
@@ -514,8 +434,4 @@ public final class NodeChangedListener implements ClusteredDataTreeChangeListene
     DataBroker getDataProvider() {
         return dataProvider;
     }
-
-    private static <T> List<T> nonNullList(final List<T> nullable) {
-        return nullable != null ? nullable : ImmutableList.of();
-    }
 }
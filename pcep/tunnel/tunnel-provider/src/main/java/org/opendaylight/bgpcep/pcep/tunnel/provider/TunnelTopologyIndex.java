@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.bgpcep.pcep.tunnel.provider;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.jdt.annotation.Nullable;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.LinkId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TpId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.Topology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Link;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.node.TerminationPoint;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.TerminationPoint1;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.igp.termination.point.attributes.igp.termination.point.attributes.TerminationPointType;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.igp.termination.point.attributes.igp.termination.point.attributes.termination.point.type.Ip;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * In-memory view of the tunnel topology maintained by {@link NodeChangedListener}. Since the listener is the only
+ * writer of the topology, it records everything it writes here, so that it does not need to read the topology back
+ * when processing LSPs. This class is not thread-safe, it is accessed only from listener callbacks, which are not
+ * invoked concurrently.
+ */
+final class TunnelTopologyIndex {
+    private static final class NodeEntry {
+        final Set<NodeId> supportingNodes = new HashSet<>(1);
+        final Map<TpId, IpAddress> terminationPoints = new HashMap<>(1);
+        // Number of link ends attached to this node and each of its termination points
+        final Multiset<TpId> tpReferences = HashMultiset.create(1);
+    }
+
+    private final Map<IpAddress, InstanceIdentifier<TerminationPoint>> terminationPoints = new HashMap<>();
+    private final Map<NodeId, NodeEntry> nodes = new HashMap<>();
+    private final Map<LinkId, Link> links = new HashMap<>();
+
+    /**
+     * Discard all recorded state and record the contents of a topology instead. This is used to bring the index
+     * back in sync with the datastore once a write to the topology has failed.
+     *
+     * @param target Topology identifier
+     * @param topology Topology as present in the datastore, or null if it is not present
+     */
+    void reset(final InstanceIdentifier<Topology> target, final @Nullable Topology topology) {
+        this.terminationPoints.clear();
+        this.nodes.clear();
+        this.links.clear();
+        if (topology == null) {
+            return;
+        }
+
+        if (topology.getNode() != null) {
+            for (final Node node : topology.getNode()) {
+                final NodeEntry entry = new NodeEntry();
+                if (node.getSupportingNode() != null) {
+                    node.getSupportingNode().forEach(sn -> entry.supportingNodes.add(sn.getNodeRef()));
+                }
+                if (node.getTerminationPoint() != null) {
+                    final InstanceIdentifier<Node> nodeId = target.child(Node.class, node.key());
+                    for (final TerminationPoint tp : node.getTerminationPoint()) {
+                        for (final IpAddress address : ipAddresses(tp)) {
+                            entry.terminationPoints.put(tp.getTpId(), address);
+                            this.terminationPoints.put(address, nodeId.child(TerminationPoint.class, tp.key()));
+                        }
+                    }
+                }
+                this.nodes.put(node.getNodeId(), entry);
+            }
+        }
+        if (topology.getLink() != null) {
+            topology.getLink().forEach(this::putLink);
+        }
+    }
+
+    /**
+     * Return the termination point holding an IP address.
+     *
+     * @param address IP address
+     * @return Termination point identifier, or null if no termination point holds the address
+     */
+    @Nullable InstanceIdentifier<TerminationPoint> terminationPoint(final IpAddress address) {
+        return this.terminationPoints.get(address);
+    }
+
+    /**
+     * Record a newly-written node with a single termination point.
+     *
+     * @param tp Termination point identifier
+     * @param address IP address held by the termination point
+     * @param supportingNode Supporting node, or null if the node has none
+     */
+    void addNode(final InstanceIdentifier<TerminationPoint> tp, final IpAddress address,
+            final @Nullable NodeId supportingNode) {
+        final NodeEntry entry = new NodeEntry();
+        entry.terminationPoints.put(tp.firstKeyOf(TerminationPoint.class).getTpId(), address);
+        if (supportingNode != null) {
+            entry.supportingNodes.add(supportingNode);
+        }
+        this.nodes.put(tp.firstKeyOf(Node.class).getNodeId(), entry);
+        this.terminationPoints.put(address, tp);
+    }
+
+    /**
+     * Record a supporting node of a node.
+     *
+     * @param node Node
+     * @param supportingNode Supporting node
+     * @return True if the supporting node was not recorded before and needs to be written
+     */
+    boolean addSupportingNode(final NodeId node, final NodeId supportingNode) {
+        final NodeEntry entry = this.nodes.get(node);
+        return entry == null || entry.supportingNodes.add(supportingNode);
+    }
+
+    /**
+     * Record a newly-written link, replacing any previous link with the same identifier.
+     *
+     * @param link Link
+     */
+    void putLink(final Link link) {
+        final Link prev = this.links.put(link.getLinkId(), link);
+        if (prev != null) {
+            updateReferences(prev, -1);
+        }
+        updateReferences(link, 1);
+    }
+
+    /**
+     * Remove a link.
+     *
+     * @param linkId Link identifier
+     * @return Removed link, or null if the link was not present
+     */
+    @Nullable Link removeLink(final LinkId linkId) {
+        final Link link = this.links.remove(linkId);
+        if (link != null) {
+            updateReferences(link, -1);
+        }
+        return link;
+    }
+
+    boolean isNodeReferenced(final NodeId node) {
+        final NodeEntry entry = this.nodes.get(node);
+        return entry != null && !entry.tpReferences.isEmpty();
+    }
+
+    boolean isTerminationPointReferenced(final NodeId node, final TpId tp) {
+        final NodeEntry entry = this.nodes.get(node);
+        return entry != null && entry.tpReferences.contains(tp);
+    }
+
+    void removeNode(final NodeId node) {
+        final NodeEntry entry = this.nodes.remove(node);
+        if (entry != null) {
+            entry.terminationPoints.values().forEach(this.terminationPoints::remove);
+        }
+    }
+
+    void removeTerminationPoint(final NodeId node, final TpId tp) {
+        final NodeEntry entry = this.nodes.get(node);
+        if (entry != null) {
+            final IpAddress address = entry.terminationPoints.remove(tp);
+            if (address != null) {
+                this.terminationPoints.remove(address);
+            }
+        }
+    }
+
+    private static List<IpAddress> ipAddresses(final TerminationPoint tp) {
+        final TerminationPoint1 tpa = tp.augmentation(TerminationPoint1.class);
+        if (tpa != null && tpa.getIgpTerminationPointAttributes() != null) {
+            final TerminationPointType tpt = tpa.getIgpTerminationPointAttributes().getTerminationPointType();
+            if (tpt instanceof Ip && ((Ip) tpt).getIpAddress() != null) {
+                return ((Ip) tpt).getIpAddress();
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private void updateReferences(final Link link, final int delta) {
+        updateReferences(link.getSource().getSourceNode(), link.getSource().getSourceTp(), delta);
+        updateReferences(link.getDestination().getDestNode(), link.getDestination().getDestTp(), delta);
+    }
+
+    private void updateReferences(final NodeId node, final TpId tp, final int delta) {
+        final NodeEntry entry = this.nodes.get(node);
+        if (entry != null) {
+            if (delta > 0) {
+                entry.tpReferences.add(tp, delta);
+            } else {
+                entry.tpReferences.remove(tp, -delta);
+            }
+        }
+    }
+}
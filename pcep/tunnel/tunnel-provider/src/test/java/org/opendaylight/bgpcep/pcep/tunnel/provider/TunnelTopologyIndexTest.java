@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.bgpcep.pcep.tunnel.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.LinkId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NetworkTopology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TopologyId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TpId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.link.attributes.DestinationBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.link.attributes.SourceBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.Topology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.TopologyBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.TopologyKey;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Link;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.LinkBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeKey;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.node.TerminationPoint;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.node.TerminationPointBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.node.TerminationPointKey;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.TerminationPoint1;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.TerminationPoint1Builder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.igp.termination.point.attributes.IgpTerminationPointAttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.igp.termination.point.attributes.igp.termination.point.attributes.termination.point.type.IpBuilder;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+public class TunnelTopologyIndexTest {
+    private static final InstanceIdentifier<Topology> TOPOLOGY = InstanceIdentifier.create(NetworkTopology.class)
+        .child(Topology.class, new TopologyKey(new TopologyId("tunnel-topology")));
+    private static final IpAddress ADDRESS1 = new IpAddress(new Ipv4Address("192.0.2.1"));
+    private static final IpAddress ADDRESS2 = new IpAddress(new Ipv4Address("192.0.2.2"));
+    private static final IpAddress ADDRESS3 = new IpAddress(new Ipv4Address("192.0.2.3"));
+    private static final NodeId PCC = new NodeId("pcc://192.0.2.1");
+
+    private final TunnelTopologyIndex index = new TunnelTopologyIndex();
+
+    @Test
+    public void testTerminationPointLookup() {
+        assertNull(this.index.terminationPoint(ADDRESS1));
+
+        final InstanceIdentifier<TerminationPoint> tp1 = tp(ADDRESS1);
+        this.index.addNode(tp1, ADDRESS1, PCC);
+        final InstanceIdentifier<TerminationPoint> tp2 = tp(ADDRESS2);
+        this.index.addNode(tp2, ADDRESS2, null);
+        assertEquals(tp1, this.index.terminationPoint(ADDRESS1));
+        assertEquals(tp2, this.index.terminationPoint(ADDRESS2));
+        assertNull(this.index.terminationPoint(ADDRESS3));
+
+        // Supporting nodes need to be written only once
+        assertFalse(this.index.addSupportingNode(nodeId(ADDRESS1), PCC));
+        assertTrue(this.index.addSupportingNode(nodeId(ADDRESS2), PCC));
+        assertFalse(this.index.addSupportingNode(nodeId(ADDRESS2), PCC));
+    }
+
+    @Test
+    public void testLinkRemoval() {
+        this.index.addNode(tp(ADDRESS1), ADDRESS1, PCC);
+        this.index.addNode(tp(ADDRESS2), ADDRESS2, null);
+        final Link link = link("lsp1", ADDRESS1, ADDRESS2);
+        this.index.putLink(link);
+        assertTrue(this.index.isNodeReferenced(nodeId(ADDRESS1)));
+        assertTrue(this.index.isTerminationPointReferenced(nodeId(ADDRESS2), tpId(ADDRESS2)));
+
+        assertNull(this.index.removeLink(new LinkId("unknown")));
+        assertEquals(link, this.index.removeLink(link.getLinkId()));
+        assertNull(this.index.removeLink(link.getLinkId()));
+        assertFalse(this.index.isNodeReferenced(nodeId(ADDRESS1)));
+        assertFalse(this.index.isNodeReferenced(nodeId(ADDRESS2)));
+    }
+
+    @Test
+    public void testOrphanCleanup() {
+        this.index.addNode(tp(ADDRESS1), ADDRESS1, PCC);
+        this.index.addNode(tp(ADDRESS2), ADDRESS2, null);
+        this.index.addNode(tp(ADDRESS3), ADDRESS3, null);
+        final Link link1 = link("lsp1", ADDRESS1, ADDRESS2);
+        final Link link2 = link("lsp2", ADDRESS1, ADDRESS3);
+        this.index.putLink(link1);
+        this.index.putLink(link2);
+
+        // The source is still referenced by the other link, the destination is an orphan
+        this.index.removeLink(link2.getLinkId());
+        assertTrue(this.index.isNodeReferenced(nodeId(ADDRESS1)));
+        assertTrue(this.index.isTerminationPointReferenced(nodeId(ADDRESS1), tpId(ADDRESS1)));
+        assertFalse(this.index.isNodeReferenced(nodeId(ADDRESS3)));
+        this.index.removeNode(nodeId(ADDRESS3));
+        assertNull(this.index.terminationPoint(ADDRESS3));
+
+        // Replacing a link does not count its ends twice
+        this.index.putLink(link1);
+        this.index.removeLink(link1.getLinkId());
+        assertFalse(this.index.isNodeReferenced(nodeId(ADDRESS1)));
+        this.index.removeTerminationPoint(nodeId(ADDRESS1), tpId(ADDRESS1));
+        assertNull(this.index.terminationPoint(ADDRESS1));
+        assertEquals(tp(ADDRESS2), this.index.terminationPoint(ADDRESS2));
+    }
+
+    @Test
+    public void testReset() {
+        this.index.addNode(tp(ADDRESS3), ADDRESS3, null);
+
+        final Link link = link("lsp1", ADDRESS1, ADDRESS2);
+        this.index.reset(TOPOLOGY, new TopologyBuilder().setTopologyId(TOPOLOGY.firstKeyOf(Topology.class)
+            .getTopologyId()).setNode(ImmutableList.of(node(ADDRESS1), node(ADDRESS2))).setLink(ImmutableList.of(link))
+            .build());
+        assertNull(this.index.terminationPoint(ADDRESS3));
+        assertEquals(tp(ADDRESS1), this.index.terminationPoint(ADDRESS1));
+        assertEquals(tp(ADDRESS2), this.index.terminationPoint(ADDRESS2));
+        assertTrue(this.index.isTerminationPointReferenced(nodeId(ADDRESS1), tpId(ADDRESS1)));
+        assertEquals(link, this.index.removeLink(link.getLinkId()));
+
+        this.index.reset(TOPOLOGY, null);
+        assertNull(this.index.terminationPoint(ADDRESS1));
+    }
+
+    private static NodeId nodeId(final IpAddress address) {
+        return new NodeId("ip://" + address);
+    }
+
+    private static TpId tpId(final IpAddress address) {
+        return new TpId("ip://" + address);
+    }
+
+    private static InstanceIdentifier<TerminationPoint> tp(final IpAddress address) {
+        return TOPOLOGY.child(Node.class, new NodeKey(nodeId(address)))
+            .child(TerminationPoint.class, new TerminationPointKey(tpId(address)));
+    }
+
+    private static Node node(final IpAddress address) {
+        return new NodeBuilder().setNodeId(nodeId(address)).setTerminationPoint(ImmutableList.of(
+            new TerminationPointBuilder().setTpId(tpId(address)).addAugmentation(TerminationPoint1.class,
+                new TerminationPoint1Builder().setIgpTerminationPointAttributes(
+                    new IgpTerminationPointAttributesBuilder().setTerminationPointType(
+                        new IpBuilder().setIpAddress(ImmutableList.of(address)).build()).build()).build())
+                .build()))
+            .build();
+    }
+
+    private static Link link(final String name, final IpAddress src, final IpAddress dst) {
+        return new LinkBuilder().setLinkId(new LinkId(PCC.getValue() + "/lsps/" + name))
+            .setSource(new SourceBuilder().setSourceNode(nodeId(src)).setSourceTp(tpId(src)).build())
+            .setDestination(new DestinationBuilder().setDestNode(nodeId(dst)).setDestTp(tpId(dst)).build())
+            .build();
+    }
+}
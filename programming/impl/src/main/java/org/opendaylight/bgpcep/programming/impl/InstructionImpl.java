@@ -15,7 +15,6 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import io.netty.util.Timeout;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import org.checkerframework.checker.lock.qual.Holding;
 import org.opendaylight.bgpcep.programming.spi.ExecutionResult;
@@ -37,7 +36,8 @@ final class InstructionImpl implements Instruction {
     private final QueueInstruction queue;
     private final InstructionId id;
     private SettableFuture<ExecutionResult<Details>> executionFuture;
-    private InstructionStatus status = InstructionStatus.Queued;
+    // Written while holding the lock, but read without it, so dependants can check it without lock-order inversions
+    private volatile InstructionStatus status = InstructionStatus.Queued;
     private Details heldUpDetails;
     private Timeout timeout;
 
@@ -54,7 +54,7 @@ final class InstructionImpl implements Instruction {
         return this.id;
     }
 
-    synchronized InstructionStatus getStatus() {
+    InstructionStatus getStatus() {
         return this.status;
     }
 
@@ -213,20 +213,27 @@ final class InstructionImpl implements Instruction {
         this.dependencies.remove(other);
     }
 
-    synchronized Iterator<InstructionImpl> getDependants() {
-        return this.dependants.iterator();
+    synchronized List<InstructionImpl> getDependants() {
+        return ImmutableList.copyOf(this.dependants);
     }
 
-    synchronized void clean() {
-        for (final InstructionImpl dependency : this.dependencies) {
-            dependency.removeDependant(this);
+    void clean() {
+        // Unlink outside of our lock, so as not to hold it while acquiring locks of neighbouring instructions
+        final List<InstructionImpl> oldDependencies;
+        final List<InstructionImpl> oldDependants;
+        synchronized (this) {
+            oldDependencies = ImmutableList.copyOf(this.dependencies);
+            this.dependencies.clear();
+            oldDependants = ImmutableList.copyOf(this.dependants);
+            this.dependants.clear();
         }
-        this.dependencies.clear();
 
-        for (final InstructionImpl dependant : this.dependants) {
+        for (final InstructionImpl dependency : oldDependencies) {
+            dependency.removeDependant(this);
+        }
+        for (final InstructionImpl dependant : oldDependants) {
             dependant.removeDependency(this);
         }
-        this.dependants.clear();
 
         this.queue.instructionRemoved();
     }
@@ -263,7 +270,11 @@ final class InstructionImpl implements Instruction {
     }
 
     synchronized ListenableFuture<ExecutionResult<Details>> ready() {
-        Preconditions.checkState(this.status == InstructionStatus.Queued);
+        if (this.status != InstructionStatus.Queued) {
+            // Both the submission and the completion of a dependency may attempt to schedule us
+            LOG.debug("Instruction {} is already {}, not scheduling it", this.id, this.status);
+            return null;
+        }
         Preconditions.checkState(this.executionFuture == null);
         /*
          * Check all vertices we depend on. We start off as ready for
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.bgpcep.programming.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.HashMap;
+import java.util.Map;
+import org.checkerframework.checker.lock.qual.GuardedBy;
+import org.opendaylight.mdsal.binding.api.DataBroker;
+import org.opendaylight.mdsal.binding.api.WriteTransaction;
+import org.opendaylight.mdsal.common.api.CommitInfo;
+import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.InstructionsQueue;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.instruction.queue.Instruction;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.instruction.queue.InstructionKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists instruction status into the operational datastore. At most one transaction is in flight at any time,
+ * updates arriving in the meantime are coalesced per instruction and committed together once it completes. This way
+ * the number of transactions adapts to the commit latency rather than to the rate of instruction state transitions.
+ */
+final class InstructionQueueWriter {
+    private static final Logger LOG = LoggerFactory.getLogger(InstructionQueueWriter.class);
+
+    private final InstanceIdentifier<InstructionsQueue> qid;
+    private final DataBroker dataProvider;
+    // Null values indicate the instruction is to be removed
+    @GuardedBy("this")
+    private Map<InstructionKey, Instruction> pending = new HashMap<>();
+    @GuardedBy("this")
+    private boolean committing;
+
+    InstructionQueueWriter(final DataBroker dataProvider, final InstanceIdentifier<InstructionsQueue> qid) {
+        this.dataProvider = requireNonNull(dataProvider);
+        this.qid = requireNonNull(qid);
+    }
+
+    void updateInstruction(final Instruction instruction) {
+        enqueue(instruction.key(), instruction);
+    }
+
+    void removeInstruction(final InstructionKey key) {
+        enqueue(key, null);
+    }
+
+    /**
+     * Discard all updates which have not been committed yet.
+     */
+    synchronized void discardPending() {
+        this.pending.clear();
+    }
+
+    private void enqueue(final InstructionKey key, final Instruction instruction) {
+        synchronized (this) {
+            this.pending.put(key, instruction);
+            if (this.committing) {
+                return;
+            }
+            this.committing = true;
+        }
+        commitPending();
+    }
+
+    private void commitPending() {
+        final Map<InstructionKey, Instruction> batch;
+        synchronized (this) {
+            if (this.pending.isEmpty()) {
+                this.committing = false;
+                return;
+            }
+            batch = this.pending;
+            this.pending = new HashMap<>();
+        }
+
+        final WriteTransaction wt = this.dataProvider.newWriteOnlyTransaction();
+        batch.forEach((key, instruction) -> {
+            final InstanceIdentifier<Instruction> id = this.qid.child(Instruction.class, key);
+            if (instruction != null) {
+                wt.put(LogicalDatastoreType.OPERATIONAL, id, instruction);
+            } else {
+                wt.delete(LogicalDatastoreType.OPERATIONAL, id);
+            }
+        });
+        wt.commit().addCallback(new FutureCallback<CommitInfo>() {
+            @Override
+            public void onSuccess(final CommitInfo result) {
+                LOG.debug("Instruction Queue {} updated with {} instructions", InstructionQueueWriter.this.qid,
+                        batch.size());
+                commitPending();
+            }
+
+            @Override
+            public void onFailure(final Throwable trw) {
+                LOG.error("Failed to update Instruction Queue {}", InstructionQueueWriter.this.qid, trw);
+                commitPending();
+            }
+        }, MoreExecutors.directExecutor());
+    }
+}
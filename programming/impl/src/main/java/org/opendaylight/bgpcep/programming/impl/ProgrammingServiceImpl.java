@@ -21,13 +21,11 @@ import io.netty.util.Timer;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import org.checkerframework.checker.lock.qual.GuardedBy;
-import org.opendaylight.bgpcep.programming.NanotimeUtil;
 import org.opendaylight.bgpcep.programming.spi.ExecutionResult;
 import org.opendaylight.bgpcep.programming.spi.Instruction;
 import org.opendaylight.bgpcep.programming.spi.InstructionScheduler;
@@ -78,7 +76,7 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
         ProgrammingService {
     private static final Logger LOG = LoggerFactory.getLogger(ProgrammingServiceImpl.class);
 
-    private final Map<InstructionId, InstructionImpl> insns = new HashMap<>();
+    private final Map<InstructionId, InstructionImpl> insns = new ConcurrentHashMap<>();
     private final InstanceIdentifier<InstructionsQueue> qid;
     private final NotificationPublishService notifs;
     private final ListeningExecutorService executor;
@@ -88,6 +86,7 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
     private final ServiceGroupIdentifier sgi;
     private final ClusterSingletonServiceRegistration csspReg;
     private final RpcProviderService rpcProviderRegistry;
+    private final InstructionQueueWriter writer;
     @GuardedBy("this")
     private ObjectRegistration<ProgrammingService> reg;
     @GuardedBy("this")
@@ -107,24 +106,7 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
         public void instructionUpdated(final InstructionStatus status, final Details details) {
             if (!status.equals(this.builder.getStatus())) {
                 this.builder.setStatus(status);
-
-                final WriteTransaction wt = ProgrammingServiceImpl.this.dataProvider.newWriteOnlyTransaction();
-                wt.put(LogicalDatastoreType.OPERATIONAL,
-                        ProgrammingServiceImpl.this.qid.child(
-                                org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming
-                                        .rev150720.instruction.queue.Instruction.class,
-                                new InstructionKey(this.builder.getId())), this.builder.build());
-                wt.commit().addCallback(new FutureCallback<CommitInfo>() {
-                    @Override
-                    public void onSuccess(final CommitInfo result) {
-                        LOG.debug("Instruction Queue {} updated", ProgrammingServiceImpl.this.qid);
-                    }
-
-                    @Override
-                    public void onFailure(final Throwable trw) {
-                        LOG.error("Failed to update Instruction Queue {}", ProgrammingServiceImpl.this.qid, trw);
-                    }
-                }, MoreExecutors.directExecutor());
+                ProgrammingServiceImpl.this.writer.updateInstruction(this.builder.build());
             }
 
             try {
@@ -137,22 +119,7 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
 
         @Override
         public void instructionRemoved() {
-            final WriteTransaction wt = ProgrammingServiceImpl.this.dataProvider.newWriteOnlyTransaction();
-            wt.delete(LogicalDatastoreType.OPERATIONAL, ProgrammingServiceImpl.this.qid.child(
-                    org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.instruction
-                            .queue.Instruction.class,
-                    new InstructionKey(this.builder.getId())));
-            wt.commit().addCallback(new FutureCallback<CommitInfo>() {
-                @Override
-                public void onSuccess(final CommitInfo result) {
-                    LOG.debug("Instruction Queue {} removed", ProgrammingServiceImpl.this.qid);
-                }
-
-                @Override
-                public void onFailure(final Throwable trw) {
-                    LOG.error("Failed to remove Instruction Queue {}", ProgrammingServiceImpl.this.qid, trw);
-                }
-            }, MoreExecutors.directExecutor());
+            ProgrammingServiceImpl.this.writer.removeInstruction(this.builder.key());
         }
     }
 
@@ -167,6 +134,7 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
         this.timer = requireNonNull(timer);
         this.qid = KeyedInstanceIdentifier.builder(InstructionsQueue.class,
                 new InstructionsQueueKey(this.instructionId)).build();
+        this.writer = new InstructionQueueWriter(dataProvider, this.qid);
         this.sgi = ServiceGroupIdentifier.create(this.instructionId + "-service-group");
         LOG.info("Creating Programming Service {}.", this.sgi.getValue());
         this.csspReg = cssp.registerClusterSingletonService(this);
@@ -208,7 +176,7 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
         return this.executor.submit(() -> realCleanInstructions(input));
     }
 
-    private synchronized RpcResult<CancelInstructionOutput> realCancelInstruction(final CancelInstructionInput input) {
+    private RpcResult<CancelInstructionOutput> realCancelInstruction(final CancelInstructionInput input) {
         final InstructionImpl instruction = this.insns.get(input.getId());
         if (instruction == null) {
             LOG.debug("Instruction {} not present in the graph", input.getId());
@@ -317,20 +285,16 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
     }
 
     @Override
-    public synchronized ListenableFuture<Instruction> scheduleInstruction(final SubmitInstructionInput input) throws
+    public ListenableFuture<Instruction> scheduleInstruction(final SubmitInstructionInput input) throws
             SchedulerException {
         final InstructionId id = input.getId();
-        if (this.insns.get(id) != null) {
-            LOG.info("Instruction ID {} already present", id);
-            throw new SchedulerException("Instruction ID currently in use",
-                    new FailureBuilder().setType(DuplicateInstructionId.class).build());
+        if (this.insns.containsKey(id)) {
+            throw duplicateInstruction(id);
         }
 
         // First things first: check the deadline
-        final Nanotime now = NanotimeUtil.currentTime();
-        final BigInteger left = input.getDeadline().getValue().subtract(now.getValue());
-
-        if (left.compareTo(BigInteger.ZERO) <= 0) {
+        final long left = nanosUntil(input.getDeadline());
+        if (left <= 0) {
             LOG.debug("Instruction {} deadline has already passed by {}ns", id, left);
             throw new SchedulerException("Instruction arrived after specified deadline",
                     new FailureBuilder().setType(DeadOnArrival.class).build());
@@ -346,14 +310,17 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
          */
 
         // Schedule a timeout for the instruction
-        final Timeout t = this.timer.newTimeout(timeout -> timeoutInstruction(input.getId()), left.longValue(),
+        final Timeout t = this.timer.newTimeout(timeout -> timeoutInstruction(input.getId()), left,
                 TimeUnit.NANOSECONDS);
 
-        // Put it into the instruction list
+        // Put it into the instruction list, unless a concurrent submission has taken the ID in the meantime
         final SettableFuture<Instruction> ret = SettableFuture.create();
         final InstructionImpl instruction = new InstructionImpl(new InstructionPusher(id, input.getDeadline()), ret, id,
                 dependencies, t);
-        this.insns.put(id, instruction);
+        if (this.insns.putIfAbsent(id, instruction) != null) {
+            t.cancel();
+            throw duplicateInstruction(id);
+        }
 
         // Attach it into its dependencies
         for (final InstructionImpl d : dependencies) {
@@ -371,12 +338,28 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
         return ret;
     }
 
+    private static SchedulerException duplicateInstruction(final InstructionId id) {
+        LOG.info("Instruction ID {} already present", id);
+        return new SchedulerException("Instruction ID currently in use",
+                new FailureBuilder().setType(DuplicateInstructionId.class).build());
+    }
+
+    /**
+     * Return the number of nanoseconds left until a deadline. Deadlines are expressed in nanoseconds since epoch and
+     * fit into a long until year 2262, anything beyond that is treated as the farthest possible deadline.
+     */
+    private static long nanosUntil(final Nanotime deadline) {
+        final BigInteger value = deadline.getValue();
+        final long nanos = value.bitLength() < Long.SIZE ? value.longValue() : Long.MAX_VALUE;
+        return nanos - TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+    }
+
     @Override
     public String getInstructionID() {
         return this.instructionId;
     }
 
-    private synchronized void timeoutInstruction(final InstructionId id) {
+    private void timeoutInstruction(final InstructionId id) {
         final InstructionImpl instruction = this.insns.get(id);
         if (instruction == null) {
             LOG.warn("Instruction {} timed out, but not found in the queue", id);
@@ -386,15 +369,14 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
         instruction.timeout();
     }
 
-    private synchronized void tryScheduleDependants(final InstructionImpl instruction) {
+    private void tryScheduleDependants(final InstructionImpl instruction) {
         // Walk all dependants and try to schedule them
-        final Iterator<InstructionImpl> it = instruction.getDependants();
-        while (it.hasNext()) {
-            tryScheduleInstruction(it.next());
+        for (final InstructionImpl dependant : instruction.getDependants()) {
+            tryScheduleInstruction(dependant);
         }
     }
 
-    private synchronized void tryScheduleInstruction(final InstructionImpl instruction) {
+    private void tryScheduleInstruction(final InstructionImpl instruction) {
         final ListenableFuture<ExecutionResult<Details>> f = instruction.ready();
         if (f != null) {
             Futures.addCallback(f, new FutureCallback<ExecutionResult<Details>>() {
@@ -409,7 +391,6 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
                 }
             }, MoreExecutors.directExecutor());
         }
-
     }
 
     @Override
@@ -423,6 +404,9 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
         for (final InstructionImpl instruction : this.insns.values()) {
             instruction.tryCancel(null);
         }
+        // The queue is going away, there is no point in persisting the cancellations
+        this.writer.discardPending();
+
         // Workaround for BUG-2283
         final WriteTransaction wt = this.dataProvider.newWriteOnlyTransaction();
         wt.delete(LogicalDatastoreType.OPERATIONAL, this.qid);
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.bgpcep.programming.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.netty.util.HashedWheelTimer;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.bgpcep.programming.spi.Instruction;
+import org.opendaylight.mdsal.binding.api.NotificationPublishService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.InstructionId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.InstructionStatus;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.Nanotime;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.SubmitInstructionInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.instruction.status.changed.DetailsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drives the scheduler with a synthetic dependency graph, such as the one resulting from bulk tunnel programming,
+ * while instructions are executed and completed concurrently on a worker pool.
+ */
+public class ProgrammingServiceImplLoadTest extends AbstractProgrammingTest {
+    private static final Logger LOG = LoggerFactory.getLogger(ProgrammingServiceImplLoadTest.class);
+    private static final int INSTRUCTIONS = 10_000;
+    private static final int MAX_DEPENDENCIES = 3;
+    // Instructions depend only on recently-submitted ones, so that the graph is both wide and deep
+    private static final int DEPENDENCY_WINDOW = 100;
+    private static final Nanotime NO_DEADLINE = new Nanotime(BigInteger.valueOf(Long.MAX_VALUE));
+
+    private final HashedWheelTimer timer = new HashedWheelTimer();
+    private ListeningExecutorService executor;
+    private ExecutorService workers;
+    private ProgrammingServiceImpl testedProgrammingService;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        this.executor = MoreExecutors.listeningDecorator(Executors.newSingleThreadExecutor());
+        this.workers = Executors.newFixedThreadPool(4);
+        this.testedProgrammingService = new ProgrammingServiceImpl(getDataBroker(),
+                mock(NotificationPublishService.class), this.executor, this.rpcRegistry, this.cssp, this.timer,
+                "load-test-queue");
+        this.singletonService.instantiateServiceInstance();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.testedProgrammingService.close();
+        this.workers.shutdownNow();
+        this.executor.shutdownNow();
+        this.timer.stop();
+    }
+
+    @Test(timeout = 60 * 1000)
+    public void testDependencyGraph() throws Exception {
+        final Random random = new Random(0);
+        final Map<InstructionId, Boolean> completed = new ConcurrentHashMap<>();
+        final AtomicReference<String> violation = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(INSTRUCTIONS);
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < INSTRUCTIONS; i++) {
+            final InstructionId id = new InstructionId("insn-" + i);
+            final List<InstructionId> preconditions = new ArrayList<>(MAX_DEPENDENCIES);
+            for (int j = random.nextInt(MAX_DEPENDENCIES + 1); j > 0 && i > 0; j--) {
+                final InstructionId dep = new InstructionId("insn-" + Math.max(0, i - 1
+                        - random.nextInt(DEPENDENCY_WINDOW)));
+                if (!preconditions.contains(dep)) {
+                    preconditions.add(dep);
+                }
+            }
+
+            Futures.addCallback(this.testedProgrammingService.scheduleInstruction(new SubmitInstructionInputBuilder()
+                    .setId(id).setDeadline(NO_DEADLINE).setPreconditions(preconditions).build()),
+                new FutureCallback<Instruction>() {
+                    @Override
+                    public void onSuccess(final Instruction insn) {
+                        ProgrammingServiceImplLoadTest.this.workers.execute(() -> {
+                            for (final InstructionId dep : preconditions) {
+                                if (!completed.containsKey(dep)) {
+                                    violation.compareAndSet(null, id.getValue() + " started before " + dep.getValue());
+                                }
+                            }
+                            if (!insn.checkedExecutionStart()) {
+                                violation.compareAndSet(null, id.getValue() + " failed to start");
+                            }
+                            completed.put(id, Boolean.TRUE);
+                            insn.executionCompleted(InstructionStatus.Successful, new DetailsBuilder().build());
+                            done.countDown();
+                        });
+                    }
+
+                    @Override
+                    public void onFailure(final Throwable cause) {
+                        violation.compareAndSet(null, id.getValue() + " was not scheduled: " + cause);
+                    }
+                }, MoreExecutors.directExecutor());
+        }
+
+        assertTrue(done.await(50, TimeUnit.SECONDS));
+        final long elapsed = System.nanoTime() - start;
+        assertNull(violation.get());
+        assertEquals(INSTRUCTIONS, completed.size());
+        LOG.info("Executed {} instructions in {}ms", INSTRUCTIONS, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.util;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.MapMaker;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent {@link ReferenceCache}, which interns objects. Objects are held through weak references, hence an object
+ * stays in the cache only as long as someone else is referencing it. Objects are interned separately for each class,
+ * so that equal objects of different classes are never substituted for each other.
+ *
+ * <p>
+ * The cache keeps track of hit and miss counts, which allow its effectiveness to be monitored, as well as of the
+ * approximate number of objects it currently holds.
+ */
+public final class InterningReferenceCache implements ReferenceCache {
+    private static final class Holder {
+        static final InterningReferenceCache INSTANCE = new InterningReferenceCache();
+
+        private Holder() {
+        }
+    }
+
+    private final ClassValue<Interner<Object>> interners = new ClassValue<Interner<Object>>() {
+        @Override
+        protected Interner<Object> computeValue(final Class<?> type) {
+            return Interners.newWeakInterner();
+        }
+    };
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    // Cached objects, tracked by identity. Entries disappear along with the interners' entries once the objects are
+    // garbage-collected.
+    private final ConcurrentMap<Object, Boolean> cached = new MapMaker().weakKeys().makeMap();
+
+    InterningReferenceCache() {
+
+    }
+
+    /**
+     * Return the globally-shared instance.
+     *
+     * @return Shared instance
+     */
+    public static InterningReferenceCache getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getSharedReference(final T object) {
+        if (object == null) {
+            return null;
+        }
+
+        final Object ret = this.interners.get(object.getClass()).intern(object);
+        if (ret != object) {
+            this.hitCount.increment();
+        } else {
+            this.missCount.increment();
+            this.cached.putIfAbsent(ret, Boolean.TRUE);
+        }
+        return (T) ret;
+    }
+
+    /**
+     * Return the number of lookups which have returned a previously-cached object in place of the object being looked
+     * up.
+     *
+     * @return Hit count
+     */
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+
+    /**
+     * Return the number of lookups which have returned the object being looked up, either because it has just been
+     * cached or because it was the cached object to begin with.
+     *
+     * @return Miss count
+     */
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+
+    /**
+     * Return the approximate number of objects held in the cache. Objects which have been garbage-collected may still
+     * be counted until the cache gets around to purging them.
+     *
+     * @return Approximate number of cached objects
+     */
+    public long getSize() {
+        return this.cached.size();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("hits", getHitCount()).add("misses", getMissCount())
+                .add("size", getSize()).toString();
+    }
+}
@@ -142,13 +142,7 @@ public final class Ipv4Util {
      * @return Ipv4Prefix object
      */
     public static Ipv4Prefix prefixForByteBuf(final ByteBuf buf, final int prefixLength) {
-        final int size = prefixLength / Byte.SIZE + (prefixLength % Byte.SIZE == 0 ? 0 : 1);
-        final int readable = buf.readableBytes();
-        Preconditions.checkArgument(size <= readable, "Illegal length of IP prefix: %s/%s", size, readable);
-
-        final byte[] bytes = new byte[IP4_LENGTH];
-        buf.readBytes(bytes, 0, size);
-        return IetfInetUtil.INSTANCE.ipv4PrefixFor(bytes, prefixLength);
+        return PrefixFormat.readIpv4Prefix(buf, prefixLength);
     }
 
     /**
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import io.netty.buffer.ByteBuf;
+import org.opendaylight.mdsal.binding.spec.reflect.StringValueObjectFactory;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv6Prefix;
+
+/**
+ * Decoding of IP prefixes in NLRI encoding, as used by the unicast address families. The address is read from the
+ * buffer into packed words and formatted directly into the canonical string of the prefix, which is the same string
+ * {@code IetfInetUtil} produces, without going through intermediate byte arrays or {@link java.net.InetAddress}.
+ * As the result is well-formed by construction, prefix objects are instantiated without pattern validation.
+ */
+final class PrefixFormat {
+    private static final StringValueObjectFactory<Ipv4Prefix> IPV4_PREFIX_FACTORY =
+            StringValueObjectFactory.create(Ipv4Prefix.class, "0.0.0.0/0");
+    private static final StringValueObjectFactory<Ipv6Prefix> IPV6_PREFIX_FACTORY =
+            StringValueObjectFactory.create(Ipv6Prefix.class, "::/0");
+
+    // "255.255.255.255/32"
+    private static final int IPV4_MAX_CHARS = 18;
+    // "ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff/128"
+    private static final int IPV6_MAX_CHARS = 43;
+    private static final int IPV6_HEXTETS = 8;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private PrefixFormat() {
+        throw new UnsupportedOperationException();
+    }
+
+    static Ipv4Prefix readIpv4Prefix(final ByteBuf buf, final int prefixLength) {
+        checkArgument(prefixLength <= Ipv4Util.IP4_BITS_LENGTH, "Illegal IPv4 prefix length %s", prefixLength);
+        final int size = checkSize(buf, prefixLength);
+
+        int address = 0;
+        for (int i = 0; i < size; i++) {
+            address |= buf.readUnsignedByte() << (Ipv4Util.IP4_LENGTH - 1 - i) * Byte.SIZE;
+        }
+        return IPV4_PREFIX_FACTORY.newInstance(ipv4PrefixString(address, prefixLength));
+    }
+
+    static Ipv6Prefix readIpv6Prefix(final ByteBuf buf, final int prefixLength) {
+        checkArgument(prefixLength <= Ipv6Util.IPV6_BITS_LENGTH, "Illegal IPv6 prefix length %s", prefixLength);
+        final int size = checkSize(buf, prefixLength);
+
+        final long[] words = new long[2];
+        for (int i = 0; i < size; i++) {
+            words[i / Long.BYTES] |= (long) buf.readUnsignedByte() << (Long.BYTES - 1 - i % Long.BYTES) * Byte.SIZE;
+        }
+        return IPV6_PREFIX_FACTORY.newInstance(ipv6PrefixString(words, prefixLength));
+    }
+
+    private static int checkSize(final ByteBuf buf, final int prefixLength) {
+        final int size = prefixLength / Byte.SIZE + (prefixLength % Byte.SIZE == 0 ? 0 : 1);
+        final int readable = buf.readableBytes();
+        checkArgument(size <= readable, "Illegal length of IP prefix: %s/%s", size, readable);
+        return size;
+    }
+
+    static String ipv4PrefixString(final int address, final int prefixLength) {
+        final char[] chars = new char[IPV4_MAX_CHARS];
+        int pos = 0;
+        for (int shift = Integer.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            pos = appendDecimal(chars, pos, address >>> shift & 0xff);
+            chars[pos++] = shift == 0 ? '/' : '.';
+        }
+        pos = appendDecimal(chars, pos, prefixLength);
+        return new String(chars, 0, pos);
+    }
+
+    /**
+     * Format an IPv6 prefix following RFC5952: hextets without leading zeroes and the longest run of at least two
+     * zero hextets, the first one on ties, compressed to "::".
+     */
+    static String ipv6PrefixString(final long[] words, final int prefixLength) {
+        final int[] hextets = new int[IPV6_HEXTETS];
+        for (int i = 0; i < IPV6_HEXTETS; i++) {
+            hextets[i] = (int) (words[i / 4] >>> (3 - i % 4) * Short.SIZE) & 0xffff;
+        }
+
+        int bestStart = -1;
+        int bestLength = 1;
+        int runStart = -1;
+        for (int i = 0; i <= IPV6_HEXTETS; i++) {
+            if (i < IPV6_HEXTETS && hextets[i] == 0) {
+                if (runStart < 0) {
+                    runStart = i;
+                }
+            } else if (runStart >= 0) {
+                if (i - runStart > bestLength) {
+                    bestStart = runStart;
+                    bestLength = i - runStart;
+                }
+                runStart = -1;
+            }
+        }
+
+        final char[] chars = new char[IPV6_MAX_CHARS];
+        int pos = 0;
+        for (int i = 0; i < IPV6_HEXTETS; i++) {
+            if (i == bestStart) {
+                chars[pos++] = ':';
+                chars[pos++] = ':';
+                i += bestLength - 1;
+                continue;
+            }
+            if (i != 0 && i != bestStart + bestLength) {
+                chars[pos++] = ':';
+            }
+            pos = appendHex(chars, pos, hextets[i]);
+        }
+        chars[pos++] = '/';
+        pos = appendDecimal(chars, pos, prefixLength);
+        return new String(chars, 0, pos);
+    }
+
+    private static int appendDecimal(final char[] chars, final int offset, final int value) {
+        int pos = offset;
+        if (value >= 100) {
+            chars[pos++] = (char) ('0' + value / 100);
+            chars[pos++] = (char) ('0' + value / 10 % 10);
+        } else if (value >= 10) {
+            chars[pos++] = (char) ('0' + value / 10);
+        }
+        chars[pos++] = (char) ('0' + value % 10);
+        return pos;
+    }
+
+    private static int appendHex(final char[] chars, final int offset, final int value) {
+        int pos = offset;
+        boolean leading = true;
+        for (int shift = Short.SIZE - 4; shift > 0; shift -= 4) {
+            final int digit = value >>> shift & 0xf;
+            if (digit != 0 || !leading) {
+                chars[pos++] = HEX_DIGITS[digit];
+                leading = false;
+            }
+        }
+        chars[pos++] = HEX_DIGITS[value & 0xf];
+        return pos;
+    }
+}
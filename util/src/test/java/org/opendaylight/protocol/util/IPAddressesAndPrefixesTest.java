@@ -20,9 +20,12 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import org.junit.Assert;
 import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IetfInetUtil;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpPrefix;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
@@ -101,6 +104,42 @@ public class IPAddressesAndPrefixesTest {
         assertEquals(new Ipv6Prefix("2001:4860:4860:1:20::8889/128"), Ipv6Util.prefixForByteBuf(bb));
     }
 
+    /**
+     * Prefixes decoded from a buffer have to match the canonical form produced by {@link IetfInetUtil}, which is what
+     * route keys are compared against.
+     */
+    @Test
+    public void testPrefixForByteBufCanonical() {
+        final Random random = new Random(0);
+        for (int i = 0; i < 10_000; i++) {
+            final byte[] ipv4 = new byte[Ipv4Util.IP4_LENGTH];
+            random.nextBytes(ipv4);
+            final int ipv4Length = random.nextInt(Ipv4Util.IP4_BITS_LENGTH + 1);
+            final byte[] ipv4Short = Arrays.copyOf(ipv4, Ipv4Util.prefixBitsToBytes(ipv4Length));
+            assertEquals(IetfInetUtil.INSTANCE.ipv4PrefixFor(Arrays.copyOf(ipv4Short, Ipv4Util.IP4_LENGTH),
+                ipv4Length), Ipv4Util.prefixForByteBuf(Unpooled.wrappedBuffer(ipv4Short), ipv4Length));
+
+            // sparse hextets, so that runs of zeroes of various lengths are frequent
+            final byte[] ipv6 = new byte[Ipv6Util.IPV6_LENGTH];
+            for (int j = 0; j < ipv6.length; j += 2) {
+                if (random.nextInt(3) == 0) {
+                    ipv6[j] = (byte) random.nextInt(3);
+                    ipv6[j + 1] = (byte) random.nextInt();
+                }
+            }
+            final int ipv6Length = random.nextInt(Ipv6Util.IPV6_BITS_LENGTH + 1);
+            final byte[] ipv6Short = Arrays.copyOf(ipv6, Ipv4Util.prefixBitsToBytes(ipv6Length));
+            final ByteBuf ipv6Buf = Unpooled.buffer().writeByte(ipv6Length).writeBytes(ipv6Short);
+            assertEquals(IetfInetUtil.INSTANCE.ipv6PrefixFor(Arrays.copyOf(ipv6Short, Ipv6Util.IPV6_LENGTH),
+                ipv6Length), Ipv6Util.prefixForByteBuf(ipv6Buf));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPrefixForByteBufIllegalLength() {
+        Ipv4Util.prefixForByteBuf(Unpooled.wrappedBuffer(new byte[]{33, 1, 2, 3, 4, 5}));
+    }
+
     @Test
     public void testAddressForByteBuf() {
         final ByteBuf bb = Unpooled.wrappedBuffer(new byte[]{123, 122, 4, 5, 0x20, (byte) 0x01, 0x00, 0x00, 0x00,
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2019 PANTHEON.tech, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class InterningReferenceCacheTest {
+    private final InterningReferenceCache cache = new InterningReferenceCache();
+
+    @Test
+    public void testSharedReference() {
+        final String first = new String("foo");
+        final String second = new String("foo");
+        assertNotSame(first, second);
+
+        assertSame(first, this.cache.getSharedReference(first));
+        assertSame(first, this.cache.getSharedReference(second));
+        assertEquals(1, this.cache.getHitCount());
+        assertEquals(1, this.cache.getMissCount());
+        assertEquals(1, this.cache.getSize());
+    }
+
+    @Test
+    public void testNull() {
+        assertNull(this.cache.getSharedReference(null));
+        assertEquals(0, this.cache.getMissCount());
+    }
+
+    @Test
+    public void testDifferentClasses() {
+        final List<String> list = new ArrayList<>(Arrays.asList("foo", "bar"));
+        final List<String> asList = Arrays.asList("foo", "bar");
+        assertEquals(list, asList);
+
+        assertSame(list, this.cache.getSharedReference(list));
+        // Equal objects of different classes must not be substituted for each other
+        assertSame(asList, this.cache.getSharedReference(asList));
+        assertEquals(0, this.cache.getHitCount());
+        assertEquals(2, this.cache.getSize());
+    }
+
+    @Test
+    public void testWeakEntries() throws InterruptedException {
+        final WeakReference<String> ref = new WeakReference<>(this.cache.getSharedReference(new String("foo")));
+        for (int i = 0; i < 50 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(ref.get());
+
+        // The cache must not have kept the first instance alive, hence an equal object becomes the cached one
+        final String second = new String("foo");
+        assertSame(second, this.cache.getSharedReference(second));
+        assertEquals(0, this.cache.getHitCount());
+        assertEquals(2, this.cache.getMissCount());
+    }
+}